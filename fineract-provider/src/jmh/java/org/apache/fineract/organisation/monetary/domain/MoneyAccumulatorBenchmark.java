@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Totalling installment amounts by chaining {@link Money#plus(Money)} against
+ * a {@link MoneyAccumulator}; run with the gc profiler to compare the bytes
+ * allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAccumulatorBenchmark {
+
+    @Param({ "12", "120", "1200" })
+    public int numberOfInstallments;
+
+    private MonetaryCurrency currency;
+    private List<Money> amounts;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+
+        this.currency = new MonetaryCurrency("USD", 2, null);
+        this.amounts = new ArrayList<>(this.numberOfInstallments);
+        final Random random = new Random(this.numberOfInstallments);
+        for (int i = 0; i < this.numberOfInstallments; i++) {
+            this.amounts.add(Money.of(this.currency, BigDecimal.valueOf(random.nextInt(10000000), 2)));
+        }
+    }
+
+    @Benchmark
+    public Money moneyPlus() {
+        Money total = Money.zero(this.currency);
+        for (final Money amount : this.amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyAccumulator() {
+        final MoneyAccumulator total = MoneyAccumulator.zero(this.currency);
+        for (final Money amount : this.amounts) {
+            total.add(amount);
+        }
+        return total.toMoney();
+    }
+}
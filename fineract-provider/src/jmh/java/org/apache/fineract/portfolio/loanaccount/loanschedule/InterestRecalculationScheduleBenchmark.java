@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule;
+
+import java.math.MathContext;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.LoanScheduleBenchmarkFixture.Scenario;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.DefaultLoanScheduleGeneratorFactory;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Schedule generation with interest recalculation enabled, which is only
+ * supported for declining balance loans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterestRecalculationScheduleBenchmark {
+
+    @Param({ "12", "120" })
+    public int numberOfRepayments;
+
+    @Param({ "WEEKS", "MONTHS" })
+    public PeriodFrequencyType repaymentFrequency;
+
+    private LoanScheduleBenchmarkFixture fixture;
+    private LoanScheduleGenerator generator;
+    private MathContext mc;
+
+    @Setup
+    public void setUp() {
+        this.fixture = new LoanScheduleBenchmarkFixture(InterestMethod.DECLINING_BALANCE, this.numberOfRepayments,
+                this.repaymentFrequency, Scenario.SINGLE_DISBURSEMENT, true);
+        this.generator = new DefaultLoanScheduleGeneratorFactory().create(InterestMethod.DECLINING_BALANCE);
+        this.mc = new MathContext(8, MoneyHelper.getRoundingMode());
+    }
+
+    @Benchmark
+    public LoanScheduleModel generate() {
+        return this.generator.generate(this.mc, this.fixture.newLoanApplicationTerms(), new HashSet<LoanCharge>(),
+                this.fixture.holidayDetail());
+    }
+}
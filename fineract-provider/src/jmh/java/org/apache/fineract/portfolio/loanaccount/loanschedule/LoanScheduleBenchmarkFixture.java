@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.loanschedule;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.fineract.organisation.holiday.domain.Holiday;
+import org.apache.fineract.organisation.holiday.domain.HolidayStatusType;
+import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.apache.fineract.portfolio.common.domain.DaysInMonthType;
+import org.apache.fineract.portfolio.common.domain.DaysInYearType;
+import org.apache.fineract.portfolio.common.domain.PeriodFrequencyType;
+import org.apache.fineract.portfolio.loanaccount.data.DisbursementData;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.data.LoanTermVariationsData;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.apache.fineract.portfolio.loanproduct.domain.AmortizationMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestCalculationPeriodMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.InterestRecalculationCompoundingMethod;
+import org.apache.fineract.portfolio.loanproduct.domain.LoanPreClosureInterestCalculationStrategy;
+import org.apache.fineract.portfolio.loanproduct.domain.RecalculationFrequencyType;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+
+/**
+ * Builds the {@link LoanApplicationTerms} the schedule benchmarks run on,
+ * outside of Spring: entities without public constructors are created
+ * reflectively and {@link MoneyHelper} is given its rounding mode directly.
+ */
+public class LoanScheduleBenchmarkFixture {
+
+    public enum Scenario {
+        SINGLE_DISBURSEMENT, //
+        MULTI_TRANCHE, //
+        HOLIDAYS_AND_WORKING_DAYS;
+    }
+
+    private static final String ALL_DAYS = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU";
+    private static final String WEEK_DAYS = "FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR";
+    private static final int TRANCHES = 3;
+
+    private final ApplicationCurrency applicationCurrency;
+    private final MonetaryCurrency currency;
+    private final InterestMethod interestMethod;
+    private final int numberOfRepayments;
+    private final PeriodFrequencyType repaymentFrequency;
+    private final Scenario scenario;
+    private final boolean interestRecalculation;
+    private final LocalDate disbursementDate;
+    private final BigDecimal principal;
+    private final HolidayDetailDTO holidayDetail;
+
+    public LoanScheduleBenchmarkFixture(final InterestMethod interestMethod, final int numberOfRepayments,
+            final PeriodFrequencyType repaymentFrequency, final Scenario scenario, final boolean interestRecalculation) {
+        initialiseRoundingMode(RoundingMode.HALF_EVEN);
+        this.applicationCurrency = newInstance(ApplicationCurrency.class, new Class<?>[] { String.class, String.class, int.class,
+                Integer.class, String.class, String.class }, "USD", "US Dollar", 2, null, "currency.USD", "$");
+        this.currency = new MonetaryCurrency("USD", 2, null);
+        this.interestMethod = interestMethod;
+        this.numberOfRepayments = numberOfRepayments;
+        this.repaymentFrequency = repaymentFrequency;
+        this.scenario = scenario;
+        this.interestRecalculation = interestRecalculation;
+        // a new application, so interest recalculation sees no past installments
+        this.disbursementDate = LocalDate.now();
+        this.principal = BigDecimal.valueOf(300000);
+        this.holidayDetail = scenario == Scenario.HOLIDAYS_AND_WORKING_DAYS ? new HolidayDetailDTO(true, holidaysUntil(maturityDate()),
+                workingDays(WEEK_DAYS)) : new HolidayDetailDTO(false, new ArrayList<Holiday>(), workingDays(ALL_DAYS));
+    }
+
+    public HolidayDetailDTO holidayDetail() {
+        return this.holidayDetail;
+    }
+
+    /**
+     * Schedule generation updates the terms it is given, so each invocation
+     * needs new ones.
+     */
+    public LoanApplicationTerms newLoanApplicationTerms() {
+        final boolean multiDisburseLoan = this.scenario == Scenario.MULTI_TRANCHE;
+        final List<DisbursementData> disbursementDatas = multiDisburseLoan ? tranches() : new ArrayList<DisbursementData>();
+        final BigDecimal maxOutstandingBalance = multiDisburseLoan ? this.principal : null;
+
+        final Integer repaymentEvery = 1;
+        final BigDecimal annualNominalInterestRate = BigDecimal.valueOf(24);
+        final LocalDate repaymentsStartingFromDate = null;
+        final LocalDate calculatedRepaymentsStartingFromDate = null;
+        final LocalDate interestChargedFromDate = null;
+        final Integer graceOnPrincipalPayment = 0;
+        final Integer recurringMoratoriumOnPrincipalPeriods = 0;
+        final Integer graceOnInterestPayment = 0;
+        final Integer graceOnInterestCharged = 0;
+        final Integer graceOnArrearsAgeing = 0;
+        final BigDecimal emiAmount = null;
+        final RecalculationFrequencyType recalculationFrequencyType = this.interestRecalculation ? RecalculationFrequencyType.SAME_AS_REPAYMENT_PERIOD
+                : null;
+        final InterestRecalculationCompoundingMethod compoundingMethod = this.interestRecalculation ? InterestRecalculationCompoundingMethod.NONE
+                : null;
+        final LoanPreClosureInterestCalculationStrategy preClosureStrategy = this.interestRecalculation ? LoanPreClosureInterestCalculationStrategy.TILL_PRE_CLOSURE_DATE
+                : null;
+
+        return LoanApplicationTerms.assembleFrom(this.applicationCurrency, this.numberOfRepayments * repaymentEvery,
+                this.repaymentFrequency, this.numberOfRepayments, repaymentEvery, this.repaymentFrequency, null, null,
+                AmortizationMethod.EQUAL_INSTALLMENTS, this.interestMethod, annualNominalInterestRate, PeriodFrequencyType.YEARS,
+                annualNominalInterestRate, InterestCalculationPeriodMethod.SAME_AS_REPAYMENT_PERIOD, false,
+                Money.of(this.currency, this.principal), this.disbursementDate, repaymentsStartingFromDate,
+                calculatedRepaymentsStartingFromDate, graceOnPrincipalPayment, recurringMoratoriumOnPrincipalPeriods,
+                graceOnInterestPayment, graceOnInterestCharged, interestChargedFromDate, Money.zero(this.currency), multiDisburseLoan,
+                emiAmount, disbursementDatas, maxOutstandingBalance, graceOnArrearsAgeing, DaysInMonthType.ACTUAL, DaysInYearType.ACTUAL,
+                this.interestRecalculation, recalculationFrequencyType, null, compoundingMethod, null, null, null, null, preClosureStrategy,
+                null, BigDecimal.ZERO, new ArrayList<LoanTermVariationsData>(), false, null, false, this.holidayDetail, false);
+    }
+
+    private List<DisbursementData> tranches() {
+        final List<DisbursementData> tranches = new ArrayList<>(TRANCHES);
+        final int termInDays = Days.daysBetween(this.disbursementDate, maturityDate()).getDays();
+        final BigDecimal trancheAmount = this.principal.divide(BigDecimal.valueOf(TRANCHES));
+        for (int tranche = 0; tranche < TRANCHES; tranche++) {
+            // spread over the first half of the term
+            final LocalDate expectedDate = this.disbursementDate.plusDays(tranche * termInDays / (2 * TRANCHES));
+            tranches.add(new DisbursementData(Long.valueOf(tranche + 1), expectedDate, null, trancheAmount, null, null));
+        }
+        return tranches;
+    }
+
+    private LocalDate maturityDate() {
+        switch (this.repaymentFrequency) {
+            case DAYS:
+                return this.disbursementDate.plusDays(this.numberOfRepayments);
+            case WEEKS:
+                return this.disbursementDate.plusWeeks(this.numberOfRepayments);
+            case MONTHS:
+                return this.disbursementDate.plusMonths(this.numberOfRepayments);
+            default:
+                return this.disbursementDate.plusYears(this.numberOfRepayments);
+        }
+    }
+
+    /**
+     * Two day holidays every six weeks over the term, repayments moved to the
+     * day after.
+     */
+    private List<Holiday> holidaysUntil(final LocalDate maturityDate) {
+        final List<Holiday> holidays = new ArrayList<>();
+        LocalDate fromDate = this.disbursementDate.plusDays(3);
+        while (fromDate.isBefore(maturityDate)) {
+            final LocalDate toDate = fromDate.plusDays(1);
+            holidays.add(newInstance(Holiday.class, new Class<?>[] { String.class, LocalDate.class, LocalDate.class, LocalDate.class,
+                    Integer.class, boolean.class, String.class, Set.class }, "holiday " + fromDate, fromDate, toDate, toDate.plusDays(1),
+                    HolidayStatusType.ACTIVE.getValue(), false, "benchmark holiday", null));
+            fromDate = fromDate.plusWeeks(6);
+        }
+        return holidays;
+    }
+
+    private static WorkingDays workingDays(final String recurrence) {
+        return newInstance(WorkingDays.class, new Class<?>[] { String.class, Integer.class, Boolean.class }, recurrence,
+                RepaymentRescheduleType.MOVE_TO_NEXT_WORKING_DAY.getValue(), Boolean.FALSE);
+    }
+
+    private static void initialiseRoundingMode(final RoundingMode roundingMode) {
+        try {
+            final Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+            field.setAccessible(true);
+            field.set(null, roundingMode);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T newInstance(final Class<T> type, final Class<?>[] parameterTypes, final Object... arguments) {
+        try {
+            final Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor.newInstance(arguments);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
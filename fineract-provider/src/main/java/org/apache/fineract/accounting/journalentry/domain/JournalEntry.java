@@ -184,6 +184,14 @@ public class JournalEntry extends AbstractAuditableCustom<AppUser, Long> {
         this.reversed = reversed;
     }
 
+    public String getDescription() {
+        return this.description;
+    }
+
+    public boolean isManualEntry() {
+        return this.manualEntry;
+    }
+
     public String getReferenceNumber() {
         return this.referenceNumber;
     }
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds back the journal entries posted on the current thread between
+ * {@link #open()} and {@link #write()} and inserts them with one JDBC batch,
+ * for bulk transactions such as a collection sheet save. Outside of an open
+ * batch {@link AccountingProcessorHelper} saves each entry through JPA.
+ * 
+ * The held back entries are only written at {@link #write()}, so nothing
+ * posting in between may look them up; the bulk paths only create entries.
+ * Their ids are generated by the database and are not set on the entities.
+ */
+@Component
+public class JournalEntryBatchWriter {
+
+    private static final String INSERT_JOURNAL_ENTRY = "insert into acc_gl_journal_entry (account_id, office_id, transaction_id,"
+            + " reversed, manual_entry, entry_date, type_enum, amount, description, entity_type_enum, entity_id, ref_num,"
+            + " currency_code, loan_transaction_id, savings_transaction_id, client_transaction_id, payment_details_id,"
+            + " share_transaction_id, createdby_id, lastmodifiedby_id, created_date, lastmodified_date)"
+            + " values (?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final ThreadLocal<List<JournalEntry>> heldBackEntries = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformSecurityContext context;
+
+    @Autowired
+    public JournalEntryBatchWriter(final RoutingDataSource dataSource, final PlatformSecurityContext context) {
+        this(new JdbcTemplate(dataSource), context);
+    }
+
+    JournalEntryBatchWriter(final JdbcTemplate jdbcTemplate, final PlatformSecurityContext context) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.context = context;
+    }
+
+    public void open() {
+        if (heldBackEntries.get() != null) { throw new IllegalStateException("A journal entry batch is already open on this thread"); }
+        heldBackEntries.set(new ArrayList<JournalEntry>());
+    }
+
+    /**
+     * @return false when no batch is open and the entry has to be saved
+     *         straight away
+     */
+    boolean holdBack(final JournalEntry journalEntry) {
+        final List<JournalEntry> entries = heldBackEntries.get();
+        if (entries == null) { return false; }
+        entries.add(journalEntry);
+        return true;
+    }
+
+    /**
+     * Inserts the entries held back since {@link #open()} and closes the
+     * batch.
+     * 
+     * @return the number of entries inserted
+     */
+    public int write() {
+        final List<JournalEntry> entries = heldBackEntries.get();
+        heldBackEntries.remove();
+        if (entries == null || entries.isEmpty()) { return 0; }
+
+        final Long userId = this.context.authenticatedUser().getId();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final List<Object[]> params = new ArrayList<>(entries.size());
+        for (final JournalEntry entry : entries) {
+            params.add(new Object[] { entry.getGlAccount().getId(), entry.getOffice().getId(), entry.getTransactionId(),
+                    entry.isManualEntry(), new java.sql.Date(entry.getTransactionDate().getTime()), entry.getType(), entry.getAmount(),
+                    entry.getDescription(), entry.getEntityType(), entry.getEntityId(), entry.getReferenceNumber(),
+                    entry.getCurrencyCode(), entry.getLoanTransaction() == null ? null : entry.getLoanTransaction().getId(),
+                    entry.getSavingsTransaction() == null ? null : entry.getSavingsTransaction().getId(),
+                    entry.getClientTransaction() == null ? null : entry.getClientTransaction().getId(),
+                    entry.getPaymentDetails() == null ? null : entry.getPaymentDetails().getId(), entry.getShareTransactionId(), userId,
+                    userId, now, now });
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_JOURNAL_ENTRY, params);
+        return entries.size();
+    }
+
+    /**
+     * Drops whatever is still held back, for the failure path of the bulk
+     * transaction.
+     */
+    public void close() {
+        heldBackEntries.remove();
+    }
+}
@@ -246,9 +246,12 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             final Boolean onlyManualEntries, final Date fromDate, final Date toDate, final String transactionId, final Integer entityType,
             final JournalEntryAssociationParametersData associationParametersData) {
 
+        final boolean keysetPaging = searchParameters.isKeysetPaging();
+        final Long cursorKey = searchParameters.getCursorKey();
+
         GLJournalEntryMapper rm = new GLJournalEntryMapper(associationParametersData);
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(PaginationHelper.selectClause(keysetPaging, searchParameters.getTotalCountMode()));
         sqlBuilder.append(rm.schema());
 
         final Object[] objectArray = new Object[15];
@@ -354,6 +357,19 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             whereClose = " and ";
         }
 
+        if (keysetPaging) {
+            final boolean descending = searchParameters.isSortOrderDescending();
+            if (cursorKey != null) {
+                sqlBuilder.append(whereClose).append(PaginationHelper.keysetPredicate("journalEntry.id", descending));
+                objectArray[arrayPos] = cursorKey;
+                arrayPos = arrayPos + 1;
+            }
+            sqlBuilder.append(PaginationHelper.keysetOrderAndLimit("journalEntry.id", descending, searchParameters.getLimit()));
+            final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
+            return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), finalObjectArray, "id",
+                    searchParameters.getLimit(), searchParameters.getTotalCountMode(), rm);
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -373,7 +389,8 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
 
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
         final String sqlCountRows = "SELECT FOUND_ROWS()";
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray, rm);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray, rm,
+                searchParameters.getTotalCountMode());
     }
 
     @Override
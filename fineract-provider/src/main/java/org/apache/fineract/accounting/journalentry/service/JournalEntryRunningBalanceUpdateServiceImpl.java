@@ -26,87 +26,131 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.fineract.accounting.common.AccountingEnumerations;
 import org.apache.fineract.accounting.glaccount.domain.GLAccountType;
 import org.apache.fineract.accounting.journalentry.api.JournalEntryJsonInputParams;
-import org.apache.fineract.accounting.journalentry.data.JournalEntryData;
 import org.apache.fineract.accounting.journalentry.data.JournalEntryDataValidator;
 import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
-import org.apache.fineract.infrastructure.core.data.EnumOptionData;
-import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.exception.GeneralPlatformDomainRuleException;
 import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.JobRunStatisticsContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.organisation.office.domain.Office;
 import org.apache.fineract.organisation.office.domain.OfficeRepository;
 import org.apache.fineract.organisation.office.exception.OfficeNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Running balances are kept per GL account for the organization and per GL
+ * account and office for offices, both in (entry_date, id) order. Each
+ * account is brought up to date on its own, starting from its first entry
+ * whose running balance is not calculated yet and reading and updating its
+ * entries a page at a time with prepared batch updates. Every page is
+ * committed in its own transaction and its entries are marked calculated
+ * together with their balances, so an interrupted run resumes from the last
+ * committed page of each account.
+ */
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
 
     private final static Logger logger = LoggerFactory.getLogger(JournalEntryRunningBalanceUpdateServiceImpl.class);
 
+    private static final int ENTRY_PAGE_SIZE = 1000;
+    // accounts differ widely in their number of entries and charts of
+    // accounts are small, so every account is a partition of its own
+    private static final int ACCOUNTS_PER_PARTITION = 1;
+
     private final JdbcTemplate jdbcTemplate;
 
+    private final TransactionTemplate transactionTemplate;
+
     private final OfficeRepository officeRepository;
 
     private final JournalEntryDataValidator dataValidator;
 
     private final FromJsonHelper fromApiJsonHelper;
 
-    private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
-    
-    // if a limit is not added to the running balance select statements below and the resultset is more than 400,000, 
-    // the script will eat up all of the server memory
-    private final String selectRunningBalanceSqlLimit = "limit 0, 10000";
-    
-    private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where office_id=? and entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
-
-    private final String organizationRunningBalanceSql = "select je.organization_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
-
-    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
-            + "from acc_gl_journal_entry je "
-            + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 "
-            + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
-            + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC " + selectRunningBalanceSqlLimit;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+
+    private final RunningBalanceEntryMapper entryMapper = new RunningBalanceEntryMapper();
 
     @Autowired
-    public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepository officeRepository,
-            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper) {
-        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate,
+            final OfficeRepository officeRepository, final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper,
+            final PartitionedJobExecutor partitionedJobExecutor) {
+        this(new JdbcTemplate(dataSource), transactionTemplate, officeRepository, dataValidator, fromApiJsonHelper, partitionedJobExecutor);
+    }
+
+    JournalEntryRunningBalanceUpdateServiceImpl(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate,
+            final OfficeRepository officeRepository, final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper,
+            final PartitionedJobExecutor partitionedJobExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
         this.officeRepository = officeRepository;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
+    /**
+     * GL accounts are independent of each other for both organization and
+     * office running balances, so they are the unit processed in parallel.
+     */
     @Override
     @CronTarget(jobName = JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE)
-    public void updateRunningBalance() {
-        String dateFinder = "select MIN(je.entry_date) as entityDate from acc_gl_journal_entry  je "
-                + "where je.is_running_balance_calculated=0 ";
+    public void updateRunningBalance() throws JobExecutionException {
+        final JobPartitionSource accountSource = new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                final String sql = "select distinct je.account_id from acc_gl_journal_entry je "
+                        + "where je.is_running_balance_calculated = 0 and je.account_id > ? order by je.account_id limit ?";
+                return JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.queryForList(sql, Long.class, lastProcessedId,
+                        limit);
+            }
+        };
+
+        final AtomicLong updatedEntries = new AtomicLong();
+        final JobPartitionTask accountTask = new JobPartitionTask() {
+
+            @Override
+            public void process(final Long accountId) {
+                updateRunningBalances(accountId, null, updatedEntries);
+            }
+
+            @Override
+            public String failureMessage(final Long accountId, final Throwable realCause) {
+                return "Failed to update running balances of GL account " + accountId + " with message " + realCause.getMessage();
+            }
+        };
         try {
-            Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class);
-            updateOrganizationRunningBalance(entityDate);
-        } catch (EmptyResultDataAccessException e) {
-            logger.debug("No results found for updation of running balance ");
+            this.partitionedJobExecutor.executeWithoutPartitionTransaction(JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE, accountSource,
+                    accountTask, ACCOUNTS_PER_PARTITION);
+        } finally {
+            final String changes = "journal entries with running balances updated: " + updatedEntries.get();
+            final String runStatistics = JobRunStatisticsContextUtil.getRunStatistics();
+            JobRunStatisticsContextUtil.setRunStatistics(runStatistics == null ? changes : changes + System.lineSeparator()
+                    + runStatistics);
+            logger.info(ThreadLocalContextUtil.getTenant().getName() + ": " + changes);
         }
     }
 
@@ -118,118 +162,124 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         CommandProcessingResultBuilder commandProcessingResultBuilder = new CommandProcessingResultBuilder().withCommandId(command
                 .commandId());
         if (officeId == null) {
-            updateRunningBalance();
+            try {
+                updateRunningBalance();
+            } catch (final JobExecutionException e) {
+                throw new GeneralPlatformDomainRuleException("error.msg.running.balance.update.failed", e.getMessage());
+            }
         } else {
             final Office office = this.officeRepository.findOne(officeId);
             if (office == null) { throw new OfficeNotFoundException(officeId); }
 
-            String dateFinder = "select MIN(je.entry_date) as entityDate " + "from acc_gl_journal_entry  je "
-                    + "where je.is_running_balance_calculated=0  and je.office_id=?";
-            try {
-                Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class, officeId);
-                updateRunningBalance(officeId, entityDate);
-            } catch (EmptyResultDataAccessException e) {
-                logger.debug("No results found for updation of office running balance with office id:" + officeId);
+            // walks the entries of the office in (account, entry_date, id)
+            // order, one account at a time
+            final String sql = "select distinct je.account_id from acc_gl_journal_entry je "
+                    + "where je.office_id = ? and je.is_running_balance_calculated = 0 order by je.account_id";
+            final List<Long> accountIds = this.jdbcTemplate.queryForList(sql, Long.class, officeId);
+            final AtomicLong updatedEntries = new AtomicLong();
+            for (final Long accountId : accountIds) {
+                updateRunningBalances(accountId, officeId, updatedEntries);
             }
+            logger.debug("Updated office running balance of " + updatedEntries.get() + " entries of office " + officeId);
             commandProcessingResultBuilder.withOfficeId(officeId);
         }
         return commandProcessingResultBuilder.build();
     }
 
-    private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+    /**
+     * Recalculates the running balances of a GL account from its first entry
+     * that is not calculated yet. Without an office both the organization and
+     * office running balances are updated and the entries are marked
+     * calculated; with an office only the office running balance of that
+     * office's entries is updated, as before.
+     * 
+     * Each page is written in its own transaction, or in the caller's when
+     * there is one, and counted in updatedEntries once written.
+     */
+    private void updateRunningBalances(final Long accountId, final Long officeId, final AtomicLong updatedEntries) {
+        final String firstEntrySql = "select je.entry_date as entryDate, je.id as id from acc_gl_journal_entry je "
+                + "where je.account_id = ? and je.is_running_balance_calculated = 0" + (officeId == null ? "" : " and je.office_id = ?")
+                + " order by je.entry_date, je.id limit 1";
+        final Object[] firstEntryParams = officeId == null ? new Object[] { accountId } : new Object[] { accountId, officeId };
+        final List<EntryPosition> firstEntries = this.jdbcTemplate.query(firstEntrySql, new EntryPositionMapper(), firstEntryParams);
+        if (firstEntries.isEmpty()) { return; }
+        final EntryPosition start = firstEntries.get(0);
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : list) {
-        	Long accountId = Long.parseLong(entries.get("accountId").toString()); //Drizzle is returning Big Integer where as MySQL returns Long.
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
-        }
+        final Integer accountTypeId = this.jdbcTemplate.queryForObject("select classification_enum from acc_gl_account where id = ?",
+                Integer.class, accountId);
+        final GLAccountType accountType = GLAccountType.fromInt(accountTypeId);
 
-        List<Map<String, Object>> officesRunningBalanceList = jdbcTemplate.queryForList(officesRunningBalanceSql, entityDate, entityDate);
-        for (Map<String, Object> entries : officesRunningBalanceList) {
-            Long accountId = Long.parseLong(entries.get("accountId").toString());
-            Long officeId = Long.parseLong(entries.get("officeId").toString());
-            Map<Long, BigDecimal> runningBalance = null;
-            if (officesRunningBalance.containsKey(officeId)) {
-                runningBalance = officesRunningBalance.get(officeId);
-            } else {
-                runningBalance = new HashMap<>();
-                officesRunningBalance.put(officeId, runningBalance);
-            }
-            if (!runningBalance.containsKey(accountId)) {
-                runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
+        BigDecimal organizationRunningBalance = officeId == null ? retrieveOrganizationRunningBalanceBefore(accountId, start) : null;
+        final Map<Long, BigDecimal> officeRunningBalances = new HashMap<>();
+
+        final StringBuilder pageSql = new StringBuilder(300).append(this.entryMapper.schema()).append(" where je.account_id = ?");
+        if (officeId != null) {
+            pageSql.append(" and je.office_id = ?");
         }
+        pageSql.append(" and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) order by je.entry_date, je.id limit ")
+                .append(ENTRY_PAGE_SIZE);
+        final String updateSql = officeId == null ? "update acc_gl_journal_entry set is_running_balance_calculated = 1, "
+                + "organization_running_balance = ?, office_running_balance = ? where id = ?"
+                : "update acc_gl_journal_entry set office_running_balance = ? where id = ?";
 
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            // run a batch update of 1000 SQL statements at a time
-            final Integer batchUpdateSize = 1000;
-            ArrayList<String> updateSql = new ArrayList<>();
-            int batchIndex = 0;
-            for (int index = 0 ; index < entryDatas.size() ; index++) {
-            	JournalEntryData entryData = entryDatas.get(index) ;
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
+        // the first page starts at the first uncalculated entry itself
+        Date lastEntryDate = start.getEntryDate();
+        Long lastId = start.getId() - 1;
+        List<RunningBalanceEntry> entries;
+        do {
+            final Object[] pageParams = officeId == null ? new Object[] { accountId, lastEntryDate, lastEntryDate, lastId }
+                    : new Object[] { accountId, officeId, lastEntryDate, lastEntryDate, lastId };
+            entries = this.jdbcTemplate.query(pageSql.toString(), this.entryMapper, pageParams);
+
+            final List<Object[]> batchParams = new ArrayList<>(entries.size());
+            for (final RunningBalanceEntry entry : entries) {
+                BigDecimal officeRunningBalance = officeRunningBalances.get(entry.getOfficeId());
+                if (officeRunningBalance == null) {
+                    officeRunningBalance = retrieveOfficeRunningBalanceBefore(accountId, entry.getOfficeId(), start);
                 }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql.add(sql) ;
-                batchIndex++ ;
-                if (batchIndex == batchUpdateSize || index == entryDatas.size()-1) {
-                    // run a batch update of the 1000 update SQL statements
-                	String[] batch = new String[updateSql.size()] ;
-                	updateSql.toArray(batch) ;
-                    this.jdbcTemplate.batchUpdate(batch);
-                    // reset counter and string array
-                    batchIndex = 0;
-                    updateSql.clear();
+                officeRunningBalance = applyEntry(accountType, entry, officeRunningBalance);
+                officeRunningBalances.put(entry.getOfficeId(), officeRunningBalance);
+                if (officeId == null) {
+                    organizationRunningBalance = applyEntry(accountType, entry, organizationRunningBalance);
+                    batchParams.add(new Object[] { organizationRunningBalance, officeRunningBalance, entry.getId() });
+                } else {
+                    batchParams.add(new Object[] { officeRunningBalance, entry.getId() });
                 }
             }
-        }
+            if (!batchParams.isEmpty()) {
+                this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
 
+                    @Override
+                    protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                        JournalEntryRunningBalanceUpdateServiceImpl.this.jdbcTemplate.batchUpdate(updateSql, batchParams);
+                    }
+                });
+                updatedEntries.addAndGet(batchParams.size());
+                final RunningBalanceEntry lastEntry = entries.get(entries.size() - 1);
+                lastEntryDate = lastEntry.getEntryDate();
+                lastId = lastEntry.getId();
+            }
+        } while (entries.size() == ENTRY_PAGE_SIZE);
     }
 
-    private void updateRunningBalance(Long officeId, Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
+    private BigDecimal retrieveOrganizationRunningBalanceBefore(final Long accountId, final EntryPosition position) {
+        final String sql = "select je.organization_running_balance from acc_gl_journal_entry je where je.account_id = ? "
+                + "and (je.entry_date < ? or (je.entry_date = ? and je.id < ?)) order by je.entry_date desc, je.id desc limit 1";
+        final List<BigDecimal> balances = this.jdbcTemplate.queryForList(sql, BigDecimal.class, accountId, position.getEntryDate(),
+                position.getEntryDate(), position.getId());
+        return balances.isEmpty() ? BigDecimal.ZERO : balances.get(0);
+    }
 
-        List<Map<String, Object>> list = jdbcTemplate.queryForList(officeRunningBalanceSql, officeId, entityDate, officeId, entityDate);
-        for (Map<String, Object> entries : list) {
-            Long accountId = (Long) entries.get("accountId");
-            if (!runningBalanceMap.containsKey(accountId)) {
-                runningBalanceMap.put(accountId, (BigDecimal) entries.get("runningBalance"));
-            }
-        }
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
-                officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
-        for (JournalEntryData entryData : entryDatas) {
-            BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
-        }
-        this.jdbcTemplate.batchUpdate(updateSql);
+    private BigDecimal retrieveOfficeRunningBalanceBefore(final Long accountId, final Long officeId, final EntryPosition position) {
+        final String sql = "select je.office_running_balance from acc_gl_journal_entry je where je.office_id = ? and je.account_id = ? "
+                + "and (je.entry_date < ? or (je.entry_date = ? and je.id < ?)) order by je.entry_date desc, je.id desc limit 1";
+        final List<BigDecimal> balances = this.jdbcTemplate.queryForList(sql, BigDecimal.class, officeId, accountId,
+                position.getEntryDate(), position.getEntryDate(), position.getId());
+        return balances.isEmpty() ? BigDecimal.ZERO : balances.get(0);
     }
 
-    private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
-        BigDecimal runningBalance = BigDecimal.ZERO;
-        if (runningBalanceMap.containsKey(entry.getGlAccountId())) {
-            runningBalance = runningBalanceMap.get(entry.getGlAccountId());
-        }
-        GLAccountType accounttype = GLAccountType.fromInt(entry.getGlAccountType().getId().intValue());
-        JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType().getId().intValue());
+    private BigDecimal applyEntry(final GLAccountType accounttype, final RunningBalanceEntry entry, final BigDecimal runningBalance) {
+        final JournalEntryType entryType = JournalEntryType.fromInt(entry.getEntryType());
         boolean isIncrease = false;
         switch (accounttype) {
             case ASSET:
@@ -258,46 +308,74 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 }
             break;
         }
-        if (isIncrease) {
-            runningBalance = runningBalance.add(entry.getAmount());
-        } else {
-            runningBalance = runningBalance.subtract(entry.getAmount());
+        if (isIncrease) { return runningBalance.add(entry.getAmount()); }
+        return runningBalance.subtract(entry.getAmount());
+    }
+
+    private static class EntryPosition {
+
+        private final Date entryDate;
+        private final Long id;
+
+        EntryPosition(final Date entryDate, final Long id) {
+            this.entryDate = entryDate;
+            this.id = id;
+        }
+
+        public Date getEntryDate() {
+            return this.entryDate;
+        }
+
+        public Long getId() {
+            return this.id;
         }
-        runningBalanceMap.put(entry.getGlAccountId(), runningBalance);
-        return runningBalance;
     }
 
-    private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
+    private static final class RunningBalanceEntry extends EntryPosition {
 
-        public String officeRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
+        private final Long officeId;
+        private final int entryType;
+        private final BigDecimal amount;
+
+        RunningBalanceEntry(final Date entryDate, final Long id, final Long officeId, final int entryType, final BigDecimal amount) {
+            super(entryDate, id);
+            this.officeId = officeId;
+            this.entryType = entryType;
+            this.amount = amount;
+        }
+
+        public Long getOfficeId() {
+            return this.officeId;
         }
 
-        public String organizationRunningBalanceSchema() {
-            return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
-                    + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+        public int getEntryType() {
+            return this.entryType;
         }
 
+        public BigDecimal getAmount() {
+            return this.amount;
+        }
+    }
+
+    private static final class EntryPositionMapper implements RowMapper<EntryPosition> {
+
         @Override
-        public JournalEntryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
-
-            final Long id = rs.getLong("id");
-            final Long glAccountId = rs.getLong("glAccountId");
-            final Long officeId = rs.getLong("officeId");
-            final int accountTypeId = JdbcSupport.getInteger(rs, "classification");
-            final EnumOptionData accountType = AccountingEnumerations.gLAccountType(accountTypeId);
-            final BigDecimal amount = rs.getBigDecimal("amount");
-            final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
-            final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
-
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null, null);
+        public EntryPosition mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new EntryPosition(rs.getDate("entryDate"), rs.getLong("id"));
         }
     }
 
+    private static final class RunningBalanceEntryMapper implements RowMapper<RunningBalanceEntry> {
+
+        public String schema() {
+            return "select je.id as id, je.entry_date as entryDate, je.office_id as officeId, je.type_enum as entryType, "
+                    + "je.amount as amount from acc_gl_journal_entry je";
+        }
+
+        @Override
+        public RunningBalanceEntry mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            return new RunningBalanceEntry(rs.getDate("entryDate"), rs.getLong("id"), rs.getLong("officeId"), rs.getInt("entryType"),
+                    rs.getBigDecimal("amount"));
+        }
+    }
 }
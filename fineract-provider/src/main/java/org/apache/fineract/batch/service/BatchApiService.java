@@ -49,6 +49,19 @@ public interface BatchApiService {
      */
     List<BatchResponse> handleBatchRequestsWithoutEnclosingTransaction(List<BatchRequest> requestList, UriInfo uriInfo);
 
+    /**
+     * Returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s
+     * like {@link #handleBatchRequestsWithoutEnclosingTransaction(List, UriInfo)}
+     * but executes independent requests, and the requests depending on them,
+     * concurrently. It will be used when the Query Parameter "parallel" is set
+     * to 'true' and "enclosingTransaction" is not.
+     * 
+     * @param requestList
+     * @param uriInfo
+     * @return List<BatchResponse>
+     */
+    List<BatchResponse> handleBatchRequestsInParallel(List<BatchRequest> requestList, UriInfo uriInfo);
+
     /**
      * returns a list of {@link org.apache.fineract.batch.domain.BatchResponse}s
      * by getting the appropriate CommandStrategy for every
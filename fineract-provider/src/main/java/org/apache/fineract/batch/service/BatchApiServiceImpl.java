@@ -21,7 +21,13 @@ package org.apache.fineract.batch.service;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.annotation.PreDestroy;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
@@ -34,7 +40,12 @@ import org.apache.fineract.batch.domain.BatchResponse;
 import org.apache.fineract.batch.exception.ErrorHandler;
 import org.apache.fineract.batch.exception.ErrorInfo;
 import org.apache.fineract.batch.service.ResolutionHelper.BatchRequestNode;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
@@ -62,7 +73,17 @@ public class BatchApiServiceImpl implements BatchApiService {
     private final CommandStrategyProvider strategyProvider;
     private final ResolutionHelper resolutionHelper;
     private final TransactionTemplate transactionTemplate;
-    private List<BatchResponse> checkList = new ArrayList<>();
+
+    /**
+     * Number of root requests (together with the requests depending on them)
+     * executed at the same time by
+     * {@link #handleBatchRequestsInParallel(List, UriInfo)}, shared by all
+     * concurrent batches.
+     */
+    private static final int PARALLEL_WORKER_THREADS = 8;
+
+    private final ExecutorService parallelExecutor = Executors.newFixedThreadPool(PARALLEL_WORKER_THREADS,
+            new CustomizableThreadFactory("batch-api-"));
 
     /**
      * Constructs a 'BatchApiServiceImpl' with an argument of
@@ -80,6 +101,11 @@ public class BatchApiServiceImpl implements BatchApiService {
         this.transactionTemplate = transactionTemplate;
     }
 
+    @PreDestroy
+    public void shutdown() {
+        this.parallelExecutor.shutdownNow();
+    }
+
     /**
      * Returns the response list by getting a proper
      * {@link org.apache.fineract.batch.command.CommandStrategy}. execute() method
@@ -94,17 +120,93 @@ public class BatchApiServiceImpl implements BatchApiService {
         final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
 
         final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
-        checkList.clear();
 
         for (BatchRequestNode rootNode : batchRequestNodes) {
-            final BatchRequest rootRequest = rootNode.getRequest();
-            final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(CommandContext
-                    .resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
-            final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
+            responseList.addAll(this.processRootRequest(rootNode, uriInfo));
+        }
+
+        return sortByRequestId(responseList);
+    }
+
+    /**
+     * Same as {@link #handleBatchRequests(List, UriInfo)} but the root
+     * requests, which do not depend on each other, are executed concurrently.
+     * Requests depending on a root are still executed in order after it on the
+     * same thread. Tenant, authentication and auth token of the calling thread
+     * are propagated to the worker threads.
+     * 
+     * @param requestList
+     * @param uriInfo
+     * @return List<BatchResponse>
+     */
+    private List<BatchResponse> handleBatchRequestsConcurrently(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        final List<BatchRequestNode> batchRequestNodes = this.resolutionHelper.getDependingRequests(requestList);
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String authToken = ThreadLocalContextUtil.getAuthToken();
+        final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+        final List<Future<List<BatchResponse>>> futures = new ArrayList<>(batchRequestNodes.size());
+        for (final BatchRequestNode rootNode : batchRequestNodes) {
+            futures.add(this.parallelExecutor.submit(new Callable<List<BatchResponse>>() {
+
+                @Override
+                public List<BatchResponse> call() {
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    ThreadLocalContextUtil.setAuthToken(authToken);
+                    SecurityContextHolder.setContext(securityContext);
+                    try {
+                        return processRootRequest(rootNode, uriInfo);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        ThreadLocalContextUtil.setAuthToken(null);
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }
+            }));
+        }
+
+        final List<BatchResponse> responseList = new ArrayList<>(requestList.size());
+        try {
+            for (final Future<List<BatchResponse>> future : futures) {
+                responseList.addAll(future.get());
+            }
+        } catch (final InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for batch requests to complete", e);
+        } catch (final ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof RuntimeException) { throw (RuntimeException) e.getCause(); }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        return sortByRequestId(responseList);
+    }
 
-            responseList.add(rootResponse);
-            responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+    private void cancel(final List<Future<List<BatchResponse>>> futures) {
+        for (final Future<List<BatchResponse>> future : futures) {
+            future.cancel(true);
         }
+    }
+
+    private List<BatchResponse> processRootRequest(final BatchRequestNode rootNode, final UriInfo uriInfo) {
+
+        final List<BatchResponse> responseList = new ArrayList<>();
+
+        final BatchRequest rootRequest = rootNode.getRequest();
+        final CommandStrategy commandStrategy = this.strategyProvider.getCommandStrategy(CommandContext
+                .resource(rootRequest.getRelativeUrl()).method(rootRequest.getMethod()).build());
+        final BatchResponse rootResponse = commandStrategy.execute(rootRequest, uriInfo);
+
+        responseList.add(rootResponse);
+        responseList.addAll(this.processChildRequests(rootNode, rootResponse, uriInfo));
+
+        return responseList;
+    }
+
+    private List<BatchResponse> sortByRequestId(final List<BatchResponse> responseList) {
 
         Collections.sort(responseList, new Comparator<BatchResponse>() {
 
@@ -114,9 +216,7 @@ public class BatchApiServiceImpl implements BatchApiService {
             }
         });
 
-        checkList = responseList;
         return responseList;
-
     }
 
     private List<BatchResponse> processChildRequests(final BatchRequestNode rootRequest, BatchResponse rootResponse, UriInfo uriInfo) {
@@ -173,16 +273,28 @@ public class BatchApiServiceImpl implements BatchApiService {
         return handleBatchRequests(requestList, uriInfo);
     }
 
+    @Override
+    public List<BatchResponse> handleBatchRequestsInParallel(final List<BatchRequest> requestList, final UriInfo uriInfo) {
+
+        return handleBatchRequestsConcurrently(requestList, uriInfo);
+    }
+
     @Override
     public List<BatchResponse> handleBatchRequestsWithEnclosingTransaction(final List<BatchRequest> requestList, final UriInfo uriInfo) {
 
+        // responses of the batch, kept to report the first erroneous request
+        // when the transaction is rolled back
+        final List<BatchResponse> checkList = new ArrayList<>();
+
         try {
             return this.transactionTemplate.execute(new TransactionCallback<List<BatchResponse>>() {
 
                 @Override
                 public List<BatchResponse> doInTransaction(TransactionStatus status) {
                     try {
-                        return handleBatchRequests(requestList, uriInfo);
+                        final List<BatchResponse> responseList = handleBatchRequests(requestList, uriInfo);
+                        checkList.addAll(responseList);
+                        return responseList;
                     } catch (RuntimeException ex) {
 
                         ErrorInfo e = ErrorHandler.handler(ex);
@@ -211,7 +323,6 @@ public class BatchApiServiceImpl implements BatchApiService {
                 }
             }
 
-            checkList.clear();
             List<BatchResponse> errResponseList = new ArrayList<>();
             errResponseList.add(errResponse);
 
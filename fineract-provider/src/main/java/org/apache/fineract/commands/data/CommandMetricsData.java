@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.data;
+
+import java.util.Collection;
+
+import org.joda.time.DateTime;
+
+/**
+ * Immutable data object with the command processing metrics of the current
+ * tenant since this server started.
+ */
+@SuppressWarnings("unused")
+public class CommandMetricsData {
+
+    private final DateTime collectingSince;
+    private final Long processed;
+    private final Long failed;
+    private final Long awaitingApproval;
+    private final Long inFlight;
+    private final Long makerCheckerQueueDepth;
+    private final Collection<CommandTypeMetricsData> commands;
+
+    public CommandMetricsData(final DateTime collectingSince, final Long processed, final Long failed, final Long awaitingApproval,
+            final Long inFlight, final Long makerCheckerQueueDepth, final Collection<CommandTypeMetricsData> commands) {
+        this.collectingSince = collectingSince;
+        this.processed = processed;
+        this.failed = failed;
+        this.awaitingApproval = awaitingApproval;
+        this.inFlight = inFlight;
+        this.makerCheckerQueueDepth = makerCheckerQueueDepth;
+        this.commands = commands;
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.data;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Immutable data object with the metrics of one entityName and actionName
+ * pair. Latencies are in milliseconds; the histogram maps the upper bound of
+ * each bucket to the number of commands that completed within it, the last
+ * bucket (+Inf) counts everything slower.
+ */
+@SuppressWarnings("unused")
+public class CommandTypeMetricsData {
+
+    private final String entityName;
+    private final String actionName;
+    private final Long processed;
+    private final Long failed;
+    private final Long awaitingApproval;
+    private final Long inFlight;
+    private final BigDecimal meanMillis;
+    private final BigDecimal maxMillis;
+    private final Long p50Millis;
+    private final Long p95Millis;
+    private final Long p99Millis;
+    private final BigDecimal handlerMeanMillis;
+    private final BigDecimal auditMeanMillis;
+    private final BigDecimal postProcessingMeanMillis;
+    private final BigDecimal hooksMeanMillis;
+    private final Map<String, Long> latencyHistogram;
+
+    public CommandTypeMetricsData(final String entityName, final String actionName, final Long processed, final Long failed,
+            final Long awaitingApproval, final Long inFlight, final BigDecimal meanMillis, final BigDecimal maxMillis,
+            final Long p50Millis, final Long p95Millis, final Long p99Millis, final BigDecimal handlerMeanMillis,
+            final BigDecimal auditMeanMillis, final BigDecimal postProcessingMeanMillis, final BigDecimal hooksMeanMillis,
+            final Map<String, Long> latencyHistogram) {
+        this.entityName = entityName;
+        this.actionName = actionName;
+        this.processed = processed;
+        this.failed = failed;
+        this.awaitingApproval = awaitingApproval;
+        this.inFlight = inFlight;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.handlerMeanMillis = handlerMeanMillis;
+        this.auditMeanMillis = auditMeanMillis;
+        this.postProcessingMeanMillis = postProcessingMeanMillis;
+        this.hooksMeanMillis = hooksMeanMillis;
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public String getActionName() {
+        return this.actionName;
+    }
+
+    public Long getProcessed() {
+        return this.processed;
+    }
+
+    public Long getFailed() {
+        return this.failed;
+    }
+
+    public Long getAwaitingApproval() {
+        return this.awaitingApproval;
+    }
+
+    public Long getInFlight() {
+        return this.inFlight;
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.commands.domain.CommandProcessingResultType;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves processed audit entries older than the configured age from
+ * m_portfolio_command_source to m_portfolio_command_source_archive, a
+ * compressed table partitioned by month of made_on_date. Entries still
+ * awaiting approval stay in the live table whatever their age so the checker
+ * inbox is unaffected.
+ */
+@Service
+public class AuditArchiveWritePlatformServiceImpl implements AuditArchiveWritePlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(AuditArchiveWritePlatformServiceImpl.class);
+
+    static final String LIVE_TABLE = "m_portfolio_command_source";
+    static final String ARCHIVE_TABLE = "m_portfolio_command_source_archive";
+
+    private static final int ARCHIVE_CHUNK_SIZE = 1000;
+
+    private static final String COLUMNS = "id, action_name, entity_name, office_id, group_id, client_id, loan_id, savings_account_id,"
+            + " api_get_url, resource_id, subresource_id, command_as_json, maker_id, made_on_date, checker_id, checked_on_date,"
+            + " processing_result_enum, product_id, transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConfigurationDomainService configurationDomainService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public AuditArchiveWritePlatformServiceImpl(final RoutingDataSource dataSource,
+            final ConfigurationDomainService configurationDomainService, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.configurationDomainService = configurationDomainService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.ARCHIVE_AUDIT_ENTRIES)
+    public void archiveAuditEntries() throws JobExecutionException {
+
+        final LocalDate cutoff = DateUtils.getLocalDateOfTenant().minusDays(this.configurationDomainService.retrieveAuditArchiveAfterDays());
+        final Integer awaitingApproval = CommandProcessingResultType.AWAITING_APPROVAL.getValue();
+
+        final Date oldestEntry = this.jdbcTemplate.queryForObject("select min(aud.made_on_date) from " + LIVE_TABLE
+                + " aud where aud.made_on_date < ? and aud.processing_result_enum <> ?", Date.class, cutoff.toDate(), awaitingApproval);
+        if (oldestEntry == null) { return; }
+
+        try {
+            addMonthlyPartitions(new LocalDate(oldestEntry).withDayOfMonth(1), cutoff);
+        } catch (final DataAccessException e) {
+            throw new JobExecutionException("Could not add partitions to " + ARCHIVE_TABLE + " with message "
+                    + e.getMostSpecificCause().getMessage());
+        }
+
+        long archived = 0;
+        while (true) {
+            final List<Long> ids = this.jdbcTemplate.queryForList("select aud.id from " + LIVE_TABLE
+                    + " aud where aud.made_on_date < ? and aud.processing_result_enum <> ? order by aud.id limit ?", Long.class,
+                    cutoff.toDate(), awaitingApproval, ARCHIVE_CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            final String idList = StringUtils.join(ids, ',');
+            try {
+                this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                    @Override
+                    protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                        final JdbcTemplate jdbc = AuditArchiveWritePlatformServiceImpl.this.jdbcTemplate;
+                        jdbc.update("insert into " + ARCHIVE_TABLE + " (" + COLUMNS + ") select " + COLUMNS + " from " + LIVE_TABLE
+                                + " where id in (" + idList + ")");
+                        jdbc.update("delete from " + LIVE_TABLE + " where id in (" + idList + ")");
+                    }
+                });
+            } catch (final DataAccessException e) {
+                throw new JobExecutionException("Archived " + archived + " audit entries, then failed on entries " + ids.get(0) + " to "
+                        + ids.get(ids.size() - 1) + " with message " + e.getMostSpecificCause().getMessage());
+            }
+            archived += ids.size();
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": archived " + archived + " audit entries made before " + cutoff);
+    }
+
+    /**
+     * Splits a month at a time off the catch-all p_future partition until the
+     * archive has a partition for every entry made before the cutoff. Months
+     * older than the oldest entry to archive are not created, the first
+     * partition added then also holds everything before it. p_future is kept
+     * empty so reorganizing it does not copy rows.
+     */
+    private void addMonthlyPartitions(final LocalDate oldestMonth, final LocalDate cutoff) {
+
+        final Date highestBoundary = this.jdbcTemplate.queryForObject(
+                "select from_days(max(cast(p.partition_description as unsigned))) from information_schema.partitions p"
+                        + " where p.table_schema = schema() and p.table_name = ? and p.partition_description <> 'MAXVALUE'", Date.class,
+                ARCHIVE_TABLE);
+
+        LocalDate month = new LocalDate(highestBoundary);
+        if (month.isBefore(oldestMonth)) {
+            month = oldestMonth;
+        }
+        while (!month.isAfter(cutoff)) {
+            final LocalDate nextMonth = month.plusMonths(1);
+            this.jdbcTemplate.execute("alter table " + ARCHIVE_TABLE + " reorganize partition p_future into (partition p"
+                    + month.toString("yyyyMM") + " values less than (to_days('" + nextMonth.toString("yyyy-MM-dd")
+                    + "')), partition p_future values less than maxvalue)");
+            month = nextMonth;
+        }
+    }
+}
@@ -27,9 +27,10 @@ import org.apache.fineract.infrastructure.core.service.Page;
 
 public interface AuditReadPlatformService {
 
-    Collection<AuditData> retrieveAuditEntries(String extraCriteria, boolean includeJson);
+    Collection<AuditData> retrieveAuditEntries(String extraCriteria, boolean includeJson, boolean archived);
 
-    Page<AuditData> retrievePaginatedAuditEntries(String extraCriteria, boolean includeJson, PaginationParameters parameters);
+    Page<AuditData> retrievePaginatedAuditEntries(String extraCriteria, boolean includeJson, PaginationParameters parameters,
+            boolean archived);
 
     Collection<AuditData> retrieveAllEntriesToBeChecked(String extraCriteria, boolean includeJson);
 
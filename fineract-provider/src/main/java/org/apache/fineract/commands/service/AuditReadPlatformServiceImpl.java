@@ -63,6 +63,7 @@ import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -116,6 +117,10 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     private static final class AuditMapper implements RowMapper<AuditData> {
 
         public String schema(final boolean includeJson, final String hierarchy) {
+            return schema(includeJson, hierarchy, false);
+        }
+
+        public String schema(final boolean includeJson, final String hierarchy, final boolean archived) {
 
             String commandAsJsonString = "";
             if (includeJson) {
@@ -128,7 +133,9 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
                     + "ck.username as checker, aud.checked_on_date as checkedOnDate, ev.enum_message_property as processingResult "
                     + commandAsJsonString + ", "
                     + " o.name as officeName, gl.level_name as groupLevelName, g.display_name as groupName, c.display_name as clientName, "
-                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo " + " from m_portfolio_command_source aud "
+                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo " + " from "
+                    + (archived ? AuditArchiveWritePlatformServiceImpl.ARCHIVE_TABLE : AuditArchiveWritePlatformServiceImpl.LIVE_TABLE)
+                    + " aud "
                     + " left join m_appuser mk on mk.id = aud.maker_id" + " left join m_appuser ck on ck.id = aud.checker_id"
                     + " left join m_office o on o.id = aud.office_id" + " left join m_group g on g.id = aud.group_id"
                     + " left join m_group_level gl on gl.id = g.level_id" + " left join m_client c on c.id = aud.client_id"
@@ -182,7 +189,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     }
 
     @Override
-    public Collection<AuditData> retrieveAuditEntries(final String extraCriteria, final boolean includeJson) {
+    public Collection<AuditData> retrieveAuditEntries(final String extraCriteria, final boolean includeJson, final boolean archived) {
 
         String updatedExtraCriteria = "";
         if (StringUtils.isNotBlank(extraCriteria)) {
@@ -190,12 +197,12 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         }
 
         updatedExtraCriteria += " order by aud.id DESC limit " + PaginationParameters.getCheckedLimit(null);
-        return retrieveEntries("audit", updatedExtraCriteria, includeJson);
+        return retrieveEntries("audit", updatedExtraCriteria, includeJson, archived);
     }
 
     @Override
     public Page<AuditData> retrievePaginatedAuditEntries(final String extraCriteria, final boolean includeJson,
-            final PaginationParameters parameters) {
+            final PaginationParameters parameters, final boolean archived) {
 
         this.paginationParametersDataValidator.validateParameterValues(parameters, supportedOrderByValues, "audits");
         final AppUser currentUser = this.context.authenticatedUser();
@@ -206,12 +213,29 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
             updatedExtraCriteria = " where (" + extraCriteria + ")";
         }
 
+        final boolean keysetPaging = parameters.isKeysetPaging();
+        final Long cursorKey = parameters.getCursorKey();
+
         final AuditMapper rm = new AuditMapper();
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
-        sqlBuilder.append(rm.schema(includeJson, hierarchy));
+        sqlBuilder.append(PaginationHelper.selectClause(keysetPaging, parameters.getTotalCountMode()));
+        sqlBuilder.append(rm.schema(includeJson, hierarchy, archived));
         sqlBuilder.append(' ').append(updatedExtraCriteria);
 
+        if (keysetPaging) {
+            // newest first unless asked otherwise, as with offset paging
+            final boolean descending = parameters.isSortOrderDescending(true);
+            Object[] params = new Object[] {};
+            if (cursorKey != null) {
+                sqlBuilder.append(StringUtils.isNotBlank(updatedExtraCriteria) ? " and " : " where ");
+                sqlBuilder.append(PaginationHelper.keysetPredicate("aud.id", descending));
+                params = new Object[] { cursorKey };
+            }
+            sqlBuilder.append(PaginationHelper.keysetOrderAndLimit("aud.id", descending, parameters.getLimit()));
+            return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), params, "id", parameters.getLimit(),
+                    parameters.getTotalCountMode(), rm);
+        }
+
         if (parameters.isOrderByRequested()) {
             sqlBuilder.append(' ').append(parameters.orderBySql());
         } else {
@@ -225,7 +249,8 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         logger.info("sql: " + sqlBuilder.toString());
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] {}, rm);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] {}, rm,
+                parameters.getTotalCountMode());
     }
 
     @Override
@@ -240,10 +265,11 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         updatedExtraCriteria += " order by aud.id";
 
-        return retrieveEntries("makerchecker", updatedExtraCriteria, includeJson);
+        return retrieveEntries("makerchecker", updatedExtraCriteria, includeJson, false);
     }
 
-    public Collection<AuditData> retrieveEntries(final String useType, final String extraCriteria, final boolean includeJson) {
+    public Collection<AuditData> retrieveEntries(final String useType, final String extraCriteria, final boolean includeJson,
+            final boolean archived) {
 
         if (!(useType.equals("audit") || useType.equals("makerchecker"))) { throw new PlatformDataIntegrityException(
                 "error.msg.invalid.auditSearchTemplate.useType", "Invalid Audit Search Template UseType: " + useType); }
@@ -252,7 +278,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final AuditMapper rm = new AuditMapper();
-        String sql = "select " + rm.schema(includeJson, hierarchy);
+        String sql = "select " + rm.schema(includeJson, hierarchy, archived);
 
         Boolean isLimitedChecker = false;
         if (useType.equals("makerchecker")) {
@@ -283,7 +309,14 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         final String sql = "select " + rm.schema(true, hierarchy) + " where aud.id = " + auditId;
 
-        final AuditData auditResult = this.jdbcTemplate.queryForObject(sql, rm, new Object[] {});
+        AuditData auditResult;
+        try {
+            auditResult = this.jdbcTemplate.queryForObject(sql, rm, new Object[] {});
+        } catch (final EmptyResultDataAccessException e) {
+            // entries are only ever moved to the archive, never back
+            final String archivedSql = "select " + rm.schema(true, hierarchy, true) + " where aud.id = " + auditId;
+            auditResult = this.jdbcTemplate.queryForObject(archivedSql, rm, new Object[] {});
+        }
 
         return replaceIdsOnAuditData(auditResult);
     }
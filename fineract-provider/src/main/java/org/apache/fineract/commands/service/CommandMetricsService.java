@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import org.apache.fineract.commands.data.CommandMetricsData;
+
+/**
+ * Collects timing, throughput and outcome metrics of the commands run by
+ * {@link CommandProcessingService#processAndLogCommand}, per tenant and per
+ * entityName and actionName pair.
+ */
+public interface CommandMetricsService {
+
+    /**
+     * Parts of processAndLogCommand timed separately.
+     */
+    enum Phase {
+        HANDLER, AUDIT, POST_PROCESSING, HOOKS
+    }
+
+    /**
+     * Times one command on the thread that runs it. {@link #stop()} must be
+     * called exactly once, commands stopped without being marked as succeeded
+     * or awaiting approval count as failed.
+     */
+    interface Timer {
+
+        void phaseEnded(Phase phase);
+
+        void markSucceeded();
+
+        void markAwaitingApproval();
+
+        void stop();
+    }
+
+    Timer start(String entityName, String actionName);
+
+    CommandMetricsData retrieveMetrics();
+}
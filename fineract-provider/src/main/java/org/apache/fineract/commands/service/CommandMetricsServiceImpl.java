@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.fineract.commands.data.CommandMetricsData;
+import org.apache.fineract.commands.data.CommandTypeMetricsData;
+import org.apache.fineract.commands.domain.CommandProcessingResultType;
+import org.apache.fineract.infrastructure.core.service.LatencyHistogram;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Times each command through its handler, audit, post-processing and hooks
+ * phases, per entity and action of the current tenant. A command only enters
+ * the latency histogram when it succeeds; failures, commands parked for a
+ * checker and those still running are counted apart. The maker checker queue
+ * depth is the only figure read from the database, since it is the one that
+ * spans servers.
+ */
+@Service
+public class CommandMetricsServiceImpl implements CommandMetricsService {
+
+    private static final String KEY_SEPARATOR = "|";
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTime collectingSince = DateTime.now();
+    private final ConcurrentMap<String, ConcurrentMap<String, CommandStatistics>> statisticsByTenant = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CommandMetricsServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Timer start(final String entityName, final String actionName) {
+        final ConcurrentMap<String, CommandStatistics> tenantStatistics = tenantStatistics();
+        final String key = entityName + KEY_SEPARATOR + actionName;
+        CommandStatistics statistics = tenantStatistics.get(key);
+        if (statistics == null) {
+            tenantStatistics.putIfAbsent(key, new CommandStatistics(entityName, actionName));
+            statistics = tenantStatistics.get(key);
+        }
+        return new CommandTimer(statistics);
+    }
+
+    @Override
+    public CommandMetricsData retrieveMetrics() {
+
+        long processed = 0;
+        long failed = 0;
+        long awaitingApproval = 0;
+        long inFlight = 0;
+        final Collection<CommandTypeMetricsData> commands = retrieveCommandTypeMetrics();
+        for (final CommandTypeMetricsData command : commands) {
+            processed += command.getProcessed();
+            failed += command.getFailed();
+            awaitingApproval += command.getAwaitingApproval();
+            inFlight += command.getInFlight();
+        }
+
+        final Long makerCheckerQueueDepth = this.jdbcTemplate.queryForObject(
+                "select count(*) from m_portfolio_command_source where processing_result_enum = ?", Long.class,
+                CommandProcessingResultType.AWAITING_APPROVAL.getValue());
+
+        return new CommandMetricsData(this.collectingSince, processed, failed, awaitingApproval, inFlight, makerCheckerQueueDepth,
+                commands);
+    }
+
+    Collection<CommandTypeMetricsData> retrieveCommandTypeMetrics() {
+        final List<CommandTypeMetricsData> commands = new ArrayList<>();
+        for (final CommandStatistics statistics : tenantStatistics().values()) {
+            commands.add(statistics.toData());
+        }
+        return commands;
+    }
+
+    private ConcurrentMap<String, CommandStatistics> tenantStatistics() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        ConcurrentMap<String, CommandStatistics> tenantStatistics = this.statisticsByTenant.get(tenantIdentifier);
+        if (tenantStatistics == null) {
+            this.statisticsByTenant.putIfAbsent(tenantIdentifier, new ConcurrentHashMap<String, CommandStatistics>());
+            tenantStatistics = this.statisticsByTenant.get(tenantIdentifier);
+        }
+        return tenantStatistics;
+    }
+
+    private static BigDecimal millis(final long nanos, final long count) {
+        if (count == 0) { return null; }
+        return BigDecimal.valueOf(nanos).divide(BigDecimal.valueOf(count * NANOS_PER_MILLI), 2, RoundingMode.HALF_UP);
+    }
+
+    private static final class CommandTimer implements Timer {
+
+        private final CommandStatistics statistics;
+        private final long startNanos;
+        private long phaseStartNanos;
+        private boolean succeeded;
+        private boolean awaitingApproval;
+
+        CommandTimer(final CommandStatistics statistics) {
+            this.statistics = statistics;
+            this.statistics.inFlight.increment();
+            this.startNanos = System.nanoTime();
+            this.phaseStartNanos = this.startNanos;
+        }
+
+        @Override
+        public void phaseEnded(final Phase phase) {
+            final long now = System.nanoTime();
+            this.statistics.phaseNanos[phase.ordinal()].add(now - this.phaseStartNanos);
+            this.statistics.phaseCounts[phase.ordinal()].increment();
+            this.phaseStartNanos = now;
+        }
+
+        @Override
+        public void markSucceeded() {
+            this.succeeded = true;
+        }
+
+        @Override
+        public void markAwaitingApproval() {
+            this.awaitingApproval = true;
+        }
+
+        @Override
+        public void stop() {
+            final long elapsedNanos = System.nanoTime() - this.startNanos;
+            this.statistics.inFlight.decrement();
+            if (this.succeeded) {
+                this.statistics.record(elapsedNanos);
+            } else if (this.awaitingApproval) {
+                this.statistics.awaitingApproval.increment();
+            } else {
+                this.statistics.failed.increment();
+            }
+        }
+    }
+
+    private static final class CommandStatistics {
+
+        private final String entityName;
+        private final String actionName;
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder awaitingApproval = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder[] phaseNanos = newAdders(Phase.values().length);
+        private final LongAdder[] phaseCounts = newAdders(Phase.values().length);
+
+        CommandStatistics(final String entityName, final String actionName) {
+            this.entityName = entityName;
+            this.actionName = actionName;
+        }
+
+        void record(final long elapsedNanos) {
+            this.latencies.record(elapsedNanos);
+        }
+
+        CommandTypeMetricsData toData() {
+            final long[] upperBounds = LatencyHistogram.bucketUpperBoundsMillis();
+            final long[] bucketCounts = this.latencies.bucketCounts();
+            final Map<String, Long> histogram = new LinkedHashMap<>();
+            long count = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                count += bucketCounts[i];
+                histogram.put(i < upperBounds.length ? Long.toString(upperBounds[i]) : "+Inf", bucketCounts[i]);
+            }
+
+            return new CommandTypeMetricsData(this.entityName, this.actionName, count, this.failed.sum(), this.awaitingApproval.sum(),
+                    this.inFlight.sum(), this.latencies.meanMillis(), this.latencies.maxMillis(), this.latencies.percentileMillis(
+                            bucketCounts, 50), this.latencies.percentileMillis(bucketCounts, 95), this.latencies.percentileMillis(
+                            bucketCounts, 99), phaseMillis(Phase.HANDLER), phaseMillis(Phase.AUDIT), phaseMillis(Phase.POST_PROCESSING),
+                    phaseMillis(Phase.HOOKS), histogram);
+        }
+
+        private BigDecimal phaseMillis(final Phase phase) {
+            return millis(this.phaseNanos[phase.ordinal()].sum(), this.phaseCounts[phase.ordinal()].sum());
+        }
+
+        private static LongAdder[] newAdders(final int size) {
+            final LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
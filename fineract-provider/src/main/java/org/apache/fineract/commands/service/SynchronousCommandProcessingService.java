@@ -27,6 +27,7 @@ import org.apache.fineract.commands.exception.RollbackTransactionAsCommandIsNotA
 import org.apache.fineract.commands.exception.UnsupportedCommandException;
 import org.apache.fineract.commands.handler.NewCommandSourceHandler;
 import org.apache.fineract.commands.provider.CommandHandlerProvider;
+import org.apache.fineract.commands.service.CommandMetricsService.Phase;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
@@ -35,7 +36,10 @@ import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.hooks.event.HookEvent;
 import org.apache.fineract.infrastructure.hooks.event.HookEventSource;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetCacheService;
+import org.apache.fineract.portfolio.search.service.SearchIndexWritePlatformService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,13 +57,19 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     private CommandSourceRepository commandSourceRepository;
     private final ConfigurationDomainService configurationDomainService;
     private final CommandHandlerProvider commandHandlerProvider;
+    private final HookDeliveryService hookDeliveryService;
+    private final SearchIndexWritePlatformService searchIndexWritePlatformService;
+    private final CollectionSheetCacheService collectionSheetCacheService;
+    private final CommandMetricsService commandMetricsService;
 
     @Autowired
     public SynchronousCommandProcessingService(final PlatformSecurityContext context, final ApplicationContext applicationContext,
             final ToApiJsonSerializer<Map<String, Object>> toApiJsonSerializer,
             final ToApiJsonSerializer<CommandProcessingResult> toApiResultJsonSerializer,
             final CommandSourceRepository commandSourceRepository, final ConfigurationDomainService configurationDomainService,
-            final CommandHandlerProvider commandHandlerProvider) {
+            final CommandHandlerProvider commandHandlerProvider, final HookDeliveryService hookDeliveryService,
+            final SearchIndexWritePlatformService searchIndexWritePlatformService,
+            final CollectionSheetCacheService collectionSheetCacheService, final CommandMetricsService commandMetricsService) {
         this.context = context;
         this.context = context;
         this.applicationContext = applicationContext;
@@ -69,6 +79,10 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         this.commandSourceRepository = commandSourceRepository;
         this.configurationDomainService = configurationDomainService;
         this.commandHandlerProvider = commandHandlerProvider;
+        this.hookDeliveryService = hookDeliveryService;
+        this.searchIndexWritePlatformService = searchIndexWritePlatformService;
+        this.collectionSheetCacheService = collectionSheetCacheService;
+        this.commandMetricsService = commandMetricsService;
     }
 
     @Transactional
@@ -76,11 +90,23 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
     public CommandProcessingResult processAndLogCommand(final CommandWrapper wrapper, final JsonCommand command,
             final boolean isApprovedByChecker) {
 
+        final CommandMetricsService.Timer timer = this.commandMetricsService.start(wrapper.entityName(), wrapper.actionName());
+        try {
+            return processAndLogCommand(wrapper, command, isApprovedByChecker, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private CommandProcessingResult processAndLogCommand(final CommandWrapper wrapper, final JsonCommand command,
+            final boolean isApprovedByChecker, final CommandMetricsService.Timer timer) {
+
         final boolean rollbackTransaction = this.configurationDomainService.isMakerCheckerEnabledForTask(wrapper.taskPermissionName());
 
         final NewCommandSourceHandler handler = findCommandHandler(wrapper);
 
         final CommandProcessingResult result = handler.processCommand(command);
+        timer.phaseEnded(Phase.HANDLER);
 
         final AppUser maker = this.context.authenticatedUser(wrapper);
 
@@ -108,6 +134,7 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
         if (commandSourceResult.hasJson()) {
             this.commandSourceRepository.save(commandSourceResult);
         }
+        timer.phaseEnded(Phase.AUDIT);
 
         if ((rollbackTransaction || result.isRollbackTransaction()) && !isApprovedByChecker) {
             /*
@@ -122,12 +149,19 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
              * 77 and 81 may update the json data
              */
             commandSourceResult.updateJsonTo(command.json());
+            timer.markAwaitingApproval();
             throw new RollbackTransactionAsCommandIsNotApprovedByCheckerException(commandSourceResult);
         }
         result.setRollbackTransaction(null);
 
+        this.searchIndexWritePlatformService.updateIndexFor(wrapper.entityName(), wrapper.actionName(), result);
+        this.collectionSheetCacheService.invalidateFor(result);
+        timer.phaseEnded(Phase.POST_PROCESSING);
+
         publishEvent(wrapper.entityName(), wrapper.actionName(), result);
+        timer.phaseEnded(Phase.HOOKS);
 
+        timer.markSucceeded();
         return result;
     }
 
@@ -217,6 +251,10 @@ public class SynchronousCommandProcessingService implements CommandProcessingSer
 
         final String serializedResult = this.toApiResultJsonSerializer.serialize(result);
 
+        // web hooks are written to the outbox within the command transaction
+        // and delivered once it commits
+        this.hookDeliveryService.enqueueEvent(entityName, actionName, serializedResult);
+
         final HookEvent applicationEvent = new HookEvent(hookEventSource, serializedResult, tenantIdentifier, appUser, authToken);
 
         applicationContext.publishEvent(applicationEvent);
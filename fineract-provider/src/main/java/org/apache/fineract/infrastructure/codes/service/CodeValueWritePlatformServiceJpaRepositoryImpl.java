@@ -36,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -64,7 +65,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @Caching(evict = { @CacheEvict(value = "code_values", allEntries = true), @CacheEvict(value = "datatables", allEntries = true) })
     public CommandProcessingResult createCodeValue(final JsonCommand command) {
 
         try {
@@ -112,7 +113,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @Caching(evict = { @CacheEvict(value = "code_values", allEntries = true), @CacheEvict(value = "datatables", allEntries = true) })
     public CommandProcessingResult updateCodeValue(final Long codeValueId, final JsonCommand command) {
 
         try {
@@ -143,7 +144,7 @@ public class CodeValueWritePlatformServiceJpaRepositoryImpl implements CodeValue
 
     @Transactional
     @Override
-    @CacheEvict(value = "code_values", allEntries = true)
+    @Caching(evict = { @CacheEvict(value = "code_values", allEntries = true), @CacheEvict(value = "datatables", allEntries = true) })
     public CommandProcessingResult deleteCodeValue(final Long codeId, final Long codeValueId) {
 
         try {
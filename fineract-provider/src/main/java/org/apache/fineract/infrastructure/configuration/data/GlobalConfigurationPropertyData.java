@@ -24,13 +24,9 @@ import java.util.Date;
  */
 public class GlobalConfigurationPropertyData {
 
-    @SuppressWarnings("unused")
     private final String name;
-    @SuppressWarnings("unused")
     private final boolean enabled;
-    @SuppressWarnings("unused")
     private final Long value;
-    @SuppressWarnings("unused")
     private final Date dateValue;
     @SuppressWarnings("unused")
     private final Long id;
@@ -60,4 +56,20 @@ public class GlobalConfigurationPropertyData {
         this.description = description;
         this.trapDoor = isTrapDoor;
     }
-}
\ No newline at end of file
+
+    public String getName() {
+        return this.name;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public Long getValue() {
+        return this.value;
+    }
+
+    public Date getDateValue() {
+        return this.dateValue;
+    }
+}
@@ -82,5 +82,16 @@ public interface ConfigurationDomainService {
     boolean isDailyTPTLimitEnabled();
     
     Long getDailyTPTLimit();
-    
-}
\ No newline at end of file
+
+    int retrieveJobWorkerThreads();
+
+    int retrieveJobPartitionSize();
+
+    int retrieveWebHookBatchSize();
+
+    int retrieveCollectionSheetPrecomputeMeetingDates();
+
+    int retrieveAuditArchiveAfterDays();
+
+    int retrieveSessionTokenValidityMinutes();
+}
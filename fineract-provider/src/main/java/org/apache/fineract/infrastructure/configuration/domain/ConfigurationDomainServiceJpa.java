@@ -24,8 +24,9 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCache;
 import org.apache.fineract.infrastructure.cache.domain.PlatformCacheRepository;
-import org.apache.fineract.useradministration.domain.Permission;
-import org.apache.fineract.useradministration.domain.PermissionRepository;
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.configuration.exception.GlobalConfigurationPropertyNotFoundException;
+import org.apache.fineract.infrastructure.configuration.service.ConfigurationSnapshotReadPlatformService;
 import org.apache.fineract.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -34,42 +35,45 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class ConfigurationDomainServiceJpa implements ConfigurationDomainService {
 
-    private final PermissionRepository permissionRepository;
-    private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
+    private final ConfigurationSnapshotReadPlatformService configurationSnapshotReadPlatformService;
     private final PlatformCacheRepository cacheTypeRepository;
 
     @Autowired
-    public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
-        this.permissionRepository = permissionRepository;
-        this.globalConfigurationRepository = globalConfigurationRepository;
+    public ConfigurationDomainServiceJpa(final ConfigurationSnapshotReadPlatformService configurationSnapshotReadPlatformService,
+            final PlatformCacheRepository cacheTypeRepository) {
+        this.configurationSnapshotReadPlatformService = configurationSnapshotReadPlatformService;
         this.cacheTypeRepository = cacheTypeRepository;
     }
 
+    private GlobalConfigurationPropertyData findOneByNameWithNotFoundDetection(final String propertyName) {
+        final GlobalConfigurationPropertyData property = this.configurationSnapshotReadPlatformService
+                .retrieveGlobalConfigurationProperty(propertyName);
+        if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(propertyName); }
+        return property;
+    }
+
     @Override
     public boolean isMakerCheckerEnabledForTask(final String taskPermissionCode) {
         if (StringUtils.isBlank(taskPermissionCode)) { throw new PermissionNotFoundException(taskPermissionCode); }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+        final Boolean taskMakerCheckerEnabled = this.configurationSnapshotReadPlatformService.retrieveMakerCheckerEnabled(taskPermissionCode);
+        if (taskMakerCheckerEnabled == null) { throw new PermissionNotFoundException(taskPermissionCode); }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(makerCheckerConfigurationProperty);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return taskMakerCheckerEnabled && property.isEnabled();
     }
 
     @Override
     public boolean isAmazonS3Enabled() {
-        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection("amazon-S3").isEnabled();
+        return findOneByNameWithNotFoundDetection("amazon-S3").isEnabled();
     }
 
     @Override
     public boolean isRescheduleFutureRepaymentsEnabled() {
         final String rescheduleRepaymentsConfigurationProperty = "reschedule-future-repayments";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(rescheduleRepaymentsConfigurationProperty);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(rescheduleRepaymentsConfigurationProperty);
         return property.isEnabled();
     }
 
@@ -82,30 +86,28 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isRescheduleRepaymentsOnHolidaysEnabled() {
         final String holidaysConfigurationProperty = "reschedule-repayments-on-holidays";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnHolidayEnabled() {
         final String allowTransactionsOnHolidayProperty = "allow-transactions-on-holiday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(allowTransactionsOnHolidayProperty);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(allowTransactionsOnHolidayProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnNonWorkingDayEnabled() {
         final String propertyName = "allow-transactions-on-non_workingday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isConstraintApproachEnabledForDatatables() {
         final String propertyName = "constraint_approach_for_datatables";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
@@ -125,49 +127,49 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Long retrievePenaltyWaitPeriod() {
         final String propertyName = "penalty-wait-period";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
     }
 
     @Override
     public Long retrieveGraceOnPenaltyPostingPeriod() {
         final String propertyName = "grace-on-penalty-posting";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
     }
 
     @Override
     public boolean isPasswordForcedResetEnable() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Long retrievePasswordLiveTime() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
     }
 
     @Override
     public Long retrieveOpeningBalancesContraAccount() {
         final String propertyName = "office-opening-balances-contra-account";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
     }
 
     @Override
     public boolean isSavingsInterestPostingAtCurrentPeriodEnd() {
         final String propertyName = "savings-interest-posting-current-period-end";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Integer retrieveFinancialYearBeginningMonth() {
         final String propertyName = "financial-year-beginning-month";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         if (property.isEnabled()) return property.getValue().intValue();
         return 1;
     }
@@ -175,7 +177,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Integer retrieveMinAllowedClientsInGroup() {
         final String propertyName = "min-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         if (property.isEnabled()) { return property.getValue().intValue(); }
         return null;
     }
@@ -183,7 +185,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public Integer retrieveMaxAllowedClientsInGroup() {
         final String propertyName = "max-clients-in-group";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         if (property.isEnabled()) { return property.getValue().intValue(); }
         return null;
     }
@@ -191,7 +193,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isMeetingMandatoryForJLGLoans() {
         final String propertyName = "meetings-mandatory-for-jlg-loans";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
@@ -199,7 +201,7 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     public int getRoundingMode() {
         final String propertyName = "rounding-mode";
         int defaultValue = 6; // 6 Stands for HALF-EVEN
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         if (property.isEnabled()) {
             int value = property.getValue().intValue();
             if (value < 0 || value > 6) {
@@ -213,40 +215,40 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isBackdatePenaltiesEnabled() {
         final String propertyName = "backdate-penalties-enabled";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isOrganisationstartDateEnabled() {
         final String propertyName = "organisation-start-date";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Date retrieveOrganisationStartDate() {
         final String propertyName = "organisation-start-date";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getDateValue();
     }
 
 	@Override
 	public boolean isPaymnetypeApplicableforDisbursementCharge() {
 		final String propertyName = "paymenttype-applicable-for-disbursement-charges";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
 	}
 	
     @Override
     public boolean isSkippingMeetingOnFirstDayOfMonthEnabled() {
-        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection("skip-repayment-on-first-day-of-month").isEnabled();
+        return findOneByNameWithNotFoundDetection("skip-repayment-on-first-day-of-month").isEnabled();
     }
 
     @Override
     public Long retreivePeroidInNumberOfDaysForSkipMeetingDate() {
         final String propertyName = "skip-repayment-on-first-day-of-month";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
 
     }
@@ -254,30 +256,82 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isInterestChargedFromDateSameAsDisbursementDate() {
         final String propertyName = "interest-charged-from-date-same-as-disbursal-date";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
     
     @Override
     public boolean isChangeEmiIfRepaymentDateSameAsDisbursementDateEnabled() {
         final String propertyName = "change-emi-if-repaymentdate-same-as-disbursementdate";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
     }
 
 	@Override
 	public boolean isDailyTPTLimitEnabled() {
         final String propertyName = "daily-tpt-limit";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.isEnabled();
 	}
 
 	@Override
 	public Long getDailyTPTLimit() {
         final String propertyName = "daily-tpt-limit";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
         return property.getValue();
 	}
 
-  
-}
\ No newline at end of file
+    @Override
+    public int retrieveJobWorkerThreads() {
+        final String propertyName = "job-worker-threads";
+        int defaultValue = 1;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+
+    @Override
+    public int retrieveJobPartitionSize() {
+        final String propertyName = "job-partition-size";
+        int defaultValue = 500;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+
+    @Override
+    public int retrieveWebHookBatchSize() {
+        final String propertyName = "webhook-batch-size";
+        int defaultValue = 1;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+
+    @Override
+    public int retrieveCollectionSheetPrecomputeMeetingDates() {
+        final String propertyName = "collection-sheet-precompute-meeting-dates";
+        int defaultValue = 1;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+
+    @Override
+    public int retrieveAuditArchiveAfterDays() {
+        final String propertyName = "audit-archive-after-days";
+        int defaultValue = 365;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+
+    @Override
+    public int retrieveSessionTokenValidityMinutes() {
+        final String propertyName = "session-token-validity-minutes";
+        int defaultValue = 480;
+        final GlobalConfigurationPropertyData property = findOneByNameWithNotFoundDetection(propertyName);
+        if (property.isEnabled() && property.getValue() != null && property.getValue() > 0) { return property.getValue().intValue(); }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.service;
+
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+
+/**
+ * Lookups of the settings consulted on almost every command and job. Results
+ * are held per tenant in the platform cache, and evicted by the commands that
+ * change them, so with caching enabled these settings are only read from the
+ * database once.
+ */
+public interface ConfigurationSnapshotReadPlatformService {
+
+    String CONFIGURATION_CACHE = "configuration";
+    String PERMISSIONS_CACHE = "permissions";
+
+    /**
+     * @return the global configuration property of the current tenant, or
+     *         <code>null</code> when there is none with that name
+     */
+    GlobalConfigurationPropertyData retrieveGlobalConfigurationProperty(String propertyName);
+
+    /**
+     * @return whether maker-checker is enabled for the permission, or
+     *         <code>null</code> when there is no permission with that code
+     */
+    Boolean retrieveMakerCheckerEnabled(String permissionCode);
+}
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.configuration.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.configuration.data.GlobalConfigurationPropertyData;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Only depends on the data source, as it is used by
+ * {@link org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService}
+ * which the security context itself depends on. Reads go through JDBC so that,
+ * unlike a repository lookup, they never flush the current persistence
+ * context.
+ */
+@Service
+public class ConfigurationSnapshotReadPlatformServiceImpl implements ConfigurationSnapshotReadPlatformService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ConfigurationSnapshotReadPlatformServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    @Cacheable(value = CONFIGURATION_CACHE, key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#propertyName+'gc')")
+    public GlobalConfigurationPropertyData retrieveGlobalConfigurationProperty(final String propertyName) {
+        final String sql = "SELECT c.id, c.name, c.enabled, c.value, c.date_value, c.description, c.is_trap_door FROM c_configuration c where c.name = ?";
+        final List<GlobalConfigurationPropertyData> properties = this.jdbcTemplate.query(sql, new GlobalConfigurationPropertyMapper(),
+                propertyName);
+        return properties.isEmpty() ? null : properties.get(0);
+    }
+
+    @Override
+    @Cacheable(value = PERMISSIONS_CACHE, key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#permissionCode+'mc')")
+    public Boolean retrieveMakerCheckerEnabled(final String permissionCode) {
+        final String sql = "select p.can_maker_checker from m_permission p where p.code = ?";
+        final List<Boolean> makerCheckerEnabled = this.jdbcTemplate.queryForList(sql, Boolean.class, permissionCode);
+        return makerCheckerEnabled.isEmpty() ? null : makerCheckerEnabled.get(0);
+    }
+
+    private static final class GlobalConfigurationPropertyMapper implements RowMapper<GlobalConfigurationPropertyData> {
+
+        @Override
+        public GlobalConfigurationPropertyData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum)
+                throws SQLException {
+            final String name = rs.getString("name");
+            final boolean enabled = rs.getBoolean("enabled");
+            // unset values stay null, as when read through the entity
+            final Long value = JdbcSupport.getLong(rs, "value");
+            final Date dateValue = rs.getDate("date_value");
+            final String description = rs.getString("description");
+            final Long id = rs.getLong("id");
+            final boolean isTrapDoor = rs.getBoolean("is_trap_door");
+            return new GlobalConfigurationPropertyData(name, enabled, value, dateValue, id, description, isTrapDoor);
+        }
+    }
+}
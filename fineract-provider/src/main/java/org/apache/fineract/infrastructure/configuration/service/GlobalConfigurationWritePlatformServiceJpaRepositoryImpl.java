@@ -31,6 +31,7 @@ import org.apache.fineract.infrastructure.security.service.PlatformSecurityConte
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,6 +54,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
 
     }
 
+    @CacheEvict(value = "configuration", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult update(final Long configId, final JsonCommand command) {
@@ -79,6 +81,7 @@ public class GlobalConfigurationWritePlatformServiceJpaRepositoryImpl implements
 
     }
 
+    @CacheEvict(value = "configuration", allEntries = true)
     @Transactional
     @Override
     public void addSurveyConfig(final String name)
@@ -19,6 +19,8 @@
 package org.apache.fineract.infrastructure.core.data;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.service.PageCursor;
+import org.apache.fineract.infrastructure.core.service.TotalCountMode;
 
 /**
  * <p>
@@ -32,23 +34,43 @@ public class PaginationParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final String cursor;
+    private final TotalCountMode totalCountMode;
 
     public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+        return instance(paged, offset, limit, orderBy, sortOrder, null, null);
+    }
+
+    /**
+     * A non null cursor switches to keyset paging, see
+     * {@link org.apache.fineract.infrastructure.core.service.SearchParameters#withPaging(String, String)}
+     */
+    public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder,
+            String cursor, String totalCount) {
         if (null == paged) {
             paged = false;
         }
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder);
+        final boolean keysetPaging = cursor != null;
+        if (keysetPaging) {
+            PageCursor.decode(cursor);
+        }
+        final TotalCountMode totalCountMode = TotalCountMode.resolve(totalCount, keysetPaging);
+
+        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder, cursor, totalCountMode);
     }
 
-    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder, String cursor,
+            TotalCountMode totalCountMode) {
         this.paged = paged;
         this.offset = offset;
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.cursor = cursor;
+        this.totalCountMode = totalCountMode;
     }
 
     public static Integer getCheckedLimit(final Integer limit) {
@@ -103,6 +125,27 @@ public class PaginationParameters {
         return this.offset != null;
     }
 
+    public boolean isKeysetPaging() {
+        return this.cursor != null;
+    }
+
+    public Long getCursorKey() {
+        return PageCursor.decode(this.cursor);
+    }
+
+    /**
+     * @param defaultDescending
+     *            direction used when no sort order was passed
+     */
+    public boolean isSortOrderDescending(final boolean defaultDescending) {
+        if (!this.isSortOrderProvided()) { return defaultDescending; }
+        return "desc".equalsIgnoreCase(this.sortOrder.trim());
+    }
+
+    public TotalCountMode getTotalCountMode() {
+        return this.totalCountMode;
+    }
+
     public String orderBySql() {
         final StringBuffer sql = new StringBuffer();
 
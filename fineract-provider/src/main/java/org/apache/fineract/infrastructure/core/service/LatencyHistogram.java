@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed millisecond buckets, shared by the in-memory
+ * request, command and authentication metrics so they bucket the same way.
+ * Recording is lock free: one striped increment for the bucket, one for the
+ * sum and a compare-and-set while the maximum grows. Readers see a
+ * consistent-enough view for metrics, not an atomic snapshot.
+ */
+public final class LatencyHistogram {
+
+    // upper bounds of the buckets, one more bucket takes everything slower
+    private static final long[] BUCKET_MILLIS = { 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_MILLIS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long elapsedNanos) {
+        this.buckets[bucketOf(elapsedNanos)].increment();
+        this.sumNanos.add(elapsedNanos);
+
+        long max = this.maxNanos.get();
+        while (elapsedNanos > max && !this.maxNanos.compareAndSet(max, elapsedNanos)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    /**
+     * Upper bounds of the finite buckets in milliseconds, the counts of
+     * {@link #bucketCounts()} have one more entry for the open-ended bucket.
+     */
+    public static long[] bucketUpperBoundsMillis() {
+        return BUCKET_MILLIS.clone();
+    }
+
+    public long[] bucketCounts() {
+        final long[] counts = new long[this.buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long count() {
+        long count = 0;
+        for (final LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long sumNanos() {
+        return this.sumNanos.sum();
+    }
+
+    public BigDecimal meanMillis() {
+        final long count = count();
+        if (count == 0) { return null; }
+        return BigDecimal.valueOf(this.sumNanos.sum()).divide(BigDecimal.valueOf(count * NANOS_PER_MILLI), 2, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal maxMillis() {
+        if (count() == 0) { return null; }
+        return BigDecimal.valueOf(this.maxNanos.get()).divide(BigDecimal.valueOf(NANOS_PER_MILLI), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Upper bound of the bucket holding the percentile of the given counts, or
+     * the maximum when that is the open-ended bucket.
+     */
+    public Long percentileMillis(final long[] bucketCounts, final int percent) {
+        long total = 0;
+        for (final long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) { return null; }
+        final long rank = (total * percent + 99) / 100;
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_MILLIS.length; i++) {
+            cumulative += bucketCounts[i];
+            if (cumulative >= rank) { return BUCKET_MILLIS[i]; }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(this.maxNanos.get());
+    }
+
+    /*
+     * First bucket whose upper bound is not below the elapsed time; the bounds
+     * are inclusive, as the le label of a Prometheus histogram says.
+     */
+    static int bucketOf(final long elapsedNanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_MILLIS.length && elapsedNanos > BUCKET_MILLIS[bucket] * NANOS_PER_MILLI) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
@@ -24,10 +24,23 @@ public class Page<E> {
 
     private final int totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextCursor;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, totalFilteredRecords, null);
+    }
+
+    /**
+     * @param totalFilteredRecords
+     *            -1 when the total was not calculated
+     * @param nextCursor
+     *            cursor for the following keyset page, null on the last page
+     *            or when offset paging is used
+     */
+    public Page(final List<E> pageItems, final int totalFilteredRecords, final String nextCursor) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextCursor = nextCursor;
     }
 
     public int getTotalFilteredRecords() {
@@ -37,4 +50,8 @@ public class Page<E> {
     public List<E> getPageItems() {
         return this.pageItems;
     }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+/**
+ * Opaque cursor handed out with keyset paged results. It carries the key of
+ * the last row returned so that the next page can seek straight past it
+ * instead of skipping rows with an offset.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "k:";
+
+    private PageCursor() {
+        //
+    }
+
+    public static String encode(final Long lastKey) {
+        if (lastKey == null) { return null; }
+        final byte[] token = (PREFIX + lastKey).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * @return the key to seek past, or null when the cursor asks for the
+     *         first page
+     */
+    public static Long decode(final String cursor) {
+        if (StringUtils.isBlank(cursor)) { return null; }
+        try {
+            final String token = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (token.startsWith(PREFIX)) { return Long.valueOf(token.substring(PREFIX.length())); }
+        } catch (final IllegalArgumentException e) {
+            // NumberFormatException included, reported below
+        }
+        throw new UnrecognizedQueryParamException("cursor", cursor);
+    }
+}
@@ -18,22 +18,148 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
             final RowMapper<E> rowMapper) {
+        return fetchPage(jt, sqlCountRows, sqlFetchRows, args, rowMapper, TotalCountMode.EXACT);
+    }
+
+    /**
+     * Offset paging. The fetch query must have been started with
+     * {@link #selectClause(boolean, TotalCountMode)} so that SQL_CALC_FOUND_ROWS
+     * is only paid for when an exact total is asked for.
+     */
+    public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
+            final RowMapper<E> rowMapper, final TotalCountMode totalCountMode) {
 
         final List<E> items = jt.query(sqlFetchRows, args, rowMapper);
 
         // determine how many rows are available
-        @SuppressWarnings("deprecation")
-        final int totalFilteredRecords = jt.queryForInt(sqlCountRows);
+        final int totalFilteredRecords = totalFilteredRecords(jt, sqlCountRows, sqlFetchRows, args, totalCountMode);
 
         return new Page<>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Keyset paging. The fetch query must seek past the cursor key with
+     * {@link #keysetPredicate(String, boolean)} and end with
+     * {@link #keysetOrderAndLimit(String, boolean, Integer)}, which reads one
+     * row more than the limit to find out whether another page follows.
+     * 
+     * @param keyLabel
+     *            column label of the key in the result set, usually "id"
+     */
+    public Page<E> fetchKeysetPage(final JdbcTemplate jt, final String sqlFetchRows, final Object args[], final String keyLabel,
+            final Integer limit, final TotalCountMode totalCountMode, final RowMapper<E> rowMapper) {
+
+        final List<Long> keys = new ArrayList<>();
+        List<E> items = jt.query(sqlFetchRows, args, new RowMapper<E>() {
+
+            @Override
+            public E mapRow(final ResultSet rs, final int rowNum) throws SQLException {
+                keys.add(rs.getLong(keyLabel));
+                return rowMapper.mapRow(rs, rowNum);
+            }
+        });
+
+        String nextCursor = null;
+        if (limit != null && limit > 0 && items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+            nextCursor = PageCursor.encode(keys.get(limit - 1));
+        }
+
+        final String sqlCountRows = null;
+        final int totalFilteredRecords = totalFilteredRecords(jt, sqlCountRows, sqlFetchRows, args, totalCountMode);
+
+        return new Page<>(items, totalFilteredRecords, nextCursor);
+    }
+
+    public static String selectClause(final boolean keysetPaging, final TotalCountMode totalCountMode) {
+        if (!keysetPaging && totalCountMode == TotalCountMode.EXACT) { return "select SQL_CALC_FOUND_ROWS "; }
+        return "select ";
+    }
+
+    public static String keysetPredicate(final String keyColumn, final boolean descending) {
+        return keyColumn + (descending ? " < ?" : " > ?");
+    }
+
+    public static String keysetOrderAndLimit(final String keyColumn, final boolean descending, final Integer limit) {
+        final StringBuilder sql = new StringBuilder(50);
+        sql.append(" order by ").append(keyColumn).append(descending ? " desc" : " asc");
+        if (limit != null && limit > 0) {
+            sql.append(" limit ").append(limit + 1);
+        }
+        return sql.toString();
+    }
+
+    private int totalFilteredRecords(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
+            final TotalCountMode totalCountMode) {
+        switch (totalCountMode) {
+            case EXACT:
+                @SuppressWarnings("deprecation")
+                final int totalFilteredRecords = jt.queryForInt(sqlCountRows);
+                return totalFilteredRecords;
+            case APPROXIMATE:
+                return estimateRows(jt, sqlFetchRows, args);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Multiplies the optimiser row estimates of the tables in the outer query.
+     * Dependent subqueries in the select list are left out as they do not add
+     * rows.
+     */
+    private int estimateRows(final JdbcTemplate jt, final String sqlFetchRows, final Object args[]) {
+        return jt.query("EXPLAIN " + sqlFetchRows, args, new ResultSetExtractor<Integer>() {
+
+            @Override
+            public Integer extractData(final ResultSet rs) throws SQLException, DataAccessException {
+                final boolean filteredReported = hasColumn(rs.getMetaData(), "filtered");
+                double estimate = 1;
+                boolean tableSeen = false;
+                while (rs.next()) {
+                    final String selectType = rs.getString("select_type");
+                    if (!"SIMPLE".equals(selectType) && !"PRIMARY".equals(selectType)) {
+                        continue;
+                    }
+                    final long rows = rs.getLong("rows");
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    double tableRows = rows;
+                    if (filteredReported) {
+                        final double filtered = rs.getDouble("filtered");
+                        if (!rs.wasNull()) {
+                            tableRows = tableRows * filtered / 100;
+                        }
+                    }
+                    estimate = estimate * tableRows;
+                    tableSeen = true;
+                }
+                if (!tableSeen) { return 0; }
+                return (int) Math.min(Integer.MAX_VALUE, Math.round(estimate));
+            }
+        });
+    }
+
+    private static boolean hasColumn(final ResultSetMetaData metaData, final String columnLabel) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (columnLabel.equalsIgnoreCase(metaData.getColumnLabel(i))) { return true; }
+        }
+        return false;
+    }
+}
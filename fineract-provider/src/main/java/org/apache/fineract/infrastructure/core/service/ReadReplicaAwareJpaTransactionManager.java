@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Begins read-write transactions on the primary even when the request is
+ * marked for read-replica routing.
+ * 
+ * The connection of a transaction is taken while it begins, before the
+ * transaction shows up as active in the synchronization state that
+ * {@link TomcatJdbcDataSourcePerTenantService} checks, so the replica hint is
+ * switched off for that moment. Read-only transactions keep the hint.
+ */
+public class ReadReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+        if (definition.isReadOnly() || !ThreadLocalContextUtil.isReadReplicaRouting()) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+
+        ThreadLocalContextUtil.setReadReplicaRouting(false);
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            ThreadLocalContextUtil.setReadReplicaRouting(true);
+        }
+    }
+}
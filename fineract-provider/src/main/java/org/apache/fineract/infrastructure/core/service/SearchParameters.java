@@ -49,6 +49,10 @@ public final class SearchParameters {
     private final Long categoryId;
     private final boolean isSelfUser;
 
+    // Keyset paging, null cursor means offset paging
+    private final String cursor;
+    private final TotalCountMode totalCountMode;
+
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
@@ -234,7 +238,8 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = isSelfUser;
-
+        this.cursor = null;
+        this.totalCountMode = TotalCountMode.EXACT;
     }
 
     private SearchParameters(final Long provisioningEntryId, final Long officeId, final Long productId, final Long categoryId,
@@ -260,7 +265,8 @@ public final class SearchParameters {
         this.productId = productId;
         this.categoryId = categoryId;
         this.isSelfUser = false;
-
+        this.cursor = null;
+        this.totalCountMode = TotalCountMode.EXACT;
     }
 
     public SearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String name,
@@ -288,6 +294,49 @@ public final class SearchParameters {
         this.productId = null;
         this.categoryId = null;
         this.isSelfUser = false;
+        this.cursor = null;
+        this.totalCountMode = TotalCountMode.EXACT;
+    }
+
+    private SearchParameters(final SearchParameters source, final String cursor, final TotalCountMode totalCountMode) {
+        this.sqlSearch = source.sqlSearch;
+        this.officeId = source.officeId;
+        this.externalId = source.externalId;
+        this.name = source.name;
+        this.hierarchy = source.hierarchy;
+        this.firstname = source.firstname;
+        this.lastname = source.lastname;
+        this.offset = source.offset;
+        this.limit = source.limit;
+        this.orderBy = source.orderBy;
+        this.sortOrder = source.sortOrder;
+        this.staffId = source.staffId;
+        this.accountNo = source.accountNo;
+        this.loanId = source.loanId;
+        this.savingsId = source.savingsId;
+        this.orphansOnly = source.orphansOnly;
+        this.currencyCode = source.currencyCode;
+        this.provisioningEntryId = source.provisioningEntryId;
+        this.productId = source.productId;
+        this.categoryId = source.categoryId;
+        this.isSelfUser = source.isSelfUser;
+        this.cursor = cursor;
+        this.totalCountMode = totalCountMode;
+    }
+
+    /**
+     * Switches to keyset paging when a cursor is passed (an empty cursor asks
+     * for the first page) and sets how the total is calculated. Keyset pages
+     * are ordered by id, so orderBy and offset are ignored and sortOrder only
+     * picks the direction.
+     */
+    public SearchParameters withPaging(final String cursor, final String totalCount) {
+        final boolean keysetPaging = cursor != null;
+        if (keysetPaging) {
+            // fail early on a cursor that was not handed out by us
+            PageCursor.decode(cursor);
+        }
+        return new SearchParameters(this, cursor, TotalCountMode.resolve(totalCount, keysetPaging));
     }
 
     public boolean isOrderByRequested() {
@@ -443,4 +492,24 @@ public final class SearchParameters {
         return this.isSelfUser;
     }
 
+    public boolean isKeysetPaging() {
+        return this.cursor != null;
+    }
+
+    /**
+     * @return key of the last row of the previous page, null on the first
+     *         page
+     */
+    public Long getCursorKey() {
+        return PageCursor.decode(this.cursor);
+    }
+
+    public boolean isSortOrderDescending() {
+        return "desc".equalsIgnoreCase(StringUtils.trim(this.sortOrder));
+    }
+
+    public TotalCountMode getTotalCountMode() {
+        return this.totalCountMode;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.apache.tomcat.jdbc.pool.interceptor.AbstractCreateStatementInterceptor;
+
+/**
+ * Tomcat jdbc pool interceptor that adds the time spent executing statements
+ * to a per-thread total, so the request log can report how much of a request
+ * was spent in the database. Unlike SlowQueryReport, which works in
+ * milliseconds, it uses {@link System#nanoTime()} so the many sub-millisecond
+ * queries of a request are not lost.
+ * 
+ * The total is reset with {@link #resetThreadStatementTime()} when a request
+ * starts and read with {@link #threadStatementNanos()} when it ends.
+ */
+public class StatementTimingInterceptor extends AbstractCreateStatementInterceptor {
+
+    private static final ThreadLocal<long[]> threadStatementNanos = new ThreadLocal<long[]>() {
+
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    public static void resetThreadStatementTime() {
+        threadStatementNanos.get()[0] = 0;
+    }
+
+    public static long threadStatementNanos() {
+        return threadStatementNanos.get()[0];
+    }
+
+    @Override
+    public Object createStatement(@SuppressWarnings("unused") final Object proxy, final Method method,
+            @SuppressWarnings("unused") final Object[] args, final Object statement, @SuppressWarnings("unused") final long time) {
+        // method is createStatement, prepareStatement or prepareCall; its
+        // return type is the statement interface to expose
+        return Proxy.newProxyInstance(StatementTimingInterceptor.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+                new TimedStatement(statement));
+    }
+
+    @Override
+    public void closeInvoked() {
+        // nothing held per connection
+    }
+
+    private static final class TimedStatement implements InvocationHandler {
+
+        private final Object delegate;
+
+        TimedStatement(final Object delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(@SuppressWarnings("unused") final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final boolean execute = method.getName().startsWith("execute");
+            final long startTime = execute ? System.nanoTime() : 0;
+            try {
+                return method.invoke(this.delegate, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execute) {
+                    threadStatementNanos.get()[0] += System.nanoTime() - startTime;
+                }
+            }
+        }
+    }
+}
@@ -18,7 +18,25 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -28,8 +46,17 @@ import org.apache.fineract.infrastructure.core.boot.db.TenantDataSourcePortFixSe
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
 import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 import com.googlecode.flyway.core.Flyway;
@@ -39,15 +66,38 @@ import com.googlecode.flyway.core.util.jdbc.DriverDataSource;
 /**
  * A service that picks up on tenants that are configured to auto-update their
  * specific schema on application startup.
+ * 
+ * Tenant schemas are upgraded concurrently on a pool of
+ * {@link #UPGRADE_THREADS} threads. A schema which already has every
+ * migration applied is skipped without running Flyway. Connections flagged
+ * with <code>auto_update_on_first_access</code> in the tenant store (dormant
+ * tenants) are not upgraded at startup but just before their connection pool
+ * is first created; see {@link #upgradeIfDeferred(Long)}. Work that would
+ * touch a deferred schema at startup, such as loading the scheduled jobs of
+ * its tenants, waits for the {@link TenantSchemaUpgradedEvent} instead.
  */
 @Service
 public class TenantDatabaseUpgradeService {
 
+    private final static Logger logger = LoggerFactory.getLogger(TenantDatabaseUpgradeService.class);
+
+    public final static String UPGRADE_THREADS = "fineract.tenantdb.upgrade.threads";
+
+    private final static String CORE_DB_LOCATION = "sql/migrations/core_db";
+    private final static Pattern MIGRATION_FILE_NAME = Pattern.compile("^V(\\d+(?:[._]\\d+)*)__.*\\.sql$");
+
     private final TenantDetailsService tenantDetailsService;
     protected final DataSource tenantDataSource;
     protected final TenantDataSourcePortFixService tenantDataSourcePortFixService;
-    
+    private final ConcurrentMap<Long, FutureTask<Void>> deferredUpgrades = new ConcurrentHashMap<>();
+    private volatile Set<String> availableCoreDbVersions = Collections.emptySet();
+
     @Autowired private JDBCDriverConfig driverConfig ;
+
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${" + UPGRADE_THREADS + ":4}")
+    private int upgradeThreads;
     
     @Autowired
     public TenantDatabaseUpgradeService(final TenantDetailsService detailsService,
@@ -60,27 +110,114 @@ public class TenantDatabaseUpgradeService {
     @PostConstruct
     public void upgradeAllTenants() {
         upgradeTenantDB();
+        this.availableCoreDbVersions = resolveAvailableCoreDbVersions();
+
+        final Set<Long> upgradedOnFirstAccess = retrieveConnectionsUpgradedOnFirstAccess();
+        final Map<Long, FineractPlatformTenant> tenantsToUpgrade = new LinkedHashMap<>();
         final List<FineractPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
         for (final FineractPlatformTenant tenant : tenants) {
             final FineractPlatformTenantConnection connection = tenant.getConnection();
             if (connection.isAutoUpdateEnabled()) {
-                final Flyway flyway = new Flyway();
-                String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(), connection.getSchemaName()) ;
-                DriverDataSource source = new DriverDataSource(driverConfig.getDriverClassName(), connectionProtocol, connection.getSchemaUsername(), connection.getSchemaPassword()) ;
-                flyway.setDataSource(source);
-                flyway.setLocations("sql/migrations/core_db");
-                flyway.setOutOfOrder(true);
+                if (upgradedOnFirstAccess.contains(connection.getConnectionId())) {
+                    this.deferredUpgrades.putIfAbsent(connection.getConnectionId(), new FutureTask<Void>(new TenantUpgrade(tenant), null));
+                } else if (!tenantsToUpgrade.containsKey(connection.getConnectionId())) {
+                    tenantsToUpgrade.put(connection.getConnectionId(), tenant);
+                }
+            }
+        }
+
+        upgradeConcurrently(new ArrayList<>(tenantsToUpgrade.values()));
+        if (!this.deferredUpgrades.isEmpty()) {
+            logger.info(this.deferredUpgrades.size() + " tenant schema(s) will be upgraded on first access");
+        }
+    }
+
+    /**
+     * @return true when the schema behind the connection has not been
+     *         upgraded yet because its upgrade was deferred at startup
+     */
+    public boolean isUpgradeDeferred(final Long connectionId) {
+        return this.deferredUpgrades.containsKey(connectionId);
+    }
+
+    /**
+     * Upgrades the schema behind the connection if its upgrade was deferred
+     * at startup. The first caller runs the upgrade, concurrent callers for
+     * the same connection wait for it to finish; once done this is a map
+     * lookup.
+     */
+    public void upgradeIfDeferred(final Long connectionId) {
+        final FutureTask<Void> upgrade = this.deferredUpgrades.get(connectionId);
+        if (upgrade == null) { return; }
+
+        upgrade.run();
+        try {
+            upgrade.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while waiting for the schema upgrade of connection " + connectionId, e);
+        } catch (final ExecutionException e) {
+            // left in place so that every access reports the failed upgrade
+            throw asFlywayException(e.getCause());
+        }
+        if (this.deferredUpgrades.remove(connectionId, upgrade)) {
+            this.eventPublisher.publishEvent(new TenantSchemaUpgradedEvent(this, connectionId));
+        }
+    }
+
+    private void upgradeConcurrently(final List<FineractPlatformTenant> tenants) {
+        if (tenants.isEmpty()) { return; }
+
+        final long startTime = System.currentTimeMillis();
+        final int threads = Math.max(1, Math.min(this.upgradeThreads, tenants.size()));
+        final AtomicInteger completed = new AtomicInteger();
+        final List<Future<Void>> upgrades = new ArrayList<>(tenants.size());
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("tenant-upgrade-"));
+        try {
+            for (final FineractPlatformTenant tenant : tenants) {
+                upgrades.add(executorService.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() {
+                        new TenantUpgrade(tenant).run();
+                        logger.info("Tenant schema upgrade progress: " + completed.incrementAndGet() + "/" + tenants.size());
+                        return null;
+                    }
+                }));
+            }
+
+            // let every tenant finish before failing so that one broken
+            // schema does not leave the others half way
+            final List<String> failures = new ArrayList<>();
+            FlywayException firstFailure = null;
+            for (int i = 0; i < upgrades.size(); i++) {
                 try {
-                    flyway.migrate();
-                } catch (FlywayException e) {
-                    String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
-                            + connection.getSchemaUsername();
-                    throw new FlywayException(betterMessage, e.getCause());
+                    upgrades.get(i).get();
+                } catch (final ExecutionException e) {
+                    final FlywayException failure = asFlywayException(e.getCause());
+                    failures.add(tenants.get(i).getTenantIdentifier());
+                    if (firstFailure == null) {
+                        firstFailure = failure;
+                    }
                 }
             }
+            logger.info("Upgraded " + (tenants.size() - failures.size()) + " of " + tenants.size() + " tenant schema(s) in "
+                    + (System.currentTimeMillis() - startTime) + " ms using " + threads + " thread(s)");
+            if (firstFailure != null) { throw new FlywayException("Schema upgrade failed for tenant(s) " + failures + "; first failure: "
+                    + firstFailure.getMessage(), firstFailure.getCause()); }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlywayException("Interrupted while upgrading tenant schemas", e);
+        } finally {
+            executorService.shutdownNow();
         }
     }
 
+    private static FlywayException asFlywayException(final Throwable cause) {
+        if (cause instanceof FlywayException) { return (FlywayException) cause; }
+        return new FlywayException(String.valueOf(cause.getMessage()), cause);
+    }
+
     /**
      * Initializes, and if required upgrades (using Flyway) the Tenant DB
      * itself.
@@ -94,4 +231,86 @@ public class TenantDatabaseUpgradeService {
 
         tenantDataSourcePortFixService.fixUpTenantsSchemaServerPort();
     }
-}
\ No newline at end of file
+
+    private Set<Long> retrieveConnectionsUpgradedOnFirstAccess() {
+        final List<Long> connectionIds = new JdbcTemplate(this.tenantDataSource).queryForList(
+                "select id from tenant_server_connections where auto_update_on_first_access = 1", Long.class);
+        return new HashSet<>(connectionIds);
+    }
+
+    /**
+     * Versions of the core_db migrations on the classpath, written the way
+     * Flyway records them in schema_version (underscores become dots).
+     */
+    private static Set<String> resolveAvailableCoreDbVersions() {
+        final Set<String> versions = new HashSet<>();
+        try {
+            final Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath*:" + CORE_DB_LOCATION
+                    + "/V*.sql");
+            for (final Resource migration : migrations) {
+                final Matcher matcher = MIGRATION_FILE_NAME.matcher(migration.getFilename());
+                if (matcher.matches()) {
+                    versions.add(matcher.group(1).replace('_', '.'));
+                }
+            }
+        } catch (final IOException e) {
+            logger.warn("Could not list the core_db migrations; every tenant schema goes through Flyway", e);
+            versions.clear();
+        }
+        return versions;
+    }
+
+    /**
+     * Runs Flyway against one tenant schema unless the schema already has
+     * every available migration applied.
+     */
+    private class TenantUpgrade implements Runnable {
+
+        private final FineractPlatformTenant tenant;
+
+        TenantUpgrade(final FineractPlatformTenant tenant) {
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void run() {
+            final long startTime = System.currentTimeMillis();
+            final FineractPlatformTenantConnection connection = this.tenant.getConnection();
+            String connectionProtocol = driverConfig.constructProtocol(connection.getSchemaServer(), connection.getSchemaServerPort(), connection.getSchemaName()) ;
+            DriverDataSource source = new DriverDataSource(driverConfig.getDriverClassName(), connectionProtocol, connection.getSchemaUsername(), connection.getSchemaPassword()) ;
+            if (isUpToDate(source)) {
+                logger.info("Tenant " + this.tenant.getTenantIdentifier() + " schema is up to date; checked in "
+                        + (System.currentTimeMillis() - startTime) + " ms");
+                return;
+            }
+
+            final Flyway flyway = new Flyway();
+            flyway.setDataSource(source);
+            flyway.setLocations(CORE_DB_LOCATION);
+            flyway.setOutOfOrder(true);
+            final int applied;
+            try {
+                applied = flyway.migrate();
+            } catch (FlywayException e) {
+                String betterMessage = e.getMessage() + "; for Tenant DB URL: " + connectionProtocol + ", username: "
+                        + connection.getSchemaUsername();
+                throw new FlywayException(betterMessage, e.getCause());
+            }
+            logger.info("Tenant " + this.tenant.getTenantIdentifier() + " schema upgraded with " + applied + " migration(s) in "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+        }
+
+        private boolean isUpToDate(final DataSource source) {
+            final Set<String> available = TenantDatabaseUpgradeService.this.availableCoreDbVersions;
+            if (available.isEmpty()) { return false; }
+            try {
+                final List<String> applied = new JdbcTemplate(source).queryForList(
+                        "select version from schema_version where success = 1", String.class);
+                return new HashSet<>(applied).containsAll(available);
+            } catch (final DataAccessException e) {
+                // no metadata table yet, let Flyway create it
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Looks up the optional read-replica connection of a tenant (the
+ * <code>replica_id</code> column of the tenant store) and keeps track of
+ * whether the replica is close enough to its primary to serve reads.
+ * 
+ * Replication lag is checked at most once every
+ * {@link #LAG_CHECK_INTERVAL_MILLIS} per tenant by whichever request thread
+ * notices the previous result has expired; all other threads use the last
+ * known result without waiting. A replica whose lag is unknown is treated as
+ * too far behind: replication stopped, a server that is not replicating at
+ * all (empty <code>SHOW SLAVE STATUS</code>) or a failing check. The replica
+ * user therefore needs the <code>REPLICATION CLIENT</code> privilege. Changes
+ * between usable and unusable are logged once, not on every check.
+ */
+@Service
+public class TenantReadReplicaService {
+
+    private final static Logger logger = LoggerFactory.getLogger(TenantReadReplicaService.class);
+
+    static final long LAG_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final JdbcTemplate tenantStoreJdbcTemplate;
+    private final ConcurrentMap<Long, ReplicaState> replicaStateByTenantId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TenantReadReplicaService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+        this(new JdbcTemplate(tenantDataSource));
+    }
+
+    TenantReadReplicaService(final JdbcTemplate tenantStoreJdbcTemplate) {
+        this.tenantStoreJdbcTemplate = tenantStoreJdbcTemplate;
+    }
+
+    /**
+     * @return the replica connection of the tenant or <code>null</code> when
+     *         none is configured
+     */
+    public FineractPlatformTenantConnection retrieveReplicaConnection(final FineractPlatformTenant tenant) {
+        return replicaStateFor(tenant).connection;
+    }
+
+    /**
+     * @return true when the replication lag of the tenant's replica was last
+     *         seen within the tenant's <code>replica_max_lag_seconds</code>
+     */
+    public boolean isReplicaWithinLag(final FineractPlatformTenant tenant, final DataSource replicaDataSource) {
+        final ReplicaState state = replicaStateFor(tenant);
+        if (state.connection == null) { return false; }
+
+        final long now = System.currentTimeMillis();
+        if (now - state.lagCheckedAt >= LAG_CHECK_INTERVAL_MILLIS && state.lagCheckRunning.compareAndSet(false, true)) {
+            try {
+                final String problem = checkReplicationLag(replicaDataSource, state.maxLagSeconds);
+                final boolean withinLag = problem == null;
+                if (!withinLag && (state.withinLag || state.lagCheckedAt == 0)) {
+                    logger.warn("Read replica of tenant " + tenant.getTenantIdentifier() + " is not used: " + problem
+                            + "; routing reads to the primary");
+                } else if (withinLag && !state.withinLag) {
+                    logger.info("Read replica of tenant " + tenant.getTenantIdentifier() + " is serving reads");
+                }
+                state.withinLag = withinLag;
+                state.lagCheckedAt = now;
+            } finally {
+                state.lagCheckRunning.set(false);
+            }
+        }
+        return state.withinLag;
+    }
+
+    private ReplicaState replicaStateFor(final FineractPlatformTenant tenant) {
+        ReplicaState state = this.replicaStateByTenantId.get(tenant.getId());
+        if (state == null) {
+            final ReplicaState loaded = loadReplicaState(tenant);
+            state = this.replicaStateByTenantId.putIfAbsent(tenant.getId(), loaded);
+            if (state == null) {
+                state = loaded;
+            }
+        }
+        return state;
+    }
+
+    private ReplicaState loadReplicaState(final FineractPlatformTenant tenant) {
+        final ReplicaConnectionMapper rm = new ReplicaConnectionMapper();
+        final List<ReplicaState> states = this.tenantStoreJdbcTemplate.query("select " + rm.schema() + " where t.id = ?", rm,
+                new Object[] { tenant.getId() });
+        if (states.isEmpty()) { return new ReplicaState(null, 0); }
+
+        final ReplicaState state = states.get(0);
+        if (state.connection.getConnectionId().equals(tenant.getConnection().getConnectionId())) {
+            // pointing the replica at the primary would share one pool
+            return new ReplicaState(null, 0);
+        }
+        return state;
+    }
+
+    /**
+     * @return why the replica cannot serve reads or <code>null</code> when it
+     *         is replicating within <code>maxLagSeconds</code>
+     */
+    private String checkReplicationLag(final DataSource replicaDataSource, final int maxLagSeconds) {
+        final List<Map<String, Object>> status;
+        try {
+            status = retrieveReplicationStatus(replicaDataSource);
+        } catch (final RuntimeException e) {
+            return "replication status could not be read (the replica user needs the REPLICATION CLIENT privilege): "
+                    + e.getMessage();
+        }
+        if (status.isEmpty()) { return "the server is not replicating"; }
+
+        final Object secondsBehindMaster = status.get(0).get("Seconds_Behind_Master");
+        if (secondsBehindMaster == null) { return "replication is stopped"; }
+        final long lagSeconds = ((Number) secondsBehindMaster).longValue();
+        if (lagSeconds > maxLagSeconds) { return "lagging " + lagSeconds + "s behind, allowed " + maxLagSeconds + "s"; }
+        return null;
+    }
+
+    List<Map<String, Object>> retrieveReplicationStatus(final DataSource replicaDataSource) {
+        return new JdbcTemplate(replicaDataSource).queryForList("SHOW SLAVE STATUS");
+    }
+
+    private static final class ReplicaState {
+
+        private final FineractPlatformTenantConnection connection;
+        private final int maxLagSeconds;
+        private final AtomicBoolean lagCheckRunning = new AtomicBoolean(false);
+        private volatile long lagCheckedAt;
+        private volatile boolean withinLag;
+
+        ReplicaState(final FineractPlatformTenantConnection connection, final int maxLagSeconds) {
+            this.connection = connection;
+            this.maxLagSeconds = maxLagSeconds;
+        }
+    }
+
+    private static final class ReplicaConnectionMapper implements RowMapper<ReplicaState> {
+
+        public String schema() {
+            return " t.replica_max_lag_seconds as maxLagSeconds, ts.id as connectionId, ts.schema_name as schemaName,"
+                    + " ts.schema_server as schemaServer, ts.schema_server_port as schemaServerPort,"
+                    + " ts.schema_username as schemaUsername, ts.schema_password as schemaPassword, ts.pool_initial_size as initialSize,"
+                    + " ts.pool_validation_interval as validationInterval, ts.pool_remove_abandoned as removeAbandoned,"
+                    + " ts.pool_remove_abandoned_timeout as removeAbandonedTimeout, ts.pool_log_abandoned as logAbandoned,"
+                    + " ts.pool_abandon_when_percentage_full as abandonedWhenPercentageFull, ts.pool_test_on_borrow as testOnBorrow,"
+                    + " ts.pool_max_active as poolMaxActive, ts.pool_min_idle as poolMinIdle, ts.pool_max_idle as poolMaxIdle,"
+                    + " ts.pool_suspect_timeout as poolSuspectTimeout,"
+                    + " ts.pool_time_between_eviction_runs_millis as poolTimeBetweenEvictionRunsMillis,"
+                    + " ts.pool_min_evictable_idle_time_millis as poolMinEvictableIdleTimeMillis"
+                    + " from tenants t inner join tenant_server_connections ts on t.replica_id = ts.id";
+        }
+
+        @Override
+        public ReplicaState mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            // replicas are never migrated or retried on deadlock; they only
+            // serve reads
+            final FineractPlatformTenantConnection connection = new FineractPlatformTenantConnection(rs.getLong("connectionId"),
+                    rs.getString("schemaName"), rs.getString("schemaServer"), rs.getString("schemaServerPort"),
+                    rs.getString("schemaUsername"), rs.getString("schemaPassword"), false, rs.getInt("initialSize"),
+                    rs.getLong("validationInterval"), rs.getBoolean("removeAbandoned"), rs.getInt("removeAbandonedTimeout"),
+                    rs.getBoolean("logAbandoned"), rs.getInt("abandonedWhenPercentageFull"), rs.getInt("poolMaxActive"),
+                    rs.getInt("poolMinIdle"), rs.getInt("poolMaxIdle"), rs.getInt("poolSuspectTimeout"),
+                    rs.getInt("poolTimeBetweenEvictionRunsMillis"), rs.getInt("poolMinEvictableIdleTimeMillis"), 0, 1,
+                    rs.getBoolean("testOnBorrow"));
+            return new ReplicaState(connection, rs.getInt("maxLagSeconds"));
+        }
+    }
+}
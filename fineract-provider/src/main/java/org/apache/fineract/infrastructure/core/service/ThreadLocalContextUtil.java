@@ -33,6 +33,8 @@ public class ThreadLocalContextUtil {
     private static final ThreadLocal<FineractPlatformTenant> tenantcontext = new ThreadLocal<>();
     
     private static final ThreadLocal<String> authTokenContext = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> readReplicaRoutingContext = new ThreadLocal<>();
     
     public static void setTenant(final FineractPlatformTenant tenant) {
         Assert.notNull(tenant, "tenant cannot be null");
@@ -67,4 +69,20 @@ public class ThreadLocalContextUtil {
         return authTokenContext.get();
     }
 
+    /**
+     * Marks the work on this thread as read-only so that it may be served
+     * from the tenant's read replica when one is configured.
+     */
+    public static void setReadReplicaRouting(final boolean readOnly) {
+        readReplicaRoutingContext.set(Boolean.valueOf(readOnly));
+    }
+
+    public static boolean isReadReplicaRouting() {
+        return Boolean.TRUE.equals(readReplicaRoutingContext.get());
+    }
+
+    public static void clearReadReplicaRouting() {
+        readReplicaRoutingContext.remove();
+    }
+
 }
\ No newline at end of file
@@ -18,8 +18,9 @@
  */
 package org.apache.fineract.infrastructure.core.service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 import javax.sql.DataSource;
 
@@ -31,6 +32,7 @@ import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Implementation that returns a new or existing tomcat 7 jdbc connection pool
@@ -39,19 +41,36 @@ import org.springframework.stereotype.Service;
  * 
  * {@link ThreadLocalContextUtil} is used to retrieve the
  * {@link FineractPlatformTenant} for the request.
+ * 
+ * Work marked read-only through
+ * {@link ThreadLocalContextUtil#setReadReplicaRouting(boolean)} goes to the
+ * tenant's read-replica pool when one is configured, no read-write
+ * transaction is active and the replica is within its allowed lag; otherwise
+ * the primary is used. A read-write transaction always begins on the primary,
+ * see {@link ReadReplicaAwareJpaTransactionManager}.
+ * 
+ * Replica pools are kept apart from primary pools: the same
+ * <code>tenant_server_connections</code> row may be one tenant's replica and
+ * another tenant's primary, and only the replica pool is read-only.
  */
 @Service
 public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceService {
 
-    private final Map<Long, DataSource> tenantToDataSourceMap = new HashMap<>(1);
+    private final ConcurrentMap<Long, DataSource> tenantToDataSourceMap = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, DataSource> replicaDataSourceMap = new ConcurrentHashMap<>();
     private final DataSource tenantDataSource;
+    private final TenantReadReplicaService readReplicaService;
+    private final TenantDatabaseUpgradeService databaseUpgradeService;
 
     @Autowired
     private JDBCDriverConfig driverConfig ;
     
     @Autowired
-    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource) {
+    public TomcatJdbcDataSourcePerTenantService(final @Qualifier("tenantDataSourceJndi") DataSource tenantDataSource,
+            final TenantReadReplicaService readReplicaService, final TenantDatabaseUpgradeService databaseUpgradeService) {
         this.tenantDataSource = tenantDataSource;
+        this.readReplicaService = readReplicaService;
+        this.databaseUpgradeService = databaseUpgradeService;
     }
 
     @Override
@@ -62,27 +81,48 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant(); 
         if (tenant != null) {
-            final FineractPlatformTenantConnection tenantConnection = tenant.getConnection();
-
-            synchronized (this.tenantToDataSourceMap) {
-                // if tenantConnection information available switch to
-                // appropriate
-                // datasource
-                // for that tenant.
-                if (this.tenantToDataSourceMap.containsKey(tenantConnection.getConnectionId())) {
-                    tenantDataSource = this.tenantToDataSourceMap.get(tenantConnection.getConnectionId());
-                } else {
-                    tenantDataSource = createNewDataSourceFor(tenantConnection);
-                    this.tenantToDataSourceMap.put(tenantConnection.getConnectionId(), tenantDataSource);
+            if (isReadReplicaAllowed()) {
+                final FineractPlatformTenantConnection replicaConnection = this.readReplicaService.retrieveReplicaConnection(tenant);
+                if (replicaConnection != null) {
+                    final DataSource replicaDataSource = dataSourceFor(tenant, replicaConnection, true);
+                    if (this.readReplicaService.isReplicaWithinLag(tenant, replicaDataSource)) { return replicaDataSource; }
                 }
             }
+            tenantDataSource = dataSourceFor(tenant, tenant.getConnection(), false);
         }
 
         return tenantDataSource;
     }
 
-    // creates the data source oltp and report databases
-    private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj) {
+    private boolean isReadReplicaAllowed() {
+        if (!ThreadLocalContextUtil.isReadReplicaRouting()) { return false; }
+        // a read-write transaction may already have written on the primary
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private DataSource dataSourceFor(final FineractPlatformTenant tenant, final FineractPlatformTenantConnection tenantConnection,
+            final boolean readOnly) {
+        final ConcurrentMap<Long, DataSource> dataSources = readOnly ? this.replicaDataSourceMap : this.tenantToDataSourceMap;
+        // lock free for connections which already have a pool
+        final DataSource dataSource = dataSources.get(tenantConnection.getConnectionId());
+        if (dataSource != null) { return dataSource; }
+
+        // dormant tenants get their schema upgraded before the first pool
+        // (primary or replica) is handed out
+        this.databaseUpgradeService.upgradeIfDeferred(tenant.getConnection().getConnectionId());
+
+        return dataSources.computeIfAbsent(tenantConnection.getConnectionId(), new Function<Long, DataSource>() {
+
+            @Override
+            public DataSource apply(@SuppressWarnings("unused") final Long connectionId) {
+                return createNewDataSourceFor(tenantConnection, readOnly);
+            }
+        });
+    }
+
+    // creates the data source oltp, report and read replica databases
+    private DataSource createNewDataSourceFor(final FineractPlatformTenantConnection tenantConnectionObj, final boolean readOnly) {
         // see
         // http://www.tomcatexpert.com/blog/2010/04/01/configuring-jdbc-pool-high-concurrency
 
@@ -91,12 +131,17 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         //final String jdbcUrl = tenantConnectionObj.databaseURL();
         final PoolConfiguration poolConfiguration = new PoolProperties();
         poolConfiguration.setDriverClassName(this.driverConfig.getDriverClassName());
-        poolConfiguration.setName(tenantConnectionObj.getSchemaName() + "_pool");
+        poolConfiguration.setName(tenantConnectionObj.getSchemaName() + (readOnly ? "_replica_pool" : "_pool"));
         poolConfiguration.setUrl(jdbcUrl);
         poolConfiguration.setUsername(tenantConnectionObj.getSchemaUsername());
         poolConfiguration.setPassword(tenantConnectionObj.getSchemaPassword());
 
         poolConfiguration.setInitialSize(tenantConnectionObj.getInitialSize());
+        if (readOnly) {
+            // a write routed to a replica by mistake fails instead of
+            // diverging from the primary
+            poolConfiguration.setDefaultReadOnly(Boolean.TRUE);
+        }
 
         poolConfiguration.setTestOnBorrow(tenantConnectionObj.isTestOnBorrow());
         poolConfiguration.setValidationQuery("SELECT 1");
@@ -120,7 +165,8 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         // poolConfiguration.setMinEvictableIdleTimeMillis(tenant.getMinEvictableIdleTimeMillis());
 
         poolConfiguration.setJdbcInterceptors("org.apache.tomcat.jdbc.pool.interceptor.ConnectionState;"
-                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport");
+                + "org.apache.tomcat.jdbc.pool.interceptor.StatementFinalizer;org.apache.tomcat.jdbc.pool.interceptor.SlowQueryReport;"
+                + StatementTimingInterceptor.class.getName());
 
         return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
     }
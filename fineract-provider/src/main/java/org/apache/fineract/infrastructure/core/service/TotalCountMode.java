@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+/**
+ * How the total number of matching records is worked out for a {@link Page}.
+ * <ul>
+ * <li>EXACT - counted by MySQL using SQL_CALC_FOUND_ROWS, which reads the
+ * whole filtered result set.</li>
+ * <li>APPROXIMATE - the optimiser row estimate from EXPLAIN.</li>
+ * <li>NONE - not calculated, the page reports -1.</li>
+ * </ul>
+ */
+public enum TotalCountMode {
+
+    EXACT("exact"), //
+    APPROXIMATE("approximate"), //
+    NONE("none");
+
+    private final String value;
+
+    private TotalCountMode(final String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+    /**
+     * Offset paging keeps the exact total by default. Keyset paging has no
+     * cheap exact total so it defaults to none and rejects exact.
+     */
+    public static TotalCountMode resolve(final String totalCount, final boolean keysetPaging) {
+        if (StringUtils.isBlank(totalCount)) { return keysetPaging ? NONE : EXACT; }
+
+        for (final TotalCountMode mode : values()) {
+            if (mode.value.equalsIgnoreCase(totalCount.trim())) {
+                if (keysetPaging && mode == EXACT) {
+                    break;
+                }
+                return mode;
+            }
+        }
+
+        if (keysetPaging) { throw new UnrecognizedQueryParamException("totalCount", totalCount, APPROXIMATE.value, NONE.value); }
+        throw new UnrecognizedQueryParamException("totalCount", totalCount, EXACT.value, APPROXIMATE.value, NONE.value);
+    }
+}
@@ -27,6 +27,14 @@ public interface GenericDataService {
 
     GenericResultsetData fillGenericResultSet(final String sql);
 
+    /**
+     * Runs the query with a streaming JDBC cursor and hands each row to the
+     * writer as soon as it is read, without holding the result in memory.
+     * 
+     * @return number of rows written
+     */
+    long streamGenericResultSet(String sql, GenericResultsetWriter resultsetWriter);
+
     String generateJsonFromGenericResultsetData(GenericResultsetData grs);
 
     String replace(String str, String pattern, String replace);
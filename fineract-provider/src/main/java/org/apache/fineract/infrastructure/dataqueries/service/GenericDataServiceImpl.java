@@ -18,7 +18,16 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -29,12 +38,13 @@ import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeader
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnValueData;
 import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
 import org.apache.fineract.infrastructure.dataqueries.exception.DatatableNotFoundException;
-import org.joda.time.LocalDate;
-import org.joda.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
 import org.springframework.stereotype.Service;
@@ -46,6 +56,8 @@ public class GenericDataServiceImpl implements GenericDataService {
     private final DataSource dataSource;
     private final static Logger logger = LoggerFactory.getLogger(GenericDataServiceImpl.class);
 
+    private static final int STREAM_FLUSH_INTERVAL = 1000;
+
     @Autowired
     public GenericDataServiceImpl(final RoutingDataSource dataSource) {
         this.dataSource = dataSource;
@@ -117,81 +129,81 @@ public class GenericDataServiceImpl implements GenericDataService {
     }
 
     @Override
-    public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
-
-        final StringBuffer writer = new StringBuffer();
-
-        writer.append("[");
-
-        final List<ResultsetColumnHeaderData> columnHeaders = grs.getColumnHeaders();
-
-        final List<ResultsetRowData> data = grs.getData();
-        List<String> row;
-        Integer rSize;
-        final String doubleQuote = "\"";
-        final String slashDoubleQuote = "\\\"";
-        String currColType;
-        String currVal;
+    public long streamGenericResultSet(final String sql, final GenericResultsetWriter resultsetWriter) {
+
+        final PreparedStatementCreator streamingStatementCreator = new PreparedStatementCreator() {
+
+            @Override
+            public PreparedStatement createPreparedStatement(final Connection connection) throws SQLException {
+                final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                // makes MySQL Connector/J hand rows over one at a time instead
+                // of reading the complete result set into memory first
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            }
+        };
 
-        for (int i = 0; i < data.size(); i++) {
-            writer.append("\n{");
+        return this.jdbcTemplate.query(streamingStatementCreator, new ResultSetExtractor<Long>() {
 
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
+            @Override
+            public Long extractData(final ResultSet rs) throws SQLException {
+                final ResultSetMetaData rsmd = rs.getMetaData();
+                final int columnCount = rsmd.getColumnCount();
 
-                writer.append(doubleQuote + columnHeaders.get(j).getColumnName() + doubleQuote + ": ");
-                currColType = columnHeaders.get(j).getColumnDisplayType();
-                final String colType = columnHeaders.get(j).getColumnType();
-                if (currColType == null && colType.equalsIgnoreCase("INT")) {
-                    currColType = "INTEGER";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("VARCHAR")) {
-                    currColType = "VARCHAR";
-                }
-                if (currColType == null && colType.equalsIgnoreCase("DATE")) {
-                    currColType = "DATE";
+                final List<ResultsetColumnHeaderData> columnHeaders = new ArrayList<>(columnCount);
+                for (int i = 0; i < columnCount; i++) {
+                    columnHeaders.add(ResultsetColumnHeaderData.basic(rsmd.getColumnName(i + 1), rsmd.getColumnTypeName(i + 1)));
                 }
-                currVal = row.get(j);
-                if (currVal != null && currColType != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("INTEGER")) {
-                        writer.append(currVal);
-                    } else {
-                        if (currColType.equals("DATE")) {
-                            final LocalDate localDate = new LocalDate(currVal);
-                            writer.append("[" + localDate.getYear() + ", " + localDate.getMonthOfYear() + ", " + localDate.getDayOfMonth()
-                                    + "]");
-                        } else if (currColType.equals("DATETIME")) {
-                            final LocalDateTime localDateTime = new LocalDateTime(currVal);
-                            writer.append("[" + localDateTime.getYear() + ", " + localDateTime.getMonthOfYear() + ", "
-                                    + localDateTime.getDayOfMonth() + " " + localDateTime.getHourOfDay() + ", "
-                                    + localDateTime.getMinuteOfHour() + ", " + localDateTime.getSecondOfMinute() + ", "
-                                    + localDateTime.getMillisOfSecond() + "]");
-                        } else {
-                            writer.append(doubleQuote + replace(currVal, doubleQuote, slashDoubleQuote) + doubleQuote);
+
+                long rowCount = 0;
+                try {
+                    resultsetWriter.writeColumnHeaders(columnHeaders);
+                    while (rs.next()) {
+                        final List<String> columnValues = new ArrayList<>(columnCount);
+                        for (int i = 0; i < columnCount; i++) {
+                            columnValues.add(rs.getString(i + 1));
+                        }
+                        resultsetWriter.writeRow(columnValues);
+                        if (++rowCount % STREAM_FLUSH_INTERVAL == 0) {
+                            resultsetWriter.flush();
                         }
                     }
-                } else {
-                    writer.append("null");
-                }
-                if (j < (rSize - 1)) {
-                    writer.append(",\n");
+                    resultsetWriter.finish();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+                return rowCount;
             }
+        });
+    }
+
+    @Override
+    public String generateJsonFromGenericResultsetData(final GenericResultsetData grs) {
 
-            if (i < (data.size() - 1)) {
-                writer.append("},");
-            } else {
-                writer.append("}");
+        final StringWriter writer = new StringWriter();
+        final GenericResultsetJsonArrayWriter jsonWriter = new GenericResultsetJsonArrayWriter(writer);
+        try {
+            jsonWriter.writeColumnHeaders(grs.getColumnHeaders());
+            for (final ResultsetRowData row : grs.getData()) {
+                jsonWriter.writeRow(row.getRow());
             }
+            jsonWriter.finish();
+        } catch (final IOException e) {
+            // not expected when writing to a StringWriter
+            throw new UncheckedIOException(e);
         }
-
-        writer.append("\n]");
         return writer.toString();
 
     }
 
+    /*
+     * Column headers, with the allowed code values of code lookup columns, are
+     * cached per tenant and datatable, as reading them from information_schema
+     * is slow; they are evicted by the datatable and code value commands
+     */
     @Override
+    @Cacheable(value = "datatables", key = "T(org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#datatable+'dt')")
     public List<ResultsetColumnHeaderData> fillResultsetColumnHeaders(final String datatable) {
 
         logger.debug("::3 Was inside the fill ResultSetColumnHeader");
@@ -247,13 +259,9 @@ public class GenericDataServiceImpl implements GenericDataService {
             columnHeaders.add(rsch);
         }
 
-        return columnHeaders;
+        return Collections.unmodifiableList(columnHeaders);
     }
 
-    /*
-     * Candidate for using caching there to get allowed 'column values' from
-     * code/codevalue tables
-     */
     private List<ResultsetColumnValueData> retreiveColumnValues(final String codeName) {
 
         final List<ResultsetColumnValueData> columnValues = new ArrayList<>();
@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+/**
+ * Writes a generic resultset as CSV: a quoted header line followed by one
+ * line per row, with numeric columns unquoted.
+ */
+public class GenericResultsetCsvWriter implements GenericResultsetWriter {
+
+    private static final String doubleQuote = "\"";
+    private static final String twoDoubleQuotes = doubleQuote + doubleQuote;
+
+    private final Writer writer;
+    private List<ResultsetColumnHeaderData> columnHeaders;
+
+    public GenericResultsetCsvWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.columnHeaders = columnHeaders;
+        final int chSize = columnHeaders.size();
+        for (int i = 0; i < chSize; i++) {
+            this.writer.append('"').append(columnHeaders.get(i).getColumnName()).append('"');
+            if (i < (chSize - 1)) {
+                this.writer.append(',');
+            }
+        }
+        this.writer.append('\n');
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        final int rSize = row.size();
+        for (int j = 0; j < rSize; j++) {
+            final String currColType = this.columnHeaders.get(j).getColumnType();
+            final String currVal = row.get(j);
+            if (currVal != null) {
+                if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
+                        || currColType.equals("SMALLINT") || currColType.equals("INT")) {
+                    this.writer.append(currVal);
+                } else {
+                    this.writer.append('"').append(currVal.replace(doubleQuote, twoDoubleQuotes)).append('"');
+                }
+            }
+            if (j < (rSize - 1)) {
+                this.writer.append(',');
+            }
+        }
+        this.writer.append('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writer.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.writer.flush();
+    }
+}
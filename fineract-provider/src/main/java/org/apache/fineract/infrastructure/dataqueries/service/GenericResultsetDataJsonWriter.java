@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes a generic resultset in the same JSON layout that serializing a
+ * {@link GenericResultsetData} produces: the column headers followed by a
+ * <code>data</code> array of <code>{"row": [...]}</code> entries.
+ */
+public class GenericResultsetDataJsonWriter implements GenericResultsetWriter {
+
+    private final Gson gson;
+    private final JsonWriter jsonWriter;
+
+    public GenericResultsetDataJsonWriter(final Writer writer, final Gson gson, final boolean prettyPrint) {
+        this.gson = gson;
+        this.jsonWriter = new JsonWriter(writer);
+        this.jsonWriter.setHtmlSafe(true);
+        if (prettyPrint) {
+            this.jsonWriter.setIndent("  ");
+        }
+    }
+
+    @Override
+    public void writeColumnHeaders(final List<ResultsetColumnHeaderData> columnHeaders) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("columnHeaders");
+        this.jsonWriter.beginArray();
+        for (final ResultsetColumnHeaderData columnHeader : columnHeaders) {
+            this.gson.toJson(columnHeader, ResultsetColumnHeaderData.class, this.jsonWriter);
+        }
+        this.jsonWriter.endArray();
+        this.jsonWriter.name("data");
+        this.jsonWriter.beginArray();
+    }
+
+    @Override
+    public void writeRow(final List<String> row) throws IOException {
+        this.jsonWriter.beginObject();
+        this.jsonWriter.name("row");
+        this.jsonWriter.beginArray();
+        for (final String value : row) {
+            if (value == null) {
+                this.jsonWriter.nullValue();
+            } else {
+                this.jsonWriter.value(value);
+            }
+        }
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.jsonWriter.flush();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.jsonWriter.endArray();
+        this.jsonWriter.endObject();
+        this.jsonWriter.flush();
+    }
+}
@@ -31,6 +31,9 @@ public interface ReadReportingService {
 
     StreamingOutput retrieveReportCSV(String name, String type, Map<String, String> extractedQueryParams);
 
+    StreamingOutput retrieveReportJSON(String name, String type, Map<String, String> extractedQueryParams, boolean genericResultSet,
+            boolean prettyPrint);
+
     GenericResultsetData retrieveGenericResultset(String name, String type, Map<String, String> extractedQueryParams);
 
     String retrieveReportPDF(String name, String type, Map<String, String> extractedQueryParams);
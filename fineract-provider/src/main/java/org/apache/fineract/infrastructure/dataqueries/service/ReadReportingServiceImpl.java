@@ -18,11 +18,15 @@
  */
 package org.apache.fineract.infrastructure.dataqueries.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -36,6 +40,7 @@ import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
 import org.apache.fineract.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
 import org.apache.fineract.infrastructure.dataqueries.data.ReportData;
@@ -51,11 +56,13 @@ import org.apache.fineract.useradministration.domain.AppUser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
+import com.google.gson.Gson;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.pdf.PdfPTable;
@@ -71,97 +78,73 @@ public class ReadReportingServiceImpl implements ReadReportingService {
     private final PlatformSecurityContext context;
     private final GenericDataService genericDataService;
     private final ReportingProcessServiceProvider reportingProcessServiceProvider;
+    private final Gson gson;
 
     @Autowired
     public ReadReportingServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
-            final GenericDataService genericDataService, final ReportingProcessServiceProvider reportingProcessServiceProvider) {
+            final GenericDataService genericDataService, final ReportingProcessServiceProvider reportingProcessServiceProvider,
+            final GoogleGsonSerializerHelper gsonSerializerHelper) {
 
         this.context = context;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.genericDataService = genericDataService;
         this.reportingProcessServiceProvider = reportingProcessServiceProvider;
+        this.gson = gsonSerializerHelper.createGsonBuilder(false);
     }
 
     @Override
     public StreamingOutput retrieveReportCSV(final String name, final String type, final Map<String, String> queryParams) {
 
+        final String sql = getSQLtoRun(name, type, queryParams);
+
         return new StreamingOutput() {
 
             @Override
-            public void write(final OutputStream out) {
-                try {
-
-                    final GenericResultsetData result = retrieveGenericResultset(name, type, queryParams);
-                    final StringBuffer sb = generateCsvFileBuffer(result);
-
-                    final InputStream in = new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
-
-                    final byte[] outputByte = new byte[4096];
-                    Integer readLen = in.read(outputByte, 0, 4096);
-
-                    while (readLen != -1) {
-                        out.write(outputByte, 0, readLen);
-                        readLen = in.read(outputByte, 0, 4096);
-                    }
-                    // in.close();
-                    // out.flush();
-                    // out.close();
-                } catch (final Exception e) {
-                    throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
-                }
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                streamReport(name, type, sql, new GenericResultsetCsvWriter(writer));
             }
         };
 
     }
 
-    private StringBuffer generateCsvFileBuffer(final GenericResultsetData result) {
-        final StringBuffer writer = new StringBuffer();
+    @Override
+    public StreamingOutput retrieveReportJSON(final String name, final String type, final Map<String, String> queryParams,
+            final boolean genericResultSet, final boolean prettyPrint) {
 
-        final List<ResultsetColumnHeaderData> columnHeaders = result.getColumnHeaders();
-        logger.info("NO. of Columns: " + columnHeaders.size());
-        final Integer chSize = columnHeaders.size();
-        for (int i = 0; i < chSize; i++) {
-            writer.append('"' + columnHeaders.get(i).getColumnName() + '"');
-            if (i < (chSize - 1)) {
-                writer.append(",");
-            }
-        }
-        writer.append('\n');
-
-        final List<ResultsetRowData> data = result.getData();
-        List<String> row;
-        Integer rSize;
-        // String currCol;
-        String currColType;
-        String currVal;
-        final String doubleQuote = "\"";
-        final String twoDoubleQuotes = doubleQuote + doubleQuote;
-        logger.info("NO. of Rows: " + data.size());
-        for (int i = 0; i < data.size(); i++) {
-            row = data.get(i).getRow();
-            rSize = row.size();
-            for (int j = 0; j < rSize; j++) {
-                // currCol = columnHeaders.get(j).getColumnName();
-                currColType = columnHeaders.get(j).getColumnType();
-                currVal = row.get(j);
-                if (currVal != null) {
-                    if (currColType.equals("DECIMAL") || currColType.equals("DOUBLE") || currColType.equals("BIGINT")
-                            || currColType.equals("SMALLINT") || currColType.equals("INT")) {
-                        writer.append(currVal);
-                    } else {
-                        writer.append('"' + this.genericDataService.replace(currVal, doubleQuote, twoDoubleQuotes) + '"');
-                    }
+        final String sql = getSQLtoRun(name, type, queryParams);
 
+        return new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                GenericResultsetWriter resultsetWriter = null;
+                if (genericResultSet) {
+                    resultsetWriter = new GenericResultsetDataJsonWriter(writer, ReadReportingServiceImpl.this.gson, prettyPrint);
+                } else {
+                    resultsetWriter = new GenericResultsetJsonArrayWriter(writer);
                 }
-                if (j < (rSize - 1)) {
-                    writer.append(",");
-                }
+                streamReport(name, type, sql, resultsetWriter);
             }
-            writer.append('\n');
-        }
+        };
+    }
 
-        return writer;
+    private void streamReport(final String name, final String type, final String sql, final GenericResultsetWriter resultsetWriter)
+            throws IOException {
+        final long startTime = System.currentTimeMillis();
+        logger.info("STARTING REPORT: " + name + "   Type: " + type);
+        try {
+            final long rows = this.genericDataService.streamGenericResultSet(sql, resultsetWriter);
+            final long elapsed = System.currentTimeMillis() - startTime;
+            logger.info("FINISHING Report/Request Name: " + name + " - " + type + "     Rows: " + rows + "     Elapsed Time: " + elapsed);
+        } catch (final UncheckedIOException e) {
+            // client went away or the connection broke while streaming
+            throw e.getCause();
+        } catch (final DataAccessException e) {
+            throw new PlatformDataIntegrityException("error.msg.exception.error", e.getMessage());
+        }
     }
 
     @Override
@@ -62,6 +62,7 @@ import org.joda.time.LocalDateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -196,6 +197,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         logger.error(dve.getMessage(), dve);
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void registerDatatable(final String dataTableName, final String applicationTableName) {
@@ -207,6 +209,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void registerDatatable(final JsonCommand command) {
@@ -222,6 +225,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
 
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void registerDatatable(final JsonCommand command, final String permissionSql) {
@@ -318,6 +322,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         return urlParts[4];
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void deregisterDatatable(final String datatable) {
@@ -486,6 +491,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         sqlBuilder = sqlBuilder.append(", ");
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult createDatatable(final JsonCommand command) {
@@ -792,6 +798,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         }
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void updateDatatable(final String datatableName, final JsonCommand command) {
@@ -945,6 +952,7 @@ public class ReadWriteNonCoreDataServiceImpl implements ReadWriteNonCoreDataServ
         }
     }
 
+    @CacheEvict(value = { "configuration", "permissions", "datatables" }, allEntries = true)
     @Transactional
     @Override
     public void deleteDatatable(final String datatableName) {
@@ -43,6 +43,7 @@ import org.apache.fineract.useradministration.exception.PermissionNotFoundExcept
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -77,6 +78,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         this.readReportingService = readReportingService;
     }
 
+    @CacheEvict(value = "permissions", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult createReport(final JsonCommand command) {
@@ -105,6 +107,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         }
     }
 
+    @CacheEvict(value = "permissions", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult updateReport(final Long reportId, final JsonCommand command) {
@@ -142,6 +145,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
         }
     }
 
+    @CacheEvict(value = "permissions", allEntries = true)
     @Transactional
     @Override
     public CommandProcessingResult deleteReport(final Long reportId) {
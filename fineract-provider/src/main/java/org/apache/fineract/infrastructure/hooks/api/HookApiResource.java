@@ -43,6 +43,8 @@ import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
 import org.apache.fineract.infrastructure.hooks.data.HookData;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryStatisticsData;
+import org.apache.fineract.infrastructure.hooks.service.HookDeliveryService;
 import org.apache.fineract.infrastructure.hooks.service.HookReadPlatformService;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +63,8 @@ public class HookApiResource {
 	private final DefaultToApiJsonSerializer<HookData> toApiJsonSerializer;
 	private final ApiRequestParameterHelper apiRequestParameterHelper;
 	private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
+	private final HookDeliveryService hookDeliveryService;
+	private final DefaultToApiJsonSerializer<HookDeliveryStatisticsData> deliveryStatisticsSerializer;
 
 	@Autowired
 	public HookApiResource(
@@ -68,12 +72,16 @@ public class HookApiResource {
 			final HookReadPlatformService readPlatformService,
 			final DefaultToApiJsonSerializer<HookData> toApiJsonSerializer,
 			final ApiRequestParameterHelper apiRequestParameterHelper,
-			final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService) {
+			final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
+			final HookDeliveryService hookDeliveryService,
+			final DefaultToApiJsonSerializer<HookDeliveryStatisticsData> deliveryStatisticsSerializer) {
 		this.context = context;
 		this.readPlatformService = readPlatformService;
 		this.toApiJsonSerializer = toApiJsonSerializer;
 		this.apiRequestParameterHelper = apiRequestParameterHelper;
 		this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
+		this.hookDeliveryService = hookDeliveryService;
+		this.deliveryStatisticsSerializer = deliveryStatisticsSerializer;
 	}
 
 	@GET
@@ -130,6 +138,22 @@ public class HookApiResource {
 				RESPONSE_DATA_PARAMETERS);
 	}
 
+	@GET
+	@Path("deliverystatistics")
+	public String retrieveDeliveryStatistics(@Context final UriInfo uriInfo) {
+
+		this.context.authenticatedUser().validateHasReadPermission(
+				HOOK_RESOURCE_NAME);
+
+		final HookDeliveryStatisticsData statistics = this.hookDeliveryService
+				.retrieveDeliveryStatistics();
+
+		final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper
+				.process(uriInfo.getQueryParameters());
+		return this.deliveryStatisticsSerializer.serialize(settings,
+				statistics);
+	}
+
 	@POST
 	public String createHook(final String apiRequestBodyAsJson) {
 
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.data;
+
+/**
+ * Immutable data object describing the state of the hook delivery outbox.
+ * Lag values are in seconds and measured from the time the event was
+ * committed to the time it was accepted by the receiver.
+ */
+@SuppressWarnings("unused")
+public class HookDeliveryStatisticsData {
+
+	private final Long pendingDeliveries;
+	private final Long retryingDeliveries;
+	private final Long oldestPendingAgeSeconds;
+	private final Long deliveredLastHour;
+	private final Long averageDeliveryLagSeconds;
+	private final Long maxDeliveryLagSeconds;
+	private final Long deadLetteredDeliveries;
+
+	public HookDeliveryStatisticsData(final Long pendingDeliveries,
+			final Long retryingDeliveries, final Long oldestPendingAgeSeconds,
+			final Long deliveredLastHour, final Long averageDeliveryLagSeconds,
+			final Long maxDeliveryLagSeconds, final Long deadLetteredDeliveries) {
+		this.pendingDeliveries = pendingDeliveries;
+		this.retryingDeliveries = retryingDeliveries;
+		this.oldestPendingAgeSeconds = oldestPendingAgeSeconds;
+		this.deliveredLastHour = deliveredLastHour;
+		this.averageDeliveryLagSeconds = averageDeliveryLagSeconds;
+		this.maxDeliveryLagSeconds = maxDeliveryLagSeconds;
+		this.deadLetteredDeliveries = deadLetteredDeliveries;
+	}
+}
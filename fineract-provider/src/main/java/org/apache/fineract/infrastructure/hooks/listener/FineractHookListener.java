@@ -18,6 +18,8 @@
  */
 package org.apache.fineract.infrastructure.hooks.listener;
 
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.hooks.domain.Hook;
@@ -70,6 +72,10 @@ public class FineractHookListener implements HookListener {
                         hookEventSource.getActionName());
 
         for (final Hook hook : hooks) {
+            // web hooks are delivered from the outbox, see HookDeliveryService
+            if (webTemplateName.equals(hook.getHookTemplate().getName())) {
+                continue;
+            }
             final HookProcessor processor = this.hookProcessorProvider
                     .getProcessor(hook);
             processor.process(hook, appUser, payload, entityName, actionName,
@@ -21,6 +21,9 @@ package org.apache.fineract.infrastructure.hooks.processor;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
@@ -45,6 +48,17 @@ public class ProcessorHelper {
 	private final static Logger logger = LoggerFactory
 			.getLogger(ProcessorHelper.class);
 
+	private final static int CONNECT_TIMEOUT_SECONDS = 10;
+	private final static int READ_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * Client shared by all outbox deliveries so that connections to the same
+	 * endpoint are pooled and reused instead of being opened per event.
+	 */
+	private final static OkHttpClient sharedClient = createSharedClient();
+
+	private final static ConcurrentMap<String, WebHookService> webHookServices = new ConcurrentHashMap<>();
+
 	@SuppressWarnings("null")
 	public static OkHttpClient configureClient(final OkHttpClient client) {
 		final TrustManager[] certs = new TrustManager[] { new X509TrustManager() {
@@ -120,4 +134,31 @@ public class ProcessorHelper {
 		return restAdapter.create(WebHookService.class);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns the {@link WebHookService} for the given url, creating it on
+	 * first use. Services are cached per url and share one http client.
+	 */
+	public static WebHookService getWebHookService(final String url) {
+		WebHookService service = webHookServices.get(url);
+		if (service == null) {
+			final RestAdapter restAdapter = new RestAdapter.Builder()
+					.setEndpoint(url).setClient(new OkClient(sharedClient))
+					.build();
+			final WebHookService created = restAdapter
+					.create(WebHookService.class);
+			service = webHookServices.putIfAbsent(url, created);
+			if (service == null) {
+				service = created;
+			}
+		}
+		return service;
+	}
+
+	private static OkHttpClient createSharedClient() {
+		final OkHttpClient client = createClient();
+		client.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		client.setReadTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		return client;
+	}
+
+}
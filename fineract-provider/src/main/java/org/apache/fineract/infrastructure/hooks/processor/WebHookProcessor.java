@@ -22,9 +22,11 @@ import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.cont
 import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
 import org.apache.fineract.infrastructure.hooks.domain.Hook;
 import org.apache.fineract.infrastructure.hooks.domain.HookConfiguration;
 import org.apache.fineract.useradministration.domain.AppUser;
@@ -33,6 +35,7 @@ import org.springframework.stereotype.Service;
 import retrofit.Callback;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -74,13 +77,12 @@ public class WebHookProcessor implements HookProcessor {
 
 		final String fineractEndpointUrl = System.getProperty("baseUrl");
 		final WebHookService service = ProcessorHelper
-				.createWebHookService(url);
+				.getWebHookService(url);
 
 		@SuppressWarnings("rawtypes")
 		final Callback callback = ProcessorHelper.createCallback(url);
 
-		if (contentType.equalsIgnoreCase("json")
-				|| contentType.contains("json")) {
+		if (isJsonContentType(contentType)) {
 			final JsonObject json = new JsonParser().parse(payload)
 					.getAsJsonObject();
 			service.sendJsonRequest(entityName, actionName, tenantIdentifier,
@@ -94,4 +96,67 @@ public class WebHookProcessor implements HookProcessor {
 
 	}
 
+	/**
+	 * Sends a single outbox event and waits for the receiver to answer.
+	 * 
+	 * @throws retrofit.RetrofitError
+	 *             when the receiver is unreachable or does not answer with a
+	 *             2xx status
+	 */
+	@SuppressWarnings("unchecked")
+	public void deliver(final String url, final String contentType,
+			final HookDeliveryData delivery, final String tenantIdentifier) {
+
+		final String fineractEndpointUrl = System.getProperty("baseUrl");
+		final WebHookService service = ProcessorHelper
+				.getWebHookService(url);
+
+		if (isJsonContentType(contentType)) {
+			final JsonObject json = new JsonParser().parse(
+					delivery.getPayload()).getAsJsonObject();
+			service.deliverJsonRequest(delivery.getEntityName(),
+					delivery.getActionName(), tenantIdentifier,
+					fineractEndpointUrl, json);
+		} else {
+			Map<String, String> map = new HashMap<>();
+			map = new Gson().fromJson(delivery.getPayload(), map.getClass());
+			service.deliverFormRequest(delivery.getEntityName(),
+					delivery.getActionName(), tenantIdentifier,
+					fineractEndpointUrl, map);
+		}
+	}
+
+	/**
+	 * Sends several outbox events to a json receiver in one POST. The body is
+	 * an array of objects holding entityName, actionName and payload.
+	 * 
+	 * @throws retrofit.RetrofitError
+	 *             when the receiver is unreachable or does not answer with a
+	 *             2xx status
+	 */
+	public void deliverBatch(final String url,
+			final List<HookDeliveryData> deliveries,
+			final String tenantIdentifier) {
+
+		final String fineractEndpointUrl = System.getProperty("baseUrl");
+		final WebHookService service = ProcessorHelper
+				.getWebHookService(url);
+
+		final JsonParser parser = new JsonParser();
+		final JsonArray events = new JsonArray();
+		for (final HookDeliveryData delivery : deliveries) {
+			final JsonObject event = new JsonObject();
+			event.addProperty("entityName", delivery.getEntityName());
+			event.addProperty("actionName", delivery.getActionName());
+			event.add("payload", parser.parse(delivery.getPayload()));
+			events.add(event);
+		}
+		service.deliverJsonBatchRequest(String.valueOf(deliveries.size()),
+				tenantIdentifier, fineractEndpointUrl, events);
+	}
+
+	public static boolean isJsonContentType(final String contentType) {
+		return contentType != null && contentType.toLowerCase().contains("json");
+	}
+
 }
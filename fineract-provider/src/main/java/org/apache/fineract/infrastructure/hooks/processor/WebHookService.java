@@ -31,6 +31,7 @@ import retrofit.http.GET;
 import retrofit.http.Header;
 import retrofit.http.POST;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 public interface WebHookService {
@@ -40,6 +41,7 @@ public interface WebHookService {
 	final static String TENANT_HEADER = "Fineract-Platform-TenantId";
 	final static String ENDPOINT_HEADER = "X-Fineract-Endpoint";
 	final static String API_KEY_HEADER = "X-Fineract-API-Key";
+	final static String BATCH_SIZE_HEADER = "X-Fineract-Batch-Size";
 
 	// Ping
 	@GET("/")
@@ -61,6 +63,29 @@ public interface WebHookService {
 			@Header(ENDPOINT_HEADER) String endpointHeader,
 			@FieldMap Map<String, String> params, Callback<Response> callBack);
 
+	// Template - Web, synchronous variants used by the delivery outbox
+	@POST("/")
+	Response deliverJsonRequest(@Header(ENTITY_HEADER) String entityHeader,
+			@Header(ACTION_HEADER) String actionHeader,
+			@Header(TENANT_HEADER) String tenantHeader,
+			@Header(ENDPOINT_HEADER) String endpointHeader,
+			@Body JsonObject result);
+
+	@FormUrlEncoded
+	@POST("/")
+	Response deliverFormRequest(@Header(ENTITY_HEADER) String entityHeader,
+			@Header(ACTION_HEADER) String actionHeader,
+			@Header(TENANT_HEADER) String tenantHeader,
+			@Header(ENDPOINT_HEADER) String endpointHeader,
+			@FieldMap Map<String, String> params);
+
+	@POST("/")
+	Response deliverJsonBatchRequest(
+			@Header(BATCH_SIZE_HEADER) String batchSizeHeader,
+			@Header(TENANT_HEADER) String tenantHeader,
+			@Header(ENDPOINT_HEADER) String endpointHeader,
+			@Body JsonArray events);
+
 	// Template - SMS Bridge
 	@POST("/")
 	void sendSmsBridgeRequest(@Header(ENTITY_HEADER) String entityHeader,
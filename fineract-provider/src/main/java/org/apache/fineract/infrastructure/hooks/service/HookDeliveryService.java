@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryStatisticsData;
+
+/**
+ * Durable, asynchronous delivery of events to hooks using the "Web" template.
+ * Events are written to an outbox table in the transaction of the command
+ * that raised them and are posted to the receivers by a bounded worker pool
+ * once that transaction commits.
+ */
+public interface HookDeliveryService {
+
+    /**
+     * Stores the event for every active web hook registered for it. Must be
+     * called within the command transaction, delivery is triggered after the
+     * transaction commits.
+     */
+    void enqueueEvent(String entityName, String actionName, String payload);
+
+    /**
+     * Delivers all due events of the current tenant, including retries, and
+     * purges delivered events past their retention period.
+     */
+    void deliverPendingHooks();
+
+    HookDeliveryStatisticsData retrieveDeliveryStatistics();
+}
@@ -0,0 +1,419 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.hooks.service;
+
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.contentTypeName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.payloadURLName;
+import static org.apache.fineract.infrastructure.hooks.api.HookApiConstants.webTemplateName;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryData;
+import org.apache.fineract.infrastructure.hooks.data.HookDeliveryStatisticsData;
+import org.apache.fineract.infrastructure.hooks.processor.WebHookProcessor;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers the web hook events of the <code>m_hook_delivery</code> outbox.
+ * 
+ * Every node may sweep the outbox of a tenant, so a sweep first claims the
+ * events it is about to send: a conditional update stamps them with a token
+ * of the sweep and a lease, and only the rows carrying that token are sent.
+ * Events claimed by another sweep, and the later events of the same hook, are
+ * left alone until the claim is released or its lease runs out. The lease is
+ * renewed before every request to a receiver.
+ */
+@Service
+public class HookDeliveryServiceImpl implements HookDeliveryService {
+
+    private final static Logger logger = LoggerFactory.getLogger(HookDeliveryServiceImpl.class);
+
+    private static final int STATUS_PENDING = 100;
+    private static final int STATUS_DELIVERED = 200;
+
+    private static final int FETCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 10;
+    private static final int RETRY_BASE_DELAY_SECONDS = 30;
+    private static final int RETRY_MAX_DELAY_SECONDS = 6 * 60 * 60;
+    private static final int DELIVERED_RETENTION_DAYS = 7;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final int CLAIM_LEASE_SECONDS = 5 * 60;
+
+    private static final int WORKER_THREADS = 4;
+    private static final int WORKER_QUEUE_CAPACITY = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WebHookProcessor webHookProcessor;
+    private final ConfigurationDomainService configurationDomainService;
+    private final ThreadPoolExecutor deliveryExecutor;
+
+    // tenants with a delivery task waiting in the pool, tenants currently
+    // being delivered and tenants whose sweep must run again, used to keep at
+    // most one sweep per tenant at a time on this node; sweeps of other nodes
+    // are kept apart by the claims in the outbox
+    private final Set<String> queuedTenants = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Set<String> deliveringTenants = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Set<String> rerunTenants = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    @Autowired
+    public HookDeliveryServiceImpl(final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate,
+            final WebHookProcessor webHookProcessor, final ConfigurationDomainService configurationDomainService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.webHookProcessor = webHookProcessor;
+        this.configurationDomainService = configurationDomainService;
+        this.deliveryExecutor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(WORKER_QUEUE_CAPACITY), new CustomizableThreadFactory("hook-delivery-"));
+        this.deliveryExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.deliveryExecutor.shutdownNow();
+    }
+
+    @Override
+    public void enqueueEvent(final String entityName, final String actionName, final String payload) {
+
+        final String sql = "insert into m_hook_delivery (hook_id, entity_name, action_name, payload, status_enum, attempts, next_attempt_time, created_date)"
+                + " select h.id, e.entity_name, e.action_name, ?, ?, 0, now(), now() from m_hook h"
+                + " join m_hook_templates t on t.id = h.template_id join m_hook_registered_events e on e.hook_id = h.id"
+                + " where h.is_active = 1 and t.name = ? and e.entity_name = ? and e.action_name = ?";
+
+        final int enqueued = this.jdbcTemplate.update(sql, payload, STATUS_PENDING, webTemplateName, entityName, actionName);
+        if (enqueued == 0) { return; }
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    scheduleDelivery(tenant);
+                }
+            });
+        } else {
+            scheduleDelivery(tenant);
+        }
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.DELIVER_WEB_HOOKS)
+    public void deliverPendingHooks() {
+        deliverDueEvents();
+
+        final String sql = "delete from m_hook_delivery where status_enum = ? and delivered_date < date_sub(now(), interval ? day)";
+        final int purged = this.jdbcTemplate.update(sql, STATUS_DELIVERED, DELIVERED_RETENTION_DAYS);
+        if (purged > 0) {
+            logger.info(ThreadLocalContextUtil.getTenant().getName() + ": purged " + purged + " delivered hook events");
+        }
+    }
+
+    @Override
+    public HookDeliveryStatisticsData retrieveDeliveryStatistics() {
+
+        final String sql = "select"
+                + " (select count(*) from m_hook_delivery d where d.status_enum = ?) as pending,"
+                + " (select count(*) from m_hook_delivery d where d.status_enum = ? and d.attempts > 0) as retrying,"
+                + " (select timestampdiff(SECOND, min(d.created_date), now()) from m_hook_delivery d where d.status_enum = ?) as oldestPendingAge,"
+                + " delivered.deliveredCount, delivered.averageLag, delivered.maxLag,"
+                + " (select count(*) from m_hook_delivery_dead_letter) as deadLettered"
+                + " from (select count(*) as deliveredCount,"
+                + " avg(timestampdiff(SECOND, d.created_date, d.delivered_date)) as averageLag,"
+                + " max(timestampdiff(SECOND, d.created_date, d.delivered_date)) as maxLag"
+                + " from m_hook_delivery d where d.status_enum = ? and d.delivered_date > date_sub(now(), interval 1 hour)) delivered";
+
+        return this.jdbcTemplate.queryForObject(sql, new RowMapper<HookDeliveryStatisticsData>() {
+
+            @Override
+            public HookDeliveryStatisticsData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum)
+                    throws SQLException {
+                final Long pending = JdbcSupport.getLong(rs, "pending");
+                final Long retrying = JdbcSupport.getLong(rs, "retrying");
+                final Long oldestPendingAge = JdbcSupport.getLong(rs, "oldestPendingAge");
+                final Long deliveredCount = JdbcSupport.getLong(rs, "deliveredCount");
+                final Long averageLag = JdbcSupport.getLong(rs, "averageLag");
+                final Long maxLag = JdbcSupport.getLong(rs, "maxLag");
+                final Long deadLettered = JdbcSupport.getLong(rs, "deadLettered");
+                return new HookDeliveryStatisticsData(pending, retrying, oldestPendingAge, deliveredCount, averageLag, maxLag,
+                        deadLettered);
+            }
+        }, STATUS_PENDING, STATUS_PENDING, STATUS_PENDING, STATUS_DELIVERED);
+    }
+
+    private void scheduleDelivery(final FineractPlatformTenant tenant) {
+        final String tenantIdentifier = tenant.getTenantIdentifier();
+        if (!this.queuedTenants.add(tenantIdentifier)) { return; }
+
+        try {
+            this.deliveryExecutor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    HookDeliveryServiceImpl.this.queuedTenants.remove(tenantIdentifier);
+                    ThreadLocalContextUtil.setTenant(tenant);
+                    try {
+                        deliverDueEvents();
+                    } catch (final RuntimeException e) {
+                        logger.error(tenant.getName() + ": hook delivery failed", e);
+                    } finally {
+                        ThreadLocalContextUtil.clearTenant();
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // pool is saturated, the events stay in the outbox and are picked
+            // up by the next run of the delivery job
+            this.queuedTenants.remove(tenantIdentifier);
+        }
+    }
+
+    private void deliverDueEvents() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        if (!this.deliveringTenants.add(tenantIdentifier)) {
+            // let the running sweep pick up events committed after its last
+            // read instead of leaving them to the next job run
+            this.rerunTenants.add(tenantIdentifier);
+            return;
+        }
+
+        try {
+            do {
+                this.rerunTenants.remove(tenantIdentifier);
+                sweepDueEvents(tenantIdentifier);
+            } while (this.rerunTenants.contains(tenantIdentifier));
+        } finally {
+            this.deliveringTenants.remove(tenantIdentifier);
+        }
+    }
+
+    private void sweepDueEvents(final String tenantIdentifier) {
+        final int batchSize = this.configurationDomainService.retrieveWebHookBatchSize();
+        final Map<Long, Map<String, String>> hookConfigurations = new HashMap<>();
+        List<Long> dueIds;
+        List<HookDeliveryData> deliveries;
+        do {
+            dueIds = retrieveDueDeliveryIds();
+            if (dueIds.isEmpty()) { return; }
+
+            final String claimToken = UUID.randomUUID().toString();
+            deliveries = claimDeliveries(dueIds, claimToken);
+            try {
+                final Map<Long, List<HookDeliveryData>> deliveriesByHook = new LinkedHashMap<>();
+                for (final HookDeliveryData delivery : deliveries) {
+                    List<HookDeliveryData> hookDeliveries = deliveriesByHook.get(delivery.getHookId());
+                    if (hookDeliveries == null) {
+                        hookDeliveries = new ArrayList<>();
+                        deliveriesByHook.put(delivery.getHookId(), hookDeliveries);
+                    }
+                    hookDeliveries.add(delivery);
+                }
+
+                for (final Map.Entry<Long, List<HookDeliveryData>> entry : deliveriesByHook.entrySet()) {
+                    Map<String, String> configuration = hookConfigurations.get(entry.getKey());
+                    if (configuration == null) {
+                        configuration = retrieveHookConfiguration(entry.getKey());
+                        hookConfigurations.put(entry.getKey(), configuration);
+                    }
+                    deliverToHook(configuration, entry.getValue(), batchSize, tenantIdentifier, claimToken);
+                }
+            } finally {
+                // hand back the events not sent, e.g. those behind a failed
+                // event of their hook
+                releaseClaim(claimToken);
+            }
+        } while (dueIds.size() == FETCH_SIZE && !deliveries.isEmpty());
+    }
+
+    /**
+     * Posts the events of one hook in order, stopping at the first failure so
+     * that a receiver never sees an event before the ones raised earlier.
+     */
+    private void deliverToHook(final Map<String, String> configuration, final List<HookDeliveryData> deliveries, final int batchSize,
+            final String tenantIdentifier, final String claimToken) {
+
+        final String url = configuration.get(payloadURLName);
+        final String contentType = configuration.get(contentTypeName);
+        final boolean batched = batchSize > 1 && WebHookProcessor.isJsonContentType(contentType);
+        final int chunkSize = batched ? batchSize : 1;
+
+        for (int from = 0; from < deliveries.size(); from += chunkSize) {
+            final List<HookDeliveryData> chunk = deliveries.subList(from, Math.min(from + chunkSize, deliveries.size()));
+            renewClaim(claimToken);
+            try {
+                if (StringUtils.isBlank(url)) { throw new IllegalStateException("Hook has no " + payloadURLName + " configured"); }
+                if (batched) {
+                    this.webHookProcessor.deliverBatch(url, chunk, tenantIdentifier);
+                } else {
+                    this.webHookProcessor.deliver(url, contentType, chunk.get(0), tenantIdentifier);
+                }
+                markDelivered(chunk);
+            } catch (final RuntimeException e) {
+                logger.warn("Hook delivery to " + url + " failed: " + e.getMessage());
+                markFailed(chunk, e);
+                return;
+            }
+        }
+    }
+
+    private List<Long> retrieveDueDeliveryIds() {
+        // an event is held back while an earlier event of the same hook is
+        // waiting for a retry or claimed by another sweep
+        final String sql = "select d.id from m_hook_delivery d"
+                + " where d.status_enum = ? and d.next_attempt_time <= now() and (d.claimed_until is null or d.claimed_until < now())"
+                + " and not exists (select 1 from m_hook_delivery r where r.hook_id = d.hook_id and r.status_enum = ?"
+                + " and r.id < d.id and (r.next_attempt_time > now() or r.claimed_until >= now()))" + " order by d.hook_id, d.id limit ?";
+
+        return this.jdbcTemplate.queryForList(sql, Long.class, STATUS_PENDING, STATUS_PENDING, FETCH_SIZE);
+    }
+
+    /**
+     * @return the due events this sweep managed to claim, without those
+     *         behind an earlier pending event of their hook that another sweep
+     *         claimed first
+     */
+    private List<HookDeliveryData> claimDeliveries(final List<Long> dueIds, final String claimToken) {
+        final String claimSql = "update m_hook_delivery set claim_token = ?, claimed_until = date_add(now(), interval ? second)"
+                + " where id in (" + StringUtils.join(dueIds, ',') + ") and status_enum = ?"
+                + " and (claimed_until is null or claimed_until < now())";
+        final int claimed = this.jdbcTemplate.update(claimSql, claimToken, CLAIM_LEASE_SECONDS, STATUS_PENDING);
+        if (claimed == 0) { return new ArrayList<>(); }
+
+        final String sql = "select d.id, d.hook_id as hookId, d.entity_name as entityName, d.action_name as actionName,"
+                + " d.payload, d.attempts from m_hook_delivery d where d.claim_token = ?"
+                + " and not exists (select 1 from m_hook_delivery r where r.hook_id = d.hook_id and r.status_enum = ?"
+                + " and r.id < d.id and (r.claim_token is null or r.claim_token <> ?))" + " order by d.hook_id, d.id";
+
+        return this.jdbcTemplate.query(sql, new RowMapper<HookDeliveryData>() {
+
+            @Override
+            public HookDeliveryData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                final Long id = rs.getLong("id");
+                final Long hookId = rs.getLong("hookId");
+                final String entityName = rs.getString("entityName");
+                final String actionName = rs.getString("actionName");
+                final String payload = rs.getString("payload");
+                final int attempts = rs.getInt("attempts");
+                return new HookDeliveryData(id, hookId, entityName, actionName, payload, attempts);
+            }
+        }, claimToken, STATUS_PENDING, claimToken);
+    }
+
+    private void renewClaim(final String claimToken) {
+        final String sql = "update m_hook_delivery set claimed_until = date_add(now(), interval ? second) where claim_token = ?";
+        this.jdbcTemplate.update(sql, CLAIM_LEASE_SECONDS, claimToken);
+    }
+
+    private void releaseClaim(final String claimToken) {
+        this.jdbcTemplate.update("update m_hook_delivery set claim_token = null, claimed_until = null where claim_token = ?", claimToken);
+    }
+
+    private Map<String, String> retrieveHookConfiguration(final Long hookId) {
+        final String sql = "select c.field_name as fieldName, c.field_value as fieldValue from m_hook_configuration c where c.hook_id = ?";
+        final List<Map<String, Object>> rows = this.jdbcTemplate.queryForList(sql, hookId);
+        final Map<String, String> configuration = new HashMap<>();
+        for (final Map<String, Object> row : rows) {
+            configuration.put((String) row.get("fieldName"), (String) row.get("fieldValue"));
+        }
+        return configuration;
+    }
+
+    private void markDelivered(final List<HookDeliveryData> deliveries) {
+        final StringBuilder ids = new StringBuilder();
+        for (final HookDeliveryData delivery : deliveries) {
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(delivery.getId());
+        }
+        final String sql = "update m_hook_delivery set status_enum = ?, attempts = attempts + 1, delivered_date = now(),"
+                + " last_error = null, claim_token = null, claimed_until = null where id in (" + ids + ")";
+        this.jdbcTemplate.update(sql, STATUS_DELIVERED);
+    }
+
+    private void markFailed(final List<HookDeliveryData> deliveries, final RuntimeException error) {
+        final String lastError = StringUtils.abbreviate(String.valueOf(error.getMessage()), MAX_ERROR_LENGTH);
+        for (final HookDeliveryData delivery : deliveries) {
+            final int attempts = delivery.getAttempts() + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                moveToDeadLetter(delivery.getId(), attempts, lastError);
+            } else {
+                final String sql = "update m_hook_delivery set attempts = ?, last_error = ?,"
+                        + " next_attempt_time = date_add(now(), interval ? second), claim_token = null, claimed_until = null where id = ?";
+                this.jdbcTemplate.update(sql, attempts, lastError, retryDelaySeconds(attempts), delivery.getId());
+            }
+        }
+    }
+
+    private void moveToDeadLetter(final Long deliveryId, final int attempts, final String lastError) {
+        this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                final String insertSql = "insert into m_hook_delivery_dead_letter (id, hook_id, entity_name, action_name, payload, attempts,"
+                        + " last_error, created_date, dead_lettered_date) select d.id, d.hook_id, d.entity_name, d.action_name,"
+                        + " d.payload, ?, ?, d.created_date, now() from m_hook_delivery d where d.id = ?";
+                HookDeliveryServiceImpl.this.jdbcTemplate.update(insertSql, attempts, lastError, deliveryId);
+                HookDeliveryServiceImpl.this.jdbcTemplate.update("delete from m_hook_delivery where id = ?", deliveryId);
+            }
+        });
+        logger.warn("Hook event " + deliveryId + " moved to dead letter after " + attempts + " attempts: " + lastError);
+    }
+
+    private static int retryDelaySeconds(final int attempts) {
+        final long delay = (long) RETRY_BASE_DELAY_SECONDS << Math.min(attempts - 1, 20);
+        return (int) Math.min(delay, RETRY_MAX_DELAY_SECONDS);
+    }
+}
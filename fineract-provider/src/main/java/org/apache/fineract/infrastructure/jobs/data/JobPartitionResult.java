@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.data;
+
+import java.util.List;
+
+/**
+ * Immutable data object representing the outcome of one partition of a
+ * partitioned batch job run.
+ */
+public class JobPartitionResult {
+
+    private final int sequence;
+    private final Long firstId;
+    private final Long lastId;
+    private final int processed;
+    private final List<String> failures;
+    private final long elapsedMillis;
+    private final String workerName;
+
+    public JobPartitionResult(final int sequence, final Long firstId, final Long lastId, final int processed, final List<String> failures,
+            final long elapsedMillis, final String workerName) {
+        this.sequence = sequence;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.processed = processed;
+        this.failures = failures;
+        this.elapsedMillis = elapsedMillis;
+        this.workerName = workerName;
+    }
+
+    public int getSequence() {
+        return this.sequence;
+    }
+
+    public Long getFirstId() {
+        return this.firstId;
+    }
+
+    public Long getLastId() {
+        return this.lastId;
+    }
+
+    public int getProcessed() {
+        return this.processed;
+    }
+
+    public List<String> getFailures() {
+        return this.failures;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    public String getWorkerName() {
+        return this.workerName;
+    }
+
+    public double getThroughput() {
+        return this.processed * 1000d / Math.max(this.elapsedMillis, 1);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Partition source for jobs whose identifiers come from a query that is too
+ * expensive to repeat for every page, e.g. a union over several
+ * change-tracked tables. The identifiers are collected once, when the first
+ * page is asked for, and every page is then served from memory.
+ */
+public abstract class CollectedJobPartitionSource implements JobPartitionSource {
+
+    private List<Long> ids;
+
+    /**
+     * @return identifiers of all entities the job works on, in any order and
+     *         possibly with duplicates
+     */
+    protected abstract Collection<Long> collectIds();
+
+    @Override
+    public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+        if (this.ids == null) {
+            this.ids = new ArrayList<>(new TreeSet<>(collectIds()));
+        }
+
+        final int position = Collections.binarySearch(this.ids, lastProcessedId);
+        final int fromIndex = position < 0 ? -position - 1 : position + 1;
+        final int toIndex = Math.min(fromIndex + limit, this.ids.size());
+        return new ArrayList<>(this.ids.subList(fromIndex, toIndex));
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.fineract.infrastructure.core.service.TenantSchemaUpgradedEvent;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the scheduled jobs of tenants whose schema upgrade was deferred at
+ * startup, once that upgrade has completed.
+ * 
+ * The event is raised while a connection pool is being handed out, so the
+ * jobs are loaded on a thread of their own rather than in the middle of the
+ * work that triggered the upgrade.
+ */
+@Component
+public class DeferredTenantJobLoader implements ApplicationListener<TenantSchemaUpgradedEvent> {
+
+    private final static Logger logger = LoggerFactory.getLogger(DeferredTenantJobLoader.class);
+
+    private final JobRegisterService jobRegisterService;
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor(new CustomizableThreadFactory(
+            "deferred-job-loader-"));
+
+    @Autowired
+    public DeferredTenantJobLoader(final JobRegisterService jobRegisterService) {
+        this.jobRegisterService = jobRegisterService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Override
+    public void onApplicationEvent(final TenantSchemaUpgradedEvent event) {
+        final Long connectionId = event.getConnectionId();
+        this.executorService.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    DeferredTenantJobLoader.this.jobRegisterService.loadJobsOfUpgradedConnection(connectionId);
+                } catch (final RuntimeException e) {
+                    logger.error("Could not load the jobs of the tenants on connection " + connectionId, e);
+                } finally {
+                    ThreadLocalContextUtil.clearTenant();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Date;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Records how far a partitioned batch job has progressed so that a run which
+ * was interrupted can resume after the last completed partition instead of
+ * starting over, and up to which point in time an incremental job has
+ * processed changed entities.
+ */
+public interface JobCheckpointService {
+
+    /**
+     * @return identifier of the last entity processed by an unfinished run of
+     *         the job on the given date, or <code>null</code> when there is
+     *         nothing to resume.
+     */
+    Long retrieveCheckpoint(JobName jobName, LocalDate runDate);
+
+    void updateCheckpoint(JobName jobName, LocalDate runDate, Long lastProcessedId);
+
+    void clearCheckpoint(JobName jobName);
+
+    /**
+     * @return database time of the start of the last completed run of an
+     *         incremental job, or <code>null</code> when the job never
+     *         completed.
+     */
+    Date retrieveChangeWatermark(JobName jobName);
+
+    /**
+     * Moves the watermark to the start of the run that just completed and
+     * forgets that start.
+     */
+    void updateChangeWatermark(JobName jobName, Date watermark);
+
+    /**
+     * @return database time at which the current run of an incremental job
+     *         started: when an interrupted run of the same date is being
+     *         resumed, the start of that run, otherwise the current time,
+     *         which is recorded for a later resume.
+     */
+    Date startIncrementalRun(JobName jobName, LocalDate runDate);
+
+    /**
+     * @return current time of the database clock, which is the clock used for
+     *         the <code>changed_on</code> columns of tracked tables.
+     */
+    Date retrieveDatabaseTime();
+}
@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JobCheckpointServiceImpl implements JobCheckpointService {
+
+    private final static DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public JobCheckpointServiceImpl(final RoutingDataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    JobCheckpointServiceImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Long retrieveCheckpoint(final JobName jobName, final LocalDate runDate) {
+        final String sql = "select cp.last_processed_id from job_run_checkpoint cp where cp.job_name = ? and cp.run_date = ?";
+        final List<Long> checkpoints = this.jdbcTemplate.queryForList(sql, Long.class, new Object[] { jobName.name(),
+                formatter.print(runDate) });
+        if (checkpoints.isEmpty()) { return null; }
+        return checkpoints.get(0);
+    }
+
+    @Override
+    public void updateCheckpoint(final JobName jobName, final LocalDate runDate, final Long lastProcessedId) {
+        final String sql = "insert into job_run_checkpoint (job_name, run_date, last_processed_id, updated_on) values (?, ?, ?, ?) "
+                + "on duplicate key update run_date = values(run_date), last_processed_id = values(last_processed_id), updated_on = values(updated_on)";
+        this.jdbcTemplate.update(sql, jobName.name(), formatter.print(runDate), lastProcessedId, DateUtils.getDateOfTenant());
+    }
+
+    @Override
+    public void clearCheckpoint(final JobName jobName) {
+        this.jdbcTemplate.update("delete from job_run_checkpoint where job_name = ?", jobName.name());
+    }
+
+    @Override
+    public Date retrieveChangeWatermark(final JobName jobName) {
+        final String sql = "select wm.changed_since from job_change_watermark wm where wm.job_name = ?";
+        final List<Date> watermarks = this.jdbcTemplate.queryForList(sql, Date.class, new Object[] { jobName.name() });
+        if (watermarks.isEmpty()) { return null; }
+        return watermarks.get(0);
+    }
+
+    @Override
+    public void updateChangeWatermark(final JobName jobName, final Date watermark) {
+        final String sql = "insert into job_change_watermark (job_name, changed_since, run_started_on) values (?, ?, null) "
+                + "on duplicate key update changed_since = values(changed_since), run_started_on = null";
+        this.jdbcTemplate.update(sql, jobName.name(), watermark);
+    }
+
+    @Override
+    public Date startIncrementalRun(final JobName jobName, final LocalDate runDate) {
+        if (retrieveCheckpoint(jobName, runDate) != null) {
+            final String sql = "select wm.run_started_on from job_change_watermark wm where wm.job_name = ? and wm.run_started_on is not null";
+            final List<Date> starts = this.jdbcTemplate.queryForList(sql, Date.class, new Object[] { jobName.name() });
+            if (!starts.isEmpty()) { return starts.get(0); }
+        }
+
+        final Date runStartTime = retrieveDatabaseTime();
+        final String sql = "insert into job_change_watermark (job_name, changed_since, run_started_on) values (?, null, ?) "
+                + "on duplicate key update run_started_on = values(run_started_on)";
+        this.jdbcTemplate.update(sql, jobName.name(), runStartTime);
+        return runStartTime;
+    }
+
+    @Override
+    public Date retrieveDatabaseTime() {
+        return this.jdbcTemplate.queryForObject("select now()", Date.class);
+    }
+}
@@ -41,7 +41,12 @@ public enum JobName {
     GENERATE_LOANLOSS_PROVISIONING("Generate Loan Loss Provisioning"), //
     POST_DIVIDENTS_FOR_SHARES("Post Dividends For Shares"), //
     UPDATE_SAVINGS_DORMANT_ACCOUNTS("Update Savings Dormant Accounts"), //
-    ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS("Add Accrual Transactions For Loans With Income Posted As Transactions");
+    ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS("Add Accrual Transactions For Loans With Income Posted As Transactions"), //
+    DELIVER_WEB_HOOKS("Deliver Web Hooks"), //
+    REPAIR_LOAN_SUMMARY("Repair Loan Summary"), //
+    REBUILD_SEARCH_INDEX("Rebuild Search Index"), //
+    PRECOMPUTE_COLLECTION_SHEETS("Precompute Collection Sheets"), //
+    ARCHIVE_AUDIT_ENTRIES("Archive Audit Entries");
 
     private final String name;
 
@@ -34,4 +34,10 @@ public interface JobRegisterService {
 
     public void stopAllSchedulers();
 
+    /**
+     * Loads the jobs of the tenants on a connection whose schema upgrade was
+     * deferred at startup, once that upgrade has completed.
+     */
+    public void loadJobsOfUpgradedConnection(Long connectionId);
+
 }
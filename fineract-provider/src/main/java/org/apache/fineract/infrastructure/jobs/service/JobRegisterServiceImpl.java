@@ -20,15 +20,18 @@ package org.apache.fineract.infrastructure.jobs.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
 import org.apache.fineract.infrastructure.core.exception.PlatformInternalServerException;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser;
 import org.apache.fineract.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
@@ -77,8 +80,11 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
     private SchedulerJobListener schedulerJobListener;
     private SchedulerStopListener schedulerStopListener;
     private SchedulerTriggerListener globalSchedulerTriggerListener;
+    private TenantDatabaseUpgradeService tenantDatabaseUpgradeService;
 
-    private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
+    // loaded from other threads for tenants upgraded after startup
+    private final ConcurrentHashMap<String, Scheduler> schedulers = new ConcurrentHashMap<>(4);
+    private final Set<String> tenantsWithLoadedJobs = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     @Autowired
     public void setApplicationContext(ApplicationContext applicationContext) {
@@ -110,11 +116,47 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
         this.globalSchedulerTriggerListener = globalTriggerListener;
     }
 
+    @Autowired
+    public void setTenantDatabaseUpgradeService(TenantDatabaseUpgradeService tenantDatabaseUpgradeService) {
+        this.tenantDatabaseUpgradeService = tenantDatabaseUpgradeService;
+    }
+
+    /**
+     * Tenants whose schema upgrade is deferred to first access are skipped:
+     * reading their jobs would run the upgrade here, one tenant after the
+     * other, while the application starts. Their jobs are loaded by
+     * {@link #loadJobsOfUpgradedConnection(Long)} once the schema is upgraded.
+     */
     @PostConstruct
     public void loadAllJobs() {
         final List<FineractPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
+        int deferred = 0;
         for (final FineractPlatformTenant tenant : allTenants) {
-            ThreadLocalContextUtil.setTenant(tenant);
+            if (this.tenantDatabaseUpgradeService.isUpgradeDeferred(tenant.getConnection().getConnectionId())) {
+                deferred++;
+            } else {
+                loadTenantJobs(tenant);
+            }
+        }
+        if (deferred > 0) {
+            logger.info("Jobs of " + deferred + " tenant(s) will be loaded once their schema is upgraded on first access");
+        }
+    }
+
+    @Override
+    public void loadJobsOfUpgradedConnection(final Long connectionId) {
+        for (final FineractPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
+            if (connectionId.equals(tenant.getConnection().getConnectionId())) {
+                loadTenantJobs(tenant);
+            }
+        }
+    }
+
+    private void loadTenantJobs(final FineractPlatformTenant tenant) {
+        if (!this.tenantsWithLoadedJobs.add(tenant.getTenantIdentifier())) { return; }
+
+        ThreadLocalContextUtil.setTenant(tenant);
+        try {
             final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
             for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
                 scheduleJob(jobDetails);
@@ -126,6 +168,9 @@ public class JobRegisterServiceImpl implements JobRegisterService, ApplicationLi
                 schedulerDetail.updateSuspendedState(false);
                 this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
             }
+        } catch (final RuntimeException e) {
+            this.tenantsWithLoadedJobs.remove(tenant.getTenantIdentifier());
+            throw e;
         }
     }
 
@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+/**
+ * Holds statistics reported by a batch job for the run executing on the
+ * current thread. Quartz invokes {@link SchedulerJobListener} on the same
+ * worker thread that executed the job, so the listener picks the statistics
+ * up from here and stores them with the job run history.
+ */
+public class JobRunStatisticsContextUtil {
+
+    private static final ThreadLocal<String> runStatisticsContext = new ThreadLocal<>();
+
+    public static void setRunStatistics(final String runStatistics) {
+        runStatisticsContext.set(runStatistics);
+    }
+
+    public static String getRunStatistics() {
+        return runStatisticsContext.get();
+    }
+
+    public static void clearRunStatistics() {
+        runStatisticsContext.remove();
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.data.JobPartitionResult;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a batch job over a large set of entities by paging their identifiers
+ * into partitions and processing the partitions concurrently on a bounded
+ * worker pool.
+ * 
+ * Each partition is processed in a single transaction, unless the job is run
+ * with {@link #executeWithoutPartitionTransaction}. If that transaction
+ * fails, the partition is replayed with one transaction per entity so that a
+ * single bad entity does not hold back the rest of its partition. After every
+ * partition the highest identifier below which all partitions have completed
+ * is stored through {@link JobCheckpointService}, so a run that is interrupted
+ * on a given day resumes from there when the job is triggered again that day.
+ */
+@Component
+public class PartitionedJobExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(PartitionedJobExecutor.class);
+
+    private final ConfigurationDomainService configurationDomainService;
+    private final JobCheckpointService jobCheckpointService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PartitionedJobExecutor(final ConfigurationDomainService configurationDomainService,
+            final JobCheckpointService jobCheckpointService, final TransactionTemplate transactionTemplate) {
+        this.configurationDomainService = configurationDomainService;
+        this.jobCheckpointService = jobCheckpointService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void execute(final JobName jobName, final JobPartitionSource partitionSource, final JobPartitionTask partitionTask)
+            throws JobExecutionException {
+        execute(jobName, partitionSource, new JobPartitionTaskFactory() {
+
+            @Override
+            public JobPartitionTask createTask(@SuppressWarnings("unused") final List<Long> ids) {
+                return partitionTask;
+            }
+        });
+    }
+
+    public void execute(final JobName jobName, final JobPartitionSource partitionSource, final JobPartitionTaskFactory partitionTaskFactory)
+            throws JobExecutionException {
+        execute(jobName, partitionSource, partitionTaskFactory, this.configurationDomainService.retrieveJobPartitionSize(), true);
+    }
+
+    /**
+     * For tasks that commit their own work in smaller units than an entity,
+     * e.g. a page of rows at a time: entities are processed outside of any
+     * partition transaction, so the work committed before a failure or an
+     * interruption is kept, and the next run carries on from there.
+     */
+    public void executeWithoutPartitionTransaction(final JobName jobName, final JobPartitionSource partitionSource,
+            final JobPartitionTask partitionTask, final int partitionSize) throws JobExecutionException {
+        execute(jobName, partitionSource, new JobPartitionTaskFactory() {
+
+            @Override
+            public JobPartitionTask createTask(@SuppressWarnings("unused") final List<Long> ids) {
+                return partitionTask;
+            }
+        }, partitionSize, false);
+    }
+
+    private void execute(final JobName jobName, final JobPartitionSource partitionSource, final JobPartitionTaskFactory partitionTaskFactory,
+            final int partitionSize, final boolean partitionTransaction) throws JobExecutionException {
+        final int workerThreads = this.configurationDomainService.retrieveJobWorkerThreads();
+        final LocalDate runDate = DateUtils.getLocalDateOfTenant();
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        final Long checkpoint = this.jobCheckpointService.retrieveCheckpoint(jobName, runDate);
+        Long lastSubmittedId = checkpoint == null ? Long.valueOf(0) : checkpoint;
+
+        final long startTime = System.currentTimeMillis();
+        final List<JobPartitionResult> results = new ArrayList<>();
+        final Deque<Future<JobPartitionResult>> pendingPartitions = new ArrayDeque<>();
+        final ExecutorService executorService = Executors.newFixedThreadPool(workerThreads, new CustomizableThreadFactory(jobName.name()
+                + "-worker-"));
+        try {
+            int sequence = 0;
+            boolean morePartitions = true;
+            while (morePartitions) {
+                final List<Long> ids = partitionSource.retrieveIdsAfter(lastSubmittedId, partitionSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastSubmittedId = ids.get(ids.size() - 1);
+                morePartitions = ids.size() == partitionSize;
+                pendingPartitions.add(executorService.submit(new PartitionCallable(++sequence, ids, partitionTaskFactory,
+                        partitionTransaction, tenant, authentication)));
+
+                // keep a bounded number of partitions in flight, completing
+                // them in submission order so the checkpoint only ever moves
+                // past fully processed partitions
+                if (pendingPartitions.size() >= workerThreads * 2) {
+                    completePartition(jobName, runDate, pendingPartitions.poll(), results);
+                }
+            }
+            while (!pendingPartitions.isEmpty()) {
+                completePartition(jobName, runDate, pendingPartitions.poll(), results);
+            }
+            this.jobCheckpointService.clearCheckpoint(jobName);
+        } finally {
+            executorService.shutdownNow();
+            JobRunStatisticsContextUtil.setRunStatistics(buildRunStatistics(results, workerThreads, checkpoint, System.currentTimeMillis()
+                    - startTime));
+        }
+
+        final StringBuilder errors = new StringBuilder();
+        for (final JobPartitionResult result : results) {
+            for (final String failure : result.getFailures()) {
+                errors.append(failure).append(System.lineSeparator());
+            }
+        }
+        if (errors.length() > 0) { throw new JobExecutionException(errors.toString()); }
+    }
+
+    private void completePartition(final JobName jobName, final LocalDate runDate, final Future<JobPartitionResult> partition,
+            final List<JobPartitionResult> results) throws JobExecutionException {
+        try {
+            final JobPartitionResult result = partition.get();
+            results.add(result);
+            this.jobCheckpointService.updateCheckpoint(jobName, runDate, result.getLastId());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Job " + jobName + " was interrupted after " + results.size() + " partitions");
+        } catch (final ExecutionException e) {
+            logger.error("Partition of job " + jobName + " failed", e.getCause());
+            throw new JobExecutionException("Job " + jobName + " stopped after " + results.size() + " partitions: "
+                    + e.getCause().getMessage());
+        }
+    }
+
+    private String buildRunStatistics(final List<JobPartitionResult> results, final int workerThreads, final Long resumedAfterId,
+            final long elapsedMillis) {
+        int processed = 0;
+        int failed = 0;
+        for (final JobPartitionResult result : results) {
+            processed += result.getProcessed();
+            failed += result.getFailures().size();
+        }
+        final StringBuilder sb = new StringBuilder(100 + results.size() * 100);
+        sb.append(String.format(Locale.ENGLISH, "%d processed, %d failed in %d partitions on %d worker threads in %d ms (%.1f/s)",
+                processed, failed, results.size(), workerThreads, elapsedMillis, processed * 1000d / Math.max(elapsedMillis, 1)));
+        if (resumedAfterId != null) {
+            sb.append(", resumed after id ").append(resumedAfterId);
+        }
+        for (final JobPartitionResult result : results) {
+            sb.append(System.lineSeparator()).append(
+                    String.format(Locale.ENGLISH, "partition %d [%d - %d] on %s: %d processed, %d failed in %d ms (%.1f/s)",
+                            result.getSequence(), result.getFirstId(), result.getLastId(), result.getWorkerName(),
+                            result.getProcessed(), result.getFailures().size(), result.getElapsedMillis(), result.getThroughput()));
+        }
+        return sb.toString();
+    }
+
+    private final class PartitionCallable implements Callable<JobPartitionResult> {
+
+        private final int sequence;
+        private final List<Long> ids;
+        private final JobPartitionTaskFactory partitionTaskFactory;
+        private final boolean partitionTransaction;
+        private final FineractPlatformTenant tenant;
+        private final Authentication authentication;
+
+        PartitionCallable(final int sequence, final List<Long> ids, final JobPartitionTaskFactory partitionTaskFactory,
+                final boolean partitionTransaction, final FineractPlatformTenant tenant, final Authentication authentication) {
+            this.sequence = sequence;
+            this.ids = ids;
+            this.partitionTaskFactory = partitionTaskFactory;
+            this.partitionTransaction = partitionTransaction;
+            this.tenant = tenant;
+            this.authentication = authentication;
+        }
+
+        @Override
+        public JobPartitionResult call() {
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            SecurityContextHolder.getContext().setAuthentication(this.authentication);
+            try {
+                final long startTime = System.currentTimeMillis();
+                final List<String> failures = new ArrayList<>();
+                final JobPartitionTask partitionTask;
+                try {
+                    partitionTask = this.partitionTaskFactory.createTask(this.ids);
+                } catch (final RuntimeException e) {
+                    // e.g. the bulk preload of the partition failing: none of
+                    // its entities can be processed
+                    logger.error("Partition " + this.sequence + " could not be prepared", e);
+                    failures.add("Partition " + this.sequence + " [" + this.ids.get(0) + " - " + this.ids.get(this.ids.size() - 1)
+                            + "] of " + this.ids.size() + " entities could not be prepared: " + e.getMessage());
+                    return new JobPartitionResult(this.sequence, this.ids.get(0), this.ids.get(this.ids.size() - 1), 0, failures,
+                            System.currentTimeMillis() - startTime, Thread.currentThread().getName());
+                }
+                if (this.partitionTransaction) {
+                    try {
+                        processInSingleTransaction(partitionTask);
+                    } catch (final RuntimeException e) {
+                        logger.debug("Partition " + this.sequence + " failed as a whole, processing its entities one by one", e);
+                        processOneByOne(partitionTask, failures);
+                    }
+                } else {
+                    processOneByOne(partitionTask, failures);
+                }
+                return new JobPartitionResult(this.sequence, this.ids.get(0), this.ids.get(this.ids.size() - 1), this.ids.size()
+                        - failures.size(), failures, System.currentTimeMillis() - startTime, Thread.currentThread().getName());
+            } finally {
+                SecurityContextHolder.clearContext();
+                ThreadLocalContextUtil.clearTenant();
+            }
+        }
+
+        private void processInSingleTransaction(final JobPartitionTask partitionTask) {
+            PartitionedJobExecutor.this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    for (final Long id : PartitionCallable.this.ids) {
+                        partitionTask.process(id);
+                    }
+                }
+            });
+        }
+
+        private void processOneByOne(final JobPartitionTask partitionTask, final List<String> failures) {
+            for (final Long id : this.ids) {
+                try {
+                    if (this.partitionTransaction) {
+                        PartitionedJobExecutor.this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                            @Override
+                            protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                                partitionTask.process(id);
+                            }
+                        });
+                    } else {
+                        partitionTask.process(id);
+                    }
+                } catch (final RuntimeException e) {
+                    Throwable realCause = e;
+                    if (e.getCause() != null) {
+                        realCause = e.getCause();
+                    }
+                    failures.add(partitionTask.failureMessage(id, realCause));
+                }
+            }
+        }
+    }
+}
@@ -18,11 +18,14 @@
  */
 package org.apache.fineract.infrastructure.jobs.service;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobRunHistory;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetCacheService;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.apache.fineract.useradministration.domain.AppUserRepositoryWrapper;
 import org.quartz.JobExecutionContext;
@@ -30,6 +33,8 @@ import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.JobListener;
 import org.quartz.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
@@ -42,10 +47,23 @@ import org.springframework.stereotype.Component;
  * {@link ThreadLocalContextUtil} for batch Job and stores the batch job status
  * to database after the execution
  * 
+ * Jobs change member accounts without going through commands, so every
+ * cached collection sheet of the tenant is dropped once a job that may have
+ * changed them completes. Until then a sheet can still show the values from
+ * before the job.
  */
 @Component
 public class SchedulerJobListener implements JobListener {
 
+    private final static Logger logger = LoggerFactory.getLogger(SchedulerJobListener.class);
+
+    /**
+     * Jobs that never change what a collection sheet shows.
+     */
+    private static final List<JobName> JOBS_KEEPING_COLLECTION_SHEETS = Arrays.asList(JobName.ACCOUNTING_RUNNING_BALANCE_UPDATE,
+            JobName.GENERATE_LOANLOSS_PROVISIONING, JobName.DELIVER_WEB_HOOKS, JobName.REBUILD_SEARCH_INDEX,
+            JobName.PRECOMPUTE_COLLECTION_SHEETS, JobName.ARCHIVE_AUDIT_ENTRIES);
+
     private int stackTraceLevel = 0;
 
     private final String name = SchedulerServiceConstants.DEFAULT_LISTENER_NAME;
@@ -53,14 +71,17 @@ public class SchedulerJobListener implements JobListener {
     private final SchedularWritePlatformService schedularService;
 
     private final AppUserRepositoryWrapper userRepository ;
+
+    private final CollectionSheetCacheService collectionSheetCacheService;
     
     private final GrantedAuthoritiesMapper authoritiesMapper = new NullAuthoritiesMapper();
     
     @Autowired
     public SchedulerJobListener(final SchedularWritePlatformService schedularService,
-            final AppUserRepositoryWrapper userRepository) {
+            final AppUserRepositoryWrapper userRepository, final CollectionSheetCacheService collectionSheetCacheService) {
         this.schedularService = schedularService;
         this.userRepository = userRepository ;
+        this.collectionSheetCacheService = collectionSheetCacheService;
     }
 
     @Override
@@ -74,6 +95,7 @@ public class SchedulerJobListener implements JobListener {
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(user, user.getPassword(),
                 authoritiesMapper.mapAuthorities(user.getAuthorities()));
         SecurityContextHolder.getContext().setAuthentication(auth);
+        JobRunStatisticsContextUtil.clearRunStatistics();
     }
 
     @Override
@@ -119,12 +141,30 @@ public class SchedulerJobListener implements JobListener {
         scheduledJobDetails.updatePreviousRunStartTime(context.getFireTime());
         scheduledJobDetails.updateCurrentlyRunningStatus(false);
 
+        final String runStatistics = JobRunStatisticsContextUtil.getRunStatistics();
+        JobRunStatisticsContextUtil.clearRunStatistics();
+
         final ScheduledJobRunHistory runHistory = new ScheduledJobRunHistory(scheduledJobDetails, version, context.getFireTime(),
-                new Date(), status, errorMessage, triggerType, errorLog);
+                new Date(), status, errorMessage, triggerType, errorLog, runStatistics);
         // scheduledJobDetails.addRunHistory(runHistory);
 
         this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
 
+        // failed jobs may still have committed some of their changes
+        if (mayChangeCollectionSheets(scheduledJobDetails.getJobName())) {
+            try {
+                this.collectionSheetCacheService.invalidateAll();
+            } catch (final RuntimeException e) {
+                logger.error("Could not drop the cached collection sheets after job " + scheduledJobDetails.getJobName(), e);
+            }
+        }
+    }
+
+    private boolean mayChangeCollectionSheets(final String jobName) {
+        for (final JobName job : JOBS_KEEPING_COLLECTION_SHEETS) {
+            if (job.toString().equals(jobName)) { return false; }
+        }
+        return true;
     }
 
     private Throwable getCauseFromException(final Throwable exception) {
@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.api;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.fineract.infrastructure.security.service.PlatformRequestLogService;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per endpoint request latency histograms of the current tenant in the
+ * Prometheus text format, for scraping.
+ */
+@Path("/requestmetrics")
+@Component
+@Scope("singleton")
+public class RequestMetricsApiResource {
+
+    private final String resourceNameForPermissions = "REQUESTMETRICS";
+
+    private final PlatformSecurityContext context;
+    private final PlatformRequestLogService requestLogService;
+
+    @Autowired
+    public RequestMetricsApiResource(final PlatformSecurityContext context, final PlatformRequestLogService requestLogService) {
+        this.context = context;
+        this.requestLogService = requestLogService;
+    }
+
+    @GET
+    @Produces({ MediaType.TEXT_PLAIN })
+    public String retrieveMetrics() {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        return this.requestLogService.retrieveLatencyHistograms();
+    }
+}
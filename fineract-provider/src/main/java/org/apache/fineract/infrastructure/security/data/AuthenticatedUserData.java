@@ -54,6 +54,9 @@ public class AuthenticatedUserData {
     @SuppressWarnings("unused")
     private final boolean shouldRenewPassword;
 
+    @SuppressWarnings("unused")
+    private final String sessionToken;
+
     public AuthenticatedUserData(final String username, final Collection<String> permissions) {
         this.username = username;
         this.userId = null;
@@ -67,11 +70,13 @@ public class AuthenticatedUserData {
         this.roles = null;
         this.permissions = permissions;
         this.shouldRenewPassword = false;
+        this.sessionToken = null;
     }
 
     public AuthenticatedUserData(final String username, final Long officeId, final String officeName, final Long staffId,
             final String staffDisplayName, final EnumOptionData organisationalRole, final Collection<RoleData> roles,
-            final Collection<String> permissions, final Long userId, final String base64EncodedAuthenticationKey) {
+            final Collection<String> permissions, final Long userId, final String base64EncodedAuthenticationKey,
+            final String sessionToken) {
         this.username = username;
         this.officeId = officeId;
         this.officeName = officeName;
@@ -84,6 +89,7 @@ public class AuthenticatedUserData {
         this.roles = roles;
         this.permissions = permissions;
         this.shouldRenewPassword = false;
+        this.sessionToken = sessionToken;
     }
 
     public AuthenticatedUserData(final String username, final Long userId, final String base64EncodedAuthenticationKey) {
@@ -99,5 +105,6 @@ public class AuthenticatedUserData {
         this.roles = null;
         this.permissions = null;
         this.shouldRenewPassword = true;
+        this.sessionToken = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.data;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable data object for the authentication count and timing of one
+ * authentication method.
+ */
+public class AuthenticationMetricsData {
+
+    @SuppressWarnings("unused")
+    private final String method;
+    @SuppressWarnings("unused")
+    private final long authenticated;
+    @SuppressWarnings("unused")
+    private final long rejected;
+    @SuppressWarnings("unused")
+    private final BigDecimal meanMillis;
+    @SuppressWarnings("unused")
+    private final BigDecimal maxMillis;
+
+    public AuthenticationMetricsData(final String method, final long authenticated, final long rejected, final BigDecimal meanMillis,
+            final BigDecimal maxMillis) {
+        this.method = method;
+        this.authenticated = authenticated;
+        this.rejected = rejected;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+    }
+}
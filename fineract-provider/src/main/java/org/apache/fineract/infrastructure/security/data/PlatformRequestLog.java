@@ -18,47 +18,75 @@
  */
 package org.apache.fineract.infrastructure.security.data;
 
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-
-import javax.servlet.http.HttpServletRequest;
-
-import org.apache.commons.lang.time.StopWatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Immutable data object representing platform API request used for
  * logging/debugging.
+ * 
+ * Built on the request thread with no copying beyond a few references and
+ * written as one JSON line by the request log writer thread; see
+ * {@link #appendJson(StringBuilder)}.
  */
 public class PlatformRequestLog {
 
-    @SuppressWarnings("unused")
     private final long startTime;
-    @SuppressWarnings("unused")
-    private final long totalTime;
-    @SuppressWarnings("unused")
+    private final long totalTimeNanos;
+    private final long dbTimeNanos;
     private final String method;
-    @SuppressWarnings("unused")
+    private final String endpoint;
     private final String url;
-    @SuppressWarnings("unused")
-    private final Map<String, String[]> parameters;
+    private final String tenant;
+    private final String user;
+    private final int status;
 
-    public static PlatformRequestLog from(final StopWatch task, final HttpServletRequest request) throws IOException {
-        final String requestUrl = request.getRequestURL().toString();
-
-        final Map<String, String[]> parameters = new HashMap<>(request.getParameterMap());
-        parameters.remove("password");
-        parameters.remove("_");
+    public PlatformRequestLog(final long startTime, final long totalTimeNanos, final long dbTimeNanos, final String method,
+            final String endpoint, final String url, final String tenant, final String user, final int status) {
+        this.startTime = startTime;
+        this.totalTimeNanos = totalTimeNanos;
+        this.dbTimeNanos = dbTimeNanos;
+        this.method = method;
+        this.endpoint = endpoint;
+        this.url = url;
+        this.tenant = tenant;
+        this.user = user;
+        this.status = status;
+    }
 
-        return new PlatformRequestLog(task.getStartTime(), task.getTime(), request.getMethod(), requestUrl, parameters);
+    /**
+     * Appends this entry as a single line JSON object; times are in
+     * milliseconds like before.
+     */
+    public void appendJson(final StringBuilder json) {
+        json.append("{\"startTime\":").append(this.startTime);
+        json.append(",\"totalTime\":").append(TimeUnit.NANOSECONDS.toMillis(this.totalTimeNanos));
+        json.append(",\"dbTime\":").append(TimeUnit.NANOSECONDS.toMillis(this.dbTimeNanos));
+        json.append(",\"status\":").append(this.status);
+        appendString(json, "method", this.method);
+        appendString(json, "endpoint", this.endpoint);
+        appendString(json, "url", this.url);
+        appendString(json, "tenant", this.tenant);
+        appendString(json, "user", this.user);
+        json.append('}');
     }
 
-    private PlatformRequestLog(final long startTime, final long time, final String method, final String requestUrl,
-            final Map<String, String[]> parameters) {
-        this.startTime = startTime;
-        this.totalTime = time;
-        this.method = method;
-        this.url = requestUrl;
-        this.parameters = parameters;
+    private static void appendString(final StringBuilder json, final String name, final String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
     }
-}
\ No newline at end of file
+}
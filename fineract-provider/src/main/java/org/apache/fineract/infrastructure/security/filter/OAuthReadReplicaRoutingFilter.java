@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.filter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Marks authenticated GET requests for read-replica routing.
+ * 
+ * Runs right after the OAuth2 resource server filter so the access token is
+ * read from (and expired tokens removed on) the primary; the hint is cleared
+ * again by {@link TenantAwareTenantIdentifierFilter} once the request
+ * completes.
+ * 
+ * Used to support Oauth2 authentication and the service is loaded only when
+ * "oauth" profile is active.
+ */
+@Service(value = "readReplicaRoutingFilter")
+@Profile("oauth")
+public class OAuthReadReplicaRoutingFilter extends GenericFilterBean {
+
+    @Override
+    public void doFilter(final ServletRequest req, final ServletResponse res, final FilterChain chain) throws IOException, ServletException {
+        final HttpServletRequest request = (HttpServletRequest) req;
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // GET requests only read, so they may be served from a read replica of
+        // the tenant database
+        ThreadLocalContextUtil.setReadReplicaRouting("GET".equalsIgnoreCase(request.getMethod()) && authentication != null
+                && authentication.isAuthenticated());
+        chain.doFilter(req, res);
+    }
+}
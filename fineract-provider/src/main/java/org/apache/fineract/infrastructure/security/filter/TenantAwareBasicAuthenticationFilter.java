@@ -27,25 +27,23 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
-import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.apache.fineract.infrastructure.security.service.BasicAuthTenantDetailsService;
+import org.apache.fineract.infrastructure.security.service.PlatformRequestLogService;
+import org.apache.fineract.infrastructure.security.service.SessionTokenService;
 import org.apache.fineract.useradministration.domain.AppUser;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
@@ -65,32 +63,40 @@ import org.springframework.stereotype.Service;
  * 
  * If multi-tenant and basic auth credentials are invalid, a http error response
  * is returned.
+ * 
+ * Instead of basic auth credentials a session token issued by POST
+ * /authentication can be sent as <code>Authorization: Token &lt;token&gt;</code>,
+ * see {@link SessionTokenService}.
  */
 @Service(value = "basicAuthenticationProcessingFilter")
 @Profile("basicauth")
 public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFilter {
 
     private static boolean firstRequestProcessed = false;
-    private final static Logger logger = LoggerFactory.getLogger(TenantAwareBasicAuthenticationFilter.class);
 
     private final BasicAuthTenantDetailsService basicAuthTenantDetailsService;
-    private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
+    private final PlatformRequestLogService requestLogService;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
+    private final SessionTokenService sessionTokenService;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
 
     private final String tenantRequestHeader = "Fineract-Platform-TenantId";
     private final boolean exceptionIfHeaderMissing = true;
+    private final String sessionTokenPrefix = "Token ";
 
     @Autowired
     public TenantAwareBasicAuthenticationFilter(final AuthenticationManager authenticationManager,
             final AuthenticationEntryPoint authenticationEntryPoint, final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
-            final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
-            final CacheWritePlatformService cacheWritePlatformService) {
+            final PlatformRequestLogService requestLogService, final ConfigurationDomainService configurationDomainService,
+            final CacheWritePlatformService cacheWritePlatformService, final SessionTokenService sessionTokenService) {
         super(authenticationManager, authenticationEntryPoint);
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
-        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.requestLogService = requestLogService;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
+        this.sessionTokenService = sessionTokenService;
+        this.authenticationEntryPoint = authenticationEntryPoint;
     }
 
     @Override
@@ -99,8 +105,9 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
         final HttpServletRequest request = (HttpServletRequest) req;
         final HttpServletResponse response = (HttpServletResponse) res;
 
-        final StopWatch task = new StopWatch();
-        task.start();
+        final long startTime = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        this.requestLogService.requestStarted();
 
         try {
 
@@ -145,6 +152,13 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                     }
                     TenantAwareBasicAuthenticationFilter.firstRequestProcessed = true;
                 }
+
+                if (authToken != null && authToken.startsWith(this.sessionTokenPrefix)) {
+                    if (authenticateWithSessionToken(request, response, authToken.substring(this.sessionTokenPrefix.length()).trim())) {
+                        chain.doFilter(request, response);
+                    }
+                    return;
+                }
             }
 
             super.doFilter(req, res, chain);
@@ -155,9 +169,8 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
-            task.stop();
-            final PlatformRequestLog log = PlatformRequestLog.from(task, request);
-            logger.info(this.toApiJsonSerializer.serialize(log));
+            ThreadLocalContextUtil.clearReadReplicaRouting();
+            this.requestLogService.requestCompleted(request, response, startTime, System.nanoTime() - startNanos);
         }
     }
     
@@ -177,5 +190,25 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
 		if(notAllowed){
 			throw new BadCredentialsException("User not authorised to use the requested resource.");
 		}
+
+        // authenticated against the primary; GET requests only read from
+        // here on, so they may be served from a read replica
+        ThreadLocalContextUtil.setReadReplicaRouting("GET".equalsIgnoreCase(request.getMethod()));
+    }
+
+    private boolean authenticateWithSessionToken(final HttpServletRequest request, final HttpServletResponse response,
+            final String sessionToken) throws IOException, ServletException {
+        try {
+            final Authentication authentication = this.sessionTokenService.authenticate(sessionToken);
+            if (authentication == null) { throw new BadCredentialsException("Invalid or expired session token"); }
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            onSuccessfulAuthentication(request, response, authentication);
+            return true;
+        } catch (final AuthenticationException e) {
+            SecurityContextHolder.clearContext();
+            this.authenticationEntryPoint.commence(request, response, e);
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -27,18 +27,14 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.fineract.infrastructure.cache.domain.CacheType;
 import org.apache.fineract.infrastructure.cache.service.CacheWritePlatformService;
 import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
 import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
-import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
-import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
 import org.apache.fineract.infrastructure.security.exception.InvalidTenantIdentiferException;
 import org.apache.fineract.infrastructure.security.service.BasicAuthTenantDetailsService;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.fineract.infrastructure.security.service.PlatformRequestLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -63,10 +59,9 @@ import org.springframework.web.filter.GenericFilterBean;
 public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
 
     private static boolean firstRequestProcessed = false;
-    private final static Logger logger = LoggerFactory.getLogger(TenantAwareTenantIdentifierFilter.class);
 
     private final BasicAuthTenantDetailsService basicAuthTenantDetailsService;
-    private final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer;
+    private final PlatformRequestLogService requestLogService;
     private final ConfigurationDomainService configurationDomainService;
     private final CacheWritePlatformService cacheWritePlatformService;
 
@@ -76,10 +71,10 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
 
     @Autowired
     public TenantAwareTenantIdentifierFilter(final BasicAuthTenantDetailsService basicAuthTenantDetailsService,
-            final ToApiJsonSerializer<PlatformRequestLog> toApiJsonSerializer, final ConfigurationDomainService configurationDomainService,
+            final PlatformRequestLogService requestLogService, final ConfigurationDomainService configurationDomainService,
             final CacheWritePlatformService cacheWritePlatformService) {
         this.basicAuthTenantDetailsService = basicAuthTenantDetailsService;
-        this.toApiJsonSerializer = toApiJsonSerializer;
+        this.requestLogService = requestLogService;
         this.configurationDomainService = configurationDomainService;
         this.cacheWritePlatformService = cacheWritePlatformService;
     }
@@ -90,8 +85,9 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
         final HttpServletRequest request = (HttpServletRequest) req;
         final HttpServletResponse response = (HttpServletResponse) res;
 
-        final StopWatch task = new StopWatch();
-        task.start();
+        final long startTime = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
+        this.requestLogService.requestStarted();
 
         try {
 
@@ -152,9 +148,8 @@ public class TenantAwareTenantIdentifierFilter extends GenericFilterBean {
             response.addHeader("WWW-Authenticate", "Basic realm=\"" + "Fineract Platform API" + "\"");
             response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } finally {
-            task.stop();
-            final PlatformRequestLog log = PlatformRequestLog.from(task, request);
-            logger.info(this.toApiJsonSerializer.serialize(log));
+            ThreadLocalContextUtil.clearReadReplicaRouting();
+            this.requestLogService.requestCompleted(request, response, startTime, System.nanoTime() - startNanos);
         }
 
     }
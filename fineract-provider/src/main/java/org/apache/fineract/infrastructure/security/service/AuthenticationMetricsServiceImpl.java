@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.fineract.infrastructure.core.service.LatencyHistogram;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.data.AuthenticationMetricsData;
+import org.springframework.stereotype.Service;
+
+/**
+ * Counts accepted and rejected authentications per method for the current
+ * tenant, with their latencies. The statistics of a tenant are created for
+ * every method at once, so recording never has to create or look up more
+ * than the tenant entry on the authentication path.
+ */
+@Service
+public class AuthenticationMetricsServiceImpl implements AuthenticationMetricsService {
+
+    private final ConcurrentMap<String, Map<Method, MethodStatistics>> statisticsByTenant = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final Method method, final long elapsedNanos, final boolean authenticated) {
+        final MethodStatistics statistics = tenantStatistics().get(method);
+        if (authenticated) {
+            statistics.authenticated.increment();
+        } else {
+            statistics.rejected.increment();
+        }
+        statistics.latencies.record(elapsedNanos);
+    }
+
+    @Override
+    public Collection<AuthenticationMetricsData> retrieveMetrics() {
+        final List<AuthenticationMetricsData> metrics = new ArrayList<>();
+        for (final Map.Entry<Method, MethodStatistics> entry : tenantStatistics().entrySet()) {
+            final MethodStatistics statistics = entry.getValue();
+            metrics.add(new AuthenticationMetricsData(entry.getKey().name(), statistics.authenticated.sum(), statistics.rejected.sum(),
+                    statistics.latencies.meanMillis(), statistics.latencies.maxMillis()));
+        }
+        return metrics;
+    }
+
+    private Map<Method, MethodStatistics> tenantStatistics() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        Map<Method, MethodStatistics> tenantStatistics = this.statisticsByTenant.get(tenantIdentifier);
+        if (tenantStatistics == null) {
+            // fully populated before it is published, read-only afterwards
+            final Map<Method, MethodStatistics> statistics = new EnumMap<>(Method.class);
+            for (final Method method : Method.values()) {
+                statistics.put(method, new MethodStatistics());
+            }
+            this.statisticsByTenant.putIfAbsent(tenantIdentifier, statistics);
+            tenantStatistics = this.statisticsByTenant.get(tenantIdentifier);
+        }
+        return tenantStatistics;
+    }
+
+    private static final class MethodStatistics {
+
+        private final LongAdder authenticated = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+    }
+}
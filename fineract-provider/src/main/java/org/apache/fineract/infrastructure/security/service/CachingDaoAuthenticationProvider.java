@@ -0,0 +1,110 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.AuthenticationMetricsService.Method;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.codec.Hex;
+
+/**
+ * {@link DaoAuthenticationProvider} that remembers verified Basic credentials
+ * for a short while in the <code>authentications</code> cache, so repeated
+ * calls with the same credentials skip loading the user and checking the
+ * password.
+ * 
+ * Entries are keyed by tenant, username and a SHA-256 digest of the password;
+ * the password itself is never kept. The cache is evicted together with
+ * <code>usersByUsername</code> whenever a user, role or permission changes
+ * (password change, disabling, role change) and otherwise expires after the
+ * time to live configured in ehcache.xml. Like the other platform caches it
+ * is only active when caching is switched on.
+ * 
+ * Eviction only reaches the server that made the change: on the other
+ * servers an old password or a disabled user keeps being accepted until the
+ * entry expires, at most 120 seconds. Session tokens are not cached, see
+ * {@link SessionTokenServiceImpl}.
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public static final String AUTHENTICATIONS_CACHE = "authentications";
+
+    private CacheManager cacheManager;
+    private AuthenticationMetricsService authenticationMetricsService;
+
+    public void setCacheManager(final CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void setAuthenticationMetricsService(final AuthenticationMetricsService authenticationMetricsService) {
+        this.authenticationMetricsService = authenticationMetricsService;
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        if (tenant == null || authentication.getCredentials() == null) { return super.authenticate(authentication); }
+
+        final long startTime = System.nanoTime();
+        final Cache cache = this.cacheManager.getCache(AUTHENTICATIONS_CACHE);
+        final String cacheKey = tenant.getTenantIdentifier() + ":" + authentication.getName() + ":"
+                + digest(authentication.getCredentials().toString());
+
+        final ValueWrapper cached = cache.get(cacheKey);
+        if (cached != null) {
+            final UserDetails user = (UserDetails) cached.get();
+            final Authentication result = createSuccessAuthentication(user, authentication, user);
+            this.authenticationMetricsService.record(Method.CACHED_CREDENTIALS, System.nanoTime() - startTime, true);
+            return result;
+        }
+
+        boolean authenticated = false;
+        try {
+            final Authentication result = super.authenticate(authentication);
+            if (result.getPrincipal() instanceof UserDetails) {
+                cache.put(cacheKey, result.getPrincipal());
+            }
+            authenticated = true;
+            return result;
+        } finally {
+            this.authenticationMetricsService.record(Method.PASSWORD, System.nanoTime() - startTime, authenticated);
+        }
+    }
+
+    static String digest(final String value) {
+        try {
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return new String(Hex.encode(messageDigest.digest(value.getBytes(StandardCharsets.UTF_8))));
+        } catch (final NoSuchAlgorithmException e) {
+            // every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
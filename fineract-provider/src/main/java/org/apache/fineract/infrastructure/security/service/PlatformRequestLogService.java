@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Access log and per endpoint latency histograms of the platform API, fed by
+ * the tenant aware security filters.
+ */
+public interface PlatformRequestLogService {
+
+    void requestStarted();
+
+    void requestCompleted(HttpServletRequest request, HttpServletResponse response, long startTime, long elapsedNanos);
+
+    /**
+     * @return latency histograms of the current tenant in the Prometheus text
+     *         exposition format
+     */
+    String retrieveLatencyHistograms();
+}
@@ -0,0 +1,269 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.LatencyHistogram;
+import org.apache.fineract.infrastructure.core.service.StatementTimingInterceptor;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.data.PlatformRequestLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Request threads only record the latency histogram and put a small
+ * {@link PlatformRequestLog} into a bounded buffer; a single background
+ * thread formats and writes the entries. When the writer falls behind and
+ * the buffer is full, entries are dropped and counted instead of slowing
+ * requests down.
+ * 
+ * {@link #SAMPLE_RATE} sets the share of requests written to the log (server
+ * errors are always written); histograms always see every request. OPTIONS
+ * preflight requests are ignored.
+ */
+@Service
+public class PlatformRequestLogServiceImpl implements PlatformRequestLogService {
+
+    private final static Logger logger = LoggerFactory.getLogger(PlatformRequestLogServiceImpl.class);
+
+    public final static String SAMPLE_RATE = "fineract.requestlog.sample.rate";
+
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final int WRITER_BATCH_SIZE = 256;
+    // keeps unknown urls from growing the histograms without bound
+    private static final int MAX_ENDPOINTS_PER_TENANT = 500;
+    private static final String OTHER_ENDPOINTS = "other";
+    private static final String ID_SEGMENT = "{id}";
+
+    @Value("${" + SAMPLE_RATE + ":1.0}")
+    private double sampleRate = 1.0;
+
+    private final BlockingQueue<PlatformRequestLog> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+    // never reset, it is exported as a counter
+    private final LongAdder dropped = new LongAdder();
+    private final ConcurrentMap<String, ConcurrentMap<String, EndpointHistogram>> histogramsByTenant = new ConcurrentHashMap<>();
+    private Thread writer;
+
+    @PostConstruct
+    public void startWriter() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-log-writer-");
+        threadFactory.setDaemon(true);
+        this.writer = threadFactory.newThread(new RequestLogWriter());
+        this.writer.start();
+    }
+
+    @PreDestroy
+    public void stopWriter() {
+        this.writer.interrupt();
+    }
+
+    @Override
+    public void requestStarted() {
+        StatementTimingInterceptor.resetThreadStatementTime();
+    }
+
+    @Override
+    public void requestCompleted(final HttpServletRequest request, final HttpServletResponse response, final long startTime,
+            final long elapsedNanos) {
+        final String method = request.getMethod();
+        if ("OPTIONS".equalsIgnoreCase(method)) { return; }
+
+        final FineractPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final String endpoint = endpointTemplate(request.getPathInfo() == null ? request.getRequestURI() : request.getPathInfo());
+        final int status = response.getStatus();
+        if (tenant != null) {
+            histogramFor(tenant.getTenantIdentifier(), method, endpoint).record(elapsedNanos);
+        }
+
+        if (status < 500 && this.sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) { return; }
+
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        final PlatformRequestLog log = new PlatformRequestLog(startTime, elapsedNanos, StatementTimingInterceptor.threadStatementNanos(),
+                method, endpoint, request.getRequestURI(), tenant == null ? null : tenant.getTenantIdentifier(),
+                authentication == null ? null : authentication.getName(), status);
+        if (!this.buffer.offer(log)) {
+            this.dropped.increment();
+        }
+    }
+
+    @Override
+    public String retrieveLatencyHistograms() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final StringBuilder text = new StringBuilder();
+        text.append("# HELP fineract_http_request_duration_seconds Latency of platform API requests\n");
+        text.append("# TYPE fineract_http_request_duration_seconds histogram\n");
+        final Map<String, EndpointHistogram> histograms = this.histogramsByTenant.get(tenantIdentifier);
+        if (histograms != null) {
+            for (final EndpointHistogram histogram : histograms.values()) {
+                histogram.appendPrometheusText(text, tenantIdentifier);
+            }
+        }
+        text.append("# HELP fineract_request_log_dropped_total Request log entries dropped because the writer fell behind\n");
+        text.append("# TYPE fineract_request_log_dropped_total counter\n");
+        text.append("fineract_request_log_dropped_total ").append(this.dropped.sum()).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Replaces numeric path segments by {id}, e.g. /loans/12/transactions/5
+     * becomes /loans/{id}/transactions/{id}.
+     */
+    static String endpointTemplate(final String path) {
+        final StringBuilder template = new StringBuilder(path.length());
+        int segmentStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '/') {
+                if (isNumeric(path, segmentStart, i)) {
+                    template.append(ID_SEGMENT);
+                } else {
+                    template.append(path, segmentStart, i);
+                }
+                if (i < path.length()) {
+                    template.append('/');
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return template.toString();
+    }
+
+    private static boolean isNumeric(final String path, final int start, final int end) {
+        if (start == end) { return false; }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) { return false; }
+        }
+        return true;
+    }
+
+    private static String labelValue(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private EndpointHistogram histogramFor(final String tenantIdentifier, final String method, final String endpoint) {
+        ConcurrentMap<String, EndpointHistogram> histograms = this.histogramsByTenant.get(tenantIdentifier);
+        if (histograms == null) {
+            this.histogramsByTenant.putIfAbsent(tenantIdentifier, new ConcurrentHashMap<String, EndpointHistogram>());
+            histograms = this.histogramsByTenant.get(tenantIdentifier);
+        }
+
+        String key = method + " " + endpoint;
+        EndpointHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            if (histograms.size() >= MAX_ENDPOINTS_PER_TENANT) {
+                key = method + " " + OTHER_ENDPOINTS;
+                histogram = histograms.get(key);
+            }
+            if (histogram == null) {
+                histograms.putIfAbsent(key, new EndpointHistogram(method, key.substring(method.length() + 1)));
+                histogram = histograms.get(key);
+            }
+        }
+        return histogram;
+    }
+
+    private static final class EndpointHistogram {
+
+        private final String method;
+        private final String endpoint;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+
+        EndpointHistogram(final String method, final String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+        }
+
+        void record(final long elapsedNanos) {
+            this.latencies.record(elapsedNanos);
+        }
+
+        void appendPrometheusText(final StringBuilder text, final String tenantIdentifier) {
+            final String labels = "tenant=\"" + labelValue(tenantIdentifier) + "\",method=\"" + labelValue(this.method) + "\",endpoint=\""
+                    + labelValue(this.endpoint) + "\"";
+            final long[] upperBounds = LatencyHistogram.bucketUpperBoundsMillis();
+            final long[] bucketCounts = this.latencies.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                cumulative += bucketCounts[i];
+                final String upperBound = i < upperBounds.length ? String.valueOf(upperBounds[i] / 1000d) : "+Inf";
+                text.append("fineract_http_request_duration_seconds_bucket{").append(labels).append(",le=\"").append(upperBound)
+                        .append("\"} ").append(cumulative).append('\n');
+            }
+            text.append("fineract_http_request_duration_seconds_sum{").append(labels).append("} ")
+                    .append(this.latencies.sumNanos() / 1000000000d).append('\n');
+            text.append("fineract_http_request_duration_seconds_count{").append(labels).append("} ").append(cumulative).append('\n');
+        }
+    }
+
+    private final class RequestLogWriter implements Runnable {
+
+        @Override
+        public void run() {
+            final List<PlatformRequestLog> batch = new ArrayList<>(WRITER_BATCH_SIZE);
+            final StringBuilder line = new StringBuilder(256);
+            long droppedWarnedAbout = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(PlatformRequestLogServiceImpl.this.buffer.take());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                PlatformRequestLogServiceImpl.this.buffer.drainTo(batch, WRITER_BATCH_SIZE - 1);
+                try {
+                    if (logger.isInfoEnabled()) {
+                        for (final PlatformRequestLog log : batch) {
+                            line.setLength(0);
+                            log.appendJson(line);
+                            logger.info(line.toString());
+                        }
+                    }
+                    final long droppedTotal = PlatformRequestLogServiceImpl.this.dropped.sum();
+                    if (droppedTotal > droppedWarnedAbout) {
+                        logger.warn((droppedTotal - droppedWarnedAbout) + " request log entries dropped, the log writer could not keep up");
+                        droppedWarnedAbout = droppedTotal;
+                    }
+                } catch (final RuntimeException e) {
+                    // keep the writer alive whatever the appenders do
+                    logger.error("Could not write request log entries", e);
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * Opaque session tokens for API clients that authenticate once with their
+ * password and then send <code>Authorization: Token &lt;token&gt;</code>
+ * instead of Basic credentials on every call.
+ */
+public interface SessionTokenService {
+
+    String createSessionToken(Long appUserId);
+
+    /**
+     * @return the authentication of the token's user or <code>null</code>
+     *         when the token is unknown, expired or its user can no longer
+     *         log in
+     */
+    Authentication authenticate(String sessionToken);
+
+    void revokeSessionTokens(Long appUserId);
+}
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.security.service.AuthenticationMetricsService.Method;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stores only the SHA-256 digest of each token in m_appuser_session_token.
+ * The token row and the state of its user are read on every call, a primary
+ * key lookup, so expiry, revocation and disabling or deleting the user take
+ * effect at once on every server. Password changes revoke the user's tokens.
+ * The authorities come from {@link PlatformUserDetailsService}, whose cache is
+ * evicted on role changes on the server making them only.
+ */
+@Service
+public class SessionTokenServiceImpl implements SessionTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final String USERNAME_OF_VALID_TOKEN = "select u.username from m_appuser_session_token t"
+            + " join m_appuser u on u.id = t.appuser_id where t.token_hash = ? and t.expires_on > NOW()"
+            + " and u.is_deleted = 0 and u.enabled = 1 and u.nonlocked = 1 and u.nonexpired = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformUserDetailsService userDetailsService;
+    private final ConfigurationDomainService configurationDomainService;
+    private final AuthenticationMetricsService authenticationMetricsService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public SessionTokenServiceImpl(final RoutingDataSource dataSource, final PlatformUserDetailsService userDetailsService,
+            final ConfigurationDomainService configurationDomainService, final AuthenticationMetricsService authenticationMetricsService) {
+        this(new JdbcTemplate(dataSource), userDetailsService, configurationDomainService, authenticationMetricsService);
+    }
+
+    SessionTokenServiceImpl(final JdbcTemplate jdbcTemplate, final PlatformUserDetailsService userDetailsService,
+            final ConfigurationDomainService configurationDomainService, final AuthenticationMetricsService authenticationMetricsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userDetailsService = userDetailsService;
+        this.configurationDomainService = configurationDomainService;
+        this.authenticationMetricsService = authenticationMetricsService;
+    }
+
+    @Override
+    public String createSessionToken(final Long appUserId) {
+        final byte[] tokenBytes = new byte[TOKEN_BYTES];
+        this.secureRandom.nextBytes(tokenBytes);
+        final String sessionToken = new String(Hex.encode(tokenBytes));
+
+        // clear out this user's expired tokens while we are at it
+        this.jdbcTemplate.update("delete from m_appuser_session_token where appuser_id = ? and expires_on < NOW()", appUserId);
+        this.jdbcTemplate.update("insert into m_appuser_session_token (token_hash, appuser_id, created_date, expires_on)"
+                + " values (?, ?, NOW(), DATE_ADD(NOW(), INTERVAL ? MINUTE))", CachingDaoAuthenticationProvider.digest(sessionToken),
+                appUserId, this.configurationDomainService.retrieveSessionTokenValidityMinutes());
+
+        return sessionToken;
+    }
+
+    @Override
+    public Authentication authenticate(final String sessionToken) {
+        final long startTime = System.nanoTime();
+        boolean authenticated = false;
+        try {
+            final List<String> usernames = this.jdbcTemplate.queryForList(USERNAME_OF_VALID_TOKEN, String.class,
+                    CachingDaoAuthenticationProvider.digest(sessionToken));
+            if (usernames.isEmpty()) { return null; }
+
+            final UserDetails user;
+            try {
+                user = this.userDetailsService.loadUserByUsername(usernames.get(0));
+            } catch (final UsernameNotFoundException e) {
+                return null;
+            }
+            if (!user.isAccountNonLocked() || !user.isAccountNonExpired()) { return null; }
+
+            authenticated = true;
+            return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        } finally {
+            this.authenticationMetricsService.record(Method.SESSION_TOKEN, System.nanoTime() - startTime, authenticated);
+        }
+    }
+
+    @Override
+    public void revokeSessionTokens(final Long appUserId) {
+        this.jdbcTemplate.update("delete from m_appuser_session_token where appuser_id = ?", appUserId);
+    }
+}
@@ -92,6 +92,17 @@ public class Money implements Comparable<Money> {
         this.amount = amountScaled.setScale(this.currencyDigitsAfterDecimal, MoneyHelper.getRoundingMode());
     }
 
+    /**
+     * Used for results that are exact at the scale of the currency, skipping
+     * the rounding applied by {@link #of(MonetaryCurrency, BigDecimal)}.
+     */
+    private Money(final Money currencyOf, final BigDecimal scaledAmount) {
+        this.currencyCode = currencyOf.currencyCode;
+        this.currencyDigitsAfterDecimal = currencyOf.currencyDigitsAfterDecimal;
+        this.inMultiplesOf = currencyOf.inMultiplesOf;
+        this.amount = scaledAmount;
+    }
+
     public static double roundToMultiplesOf(final double existingVal, final Integer inMultiplesOf) {
         double amountScaled = existingVal;
         final double ceilingOfValue = ceiling(existingVal, inMultiplesOf);
@@ -155,6 +166,10 @@ public class Money implements Comparable<Money> {
 
     public Money plus(final Money moneyToAdd) {
         final Money toAdd = checkCurrencyEqual(moneyToAdd);
+        if (isScaledAmountWith(toAdd)) {
+            if (toAdd.amount.signum() == 0) { return this; }
+            return new Money(this, this.amount.add(toAdd.amount));
+        }
         return this.plus(toAdd.getAmount());
     }
 
@@ -172,9 +187,27 @@ public class Money implements Comparable<Money> {
 
     public Money minus(final Money moneyToSubtract) {
         final Money toSubtract = checkCurrencyEqual(moneyToSubtract);
+        if (isScaledAmountWith(toSubtract)) {
+            if (toSubtract.amount.signum() == 0) { return this; }
+            return new Money(this, this.amount.subtract(toSubtract.amount));
+        }
         return this.minus(toSubtract.getAmount());
     }
 
+    /**
+     * Both amounts are already at the scale of the currency, so their sum or
+     * difference is exact and needs no further rounding, unless the currency
+     * rounds to multiples.
+     */
+    private boolean isScaledAmountWith(final Money money) {
+        return !isRoundedToMultiples() && this.amount.scale() == this.currencyDigitsAfterDecimal
+                && money.amount.scale() == this.currencyDigitsAfterDecimal;
+    }
+
+    private boolean isRoundedToMultiples() {
+        return this.inMultiplesOf != null && this.currencyDigitsAfterDecimal == 0 && this.inMultiplesOf > 0;
+    }
+
     public Money minus(final BigDecimal amountToSubtract) {
         if (amountToSubtract == null || amountToSubtract.compareTo(BigDecimal.ZERO) == 0) { return this; }
         final BigDecimal newAmount = this.amount.subtract(amountToSubtract);
@@ -250,7 +283,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isZero() {
-        return isEqualTo(Money.zero(getCurrency()));
+        return this.amount.signum() == 0;
     }
 
     public boolean isEqualTo(final Money other) {
@@ -270,7 +303,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isGreaterThanZero() {
-        return isGreaterThan(Money.zero(getCurrency()));
+        return this.amount.signum() > 0;
     }
 
     public boolean isLessThan(final Money other) {
@@ -278,7 +311,7 @@ public class Money implements Comparable<Money> {
     }
 
     public boolean isLessThanZero() {
-        return isLessThan(Money.zero(getCurrency()));
+        return this.amount.signum() < 0;
     }
 
     public String getCurrencyCode() {
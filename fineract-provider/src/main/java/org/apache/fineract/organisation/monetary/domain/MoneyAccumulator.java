@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * A mutable running total of {@link Money} amounts in one currency, for
+ * summing over installments, charges or transactions without creating a new
+ * {@link Money} for every step.
+ * 
+ * Amounts are kept as a long count of the smallest unit of the currency.
+ * Should the total not fit in a long, or an amount not be at the scale of the
+ * currency, the total continues as a {@link BigDecimal} at that scale. Currencies
+ * that round to multiples are totalled with {@link Money} itself, as every
+ * intermediate result is rounded there. In all cases {@link #toMoney()} gives
+ * the same result as adding up the amounts with {@link Money#plus(Money)}.
+ */
+public final class MoneyAccumulator {
+
+    /**
+     * Unscaled amounts of up to 18 digits always fit in a long.
+     */
+    private static final int MAX_LONG_PRECISION = 18;
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final boolean roundedToMultiples;
+
+    private long unscaledTotal;
+    private BigDecimal exactTotal;
+    private Money roundedTotal;
+
+    public static MoneyAccumulator zero(final MonetaryCurrency currency) {
+        return new MoneyAccumulator(currency);
+    }
+
+    public static MoneyAccumulator of(final Money money) {
+        return new MoneyAccumulator(money.getCurrency()).add(money);
+    }
+
+    private MoneyAccumulator(final MonetaryCurrency currency) {
+        this.currency = currency;
+        this.digitsAfterDecimal = currency.getDigitsAfterDecimal();
+        final Integer inMultiplesOf = currency.getCurrencyInMultiplesOf();
+        this.roundedToMultiples = inMultiplesOf != null && this.digitsAfterDecimal == 0 && inMultiplesOf > 0;
+        if (this.roundedToMultiples) {
+            this.roundedTotal = Money.zero(currency);
+        }
+    }
+
+    public MoneyAccumulator add(final Money money) {
+        checkCurrencyEqual(money);
+        if (this.roundedToMultiples) {
+            this.roundedTotal = this.roundedTotal.plus(money);
+        } else {
+            addAmount(money.getAmount(), false);
+        }
+        return this;
+    }
+
+    public MoneyAccumulator subtract(final Money money) {
+        checkCurrencyEqual(money);
+        if (this.roundedToMultiples) {
+            this.roundedTotal = this.roundedTotal.minus(money);
+        } else {
+            addAmount(money.getAmount(), true);
+        }
+        return this;
+    }
+
+    private void addAmount(final BigDecimal amount, final boolean negate) {
+        if (this.exactTotal == null && amount.scale() == this.digitsAfterDecimal && amount.precision() <= MAX_LONG_PRECISION) {
+            final long unscaledAmount = negate ? -amount.unscaledValue().longValue() : amount.unscaledValue().longValue();
+            final long total = this.unscaledTotal + unscaledAmount;
+            // the addition overflowed if both operands differ in sign from
+            // the result
+            if (((this.unscaledTotal ^ total) & (unscaledAmount ^ total)) >= 0) {
+                this.unscaledTotal = total;
+                return;
+            }
+        }
+        if (this.exactTotal == null) {
+            this.exactTotal = BigDecimal.valueOf(this.unscaledTotal, this.digitsAfterDecimal);
+        }
+        BigDecimal total = negate ? this.exactTotal.subtract(amount) : this.exactTotal.add(amount);
+        if (total.scale() != this.digitsAfterDecimal) {
+            // rounded the way Money rounds every intermediate result
+            total = total.setScale(this.digitsAfterDecimal, MoneyHelper.getRoundingMode());
+        }
+        this.exactTotal = total;
+    }
+
+    private void checkCurrencyEqual(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) { throw new UnsupportedOperationException(
+                "currencies are different."); }
+    }
+
+    public int signum() {
+        if (this.roundedToMultiples) { return this.roundedTotal.getAmount().signum(); }
+        if (this.exactTotal != null) { return this.exactTotal.signum(); }
+        return Long.signum(this.unscaledTotal);
+    }
+
+    public boolean isZero() {
+        return signum() == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return signum() > 0;
+    }
+
+    public boolean isLessThanZero() {
+        return signum() < 0;
+    }
+
+    public Money toMoney() {
+        if (this.roundedToMultiples) { return this.roundedTotal; }
+        if (this.exactTotal != null) { return Money.of(this.currency, this.exactTotal); }
+        return Money.of(this.currency, BigDecimal.valueOf(this.unscaledTotal, this.digitsAfterDecimal));
+    }
+
+    public BigDecimal toAmount() {
+        return toMoney().getAmount();
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
 
 import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.DateList;
@@ -53,6 +54,11 @@ import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.gson.JsonElement;
 
 public class CalendarUtils {
@@ -61,10 +67,36 @@ public class CalendarUtils {
         System.setProperty("net.fortuna.ical4j.timezone.date.floating", "true");
     }
 
+    /**
+     * Parsed recurrences keyed by recurring rule (and by interval and
+     * frequency overrides for loan repayment dates). Cached {@link Recur}'s are
+     * shared between threads and must never be modified, use
+     * {@link #getICalRecur(String)} for a private copy.
+     */
+    private static final LoadingCache<String, Optional<Recur>> compiledRecurrences = CacheBuilder.newBuilder().maximumSize(1000)
+            .build(new CacheLoader<String, Optional<Recur>>() {
+
+                @Override
+                public Optional<Recur> load(final String key) {
+                    return Optional.fromNullable(compileRecur(key));
+                }
+            });
+
+    /**
+     * Recurring dates from a seed date up to a horizon, keyed by recurrence
+     * (as in {@link #compiledRecurrences}) and seed date. Extended on demand
+     * when a later date is asked for. Lookups in a series replace iCal4J
+     * iterating the recurrence from the seed date on every call.
+     */
+    private static final Cache<String, RecurringDateSeries> recurringDateSeries = CacheBuilder.newBuilder().maximumSize(500)
+            .expireAfterAccess(1, TimeUnit.DAYS).build();
+
+    private static final String RECUR_OVERRIDE_SEPARATOR = "|";
+
     public static LocalDate getNextRecurringDate(final String recurringRule, final LocalDate seedDate, final LocalDate startDate) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         if (recur == null) { return null; }
-        LocalDate nextDate = getNextRecurringDate(recur, seedDate, startDate);
+        LocalDate nextDate = getNextRecurringDate(recurringRule, recur, seedDate, startDate);
         nextDate = adjustDate(nextDate, seedDate, getMeetingPeriodFrequencyType(recurringRule));
         return nextDate;
     }
@@ -102,7 +134,22 @@ public class CalendarUtils {
         return adjustedVal;
     }
 
-    private static LocalDate getNextRecurringDate(final Recur recur, final LocalDate seedDate, final LocalDate startDate) {
+    /**
+     * Returns the first recurring date after <code>startDate</code> from the
+     * cached series of the recurrence. The series reaches a year past the
+     * start date; later dates, e.g. of recurrences every few years, are left
+     * to iCal4J.
+     */
+    private static LocalDate getNextRecurringDate(final String recurKey, final Recur recur, final LocalDate seedDate,
+            final LocalDate startDate) {
+        final LocalDate dayAfterStartDate = startDate.plusDays(1);
+        final RecurringDateSeries series = getRecurringDateSeries(recurKey, seedDate, dayAfterStartDate);
+        final LocalDate nextDate = series.firstDateBetween(dayAfterStartDate, series.horizon);
+        if (nextDate != null) { return nextDate; }
+        return getNextRecurringDate(recur, seedDate, startDate);
+    }
+
+    static LocalDate getNextRecurringDate(final Recur recur, final LocalDate seedDate, final LocalDate startDate) {
         final DateTime periodStart = new DateTime(startDate.toDate());
         final Date seed = convertToiCal4JCompatibleDate(seedDate);
         final Date nextRecDate = recur.getNextDate(seed, periodStart);
@@ -149,12 +196,16 @@ public class CalendarUtils {
             final LocalDate periodStartDate, final LocalDate periodEndDate, final int maxCount, boolean isSkippMeetingOnFirstDay,
             final Integer numberOfDays) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final RecurringDateSeries series = getRecurringDateSeries(recurringRule, seedDate, periodEndDate);
+        if (series == null) { return null; }
 
-        return getRecurringDates(recur, seedDate, periodStartDate, periodEndDate, maxCount, isSkippMeetingOnFirstDay, numberOfDays);
+        // the period end is exclusive, as for iCal4J
+        final List<LocalDate> dates = series.datesBetween(periodStartDate, periodEndDate.minusDays(1), maxCount);
+        return adjustRecurringDates(dates, seedDate, getMeetingPeriodFrequencyType(series.recur), isSkippMeetingOnFirstDay,
+                numberOfDays);
     }
 
-    private static Collection<LocalDate> getRecurringDates(final Recur recur, final LocalDate seedDate, final LocalDate periodStartDate,
+    static Collection<LocalDate> getRecurringDates(final Recur recur, final LocalDate seedDate, final LocalDate periodStartDate,
             final LocalDate periodEndDate, final int maxCount, boolean isSkippMeetingOnFirstDay, final Integer numberOfDays) {
         if (recur == null) { return null; }
         final Date seed = convertToiCal4JCompatibleDate(seedDate);
@@ -170,12 +221,23 @@ public class CalendarUtils {
     private static Collection<LocalDate> convertToLocalDateList(final DateList dates, final LocalDate seedDate,
             final PeriodFrequencyType frequencyType, boolean isSkippMeetingOnFirstDay, final Integer numberOfDays) {
 
-        final Collection<LocalDate> recurringDates = new ArrayList<>();
+        final List<LocalDate> localDates = new ArrayList<>();
 
         for (@SuppressWarnings("rawtypes")
         final Iterator iterator = dates.iterator(); iterator.hasNext();) {
-            final Date date = (Date) iterator.next();
-            recurringDates.add(adjustDate(new LocalDate(date), seedDate, frequencyType));
+            localDates.add(new LocalDate(iterator.next()));
+        }
+
+        return adjustRecurringDates(localDates, seedDate, frequencyType, isSkippMeetingOnFirstDay, numberOfDays);
+    }
+
+    private static Collection<LocalDate> adjustRecurringDates(final List<LocalDate> dates, final LocalDate seedDate,
+            final PeriodFrequencyType frequencyType, boolean isSkippMeetingOnFirstDay, final Integer numberOfDays) {
+
+        final Collection<LocalDate> recurringDates = new ArrayList<>();
+
+        for (final LocalDate date : dates) {
+            recurringDates.add(adjustDate(date, seedDate, frequencyType));
         }
 
         if (isSkippMeetingOnFirstDay) { return skipMeetingOnFirstdayOfMonth(recurringDates, numberOfDays); }
@@ -202,7 +264,52 @@ public class CalendarUtils {
         return recuringDate;
     }
 
+    /**
+     * Parses the recurring rule into a new {@link Recur} which the caller is
+     * free to modify. Read only callers should prefer the cached
+     * {@link #getCompiledRecur(String)}.
+     */
     public static Recur getICalRecur(final String recurringRule) {
+        return parseRecur(recurringRule);
+    }
+
+    /**
+     * Returns the shared, parsed {@link Recur} for the recurring rule or a key
+     * from {@link #recurKey}. The returned instance must not be modified.
+     */
+    private static Recur getCompiledRecur(final String recurKey) {
+        if (recurKey == null) { return null; }
+        return compiledRecurrences.getUnchecked(recurKey).orNull();
+    }
+
+    /**
+     * Returns the key of the recurring rule with the interval replaced by the
+     * loan repayment interval and, for daily meetings, the frequency replaced
+     * by the loan repayment frequency. {@link #getCompiledRecur(String)}
+     * returns the shared {@link Recur} for it.
+     */
+    private static String recurKey(final String recurringRule, final Integer loanRepaymentInterval, final String frequency) {
+        if (recurringRule == null) { return null; }
+        return recurringRule + RECUR_OVERRIDE_SEPARATOR + loanRepaymentInterval + RECUR_OVERRIDE_SEPARATOR + frequency;
+    }
+
+    private static Recur compileRecur(final String key) {
+        final int separator = key.indexOf(RECUR_OVERRIDE_SEPARATOR);
+        if (separator < 0) { return parseRecur(key); }
+
+        final Recur recur = parseRecur(key.substring(0, separator));
+        if (recur == null) { return null; }
+        final String[] overrides = key.substring(separator + 1).split("\\" + RECUR_OVERRIDE_SEPARATOR, -1);
+        // Recurring dates should follow loanRepaymentInterval and, for daily
+        // meetings, the loan repayment frequency.
+        recur.setInterval(Integer.parseInt(overrides[0]));
+        if (recur.getFrequency().equals(Recur.DAILY)) {
+            recur.setFrequency("null".equals(overrides[1]) ? null : overrides[1]);
+        }
+        return recur;
+    }
+
+    private static Recur parseRecur(final String recurringRule) {
 
         // Construct RRule
         try {
@@ -337,20 +444,34 @@ public class CalendarUtils {
 
     public static boolean isValidRedurringDate(final String recurringRule, final LocalDate seedDate, final LocalDate date) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return false; }
         final boolean isSkipRepaymentonFirstDayOfMonth = false;
         final int numberOfDays = 0;
-        return isValidRecurringDate(recur, seedDate, date, isSkipRepaymentonFirstDayOfMonth, numberOfDays);
+        return isValidRedurringDate(recurringRule, seedDate, date, isSkipRepaymentonFirstDayOfMonth, numberOfDays);
     }
 
     public static boolean isValidRedurringDate(final String recurringRule, final LocalDate seedDate, final LocalDate date,
             boolean isSkipRepaymentonFirstDayOfMonth, final Integer numberOfDays) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         if (recur == null) { return false; }
 
-        return isValidRecurringDate(recur, seedDate, date, isSkipRepaymentonFirstDayOfMonth, numberOfDays);
+        if (!seedDate.isBefore(date)) {
+            // nothing to iterate over (e.g. working days use the date as seed)
+            return isValidRecurringDate(recur, seedDate, date, isSkipRepaymentonFirstDayOfMonth, numberOfDays);
+        }
+
+        LocalDate startDate = date;
+        if (isSkipRepaymentonFirstDayOfMonth && date.getDayOfMonth() == (numberOfDays + 1)) {
+            startDate = startDate.minusDays(numberOfDays);
+        }
+        final RecurringDateSeries series = getRecurringDateSeries(recurringRule, seedDate, date);
+        LocalDate recurringDate = series.firstDateBetween(startDate, date);
+        if (recurringDate == null) { return false; }
+        recurringDate = adjustDate(recurringDate, seedDate, getMeetingPeriodFrequencyType(recur));
+        if (isSkipRepaymentonFirstDayOfMonth) {
+            recurringDate = adjustRecurringDate(recurringDate, numberOfDays);
+        }
+        return recurringDate.equals(date);
     }
 
     public static boolean isValidRecurringDate(final Recur recur, final LocalDate seedDate, final LocalDate date,
@@ -365,6 +486,87 @@ public class CalendarUtils {
         return (recurDate == null || recurDate.isEmpty()) ? false : recurDate.contains(date);
     }
 
+    private static RecurringDateSeries getRecurringDateSeries(final String recurKey, final LocalDate seedDate,
+            final LocalDate requiredUntil) {
+        final Recur recur = getCompiledRecur(recurKey);
+        if (recur == null) { return null; }
+        final String key = recurKey + RECUR_OVERRIDE_SEPARATOR + seedDate;
+        RecurringDateSeries series = recurringDateSeries.getIfPresent(key);
+        if (series == null || series.horizon.isBefore(requiredUntil)) {
+            series = new RecurringDateSeries(recur, seedDate, requiredUntil.plusYears(1));
+            recurringDateSeries.put(key, series);
+        }
+        return series;
+    }
+
+    /**
+     * Immutable, sorted recurring dates of a recurrence from its seed date up
+     * to and including the horizon. Dates are as generated by iCal4J, before
+     * any month end or first day of month adjustment.
+     */
+    private static final class RecurringDateSeries {
+
+        private final Recur recur;
+        private final LocalDate horizon;
+        private final LocalDate[] dates;
+
+        RecurringDateSeries(final Recur recur, final LocalDate seedDate, final LocalDate horizon) {
+            this.recur = recur;
+            this.horizon = horizon;
+
+            final Date seed = convertToiCal4JCompatibleDate(seedDate);
+            final DateTime periodStart = new DateTime(seedDate.toDate());
+            final DateTime periodEnd = new DateTime(horizon.plusDays(1).toDate());
+            final Value value = new Value(Value.DATE.getValue());
+            final int noMaxCount = -1;
+            final DateList recurringDates = recur.getDates(seed, periodStart, periodEnd, value, noMaxCount);
+
+            final List<LocalDate> localDates = new ArrayList<>(recurringDates.size());
+            for (@SuppressWarnings("rawtypes")
+            final Iterator iterator = recurringDates.iterator(); iterator.hasNext();) {
+                final LocalDate date = new LocalDate(iterator.next());
+                if (!date.isAfter(horizon)) {
+                    localDates.add(date);
+                }
+            }
+            this.dates = localDates.toArray(new LocalDate[localDates.size()]);
+        }
+
+        LocalDate firstDateBetween(final LocalDate fromDate, final LocalDate toDate) {
+            final int index = indexOfFirstDateOnOrAfter(fromDate);
+            if (index < this.dates.length && !this.dates[index].isAfter(toDate)) { return this.dates[index]; }
+            return null;
+        }
+
+        /**
+         * @param maxCount
+         *            at most this many dates are returned, all of them
+         *            when negative
+         */
+        List<LocalDate> datesBetween(final LocalDate fromDate, final LocalDate toDate, final int maxCount) {
+            final List<LocalDate> datesBetween = new ArrayList<>();
+            for (int index = indexOfFirstDateOnOrAfter(fromDate); index < this.dates.length && !this.dates[index].isAfter(toDate)
+                    && (maxCount < 0 || datesBetween.size() < maxCount); index++) {
+                datesBetween.add(this.dates[index]);
+            }
+            return datesBetween;
+        }
+
+        private int indexOfFirstDateOnOrAfter(final LocalDate date) {
+            int low = 0;
+            int high = this.dates.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (this.dates[mid].isBefore(date)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
     public static enum DayNameEnum {
         MO(1, "Monday"), TU(2, "Tuesday"), WE(3, "Wednesday"), TH(4, "Thursday"), FR(5, "Friday"), SA(6, "Saturday"), SU(7, "Sunday");
 
@@ -415,7 +617,7 @@ public class CalendarUtils {
     }
 
     public static PeriodFrequencyType getMeetingPeriodFrequencyType(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         return getMeetingPeriodFrequencyType(recur);
     }
 
@@ -448,17 +650,17 @@ public class CalendarUtils {
     }
 
     public static int getInterval(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         return recur.getInterval();
     }
 
     public static CalendarFrequencyType getFrequency(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         return CalendarFrequencyType.fromString(recur.getFrequency());
     }
 
     public static CalendarWeekDaysType getRepeatsOnDay(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         final WeekDayList weekDays = recur.getDayList();
         if (weekDays.isEmpty()) return CalendarWeekDaysType.INVALID;
         // supports only one day
@@ -466,7 +668,7 @@ public class CalendarUtils {
         return CalendarWeekDaysType.fromString(weekDay.getDay());
     }
     public static NthDayType getRepeatsOnNthDayOfMonth(final String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         NumberList monthDays = null;
         if(recur.getDayList().isEmpty())
         	monthDays = recur.getMonthDayList();
@@ -481,20 +683,12 @@ public class CalendarUtils {
     public static LocalDate getFirstRepaymentMeetingDate(final Calendar calendar, final LocalDate disbursementDate,
             final Integer loanRepaymentInterval, final String frequency, boolean isSkipRepaymentOnFirstDayOfMonth,
             final Integer numberOfDays) {
-        final Recur recur = CalendarUtils.getICalRecur(calendar.getRecurrence());
-        if (recur == null) { return null; }
-        LocalDate startDate = disbursementDate;
-        final LocalDate seedDate = calendar.getStartDateLocalDate();
-        if (isValidRedurringDate(calendar.getRecurrence(), seedDate, startDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) {
-            startDate = startDate.plusDays(1);
-        }
         // Recurring dates should follow loanRepaymentInterval.
         // e.g.
         // for weekly meeting interval is 1
         // where as for loan product with fortnightly frequency interval is 2
         // to generate currect set of meeting dates reset interval same as loan
         // repayment interval.
-        recur.setInterval(loanRepaymentInterval);
 
         // Recurring dates should follow loanRepayment frequency.
         // e.g.
@@ -502,11 +696,16 @@ public class CalendarUtils {
         // frequency type.
         // to generate currect set of meeting dates reset frequency same as loan
         // repayment frequency.
-        if (recur.getFrequency().equals(Recur.DAILY)) {
-            recur.setFrequency(frequency);
+        final String recurKey = recurKey(calendar.getRecurrence(), loanRepaymentInterval, frequency);
+        final Recur recur = getCompiledRecur(recurKey);
+        if (recur == null) { return null; }
+        LocalDate startDate = disbursementDate;
+        final LocalDate seedDate = calendar.getStartDateLocalDate();
+        if (isValidRedurringDate(calendar.getRecurrence(), seedDate, startDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) {
+            startDate = startDate.plusDays(1);
         }
 
-        final LocalDate firstRepaymentDate = getNextRecurringDate(recur, seedDate, startDate);
+        final LocalDate firstRepaymentDate = getNextRecurringDate(recurKey, recur, seedDate, startDate);
         if (isSkipRepaymentOnFirstDayOfMonth && firstRepaymentDate.getDayOfMonth() == 1) { return adjustRecurringDate(firstRepaymentDate,
                 numberOfDays); }
 
@@ -516,9 +715,8 @@ public class CalendarUtils {
     public static LocalDate getNewRepaymentMeetingDate(final String recurringRule, final LocalDate seedDate,
             final LocalDate oldRepaymentDate, final Integer loanRepaymentInterval, final String frequency, final WorkingDays workingDays,
             final boolean isSkipRepaymentOnFirstDayOfMonth, final Integer numberOfDays) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return null; }
-        if (isValidRecurringDate(recur, seedDate, oldRepaymentDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) { return oldRepaymentDate; }
+        if (getCompiledRecur(recurringRule) == null) { return null; }
+        if (isValidRedurringDate(recurringRule, seedDate, oldRepaymentDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) { return oldRepaymentDate; }
         LocalDate nextRapaymentDate = getNextRepaymentMeetingDate(recurringRule, seedDate, oldRepaymentDate, loanRepaymentInterval,
                 frequency, workingDays, isSkipRepaymentOnFirstDayOfMonth, numberOfDays);
 
@@ -529,10 +727,9 @@ public class CalendarUtils {
             final LocalDate repaymentDate, final Integer loanRepaymentInterval, final String frequency, final WorkingDays workingDays,
             boolean isSkipRepaymentOnFirstDayOfMonth, final Integer numberOfDays) {
 
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
-        if (recur == null) { return null; }
+        if (getCompiledRecur(recurringRule) == null) { return null; }
         LocalDate tmpDate = repaymentDate;
-        if (isValidRecurringDate(recur, seedDate, repaymentDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) {
+        if (isValidRedurringDate(recurringRule, seedDate, repaymentDate, isSkipRepaymentOnFirstDayOfMonth, numberOfDays)) {
             tmpDate = repaymentDate.plusDays(1);
         }
         /*
@@ -542,7 +739,6 @@ public class CalendarUtils {
          * with fortnightly frequency will have interval of 2, to generate right
          * set of meeting dates reset interval same as loan repayment interval.
          */
-        recur.setInterval(loanRepaymentInterval);
 
         /*
          * Recurring dates should follow loanRepayment frequency. //e.g. daily
@@ -550,12 +746,11 @@ public class CalendarUtils {
          * frequency. to generate right set of meeting dates reset frequency
          * same as loan repayment frequency.
          */
-        if (recur.getFrequency().equals(Recur.DAILY)) {
-            recur.setFrequency(frequency);
-        }
+        final String recurKey = recurKey(recurringRule, loanRepaymentInterval, frequency);
+        final Recur recur = getCompiledRecur(recurKey);
 
-        LocalDate newRepaymentDate = getNextRecurringDate(recur, seedDate, tmpDate);
-        final LocalDate nextRepaymentDate = getNextRecurringDate(recur, seedDate, newRepaymentDate);
+        LocalDate newRepaymentDate = getNextRecurringDate(recurKey, recur, seedDate, tmpDate);
+        final LocalDate nextRepaymentDate = getNextRecurringDate(recurKey, recur, seedDate, newRepaymentDate);
 
         newRepaymentDate = WorkingDaysUtil.getOffSetDateIfNonWorkingDay(newRepaymentDate, nextRepaymentDate, workingDays);
         if (isSkipRepaymentOnFirstDayOfMonth) {
@@ -567,16 +762,16 @@ public class CalendarUtils {
     }
 
     public static boolean isFrequencySame(final String oldRRule, final String newRRule) {
-        final Recur oldRecur = getICalRecur(oldRRule);
-        final Recur newRecur = getICalRecur(newRRule);
+        final Recur oldRecur = getCompiledRecur(oldRRule);
+        final Recur newRecur = getCompiledRecur(newRRule);
 
         if (oldRecur == null || oldRecur.getFrequency() == null || newRecur == null || newRecur.getFrequency() == null) { return false; }
         return oldRecur.getFrequency().equals(newRecur.getFrequency());
     }
 
     public static boolean isIntervalSame(final String oldRRule, final String newRRule) {
-        final Recur oldRecur = getICalRecur(oldRRule);
-        final Recur newRecur = getICalRecur(newRRule);
+        final Recur oldRecur = getCompiledRecur(oldRRule);
+        final Recur newRecur = getCompiledRecur(newRRule);
 
         if (oldRecur == null || oldRecur.getFrequency() == null || newRecur == null || newRecur.getFrequency() == null) { return false; }
         return (oldRecur.getInterval() == newRecur.getInterval());
@@ -635,7 +830,7 @@ public class CalendarUtils {
     public static LocalDate getRecentEligibleMeetingDate(final String recurringRule, final LocalDate seedDate,
             final boolean isSkipMeetingOnFirstDay, final Integer numberOfDays) {
         LocalDate currentDate = DateUtils.getLocalDateOfTenant();
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         if (recur == null) { return null; }
 
         if (isValidRecurringDate(recur, seedDate, currentDate, isSkipMeetingOnFirstDay, numberOfDays)) { return currentDate; }
@@ -650,11 +845,11 @@ public class CalendarUtils {
             currentDate = currentDate.plusYears(recur.getInterval());
         }
 
-        return getNextRecurringDate(recur, seedDate, currentDate);
+        return getNextRecurringDate(recurringRule, recur, seedDate, currentDate);
     }
 
     public static LocalDate getNextScheduleDate(final Calendar calendar, final LocalDate startDate) {
-        final Recur recur = CalendarUtils.getICalRecur(calendar.getRecurrence());
+        final Recur recur = getCompiledRecur(calendar.getRecurrence());
         if (recur == null) { return null; }
         LocalDate date = startDate;
         final LocalDate seedDate = calendar.getStartDateLocalDate();
@@ -663,7 +858,7 @@ public class CalendarUtils {
          * date = date.plusDays(1); }
          **/
 
-        final LocalDate scheduleDate = getNextRecurringDate(recur, seedDate, date);
+        final LocalDate scheduleDate = getNextRecurringDate(calendar.getRecurrence(), recur, seedDate, date);
 
         return scheduleDate;
     }
@@ -689,7 +884,7 @@ public class CalendarUtils {
         }
     }
     public static Integer getMonthOnDay(String recurringRule) {
-        final Recur recur = CalendarUtils.getICalRecur(recurringRule);
+        final Recur recur = getCompiledRecur(recurringRule);
         NumberList monthDayList = null;
         Integer monthOnDay = null;
         if (getMeetingPeriodFrequencyType(recur).isMonthly()) {
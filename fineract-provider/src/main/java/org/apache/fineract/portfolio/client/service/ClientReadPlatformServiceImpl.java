@@ -144,13 +144,21 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         // underHierarchySearchString = searchParameters.getHierarchy() + "%";
         // }
 
+        final boolean keysetPaging = searchParameters.isKeysetPaging();
+        final Long cursorKey = searchParameters.getCursorKey();
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(PaginationHelper.selectClause(keysetPaging, searchParameters.getTotalCountMode()));
         sqlBuilder.append(this.clientMapper.schema());
         sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
-        
+
+        final List<Object> params = new ArrayList<>();
+        params.add(underHierarchySearchString);
+        params.add(underHierarchySearchString);
+
         if(searchParameters.isSelfUser()){
         	sqlBuilder.append(" and c.id in (select umap.client_id from m_selfservice_user_client_mapping as umap where umap.appuser_id = ? ) ");
+            params.add(appUserID);
         }
 
         final String extraCriteria = buildSqlStringFromClientCriteria(searchParameters);
@@ -159,6 +167,17 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
             sqlBuilder.append(" and (").append(extraCriteria).append(")");
         }
 
+        if (keysetPaging) {
+            final boolean descending = searchParameters.isSortOrderDescending();
+            if (cursorKey != null) {
+                sqlBuilder.append(" and ").append(PaginationHelper.keysetPredicate("c.id", descending));
+                params.add(cursorKey);
+            }
+            sqlBuilder.append(PaginationHelper.keysetOrderAndLimit("c.id", descending, searchParameters.getLimit()));
+            return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), params.toArray(), "id",
+                    searchParameters.getLimit(), searchParameters.getTotalCountMode(), this.clientMapper);
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -175,11 +194,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         }
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
-        Object[] params = new Object[] {underHierarchySearchString, underHierarchySearchString };
-        if(searchParameters.isSelfUser()){
-            params = new Object[] {underHierarchySearchString, underHierarchySearchString, appUserID };
-        }
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), params, this.clientMapper);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), params.toArray(), this.clientMapper,
+                searchParameters.getTotalCountMode());
     }
 
     private String buildSqlStringFromClientCriteria(final SearchParameters searchParameters) {
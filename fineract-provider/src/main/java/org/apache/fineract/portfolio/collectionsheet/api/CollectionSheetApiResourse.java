@@ -19,6 +19,7 @@
 package org.apache.fineract.portfolio.collectionsheet.api;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -39,7 +40,9 @@ import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
 import org.apache.fineract.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
 import org.apache.fineract.portfolio.collectionsheet.CollectionSheetConstants;
+import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetCacheStatisticsData;
 import org.apache.fineract.portfolio.collectionsheet.data.IndividualCollectionSheetData;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetCacheService;
 import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetReadPlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
@@ -58,18 +61,21 @@ public class CollectionSheetApiResourse {
     private final ApiRequestParameterHelper apiRequestPrameterHelper;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final PlatformSecurityContext context;
+    private final CollectionSheetCacheService collectionSheetCacheService;
 
     @Autowired
     public CollectionSheetApiResourse(final CollectionSheetReadPlatformService collectionSheetReadPlatformService,
             final ToApiJsonSerializer<Object> toApiJsonSerializer, final FromJsonHelper fromJsonHelper,
             final ApiRequestParameterHelper apiRequestPrameterHelper,
-            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService, final PlatformSecurityContext context) {
+            final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService, final PlatformSecurityContext context,
+            final CollectionSheetCacheService collectionSheetCacheService) {
         this.collectionSheetReadPlatformService = collectionSheetReadPlatformService;
         this.toApiJsonSerializer = toApiJsonSerializer;
         this.fromJsonHelper = fromJsonHelper;
         this.apiRequestPrameterHelper = apiRequestPrameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.context = context;
+        this.collectionSheetCacheService = collectionSheetCacheService;
     }
 
     @POST
@@ -96,6 +102,19 @@ public class CollectionSheetApiResourse {
         return null;
     }
 
+    @GET
+    @Path("cachestatistics")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveCacheStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(CollectionSheetConstants.COLLECTIONSHEET_RESOURCE_NAME);
+
+        final CollectionSheetCacheStatisticsData statistics = this.collectionSheetCacheService.retrieveStatistics();
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestPrameterHelper.process(uriInfo.getQueryParameters());
+        return this.toApiJsonSerializer.serialize(settings, statistics);
+    }
+
     private boolean is(final String commandParam, final String commandValue) {
         return StringUtils.isNotBlank(commandParam) && commandParam.trim().equalsIgnoreCase(commandValue);
     }
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.data;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable data object describing how the center and group collection sheet
+ * cache of the current tenant has been used since this server started.
+ */
+@SuppressWarnings("unused")
+public class CollectionSheetCacheStatisticsData {
+
+    private final Long hits;
+    private final Long misses;
+    private final Long staleMisses;
+    private final BigDecimal hitRatePercentage;
+    private final Long precomputedSheets;
+    private final Long invalidations;
+    private final Long cachedSheets;
+
+    public CollectionSheetCacheStatisticsData(final Long hits, final Long misses, final Long staleMisses,
+            final BigDecimal hitRatePercentage, final Long precomputedSheets, final Long invalidations, final Long cachedSheets) {
+        this.hits = hits;
+        this.misses = misses;
+        this.staleMisses = staleMisses;
+        this.hitRatePercentage = hitRatePercentage;
+        this.precomputedSheets = precomputedSheets;
+        this.invalidations = invalidations;
+        this.cachedSheets = cachedSheets;
+    }
+}
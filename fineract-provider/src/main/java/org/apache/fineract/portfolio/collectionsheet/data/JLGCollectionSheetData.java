@@ -54,6 +54,13 @@ public class JLGCollectionSheetData {
                 data.paymentTypeOptions);
     }
 
+    public static JLGCollectionSheetData withPaymentTypeOptions(final JLGCollectionSheetData data,
+            final Collection<PaymentTypeData> paymentTypeOptions) {
+
+        return new JLGCollectionSheetData(data.dueDate, data.loanProducts, data.savingsProducts, data.groups, data.attendanceTypeOptions,
+                paymentTypeOptions);
+    }
+
     private JLGCollectionSheetData(LocalDate dueDate, Collection<LoanProductData> loanProducts,
             Collection<SavingsProductData> savingsProducts, Collection<JLGGroupData> groups, List<EnumOptionData> attendanceTypeOptions,
             final Collection<PaymentTypeData> paymentTypeOptions) {
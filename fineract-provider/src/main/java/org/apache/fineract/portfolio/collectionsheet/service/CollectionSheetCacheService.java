@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import java.util.Collection;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetCacheStatisticsData;
+import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.joda.time.LocalDate;
+
+/**
+ * Keeps built center and group collection sheets per tenant, keyed by the
+ * sheet and its meeting date. Every sheet is stored with the version of its
+ * center found in m_collection_sheet_version before the sheet was read, and
+ * is only served while that version is unchanged. Commands touching a member
+ * account, client or group bump the version once they commit, so a sheet read
+ * before such a command commits is not served after it. Batch jobs that
+ * change member accounts bump every version when they complete.
+ */
+public interface CollectionSheetCacheService {
+
+    JLGCollectionSheetData retrieve(String sheetType, Long sheetId, Long centerId, LocalDate meetingDate,
+            CollectionSheetLoader loader);
+
+    /**
+     * Builds the sheet and stores it whether or not a current copy is
+     * already cached.
+     */
+    void refresh(String sheetType, Long sheetId, Long centerId, LocalDate meetingDate, CollectionSheetLoader loader);
+
+    void invalidateFor(CommandProcessingResult result);
+
+    void invalidateForAccounts(Collection<Long> loanIds, Collection<Long> savingsAccountIds);
+
+    /**
+     * Drops every cached sheet of the tenant, for writers that change member
+     * accounts without going through commands, e.g. batch jobs.
+     */
+    void invalidateAll();
+
+    CollectionSheetCacheStatisticsData retrieveStatistics();
+
+    interface CollectionSheetLoader {
+
+        JLGCollectionSheetData load();
+    }
+}
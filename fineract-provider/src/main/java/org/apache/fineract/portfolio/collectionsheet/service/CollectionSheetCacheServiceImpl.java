@@ -0,0 +1,320 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetCacheStatisticsData;
+import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Sheets are held in memory on each server while the versions live in the
+ * tenant database, so a command processed by another server still stops
+ * this server from serving the sheets it made stale. Hit and miss counters
+ * are kept per tenant for this server only.
+ * 
+ * Versions are bumped in a short transaction of their own after the command
+ * commits: bumping inside the command would keep the center's version row
+ * locked until the commit and so serialize every command of a center's
+ * meeting day. A sheet read between the commit and the bump is stored with
+ * the old version and dropped by the bump.
+ */
+@Service
+public class CollectionSheetCacheServiceImpl implements CollectionSheetCacheService {
+
+    private final static Logger logger = LoggerFactory.getLogger(CollectionSheetCacheServiceImpl.class);
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private static final String CENTER_IDS = "select distinct ifnull(g.parent_id, g.id) from m_group g where g.id in (%s)";
+    private static final String BUMP_VERSIONS = "insert into m_collection_sheet_version (center_id, version)"
+            + " select g.id, 1 from m_group g where g.id in (%s) on duplicate key update version = version + 1";
+    private static final String BUMP_ALL_VERSIONS = "insert into m_collection_sheet_version (center_id, version)"
+            + " select g.id, 1 from m_group g where g.parent_id is null on duplicate key update version = version + 1";
+
+    private static final String GROUP_IDS_OF_GROUP = "select ?";
+    private static final String GROUP_IDS_OF_CLIENT = "select gc.group_id from m_group_client gc where gc.client_id = ?";
+    private static final String GROUP_IDS_OF_LOAN = "select l.group_id from m_loan l where l.id = ?"
+            + " union select gc.group_id from m_loan l join m_group_client gc on gc.client_id = l.client_id where l.id = ?";
+    private static final String GROUP_IDS_OF_SAVINGS_ACCOUNT = "select sa.group_id from m_savings_account sa where sa.id = ?"
+            + " union select gc.group_id from m_savings_account sa join m_group_client gc on gc.client_id = sa.client_id where sa.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate bumpTransactionTemplate;
+    private final Cache<String, VersionedSheet> sheets = CacheBuilder.newBuilder().maximumSize(2000).expireAfterWrite(1, TimeUnit.DAYS)
+            .build();
+    private final ConcurrentMap<String, CacheCounters> countersByTenant = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CollectionSheetCacheServiceImpl(final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate) {
+        this(new JdbcTemplate(dataSource), transactionTemplate);
+    }
+
+    CollectionSheetCacheServiceImpl(final JdbcTemplate jdbcTemplate, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // run from afterCommit, where the finished transaction is still bound
+        this.bumpTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.bumpTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public JLGCollectionSheetData retrieve(final String sheetType, final Long sheetId, final Long centerId, final LocalDate meetingDate,
+            final CollectionSheetLoader loader) {
+        final String key = key(sheetType, sheetId, meetingDate);
+        final CacheCounters counters = counters();
+
+        // the version must be read before the sheet, a command committing in
+        // between leaves the new entry behind the stored version
+        final long version = currentVersion(centerId);
+        final VersionedSheet cached = this.sheets.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            counters.hits.incrementAndGet();
+            return cached.sheet;
+        }
+
+        counters.misses.incrementAndGet();
+        if (cached != null) {
+            counters.staleMisses.incrementAndGet();
+        }
+        final JLGCollectionSheetData sheet = loader.load();
+        this.sheets.put(key, new VersionedSheet(version, sheet));
+        return sheet;
+    }
+
+    @Override
+    public void refresh(final String sheetType, final Long sheetId, final Long centerId, final LocalDate meetingDate,
+            final CollectionSheetLoader loader) {
+        final long version = currentVersion(centerId);
+        final JLGCollectionSheetData sheet = loader.load();
+        this.sheets.put(key(sheetType, sheetId, meetingDate), new VersionedSheet(version, sheet));
+        counters().precomputed.incrementAndGet();
+    }
+
+    @Override
+    public void invalidateFor(final CommandProcessingResult result) {
+        if (result == null) { return; }
+
+        final List<String> groupIdQueries = new ArrayList<>();
+        final List<Object> params = new ArrayList<>();
+        if (result.getGroupId() != null) {
+            groupIdQueries.add(GROUP_IDS_OF_GROUP);
+            params.add(result.getGroupId());
+        }
+        if (result.getClientId() != null) {
+            groupIdQueries.add(GROUP_IDS_OF_CLIENT);
+            params.add(result.getClientId());
+        }
+        if (result.getLoanId() != null) {
+            groupIdQueries.add(GROUP_IDS_OF_LOAN);
+            params.add(result.getLoanId());
+            params.add(result.getLoanId());
+        }
+        if (result.getSavingsId() != null) {
+            groupIdQueries.add(GROUP_IDS_OF_SAVINGS_ACCOUNT);
+            params.add(result.getSavingsId());
+            params.add(result.getSavingsId());
+        }
+        bumpVersions(groupIdQueries, params);
+    }
+
+    @Override
+    public void invalidateForAccounts(final Collection<Long> loanIds, final Collection<Long> savingsAccountIds) {
+        final List<String> groupIdQueries = new ArrayList<>();
+        final List<Object> params = new ArrayList<>();
+        if (loanIds != null) {
+            for (final Long loanId : loanIds) {
+                if (loanId == null) {
+                    continue;
+                }
+                groupIdQueries.add(GROUP_IDS_OF_LOAN);
+                params.add(loanId);
+                params.add(loanId);
+            }
+        }
+        if (savingsAccountIds != null) {
+            for (final Long savingsAccountId : savingsAccountIds) {
+                if (savingsAccountId == null) {
+                    continue;
+                }
+                groupIdQueries.add(GROUP_IDS_OF_SAVINGS_ACCOUNT);
+                params.add(savingsAccountId);
+                params.add(savingsAccountId);
+            }
+        }
+        bumpVersions(groupIdQueries, params);
+    }
+
+    @Override
+    public void invalidateAll() {
+        afterCommit(new Runnable() {
+
+            @Override
+            public void run() {
+                CollectionSheetCacheServiceImpl.this.jdbcTemplate.update(BUMP_ALL_VERSIONS);
+            }
+        });
+    }
+
+    @Override
+    public CollectionSheetCacheStatisticsData retrieveStatistics() {
+        final CacheCounters counters = counters();
+        final long hits = counters.hits.get();
+        final long misses = counters.misses.get();
+        BigDecimal hitRatePercentage = null;
+        if (hits + misses > 0) {
+            hitRatePercentage = BigDecimal.valueOf(hits * 100).divide(BigDecimal.valueOf(hits + misses), 2, RoundingMode.HALF_UP);
+        }
+
+        final String tenantPrefix = tenantIdentifier() + KEY_SEPARATOR;
+        long cachedSheets = 0;
+        for (final String key : this.sheets.asMap().keySet()) {
+            if (key.startsWith(tenantPrefix)) {
+                cachedSheets++;
+            }
+        }
+
+        return new CollectionSheetCacheStatisticsData(hits, misses, counters.staleMisses.get(), hitRatePercentage,
+                counters.precomputed.get(), counters.invalidations.get(), cachedSheets);
+    }
+
+    private void bumpVersions(final List<String> groupIdQueries, final List<Object> params) {
+        if (groupIdQueries.isEmpty()) { return; }
+
+        // read within the command, so members moved by it count for the
+        // center they belonged to as well as the new one
+        final List<Long> centerIds = this.jdbcTemplate.queryForList(
+                String.format(CENTER_IDS, StringUtils.join(groupIdQueries, " union ")), Long.class, params.toArray());
+        if (centerIds.isEmpty()) { return; }
+
+        afterCommit(new Runnable() {
+
+            @Override
+            public void run() {
+                CollectionSheetCacheServiceImpl.this.jdbcTemplate.update(String.format(BUMP_VERSIONS, StringUtils.join(centerIds, ',')));
+            }
+        });
+    }
+
+    private void afterCommit(final Runnable bump) {
+        final CacheCounters counters = counters();
+        final Runnable bumpInOwnTransaction = new Runnable() {
+
+            @Override
+            public void run() {
+                CollectionSheetCacheServiceImpl.this.bumpTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                    @Override
+                    protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                        bump.run();
+                    }
+                });
+                counters.invalidations.incrementAndGet();
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    try {
+                        bumpInOwnTransaction.run();
+                    } catch (final RuntimeException e) {
+                        // the sheets of these centers stay cached until
+                        // they expire
+                        logger.error("Could not bump collection sheet versions", e);
+                    }
+                }
+            });
+        } else {
+            bumpInOwnTransaction.run();
+        }
+    }
+
+    private long currentVersion(final Long centerId) {
+        final List<Long> versions = this.jdbcTemplate.queryForList("select version from m_collection_sheet_version where center_id = ?",
+                Long.class, centerId);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    private String key(final String sheetType, final Long sheetId, final LocalDate meetingDate) {
+        return tenantIdentifier() + KEY_SEPARATOR + sheetType + KEY_SEPARATOR + sheetId + KEY_SEPARATOR + meetingDate.toString();
+    }
+
+    private CacheCounters counters() {
+        final String tenantIdentifier = tenantIdentifier();
+        CacheCounters counters = this.countersByTenant.get(tenantIdentifier);
+        if (counters == null) {
+            this.countersByTenant.putIfAbsent(tenantIdentifier, new CacheCounters());
+            counters = this.countersByTenant.get(tenantIdentifier);
+        }
+        return counters;
+    }
+
+    private static String tenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+
+    private static final class VersionedSheet {
+
+        private final long version;
+        private final JLGCollectionSheetData sheet;
+
+        VersionedSheet(final long version, final JLGCollectionSheetData sheet) {
+            this.version = version;
+            this.sheet = sheet;
+        }
+    }
+
+    private static final class CacheCounters {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong staleMisses = new AtomicLong();
+        private final AtomicLong precomputed = new AtomicLong();
+        private final AtomicLong invalidations = new AtomicLong();
+    }
+}
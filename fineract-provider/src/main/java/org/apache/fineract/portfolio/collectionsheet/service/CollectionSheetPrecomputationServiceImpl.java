@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.apache.fineract.portfolio.calendar.domain.CalendarEntityType;
+import org.apache.fineract.portfolio.calendar.domain.CalendarType;
+import org.apache.fineract.portfolio.calendar.service.CalendarUtils;
+import org.apache.fineract.portfolio.group.domain.GroupTypes;
+import org.apache.fineract.portfolio.group.domain.GroupingTypeStatus;
+import org.joda.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Builds the collection sheets of every active center for its next meeting
+ * dates ahead of the field officers opening them. The job is meant to run
+ * early in the day, after the overnight jobs that add charges or post
+ * transactions outside of commands, since those do not invalidate cached
+ * sheets.
+ */
+@Service
+public class CollectionSheetPrecomputationServiceImpl implements CollectionSheetPrecomputationService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final CollectionSheetReadPlatformService collectionSheetReadPlatformService;
+    private final ConfigurationDomainService configurationDomainService;
+
+    @Autowired
+    public CollectionSheetPrecomputationServiceImpl(final RoutingDataSource dataSource,
+            final PartitionedJobExecutor partitionedJobExecutor,
+            final CollectionSheetReadPlatformService collectionSheetReadPlatformService,
+            final ConfigurationDomainService configurationDomainService) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.collectionSheetReadPlatformService = collectionSheetReadPlatformService;
+        this.configurationDomainService = configurationDomainService;
+    }
+
+    @Override
+    @CronTarget(jobName = JobName.PRECOMPUTE_COLLECTION_SHEETS)
+    public void precomputeCollectionSheets() throws JobExecutionException {
+        final int meetingDates = this.configurationDomainService.retrieveCollectionSheetPrecomputeMeetingDates();
+        boolean isSkipMeetingOnFirstDay = false;
+        Integer numberOfDays = 0;
+        if (this.configurationDomainService.isSkippingMeetingOnFirstDayOfMonthEnabled()) {
+            isSkipMeetingOnFirstDay = true;
+            numberOfDays = this.configurationDomainService.retreivePeroidInNumberOfDaysForSkipMeetingDate().intValue();
+        }
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        final boolean skipMeetingOnFirstDay = isSkipMeetingOnFirstDay;
+        final Integer skippedDays = numberOfDays;
+
+        this.partitionedJobExecutor.execute(JobName.PRECOMPUTE_COLLECTION_SHEETS, new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                final String sql = "select g.id from m_group g where g.level_id = ? and g.status_enum = ? and g.id > ? order by g.id limit ?";
+                return CollectionSheetPrecomputationServiceImpl.this.jdbcTemplate.queryForList(sql, Long.class, GroupTypes.CENTER.getId(),
+                        GroupingTypeStatus.ACTIVE.getValue(), lastProcessedId, limit);
+            }
+        }, new JobPartitionTask() {
+
+            @Override
+            public void process(final Long centerId) {
+                precomputeCenter(centerId, today, meetingDates, skipMeetingOnFirstDay, skippedDays);
+            }
+
+            @Override
+            public String failureMessage(final Long centerId, final Throwable realCause) {
+                return "Failed to precompute collection sheets of center " + centerId + " with message " + realCause.getMessage();
+            }
+        });
+    }
+
+    private void precomputeCenter(final Long centerId, final LocalDate today, final int meetingDates, final boolean isSkipMeetingOnFirstDay,
+            final Integer numberOfDays) {
+        final String sql = "select c.recurrence, c.start_date, c.end_date from m_calendar c"
+                + " join m_calendar_instance ci on ci.calendar_id = c.id"
+                + " where ci.entity_id = ? and ci.entity_type_enum = ? and c.calendar_type_enum = ?";
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final String recurrence = rs.getString("recurrence");
+                final LocalDate startDate = JdbcSupport.getLocalDate(rs, "start_date");
+                final LocalDate endDate = JdbcSupport.getLocalDate(rs, "end_date");
+                if (recurrence == null || startDate == null) { return; }
+
+                final LocalDate periodEndDate = endDate == null ? today.plusYears(1) : endDate;
+                if (periodEndDate.isBefore(today)) { return; }
+                final Collection<LocalDate> dates = CalendarUtils.getRecurringDates(recurrence, startDate, today, periodEndDate,
+                        meetingDates, isSkipMeetingOnFirstDay, numberOfDays);
+                if (dates == null) { return; }
+                for (final LocalDate meetingDate : dates) {
+                    CollectionSheetPrecomputationServiceImpl.this.collectionSheetReadPlatformService.precomputeCenterCollectionSheet(
+                            centerId, meetingDate);
+                }
+            }
+        }, centerId, CalendarEntityType.CENTERS.getValue(), CalendarType.COLLECTION.getValue());
+    }
+}
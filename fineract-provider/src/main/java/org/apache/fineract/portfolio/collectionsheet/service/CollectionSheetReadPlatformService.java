@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.collectionsheet.service;
 import org.apache.fineract.infrastructure.core.api.JsonQuery;
 import org.apache.fineract.portfolio.collectionsheet.data.IndividualCollectionSheetData;
 import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.joda.time.LocalDate;
 
 public interface CollectionSheetReadPlatformService {
 
@@ -30,4 +31,11 @@ public interface CollectionSheetReadPlatformService {
 
     IndividualCollectionSheetData generateIndividualCollectionSheet(final JsonQuery query);
 
+    /**
+     * Builds the collection sheet of a center for a meeting date and stores
+     * it in the collection sheet cache, without the checks made for a user
+     * opening the sheet.
+     */
+    void precomputeCenterCollectionSheet(Long centerId, LocalDate meetingDate);
+
 }
@@ -84,6 +84,9 @@ import org.springframework.stereotype.Service;
 @Service
 public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetReadPlatformService {
 
+    private static final String CENTER_SHEET = "center";
+    private static final String GROUP_SHEET = "group";
+
     private final PlatformSecurityContext context;
     private final NamedParameterJdbcTemplate namedParameterjdbcTemplate;
     private final CenterReadPlatformService centerReadPlatformService;
@@ -97,6 +100,7 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
     private final CalendarReadPlatformService calendarReadPlatformService;
     private final ConfigurationDomainService configurationDomainService;
     private final CalendarInstanceRepository calendarInstanceRepository;
+    private final CollectionSheetCacheService collectionSheetCacheService;
 
     @Autowired
     public CollectionSheetReadPlatformServiceImpl(final PlatformSecurityContext context, final RoutingDataSource dataSource,
@@ -106,7 +110,7 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
             final AttendanceDropdownReadPlatformService attendanceDropdownReadPlatformService,
             final CodeValueReadPlatformService codeValueReadPlatformService, final PaymentTypeReadPlatformService paymentTypeReadPlatformService,
             final CalendarReadPlatformService calendarReadPlatformService, final ConfigurationDomainService configurationDomainService,
-            final CalendarInstanceRepository calendarInstanceRepository) {
+            final CalendarInstanceRepository calendarInstanceRepository, final CollectionSheetCacheService collectionSheetCacheService) {
         this.context = context;
         this.centerReadPlatformService = centerReadPlatformService;
         this.namedParameterjdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
@@ -119,6 +123,7 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         this.calendarReadPlatformService = calendarReadPlatformService;
         this.configurationDomainService = configurationDomainService;
         this.calendarInstanceRepository = calendarInstanceRepository;
+        this.collectionSheetCacheService = collectionSheetCacheService;
     }
 
     /*
@@ -133,8 +138,6 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         boolean firstTime = true;
         Long prevGroupId = null;
         Long prevClientId = null;
-        final Collection<PaymentTypeData> paymentOptions = this.paymentTypeReadPlatformService.retrieveAllPaymentTypes();
-                
 
         final List<JLGGroupData> jlgGroupsData = new ArrayList<>();
         List<JLGClientData> clientsData = new ArrayList<>();
@@ -208,8 +211,10 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
                 jlgGroupsData.add(jlgGroupData);
             }
 
+            // payment types are added when the sheet is served, cached sheets
+            // are shared between users
             jlgCollectionSheetData = JLGCollectionSheetData.instance(dueDate, loanProducts, jlgGroupsData,
-                    this.attendanceDropdownReadPlatformService.retrieveAttendanceTypeOptions(), paymentOptions);
+                    this.attendanceDropdownReadPlatformService.retrieveAttendanceTypeOptions(), null);
         }
 
         return jlgCollectionSheetData;
@@ -326,8 +331,6 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
 
         final Long calendarId = query.longValueOfParameterNamed(calendarIdParamName);
         final LocalDate transactionDate = query.localDateValueOfParameterNamed(transactionDateParamName);
-        final DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-        final String transactionDateStr = df.format(transactionDate.toDate());
 
         final Calendar calendar = this.calendarRepositoryWrapper.findOneWithNotFoundDetection(calendarId);
         // check if transaction against calendar effective from date
@@ -356,28 +359,47 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         if (!calendar.isValidRecurringDate(transactionDate, isSkipMeetingOnFirstDay, numberOfDays)) { throw new NotValidRecurringDateException("collectionsheet", "The date '"
                 + transactionDate + "' is not a valid meeting date.", transactionDate); }
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String officeHierarchy = hierarchy + "%";
+        this.context.authenticatedUser();
 
-        
+        final Long sheetGroupId = group.getId();
+        final JLGCollectionSheetData collectionSheetData = this.collectionSheetCacheService.retrieve(GROUP_SHEET, sheetGroupId, entityId,
+                transactionDate, new CollectionSheetCacheService.CollectionSheetLoader() {
 
-        final JLGCollectionSheetFaltDataMapper mapper = new JLGCollectionSheetFaltDataMapper();
+                    @Override
+                    public JLGCollectionSheetData load() {
+                        return buildCollectionSheet(false, sheetGroupId, entityType, transactionDate);
+                    }
+                });
+
+        return withPaymentTypeOptions(collectionSheetData);
+    }
 
+    /*
+     * The office join of the collection sheet queries does not restrict the
+     * rows returned, so the sheet is the same for every user allowed to open
+     * the center or group and is built without the user's office hierarchy.
+     */
+    private JLGCollectionSheetData buildCollectionSheet(final boolean isCenterCollection, final Long groupId,
+            final CalendarEntityType entityType, final LocalDate transactionDate) {
+
+        final DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+        final String dueDateStr = df.format(transactionDate.toDate());
+
+        final JLGCollectionSheetFaltDataMapper mapper = new JLGCollectionSheetFaltDataMapper();
 
-        final SqlParameterSource namedParameters = new MapSqlParameterSource().addValue("dueDate", transactionDateStr)
-                .addValue("groupId", group.getId()).addValue("officeHierarchy", officeHierarchy)
+        final SqlParameterSource namedParameters = new MapSqlParameterSource().addValue("dueDate", dueDateStr)
+                .addValue(isCenterCollection ? "centerId" : "groupId", groupId).addValue("officeHierarchy", "%")
                 .addValue("entityTypeId", entityType.getValue());
 
         final Collection<JLGCollectionSheetFlatData> collectionSheetFlatDatas = this.namedParameterjdbcTemplate.query(
-                mapper.collectionSheetSchema(false), namedParameters, mapper);
+                mapper.collectionSheetSchema(isCenterCollection), namedParameters, mapper);
 
         // loan data for collection sheet
         JLGCollectionSheetData collectionSheetData = buildJLGCollectionSheet(transactionDate, collectionSheetFlatDatas);
 
         // mandatory savings data for collection sheet
         Collection<JLGGroupData> groupsWithSavingsData = this.namedParameterjdbcTemplate.query(
-                mandatorySavingsExtractor.collectionSheetSchema(false), namedParameters, mandatorySavingsExtractor);
+                mandatorySavingsExtractor.collectionSheetSchema(isCenterCollection), namedParameters, mandatorySavingsExtractor);
 
         // merge savings data into loan data
         mergeSavingsGroupDataIntoCollectionsheetData(groupsWithSavingsData, collectionSheetData);
@@ -388,6 +410,11 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         return collectionSheetData;
     }
 
+    private JLGCollectionSheetData withPaymentTypeOptions(final JLGCollectionSheetData collectionSheetData) {
+        final Collection<PaymentTypeData> paymentOptions = this.paymentTypeReadPlatformService.retrieveAllPaymentTypes();
+        return JLGCollectionSheetData.withPaymentTypeOptions(collectionSheetData, paymentOptions);
+    }
+
     private void mergeSavingsGroupDataIntoCollectionsheetData(final Collection<JLGGroupData> groupsWithSavingsData,
             final JLGCollectionSheetData collectionSheetData) {
         final List<JLGGroupData> groupsWithLoanData = (List<JLGGroupData>) collectionSheetData.getGroups();
@@ -451,41 +478,33 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
 
         this.collectionSheetGenerateCommandFromApiJsonDeserializer.validateForGenerateCollectionSheet(query.json());
 
-        final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String officeHierarchy = hierarchy + "%";
+        this.context.authenticatedUser();
 
         final CenterData center = this.centerReadPlatformService.retrieveOne(centerId);
 
         final LocalDate transactionDate = query.localDateValueOfParameterNamed(transactionDateParamName);
-        final DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-        final String dueDateStr = df.format(transactionDate.toDate());
-
-        final JLGCollectionSheetFaltDataMapper mapper = new JLGCollectionSheetFaltDataMapper();
 
-        StringBuilder sql = new StringBuilder(mapper.collectionSheetSchema(true));
-
-        final SqlParameterSource namedParameters = new MapSqlParameterSource().addValue("dueDate", dueDateStr)
-                .addValue("centerId", center.getId()).addValue("officeHierarchy", officeHierarchy)
-                .addValue("entityTypeId", CalendarEntityType.CENTERS.getValue());
-
-        final Collection<JLGCollectionSheetFlatData> collectionSheetFlatDatas = this.namedParameterjdbcTemplate.query(sql.toString(),
-                namedParameters, mapper);
-
-        // loan data for collection sheet
-        JLGCollectionSheetData collectionSheetData = buildJLGCollectionSheet(transactionDate, collectionSheetFlatDatas);
+        final JLGCollectionSheetData collectionSheetData = this.collectionSheetCacheService.retrieve(CENTER_SHEET, center.getId(),
+                center.getId(), transactionDate, centerCollectionSheetLoader(center.getId(), transactionDate));
 
-        // mandatory savings data for collection sheet
-        Collection<JLGGroupData> groupsWithSavingsData = this.namedParameterjdbcTemplate.query(
-                mandatorySavingsExtractor.collectionSheetSchema(true), namedParameters, mandatorySavingsExtractor);
+        return withPaymentTypeOptions(collectionSheetData);
+    }
 
-        // merge savings data into loan data
-        mergeSavingsGroupDataIntoCollectionsheetData(groupsWithSavingsData, collectionSheetData);
+    @Override
+    public void precomputeCenterCollectionSheet(final Long centerId, final LocalDate meetingDate) {
+        this.collectionSheetCacheService.refresh(CENTER_SHEET, centerId, centerId, meetingDate,
+                centerCollectionSheetLoader(centerId, meetingDate));
+    }
 
-        collectionSheetData = JLGCollectionSheetData.withSavingsProducts(collectionSheetData,
-                retrieveSavingsProducts(groupsWithSavingsData));
+    private CollectionSheetCacheService.CollectionSheetLoader centerCollectionSheetLoader(final Long centerId,
+            final LocalDate transactionDate) {
+        return new CollectionSheetCacheService.CollectionSheetLoader() {
 
-        return collectionSheetData;
+            @Override
+            public JLGCollectionSheetData load() {
+                return buildCollectionSheet(true, centerId, CalendarEntityType.CENTERS, transactionDate);
+            }
+        };
     }
 
     private static final class MandatorySavingsCollectionsheetExtractor implements ResultSetExtractor<Collection<JLGGroupData>> {
@@ -25,11 +25,14 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
 import org.apache.fineract.infrastructure.core.api.JsonCommand;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
 import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkDisbursalCommand;
 import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkRepaymentCommand;
+import org.apache.fineract.portfolio.collectionsheet.command.SingleDisbursalCommand;
+import org.apache.fineract.portfolio.collectionsheet.command.SingleRepaymentCommand;
 import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetTransactionDataValidator;
 import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer;
 import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer;
@@ -40,14 +43,27 @@ import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetailAssembler
 import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
 import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
 import org.apache.fineract.portfolio.savings.domain.DepositAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountTransaction;
 import org.apache.fineract.portfolio.savings.service.DepositAccountWritePlatformService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * Saves collection sheets with the accounts of the sheet loaded up front in
+ * a few queries. Each repayment, disbursal and deposit is still processed
+ * through its account's domain rules one by one, but their journal entries
+ * are inserted in one JDBC batch at the end of the save instead of one
+ * insert and flush each. The time taken for every member account is logged
+ * at debug level and a summary of the save at info.
+ */
 @Service
 public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements CollectionSheetWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(CollectionSheetWritePlatformServiceJpaRepositoryImpl.class);
+
     private final LoanWritePlatformService loanWritePlatformService;
     private final CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer bulkRepaymentCommandFromApiJsonDeserializer;
     private final CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer bulkDisbursalCommandFromApiJsonDeserializer;
@@ -57,6 +73,9 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
     private final DepositAccountWritePlatformService accountWritePlatformService;
     private final PaymentDetailAssembler paymentDetailAssembler;
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+    private final CollectionSheetCacheService collectionSheetCacheService;
+    private final SavingsAccountRepository savingsAccountRepository;
+    private final JournalEntryBatchWriter journalEntryBatchWriter;
 
     @Autowired
     public CollectionSheetWritePlatformServiceJpaRepositoryImpl(final LoanWritePlatformService loanWritePlatformService,
@@ -64,7 +83,9 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
             final CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer bulkDisbursalCommandFromApiJsonDeserializer,
             final CollectionSheetTransactionDataValidator transactionDataValidator,
             final MeetingWritePlatformService meetingWritePlatformService, final DepositAccountAssembler accountAssembler,
-            final DepositAccountWritePlatformService accountWritePlatformService, final PaymentDetailAssembler paymentDetailAssembler, final PaymentDetailWritePlatformService paymentDetailWritePlatformService) {
+            final DepositAccountWritePlatformService accountWritePlatformService, final PaymentDetailAssembler paymentDetailAssembler, final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
+            final CollectionSheetCacheService collectionSheetCacheService, final SavingsAccountRepository savingsAccountRepository,
+            final JournalEntryBatchWriter journalEntryBatchWriter) {
         this.loanWritePlatformService = loanWritePlatformService;
         this.bulkRepaymentCommandFromApiJsonDeserializer = bulkRepaymentCommandFromApiJsonDeserializer;
         this.bulkDisbursalCommandFromApiJsonDeserializer = bulkDisbursalCommandFromApiJsonDeserializer;
@@ -74,6 +95,9 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
         this.accountWritePlatformService = accountWritePlatformService;
         this.paymentDetailAssembler = paymentDetailAssembler;
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
+        this.collectionSheetCacheService = collectionSheetCacheService;
+        this.savingsAccountRepository = savingsAccountRepository;
+        this.journalEntryBatchWriter = journalEntryBatchWriter;
     }
 
     @Override
@@ -90,15 +114,30 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
             changes.put("note", noteText);
         }
 
+        final long startTime = System.currentTimeMillis();
+        final List<Long> loanIds = new ArrayList<>();
+        final List<Long> savingsAccountIds = new ArrayList<>();
+
         final PaymentDetail paymentDetail = this.paymentDetailWritePlatformService.createAndPersistPaymentDetail(command, changes);
-        changes.putAll(updateBulkReapayments(command, paymentDetail));
+        this.journalEntryBatchWriter.open();
+        try {
+            changes.putAll(updateBulkReapayments(command, paymentDetail, loanIds));
+
+            changes.putAll(updateBulkDisbursals(command, loanIds));
+
+            changes.putAll(updateBulkMandatorySavingsDuePayments(command, paymentDetail, savingsAccountIds));
 
-        changes.putAll(updateBulkDisbursals(command));
+            this.journalEntryBatchWriter.write();
+        } finally {
+            this.journalEntryBatchWriter.close();
+        }
 
-        changes.putAll(updateBulkMandatorySavingsDuePayments(command, paymentDetail));
+        this.collectionSheetCacheService.invalidateForAccounts(loanIds, savingsAccountIds);
 
         this.meetingWritePlatformService.updateCollectionSheetAttendance(command);
 
+        logSaveTimings("Collection sheet of group " + command.entityId(), loanIds, savingsAccountIds, startTime);
+
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
                 .withEntityId(command.entityId()) //
@@ -120,13 +159,30 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
             changes.put("note", noteText);
         }
 
+        final long startTime = System.currentTimeMillis();
+        final List<Long> loanIds = new ArrayList<>();
+        final List<Long> savingsAccountIds = new ArrayList<>();
+
         final PaymentDetail paymentDetail = null;
 
-        changes.putAll(updateBulkReapayments(command, paymentDetail));
+        this.journalEntryBatchWriter.open();
+        try {
+            changes.putAll(updateBulkReapayments(command, paymentDetail, loanIds));
+
+            changes.putAll(updateBulkDisbursals(command, loanIds));
+
+            changes.putAll(updateBulkMandatorySavingsDuePayments(command, paymentDetail, savingsAccountIds));
+
+            this.journalEntryBatchWriter.write();
+        } finally {
+            this.journalEntryBatchWriter.close();
+        }
 
-        changes.putAll(updateBulkDisbursals(command));
+        // the accounts of an individual collection sheet may belong to any
+        // center, the command result carries no group to invalidate by
+        this.collectionSheetCacheService.invalidateForAccounts(loanIds, savingsAccountIds);
 
-        changes.putAll(updateBulkMandatorySavingsDuePayments(command, paymentDetail));
+        logSaveTimings("Individual collection sheet", loanIds, savingsAccountIds, startTime);
 
         return new CommandProcessingResultBuilder() //
                 .withCommandId(command.commandId()) //
@@ -135,37 +191,77 @@ public class CollectionSheetWritePlatformServiceJpaRepositoryImpl implements Col
                 .with(changes).with(changes).build();
     }
 
-    private Map<String, Object> updateBulkReapayments(final JsonCommand command, final PaymentDetail paymentDetail) {
+    private Map<String, Object> updateBulkReapayments(final JsonCommand command, final PaymentDetail paymentDetail,
+            final List<Long> loanIds) {
         final Map<String, Object> changes = new HashMap<>();
         final CollectionSheetBulkRepaymentCommand bulkRepaymentCommand = this.bulkRepaymentCommandFromApiJsonDeserializer
                 .commandFromApiJson(command.json(), paymentDetail);
+        if (bulkRepaymentCommand.getLoanTransactions() != null) {
+            for (final SingleRepaymentCommand repaymentCommand : bulkRepaymentCommand.getLoanTransactions()) {
+                if (repaymentCommand != null) {
+                    loanIds.add(repaymentCommand.getLoanId());
+                }
+            }
+        }
         changes.putAll(this.loanWritePlatformService.makeLoanBulkRepayment(bulkRepaymentCommand));
         return changes;
     }
 
-    private Map<String, Object> updateBulkDisbursals(final JsonCommand command) {
+    private Map<String, Object> updateBulkDisbursals(final JsonCommand command, final List<Long> loanIds) {
         final Map<String, Object> changes = new HashMap<>();
         final CollectionSheetBulkDisbursalCommand bulkDisbursalCommand = this.bulkDisbursalCommandFromApiJsonDeserializer
                 .commandFromApiJson(command.json());
+        if (bulkDisbursalCommand.getDisburseTransactions() != null) {
+            for (final SingleDisbursalCommand disbursalCommand : bulkDisbursalCommand.getDisburseTransactions()) {
+                if (disbursalCommand != null) {
+                    loanIds.add(disbursalCommand.getLoanId());
+                }
+            }
+        }
         changes.putAll(this.loanWritePlatformService.bulkLoanDisbursal(command, bulkDisbursalCommand, false));
         return changes;
     }
 
-    private Map<String, Object> updateBulkMandatorySavingsDuePayments(final JsonCommand command, final PaymentDetail paymentDetail) {
+    private Map<String, Object> updateBulkMandatorySavingsDuePayments(final JsonCommand command, final PaymentDetail paymentDetail,
+            final List<Long> savingsAccountIds) {
         final Map<String, Object> changes = new HashMap<>();
         final Collection<SavingsAccountTransactionDTO> savingsTransactions = this.accountAssembler
                 .assembleBulkMandatorySavingsAccountTransactionDTOs(command, paymentDetail);
+        for (SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
+            if (!savingsAccountIds.contains(savingsAccountTransactionDTO.getSavingsAccountId())) {
+                savingsAccountIds.add(savingsAccountTransactionDTO.getSavingsAccountId());
+            }
+        }
+        // one query for all the accounts, each deposit then finds its account
+        // in the persistence context
+        if (savingsAccountIds.size() > 1) {
+            this.savingsAccountRepository.findAll(savingsAccountIds);
+        }
         List<Long> depositTransactionIds = new ArrayList<>();
         for (SavingsAccountTransactionDTO savingsAccountTransactionDTO : savingsTransactions) {
+            final long startTime = System.currentTimeMillis();
             try {
                 SavingsAccountTransaction savingsAccountTransaction =  this.accountWritePlatformService.mandatorySavingsAccountDeposit(savingsAccountTransactionDTO);
                 depositTransactionIds.add(savingsAccountTransaction.getId());
             } catch (Exception e) {
                 // TODO: handle exception
             }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Deposit to savings account " + savingsAccountTransactionDTO.getSavingsAccountId() + " took "
+                        + (System.currentTimeMillis() - startTime) + " ms");
+            }
         }
         changes.put("SavingsTransactions", depositTransactionIds);
         return changes;
     }
 
+    private void logSaveTimings(final String collectionSheet, final List<Long> loanIds, final List<Long> savingsAccountIds,
+            final long startTime) {
+        final long elapsed = System.currentTimeMillis() - startTime;
+        final int accounts = loanIds.size() + savingsAccountIds.size();
+        final long perAccount = accounts == 0 ? 0 : elapsed / accounts;
+        logger.info(collectionSheet + " saved in " + elapsed + " ms: " + loanIds.size() + " loan transactions, "
+                + savingsAccountIds.size() + " savings deposits, " + perAccount + " ms per account");
+    }
+
 }
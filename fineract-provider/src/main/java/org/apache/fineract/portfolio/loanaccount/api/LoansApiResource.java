@@ -136,7 +136,8 @@ public class LoansApiResource {
             "termFrequencyTypeOptions", "interestRateFrequencyTypeOptions", "fundOptions", "repaymentStrategyOptions", "chargeOptions",
             "loanOfficerOptions", "loanPurposeOptions", "loanCollateralOptions", "chargeTemplate", "calendarOptions",
             "syncDisbursementWithMeeting", "loanCounter", "loanProductCounter", "notes", "accountLinkingOptions", "linkedAccount",
-            "interestRateDifferential", "isFloatingInterestRate", "interestRatesPeriods"));
+            "interestRateDifferential", "isFloatingInterestRate", "interestRatesPeriods", "originalSchedule", "disbursementDetails",
+            "emiAmountVariations"));
 
     private final Set<String> LOAN_APPROVAL_DATA_PARAMETERS = new HashSet<>(Arrays.asList("approvalDate", "approvalAmount"));
     private final String resourceNameForPermissions = "LOAN";
@@ -352,8 +353,12 @@ public class LoansApiResource {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
+        // with fields= only the lookups behind the requested fields are run,
+        // a request for plain account fields is answered by retrieveOne alone
+        final Set<String> responseFields = ApiParameterHelper.extractFieldsForResponseIfProvided(uriInfo.getQueryParameters());
+
         LoanAccountData loanBasicDetails = this.loanReadPlatformService.retrieveOne(loanId);
-        if (loanBasicDetails.isInterestRecalculationEnabled()) {
+        if (loanBasicDetails.isInterestRecalculationEnabled() && isFieldRequested(responseFields, "interestRecalculationData")) {
             Collection<CalendarData> interestRecalculationCalendarDatas = this.calendarReadPlatformService
                     .retrieveCalendarsByEntity(loanBasicDetails.getInterestRecalculationDetailId(),
                             CalendarEntityType.LOAN_RECALCULATION_REST_DETAIL.getValue(), null);
@@ -372,7 +377,8 @@ public class LoansApiResource {
             loanBasicDetails = LoanAccountData.withInterestRecalculationCalendarData(loanBasicDetails, calendarData,
                     compoundingCalendarData);
         }
-        if (loanBasicDetails.isMonthlyRepaymentFrequencyType()) {
+        if (loanBasicDetails.isMonthlyRepaymentFrequencyType()
+                && isFieldRequested(responseFields, "repaymentFrequencyNthDayType", "repaymentFrequencyDayOfWeekType")) {
         	Collection<CalendarData> loanCalendarDatas = this.calendarReadPlatformService
                     .retrieveCalendarsByEntity(loanId,
                             CalendarEntityType.LOANS.getValue(), null);
@@ -384,7 +390,10 @@ public class LoansApiResource {
             	loanBasicDetails = LoanAccountData.withLoanCalendarData(loanBasicDetails, calendarData);
         }
 
-        Collection<InterestRatePeriodData> interestRatesPeriods = this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanId);
+        Collection<InterestRatePeriodData> interestRatesPeriods = null;
+        if (isFieldRequested(responseFields, "interestRatesPeriods")) {
+            interestRatesPeriods = this.loanReadPlatformService.retrieveLoanInterestRatePeriodData(loanId);
+        }
 
         Collection<LoanTransactionData> loanRepayments = null;
         LoanScheduleData repaymentSchedule = null;
@@ -402,8 +411,7 @@ public class LoansApiResource {
         if (!associationParameters.isEmpty()) {
 
             if (associationParameters.contains("all")) {
-                associationParameters.addAll(Arrays.asList("repaymentSchedule", "futureSchedule", "originalSchedule", "transactions",
-                        "charges", "guarantors", "collateral", "notes", "linkedAccount", "multiDisburseDetails"));
+                addAllAssociationsRequested(associationParameters, responseFields);
             }
 
             ApiParameterHelper.excludeAssociationsForResponseIfProvided(uriInfo.getQueryParameters(), associationParameters);
@@ -567,10 +575,15 @@ public class LoansApiResource {
 
         }
 
-        Collection<ChargeData> overdueCharges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanBasicDetails.loanProductId(),
-                ChargeTimeType.OVERDUE_INSTALLMENT);
+        Collection<ChargeData> overdueCharges = null;
+        if (isFieldRequested(responseFields, "overdueCharges")) {
+            overdueCharges = this.chargeReadPlatformService.retrieveLoanProductCharges(loanBasicDetails.loanProductId(),
+                    ChargeTimeType.OVERDUE_INSTALLMENT);
+        }
 
-        paidInAdvanceTemplate = this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
+        if (isFieldRequested(responseFields, "paidInAdvance")) {
+            paidInAdvanceTemplate = this.loanReadPlatformService.retrieveTotalPaidInAdvance(loanId);
+        }
 
         final LoanAccountData loanAccount = LoanAccountData.associationsAndTemplate(loanBasicDetails, repaymentSchedule, loanRepayments,
                 charges, collateral, guarantors, meeting, productOptions, loanTermFrequencyTypeOptions, repaymentFrequencyTypeOptions,
@@ -585,6 +598,37 @@ public class LoansApiResource {
         return this.toApiJsonSerializer.serialize(settings, loanAccount, this.LOAN_DATA_PARAMETERS);
     }
 
+    private static boolean isFieldRequested(final Set<String> responseFields, final String... fieldNames) {
+        if (responseFields.isEmpty()) { return true; }
+        for (final String fieldName : fieldNames) {
+            if (responseFields.contains(fieldName)) { return true; }
+        }
+        return false;
+    }
+
+    /*
+     * associations=all expands to every association, or when fields are given
+     * to the associations named among them. Associations asked for by name
+     * are always loaded.
+     */
+    private static void addAllAssociationsRequested(final Set<String> associationParameters, final Set<String> responseFields) {
+        if (isFieldRequested(responseFields, "repaymentSchedule")) {
+            associationParameters.addAll(Arrays.asList("repaymentSchedule", "futureSchedule"));
+        }
+        if (isFieldRequested(responseFields, "originalSchedule")) {
+            associationParameters.addAll(Arrays.asList("repaymentSchedule", "originalSchedule"));
+        }
+        if (isFieldRequested(responseFields, "multiDisburseDetails", "disbursementDetails")) {
+            associationParameters.add("multiDisburseDetails");
+        }
+        for (final String association : Arrays.asList("transactions", "charges", "guarantors", "collateral", "notes", "linkedAccount",
+                "emiAmountVariations")) {
+            if (isFieldRequested(responseFields, association)) {
+                associationParameters.add(association);
+            }
+        }
+    }
+
     @GET
     @Consumes({ MediaType.APPLICATION_JSON })
     @Produces({ MediaType.APPLICATION_JSON })
@@ -594,12 +638,13 @@ public class LoansApiResource {
             // @QueryParam("underHierarchy") final String hierarchy,
             @QueryParam("offset") final Integer offset, @QueryParam("limit") final Integer limit,
             @QueryParam("orderBy") final String orderBy, @QueryParam("sortOrder") final String sortOrder,
-            @QueryParam("accountNo") final String accountNo) {
+            @QueryParam("accountNo") final String accountNo, @QueryParam("cursor") final String cursor,
+            @QueryParam("totalCount") final String totalCount) {
 
         this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
 
         final SearchParameters searchParameters = SearchParameters.forLoans(sqlSearch, externalId, offset, limit, orderBy, sortOrder,
-                accountNo);
+                accountNo).withPaging(cursor, totalCount);
 
         final Page<LoanAccountData> loanBasicDetails = this.loanReadPlatformService.retrieveAll(searchParameters);
 
@@ -24,6 +24,7 @@ import java.util.Set;
 
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.joda.time.LocalDate;
 
 /**
@@ -35,12 +36,14 @@ public class LoanRepaymentScheduleProcessingWrapper {
     public void reprocess(final MonetaryCurrency currency, final LocalDate disbursementDate,
             final List<LoanRepaymentScheduleInstallment> repaymentPeriods, final Set<LoanCharge> loanCharges) {
 
-        Money totalInterest = Money.zero(currency);
-        Money totalPrincipal = Money.zero(currency);
+        final MoneyAccumulator interestAccumulator = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator principalAccumulator = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment installment : repaymentPeriods) {
-            totalInterest = totalInterest.plus(installment.getInterestCharged(currency));
-            totalPrincipal = totalPrincipal.plus(installment.getPrincipal(currency));
+            interestAccumulator.add(installment.getInterestCharged(currency));
+            principalAccumulator.add(installment.getPrincipal(currency));
         }
+        final Money totalInterest = interestAccumulator.toMoney();
+        final Money totalPrincipal = principalAccumulator.toMoney();
         LocalDate startDate = disbursementDate;
         for (final LoanRepaymentScheduleInstallment period : repaymentPeriods) {
 
@@ -118,43 +121,43 @@ public class LoanRepaymentScheduleProcessingWrapper {
     private Money cumulativeFeeChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge() && !loanCharge.isDueAtDisbursement()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                        cumulative.add(loanChargePerInstallment.getAmountWaived(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.add(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativeFeeChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isFeeCharge() && !loanCharge.isDueAtDisbursement()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                        cumulative.add(loanChargePerInstallment.getAmountWrittenOff(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                    cumulative.add(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesDueWithin(final LocalDate periodStart, final LocalDate periodEnd,
@@ -209,42 +212,42 @@ public class LoanRepaymentScheduleProcessingWrapper {
     private Money cumulativePenaltyChargesWaivedWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWaived(currency));
+                        cumulative.add(loanChargePerInstallment.getAmountWaived(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWaived(currency));
+                    cumulative.add(loanCharge.getAmountWaived(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 
     private Money cumulativePenaltyChargesWrittenOffWithin(final LocalDate periodStart, final LocalDate periodEnd,
             final Set<LoanCharge> loanCharges, final MonetaryCurrency currency, boolean isInstallmentChargeApplicable) {
 
-        Money cumulative = Money.zero(currency);
+        final MoneyAccumulator cumulative = MoneyAccumulator.zero(currency);
 
         for (final LoanCharge loanCharge : loanCharges) {
             if (loanCharge.isPenaltyCharge()) {
                 if (loanCharge.isInstalmentFee() && isInstallmentChargeApplicable) {
                     LoanInstallmentCharge loanChargePerInstallment = loanCharge.getInstallmentLoanCharge(periodEnd);
                     if (loanChargePerInstallment != null) {
-                        cumulative = cumulative.plus(loanChargePerInstallment.getAmountWrittenOff(currency));
+                        cumulative.add(loanChargePerInstallment.getAmountWrittenOff(currency));
                     }
                 } else if (loanCharge.isDueForCollectionFromAndUpToAndIncluding(periodStart, periodEnd)) {
-                    cumulative = cumulative.plus(loanCharge.getAmountWrittenOff(currency));
+                    cumulative.add(loanCharge.getAmountWrittenOff(currency));
                 }
             }
         }
 
-        return cumulative;
+        return cumulative.toMoney();
     }
 }
\ No newline at end of file
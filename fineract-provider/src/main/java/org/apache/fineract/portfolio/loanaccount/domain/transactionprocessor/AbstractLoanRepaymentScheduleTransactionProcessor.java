@@ -28,6 +28,7 @@ import java.util.Set;
 
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.portfolio.loanaccount.data.LoanChargePaidDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
@@ -67,25 +68,8 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
             final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
 
-        if (charges != null) {
-            for (final LoanCharge loanCharge : charges) {
-                if (!loanCharge.isDueAtDisbursement()) {
-                    loanCharge.resetPaidAmount(currency);
-                }
-            }
-        }
-
-        for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
-            currentInstallment.resetDerivedComponents();
-            currentInstallment.updateDerivedFields(currency, disbursementDate);
-        }
+        resetDerivedFields(disbursementDate, currency, installments, charges);
 
-        // re-process loan charges over repayment periods (picking up on waived
-        // loan charges)
-        final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
-        wrapper.reprocess(currency, disbursementDate, installments, charges);
-
-        final ChangedTransactionDetail changedTransactionDetail = new ChangedTransactionDetail();
         final List<LoanTransaction> transactionstoBeProcessed = new ArrayList<>();
         for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
             if (loanTransaction.isChargePayment()) {
@@ -141,6 +125,172 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             }
         }
 
+        return reprocessTransactions(transactionstoBeProcessed, currency, installments, charges);
+    }
+
+    /**
+     * Re-processes only the transactions dated on or after
+     * <code>reprocessFrom</code>. Installments and charges are first brought to
+     * the state they were in at that date by re-applying the persisted
+     * {@link LoanTransactionToRepaymentScheduleMapping}'s of the earlier
+     * transactions, which are left untouched. Falls back to a full re-process
+     * when the earlier transactions cannot be restored that way.
+     */
+    @Override
+    public ChangedTransactionDetail handleTransaction(final LocalDate disbursementDate,
+            final List<LoanTransaction> transactionsPostDisbursement, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges, final LocalDate reprocessFrom) {
+
+        if (reprocessFrom == null) { return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments,
+                charges); }
+
+        final List<LoanTransaction> processedTransactions = new ArrayList<>();
+        final List<LoanTransaction> transactionsToBeProcessed = new ArrayList<>();
+        for (final LoanTransaction loanTransaction : transactionsPostDisbursement) {
+            if (loanTransaction.isChargePayment()) {
+                // charge payments are always processed ahead of other
+                // transactions irrespective of their date
+                return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges);
+            }
+            if (loanTransaction.getTransactionDate().isBefore(reprocessFrom)) {
+                if (!isRestorableFromMappings(loanTransaction, currency, installments)) { return handleTransaction(disbursementDate,
+                        transactionsPostDisbursement, currency, installments, charges); }
+                processedTransactions.add(loanTransaction);
+            } else {
+                transactionsToBeProcessed.add(loanTransaction);
+            }
+        }
+
+        resetDerivedFields(disbursementDate, currency, installments, charges);
+
+        for (final LoanTransaction loanTransaction : processedTransactions) {
+            if (!restoreFromMappings(loanTransaction, currency, charges)) {
+                // installment no longer accepts the persisted portions
+                return handleTransaction(disbursementDate, transactionsPostDisbursement, currency, installments, charges);
+            }
+        }
+
+        return reprocessTransactions(transactionsToBeProcessed, currency, installments, charges);
+    }
+
+    private void resetDerivedFields(final LocalDate disbursementDate, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+        if (charges != null) {
+            for (final LoanCharge loanCharge : charges) {
+                if (!loanCharge.isDueAtDisbursement()) {
+                    loanCharge.resetPaidAmount(currency);
+                }
+            }
+        }
+
+        for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
+            currentInstallment.resetDerivedComponents();
+            currentInstallment.updateDerivedFields(currency, disbursementDate);
+        }
+
+        // re-process loan charges over repayment periods (picking up on waived
+        // loan charges)
+        final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
+        wrapper.reprocess(currency, disbursementDate, installments, charges);
+    }
+
+    /**
+     * A transaction can be restored from its mappings when it is a repayment,
+     * recovery or interest waiver whose persisted mappings add up to its
+     * breakup and only refer to installments of the current schedule. Write
+     * offs and refunds depend on the outstanding state of the whole schedule
+     * so always need to be re-processed.
+     */
+    private boolean isRestorableFromMappings(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final List<LoanRepaymentScheduleInstallment> installments) {
+        if (loanTransaction.isWriteOff() || loanTransaction.isRefundForActiveLoan()) { return false; }
+        if (!(loanTransaction.isRepayment() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment())) {
+            // not applied to installments by this processor
+            return true;
+        }
+        if (loanTransaction.getOverPaymentPortion(currency).isGreaterThanZero()) { return false; }
+
+        Money principal = Money.zero(currency);
+        Money interest = Money.zero(currency);
+        Money feeCharges = Money.zero(currency);
+        Money penaltyCharges = Money.zero(currency);
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : loanTransaction.getLoanTransactionToRepaymentScheduleMappings()) {
+            if (!installments.contains(mapping.getLoanRepaymentScheduleInstallment())) { return false; }
+            principal = principal.plus(mapping.getPrincipalPortion(currency));
+            interest = interest.plus(mapping.getInterestPortion(currency));
+            feeCharges = feeCharges.plus(mapping.getFeeChargesPortion(currency));
+            penaltyCharges = penaltyCharges.plus(mapping.getPenaltyChargesPortion(currency));
+        }
+        if (loanTransaction.isWaiver() && principal.isGreaterThanZero()) { return false; }
+
+        return principal.isEqualTo(loanTransaction.getPrincipalPortion(currency))
+                && interest.isEqualTo(loanTransaction.getInterestPortion(currency))
+                && feeCharges.isEqualTo(loanTransaction.getFeeChargesPortion(currency))
+                && penaltyCharges.isEqualTo(loanTransaction.getPenaltyChargesPortion(currency))
+                && principal.plus(interest).plus(feeCharges).plus(penaltyCharges).isEqualTo(loanTransaction.getAmount(currency));
+    }
+
+    /**
+     * Re-applies the persisted portions of the transaction to the installments
+     * and loan charges it was originally allocated to. The transaction itself
+     * is not modified.
+     * 
+     * @return false when an installment no longer has enough outstanding to
+     *         absorb its portion
+     */
+    private boolean restoreFromMappings(final LoanTransaction loanTransaction, final MonetaryCurrency currency,
+            final Set<LoanCharge> charges) {
+        if (!(loanTransaction.isRepayment() || loanTransaction.isInterestWaiver() || loanTransaction.isRecoveryRepayment())) { return true; }
+
+        final LocalDate transactionDate = loanTransaction.getTransactionDate();
+        final boolean isWaiver = loanTransaction.isWaiver();
+        for (final LoanTransactionToRepaymentScheduleMapping mapping : loanTransaction.getLoanTransactionToRepaymentScheduleMappings()) {
+            final LoanRepaymentScheduleInstallment installment = mapping.getLoanRepaymentScheduleInstallment();
+            final Money penaltyCharges = mapping.getPenaltyChargesPortion(currency);
+            final Money feeCharges = mapping.getFeeChargesPortion(currency);
+            final Money interest = mapping.getInterestPortion(currency);
+            final Money principal = mapping.getPrincipalPortion(currency);
+            if (penaltyCharges.isGreaterThanZero()) {
+                final Money applied = isWaiver ? installment.waivePenaltyChargesComponent(transactionDate, penaltyCharges) : installment
+                        .payPenaltyChargesComponent(transactionDate, penaltyCharges);
+                if (!applied.isEqualTo(penaltyCharges)) { return false; }
+            }
+            if (feeCharges.isGreaterThanZero()) {
+                final Money applied = isWaiver ? installment.waiveFeeChargesComponent(transactionDate, feeCharges) : installment
+                        .payFeeChargesComponent(transactionDate, feeCharges);
+                if (!applied.isEqualTo(feeCharges)) { return false; }
+            }
+            if (interest.isGreaterThanZero()) {
+                final Money applied = isWaiver ? installment.waiveInterestComponent(transactionDate, interest) : installment
+                        .payInterestComponent(transactionDate, interest);
+                if (!applied.isEqualTo(interest)) { return false; }
+            }
+            if (principal.isGreaterThanZero()) {
+                final Money applied = installment.payPrincipalComponent(transactionDate, principal);
+                if (!applied.isEqualTo(principal)) { return false; }
+            }
+        }
+
+        if (loanTransaction.isNotWaiver()) {
+            final Integer installmentNumber = null;
+            final boolean recordChargesPaidBy = false;
+            final Money feeCharges = loanTransaction.getFeeChargesPortion(currency);
+            if (feeCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, feeCharges, extractFeeCharges(charges), installmentNumber, recordChargesPaidBy);
+            }
+            final Money penaltyCharges = loanTransaction.getPenaltyChargesPortion(currency);
+            if (penaltyCharges.isGreaterThanZero()) {
+                updateChargesPaidAmountBy(loanTransaction, penaltyCharges, extractPenaltyCharges(charges), installmentNumber,
+                        recordChargesPaidBy);
+            }
+        }
+        return true;
+    }
+
+    private ChangedTransactionDetail reprocessTransactions(final List<LoanTransaction> transactionstoBeProcessed,
+            final MonetaryCurrency currency, final List<LoanRepaymentScheduleInstallment> installments, final Set<LoanCharge> charges) {
+
+        final ChangedTransactionDetail changedTransactionDetail = new ChangedTransactionDetail();
         for (final LoanTransaction loanTransaction : transactionstoBeProcessed) {
 
             if (!loanTransaction.getTypeOf().equals(LoanTransactionType.REFUND_FOR_ACTIVE_LOAN)) {
@@ -330,6 +480,12 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
 
     private void updateChargesPaidAmountBy(final LoanTransaction loanTransaction, final Money feeCharges, final Set<LoanCharge> charges,
             final Integer installmentNumber) {
+        final boolean recordChargesPaidBy = true;
+        updateChargesPaidAmountBy(loanTransaction, feeCharges, charges, installmentNumber, recordChargesPaidBy);
+    }
+
+    private void updateChargesPaidAmountBy(final LoanTransaction loanTransaction, final Money feeCharges, final Set<LoanCharge> charges,
+            final Integer installmentNumber, final boolean recordChargesPaidBy) {
 
         Money amountRemaining = feeCharges;
         while (amountRemaining.isGreaterThanZero()) {
@@ -349,7 +505,7 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
                             chargePaidBy.setAmount(amountPaidTowardsCharge.getAmount());
                         }
                     }
-                } else {
+                } else if (recordChargesPaidBy) {
                     final LoanChargePaidBy loanChargePaidBy = new LoanChargePaidBy(loanTransaction, unpaidCharge,
                             amountPaidTowardsCharge.getAmount(), installmentNumber);
                     chargesPaidBies.add(loanChargePaidBy);
@@ -393,25 +549,25 @@ public abstract class AbstractLoanRepaymentScheduleTransactionProcessor implemen
             final List<LoanRepaymentScheduleInstallment> installments) {
 
         final LocalDate transactionDate = loanTransaction.getTransactionDate();
-        Money principalPortion = Money.zero(currency);
-        Money interestPortion = Money.zero(currency);
-        Money feeChargesPortion = Money.zero(currency);
-        Money penaltychargesPortion = Money.zero(currency);
+        final MoneyAccumulator principalPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator interestPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator feeChargesPortion = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltychargesPortion = MoneyAccumulator.zero(currency);
 
         // determine how much is written off in total and breakdown for
         // principal, interest and charges
         for (final LoanRepaymentScheduleInstallment currentInstallment : installments) {
 
             if (currentInstallment.isNotFullyPaidOff()) {
-                principalPortion = principalPortion.plus(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
-                interestPortion = interestPortion.plus(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
-                feeChargesPortion = feeChargesPortion.plus(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
-                penaltychargesPortion = penaltychargesPortion.plus(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate,
-                        currency));
+                principalPortion.add(currentInstallment.writeOffOutstandingPrincipal(transactionDate, currency));
+                interestPortion.add(currentInstallment.writeOffOutstandingInterest(transactionDate, currency));
+                feeChargesPortion.add(currentInstallment.writeOffOutstandingFeeCharges(transactionDate, currency));
+                penaltychargesPortion.add(currentInstallment.writeOffOutstandingPenaltyCharges(transactionDate, currency));
             }
         }
 
-        loanTransaction.updateComponentsAndTotal(principalPortion, interestPortion, feeChargesPortion, penaltychargesPortion);
+        loanTransaction.updateComponentsAndTotal(principalPortion.toMoney(), interestPortion.toMoney(), feeChargesPortion.toMoney(),
+                penaltychargesPortion.toMoney());
     }
 
     // abstract interface
@@ -37,6 +37,15 @@ public interface LoanRepaymentScheduleTransactionProcessor {
     ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
             MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges);
 
+    /**
+     * Same as a full re-process but only replays transactions dated on or
+     * after <code>reprocessFrom</code>; earlier transactions are assumed to be
+     * unaffected and are restored from their persisted schedule mappings.
+     */
+    ChangedTransactionDetail handleTransaction(LocalDate disbursementDate, List<LoanTransaction> repaymentsOrWaivers,
+            MonetaryCurrency currency, List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments, Set<LoanCharge> charges,
+            LocalDate reprocessFrom);
+
     void handleWriteOff(LoanTransaction loanTransaction, MonetaryCurrency loanCurrency,
             List<LoanRepaymentScheduleInstallment> repaymentScheduleInstallments);
 
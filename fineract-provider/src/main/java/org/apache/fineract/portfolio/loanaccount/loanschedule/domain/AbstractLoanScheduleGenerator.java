@@ -35,6 +35,7 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.organisation.monetary.domain.ApplicationCurrency;
 import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
 import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyAccumulator;
 import org.apache.fineract.organisation.workingdays.domain.RepaymentRescheduleType;
 import org.apache.fineract.portfolio.calendar.domain.Calendar;
 import org.apache.fineract.portfolio.calendar.domain.CalendarInstance;
@@ -2742,21 +2743,21 @@ public abstract class AbstractLoanScheduleGenerator implements LoanScheduleGener
 
         loanRepaymentScheduleTransactionProcessor.handleTransaction(loanApplicationTerms.getExpectedDisbursementDate(), loanTransactions,
                 currency, loanScheduleDTO.getInstallments(), charges);
-        Money feeCharges = Money.zero(currency);
-        Money penaltyCharges = Money.zero(currency);
-        Money totalPrincipal = Money.zero(currency);
-        Money totalInterest = Money.zero(currency);
+        final MoneyAccumulator feeCharges = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator penaltyCharges = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator totalPrincipal = MoneyAccumulator.zero(currency);
+        final MoneyAccumulator totalInterest = MoneyAccumulator.zero(currency);
         for (final LoanRepaymentScheduleInstallment currentInstallment : loanScheduleDTO.getInstallments()) {
             if (currentInstallment.isNotFullyPaidOff()) {
-                totalPrincipal = totalPrincipal.plus(currentInstallment.getPrincipalOutstanding(currency));
-                totalInterest = totalInterest.plus(currentInstallment.getInterestOutstanding(currency));
-                feeCharges = feeCharges.plus(currentInstallment.getFeeChargesOutstanding(currency));
-                penaltyCharges = penaltyCharges.plus(currentInstallment.getPenaltyChargesOutstanding(currency));
+                totalPrincipal.add(currentInstallment.getPrincipalOutstanding(currency));
+                totalInterest.add(currentInstallment.getInterestOutstanding(currency));
+                feeCharges.add(currentInstallment.getFeeChargesOutstanding(currency));
+                penaltyCharges.add(currentInstallment.getPenaltyChargesOutstanding(currency));
             }
         }
         final List<LoanInterestRecalcualtionAdditionalDetails> compoundingDetails = null;
-        return new LoanRepaymentScheduleInstallment(null, 0, onDate, onDate, totalPrincipal.getAmount(), totalInterest.getAmount(),
-                feeCharges.getAmount(), penaltyCharges.getAmount(), false, compoundingDetails);
+        return new LoanRepaymentScheduleInstallment(null, 0, onDate, onDate, totalPrincipal.toAmount(), totalInterest.toAmount(),
+                feeCharges.toAmount(), penaltyCharges.toAmount(), false, compoundingDetails);
     }
 
     /**
@@ -21,11 +21,16 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTaskFactory;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,12 +41,14 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
 
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanAccrualWritePlatformService loanAccrualWritePlatformService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public LoanAccrualPlatformServiceImpl(final LoanReadPlatformService loanReadPlatformService,
-            final LoanAccrualWritePlatformService loanAccrualWritePlatformService) {
+            final LoanAccrualWritePlatformService loanAccrualWritePlatformService, final PartitionedJobExecutor partitionedJobExecutor) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanAccrualWritePlatformService = loanAccrualWritePlatformService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @Override
@@ -75,11 +82,54 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
     }
 
+    /**
+     * Pages through the candidate loans in partitions of loan ids that are
+     * processed concurrently, each in its own transaction. The accrual data of
+     * a partition is read with one query over its loan id range, and completed
+     * partitions are checkpointed so that a rerun on the same day resumes
+     * after them.
+     */
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        String errors = addPeriodicAccruals(LocalDate.now());
-        if (errors.length() > 0) { throw new JobExecutionException(errors); }
+        final LocalDate tilldate = LocalDate.now();
+        this.partitionedJobExecutor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                return LoanAccrualPlatformServiceImpl.this.loanReadPlatformService.retrievePeriodicAccrualLoanIdsAfter(tilldate,
+                        lastProcessedId, limit);
+            }
+        }, new JobPartitionTaskFactory() {
+
+            @Override
+            public JobPartitionTask createTask(final List<Long> loanIds) {
+                final Collection<LoanScheduleAccrualData> accrualDatas = LoanAccrualPlatformServiceImpl.this.loanReadPlatformService
+                        .retrivePeriodicAccrualData(tilldate, loanIds.get(0), loanIds.get(loanIds.size() - 1));
+                final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(accrualDatas);
+                return new JobPartitionTask() {
+
+                    @Override
+                    public void process(final Long loanId) {
+                        final Collection<LoanScheduleAccrualData> loanAccrualDatas = loanDataMap.get(loanId);
+                        if (loanAccrualDatas == null) { return; }
+                        try {
+                            LoanAccrualPlatformServiceImpl.this.loanAccrualWritePlatformService.addPeriodicAccruals(tilldate, loanId,
+                                    loanAccrualDatas);
+                        } catch (final RuntimeException e) {
+                            throw e;
+                        } catch (final Exception e) {
+                            throw new IllegalStateException(e.getMessage(), e);
+                        }
+                    }
+
+                    @Override
+                    public String failureMessage(final Long loanId, final Throwable realCause) {
+                        return "failed to add accural transaction for loan " + loanId + " with message " + realCause.getMessage();
+                    }
+                };
+            }
+        });
     }
 
     @Override
@@ -91,16 +141,7 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
         StringBuilder sb = new StringBuilder();
-        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            if (loanDataMap.containsKey(accrualData.getLoanId())) {
-                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
-            } else {
-                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
-                accrualDatas.add(accrualData);
-                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
-            }
-        }
+        Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = groupByLoan(loanScheduleAccrualDatas);
 
         for (Map.Entry<Long, Collection<LoanScheduleAccrualData>> mapEntry : loanDataMap.entrySet()) {
             try {
@@ -117,6 +158,20 @@ public class LoanAccrualPlatformServiceImpl implements LoanAccrualPlatformServic
         return sb.toString();
     }
 
+    private static Map<Long, Collection<LoanScheduleAccrualData>> groupByLoan(final Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
+        final Map<Long, Collection<LoanScheduleAccrualData>> loanDataMap = new HashMap<>();
+        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+            if (loanDataMap.containsKey(accrualData.getLoanId())) {
+                loanDataMap.get(accrualData.getLoanId()).add(accrualData);
+            } else {
+                Collection<LoanScheduleAccrualData> accrualDatas = new ArrayList<>();
+                accrualDatas.add(accrualData);
+                loanDataMap.put(accrualData.getLoanId(), accrualDatas);
+            }
+        }
+        return loanDataMap;
+    }
+
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES_FOR_LOANS_WITH_INCOME_POSTED_AS_TRANSACTIONS)
     public void addPeriodicAccrualsForLoansWithIncomePostedAsTransactions() throws JobExecutionException {
@@ -89,6 +89,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Collection<LoanChargeData> chargeData = this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(loanId);
         Collection<LoanSchedulePeriodData> loanWaiverScheduleData = new ArrayList<>(1);
         Collection<LoanTransactionData> loanWaiverTansactionData = new ArrayList<>(1);
+        final AccrualUpdates accrualUpdates = new AccrualUpdates();
 
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
@@ -97,8 +98,9 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
             }
             updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
             updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, accrualData.getDueDateAsLocaldate());
-            addAccrualAccounting(accrualData);
+            addAccrualAccounting(accrualData, accrualUpdates);
         }
+        accrualUpdates.write(this.jdbcTemplate);
     }
 
     @Override
@@ -110,6 +112,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         Collection<LoanChargeData> chargeData = this.loanChargeReadPlatformService.retrieveLoanChargesForAccural(loanId);
         Collection<LoanSchedulePeriodData> loanWaiverScheduleData = new ArrayList<>(1);
         Collection<LoanTransactionData> loanWaiverTansactionData = new ArrayList<>(1);
+        final AccrualUpdates accrualUpdates = new AccrualUpdates();
         for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
             if (accrualData.getWaivedInterestIncome() != null && loanWaiverScheduleData.isEmpty()) {
                 loanWaiverScheduleData = this.loanReadPlatformService.fetchWaiverInterestRepaymentData(accrualData.getLoanId());
@@ -124,18 +127,20 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 if (accruredTill == null || accruredTill.isBefore(tilldate)) {
                     updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), tilldate);
                     updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                    addAccrualTillSpecificDate(tilldate, accrualData);
+                    addAccrualTillSpecificDate(tilldate, accrualData, accrualUpdates);
                 }
             } else {
                 updateCharges(chargeData, accrualData, accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate());
                 updateInterestIncome(accrualData, loanWaiverTansactionData, loanWaiverScheduleData, tilldate);
-                addAccrualAccounting(accrualData);
+                addAccrualAccounting(accrualData, accrualUpdates);
                 accruredTill = accrualData.getDueDateAsLocaldate();
             }
         }
+        accrualUpdates.write(this.jdbcTemplate);
     }
 
-    private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData) throws Exception {
+    private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData,
+            final AccrualUpdates accrualUpdates) throws Exception {
         LocalDate interestStartDate = accrualData.getFromDateAsLocaldate();
         if (accrualData.getInterestCalculatedFrom() != null
                 && accrualData.getFromDateAsLocaldate().isBefore(accrualData.getInterestCalculatedFrom())) {
@@ -209,12 +214,11 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         }
         if (amount.compareTo(BigDecimal.ZERO) == 1) {
             addAccrualAccounting(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                    totalAccPenalty, tilldate);
+                    totalAccPenalty, tilldate, accrualUpdates);
         }
     }
 
-    @Transactional
-    public void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData) throws Exception {
+    private void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData, final AccrualUpdates accrualUpdates) throws Exception {
 
         BigDecimal amount = BigDecimal.ZERO;
         BigDecimal interestportion = null;
@@ -260,13 +264,13 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         }
         if (amount.compareTo(BigDecimal.ZERO) == 1) {
             addAccrualAccounting(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                    totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate());
+                    totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate(), accrualUpdates);
         }
     }
 
     private void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData, BigDecimal amount, BigDecimal interestportion,
             BigDecimal totalAccInterest, BigDecimal feeportion, BigDecimal totalAccFee, BigDecimal penaltyportion,
-            BigDecimal totalAccPenalty, final LocalDate accruedTill) throws Exception {
+            BigDecimal totalAccPenalty, final LocalDate accruedTill, final AccrualUpdates accrualUpdates) throws Exception {
         String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
                 + "fee_charges_portion_derived,penalty_charges_portion_derived, submitted_on_date) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?)";
         this.jdbcTemplate.update(transactionSql, scheduleAccrualData.getLoanId(), scheduleAccrualData.getOfficeId(),
@@ -276,23 +280,19 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         final Long transactonId = this.jdbcTemplate.queryForLong("SELECT LAST_INSERT_ID()");
 
         Map<LoanChargeData, BigDecimal> applicableCharges = scheduleAccrualData.getApplicableCharges();
-        String chargespaidSql = "INSERT INTO m_loan_charge_paid_by (loan_transaction_id, loan_charge_id, amount,installment_number) VALUES (?,?,?,?)";
         for (Map.Entry<LoanChargeData, BigDecimal> entry : applicableCharges.entrySet()) {
             LoanChargeData chargeData = entry.getKey();
-            this.jdbcTemplate.update(chargespaidSql, transactonId, chargeData.getId(), entry.getValue(),
-                    scheduleAccrualData.getInstallmentNumber());
+            accrualUpdates.chargesPaid.add(new Object[] { transactonId, chargeData.getId(), entry.getValue(),
+                    scheduleAccrualData.getInstallmentNumber() });
         }
 
         Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
                 scheduleAccrualData, accruedTill);
 
-        String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
-                + "accrual_penalty_charges_derived=? WHERE  id=?";
-        this.jdbcTemplate.update(repaymetUpdatesql, totalAccInterest, totalAccFee, totalAccPenalty,
-                scheduleAccrualData.getRepaymentScheduleId());
-
-        String updateLoan = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
-        this.jdbcTemplate.update(updateLoan, accruedTill.toDate(), scheduleAccrualData.getLoanId());
+        accrualUpdates.installments.add(new Object[] { totalAccInterest, totalAccFee, totalAccPenalty,
+                scheduleAccrualData.getRepaymentScheduleId() });
+        accrualUpdates.loanId = scheduleAccrualData.getLoanId();
+        accrualUpdates.accruedTill = accruedTill;
         final Map<String, Object> accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transactionMap);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
@@ -508,4 +508,32 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 existingTransactionIds, existingReversedTransactionIds, isAccountTransfer);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
     }
+
+    /**
+     * Collects the charge, installment and loan updates of the accruals posted
+     * for one loan, so that they are written with one JDBC batch per
+     * statement once all accrual transactions of the loan are posted.
+     */
+    private static final class AccrualUpdates {
+
+        private final List<Object[]> chargesPaid = new ArrayList<>();
+        private final List<Object[]> installments = new ArrayList<>();
+        private Long loanId;
+        private LocalDate accruedTill;
+
+        void write(final JdbcTemplate jdbcTemplate) {
+            if (!this.chargesPaid.isEmpty()) {
+                final String chargespaidSql = "INSERT INTO m_loan_charge_paid_by (loan_transaction_id, loan_charge_id, amount,installment_number) VALUES (?,?,?,?)";
+                jdbcTemplate.batchUpdate(chargespaidSql, this.chargesPaid);
+            }
+            if (!this.installments.isEmpty()) {
+                final String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
+                        + "accrual_penalty_charges_derived=? WHERE  id=?";
+                jdbcTemplate.batchUpdate(repaymetUpdatesql, this.installments);
+            }
+            if (this.accruedTill != null) {
+                jdbcTemplate.update("UPDATE m_loan  SET accrued_till=?  WHERE  id=?", this.accruedTill.toDate(), this.loanId);
+            }
+        }
+    }
 }
@@ -19,21 +19,31 @@
 package org.apache.fineract.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.fineract.infrastructure.core.domain.JdbcSupport;
+import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.CollectedJobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.JobRunStatisticsContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_ENTITY;
 import org.apache.fineract.portfolio.common.BusinessEventNotificationConstants.BUSINESS_EVENTS;
 import org.apache.fineract.portfolio.common.service.BusinessEventListner;
@@ -45,6 +55,7 @@ import org.apache.fineract.portfolio.loanaccount.domain.LoanSummary;
 import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
 import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanSchedulePeriodData;
 import org.apache.fineract.scheduledjobs.service.ScheduledJobRunnerServiceImpl;
+import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -54,8 +65,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, BusinessEventListner {
@@ -64,11 +77,22 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
     private final BusinessEventNotifierService businessEventNotifierService;
     private final DateTimeFormatter formatter = DateTimeFormat.forPattern("yyyy-MM-dd");
     private final JdbcTemplate jdbcTemplate;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final JobCheckpointService jobCheckpointService;
+
+    /**
+     * Changes are looked up from this many minutes before the start of the
+     * last run, to cover transactions that were still open when it started.
+     */
+    private static final int ARREARS_CHANGE_OVERLAP_MINUTES = 10;
 
     @Autowired
-    public LoanArrearsAgingServiceImpl(final RoutingDataSource dataSource, final BusinessEventNotifierService businessEventNotifierService) {
+    public LoanArrearsAgingServiceImpl(final RoutingDataSource dataSource, final BusinessEventNotifierService businessEventNotifierService,
+            final PartitionedJobExecutor partitionedJobExecutor, final JobCheckpointService jobCheckpointService) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
         this.businessEventNotifierService = businessEventNotifierService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.jobCheckpointService = jobCheckpointService;
     }
 
     @PostConstruct
@@ -86,50 +110,199 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         this.businessEventNotifierService.addBusinessEventPostListners(BUSINESS_EVENTS.LOAN_FORECLOSURE, this);
     }
 
-    @Transactional
+    /**
+     * Brings m_loan_arrears_aging up to date by recomputing only the loans
+     * whose arrears may have changed since the last run: loans with changed
+     * schedule, transactions or charges, loans with installments that fell
+     * overdue since then, and loans in the table that are no longer active.
+     * Rows are inserted, updated or deleted one loan at a time, so the table
+     * is never emptied while the job runs. The first run, with nothing to
+     * compare against, checks every active loan.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
-    public void updateLoanArrearsAgeingDetails() {
-
-        this.jdbcTemplate.execute("truncate table m_loan_arrears_aging");
-
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
-
-        updateSqlBuilder
-                .append("INSERT INTO m_loan_arrears_aging(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`)");
-        updateSqlBuilder.append("select ml.id as loanId,");
-        updateSqlBuilder
-                .append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) as principal_overdue_derived,");
-        updateSqlBuilder
-                .append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) as interest_overdue_derived,");
-        updateSqlBuilder
-                .append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) as fee_charges_overdue_derived,");
-        updateSqlBuilder
-                .append("SUM((ifnull(mr.penalty_charges_amount,0)  - ifnull(mr.penalty_charges_completed_derived, 0))) as penalty_charges_overdue_derived,");
-        updateSqlBuilder.append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) +");
-        updateSqlBuilder.append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) +");
-        updateSqlBuilder.append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) +");
-        updateSqlBuilder
-                .append("SUM((ifnull(mr.penalty_charges_amount,0)  - ifnull(mr.penalty_charges_completed_derived, 0))) as total_overdue_derived,");
-        updateSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
-        updateSqlBuilder.append(" FROM m_loan ml ");
-        updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
-        updateSqlBuilder.append(" and (prd.arrears_based_on_original_schedule = 0 or prd.arrears_based_on_original_schedule is null) ");
-        updateSqlBuilder.append(" GROUP BY ml.id");
-
-        List<String> insertStatements = updateLoanArrearsAgeingDetailsWithOriginalSchedule();
-        insertStatements.add(0, updateSqlBuilder.toString());
-        final int[] results = this.jdbcTemplate.batchUpdate(insertStatements.toArray(new String[0]));
-        int result = 0;
-        for (int i : results) {
-            result += i;
+    public void updateLoanArrearsAgeingDetails() throws JobExecutionException {
+
+        final Date runStartTime = this.jobCheckpointService.startIncrementalRun(JobName.UPDATE_LOAN_ARREARS_AGEING,
+                DateUtils.getLocalDateOfTenant());
+        final Date watermark = this.jobCheckpointService.retrieveChangeWatermark(JobName.UPDATE_LOAN_ARREARS_AGEING);
+        final JobPartitionSource loanSource = watermark == null ? allArrearsCandidateSource() : changedArrearsCandidateSource(watermark);
+
+        final AtomicLong inserted = new AtomicLong();
+        final AtomicLong updated = new AtomicLong();
+        final AtomicLong removed = new AtomicLong();
+        try {
+            this.partitionedJobExecutor.execute(JobName.UPDATE_LOAN_ARREARS_AGEING, loanSource, new JobPartitionTask() {
+
+                @Override
+                public void process(final Long loanId) {
+                    refreshLoanArrears(loanId, inserted, updated, removed);
+                }
+
+                @Override
+                public String failureMessage(final Long loanId, final Throwable realCause) {
+                    return "Failed to update arrears ageing of loan " + loanId + " with message " + realCause.getMessage();
+                }
+            });
+        } finally {
+            final String changes = "arrears rows inserted: " + inserted.get() + ", updated: " + updated.get() + ", removed: "
+                    + removed.get() + (watermark == null ? " (full run)" : " (changes since " + watermark + ")");
+            final String runStatistics = JobRunStatisticsContextUtil.getRunStatistics();
+            JobRunStatisticsContextUtil.setRunStatistics(runStatistics == null ? changes : changes + System.lineSeparator()
+                    + runStatistics);
+            logger.info(ThreadLocalContextUtil.getTenant().getName() + ": " + changes);
+        }
+        this.jobCheckpointService.updateChangeWatermark(JobName.UPDATE_LOAN_ARREARS_AGEING, runStartTime);
+    }
+
+    private JobPartitionSource allArrearsCandidateSource() {
+        return new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                final String sql = "select candidate.loan_id from (select ml.id as loan_id from m_loan ml where ml.loan_status_id = 300 and ml.id > ?"
+                        + " union select mla.loan_id from m_loan_arrears_aging mla where mla.loan_id > ?) candidate"
+                        + " order by candidate.loan_id limit ?";
+                return LoanArrearsAgingServiceImpl.this.jdbcTemplate.queryForList(sql, Long.class, lastProcessedId, lastProcessedId,
+                        limit);
+            }
+        };
+    }
+
+    /**
+     * The candidates are looked up once and paged in memory, as the lookup
+     * scans the schedule for installments that fell overdue.
+     */
+    private JobPartitionSource changedArrearsCandidateSource(final Date watermark) {
+        final Date changedSince = new DateTime(watermark).minusMinutes(ARREARS_CHANGE_OVERLAP_MINUTES).toDate();
+        final String lastRunDate = this.formatter.print(new LocalDate(watermark));
+
+        final StringBuilder sqlBuilder = new StringBuilder(1500);
+        sqlBuilder.append("select mr.loan_id from m_loan_repayment_schedule mr where mr.changed_on >= ? ");
+        sqlBuilder.append("union select lt.loan_id from m_loan_transaction lt where lt.changed_on >= ? ");
+        sqlBuilder.append("union select lc.loan_id from m_loan_charge lc where lc.changed_on >= ? ");
+        // installments that became overdue, after grace, since the last run
+        sqlBuilder.append("union select mr.loan_id from m_loan_repayment_schedule mr join m_loan ml on ml.id = mr.loan_id ");
+        sqlBuilder.append("where ml.loan_status_id = 300 and mr.completed_derived is false ");
+        sqlBuilder.append("and mr.duedate >= SUBDATE(?,INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append("and mr.duedate < SUBDATE(CURDATE(),INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append("union select mr.loan_id from m_loan_repayment_schedule_history mr join m_loan ml on ml.id = mr.loan_id ");
+        sqlBuilder.append("where ml.loan_status_id = 300 ");
+        sqlBuilder.append("and mr.duedate >= SUBDATE(?,INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append("and mr.duedate < SUBDATE(CURDATE(),INTERVAL ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        // loans closed, written off or otherwise no longer active
+        sqlBuilder.append("union select mla.loan_id from m_loan_arrears_aging mla join m_loan ml on ml.id = mla.loan_id ");
+        sqlBuilder.append("where ml.loan_status_id <> 300");
+
+        return new CollectedJobPartitionSource() {
+
+            @Override
+            protected Collection<Long> collectIds() {
+                return LoanArrearsAgingServiceImpl.this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, changedSince,
+                        changedSince, changedSince, lastRunDate, lastRunDate);
+            }
+        };
+    }
+
+    private void refreshLoanArrears(final Long loanId, final AtomicLong inserted, final AtomicLong updated, final AtomicLong removed) {
+        final LoanArrears stored = retrieveStoredArrears(loanId);
+        LoanArrears computed = computeArrears(loanId);
+        if (computed == null) {
+            computed = computeArrearsFromOriginalSchedule(loanId);
         }
 
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        if (computed == null) {
+            if (stored != null) {
+                this.jdbcTemplate.update("DELETE FROM `m_loan_arrears_aging` WHERE `loan_id`=?", loanId);
+                countAfterCommit(removed);
+            }
+        } else if (stored == null) {
+            this.jdbcTemplate.update(constructInsertStatement(loanId, computed.principal, computed.interest, computed.fee,
+                    computed.penalty, computed.overdueSince));
+            countAfterCommit(inserted);
+        } else if (!stored.isSameAs(computed)) {
+            this.jdbcTemplate.update(constructUpdateStatement(loanId, computed.principal, computed.interest, computed.fee,
+                    computed.penalty, computed.overdueSince));
+            countAfterCommit(updated);
+        }
+    }
+
+    /**
+     * Counts a change once the partition transaction it belongs to commits,
+     * so partitions replayed after a rollback are not counted twice.
+     */
+    private static void countAfterCommit(final AtomicLong counter) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    counter.incrementAndGet();
+                }
+            });
+        } else {
+            counter.incrementAndGet();
+        }
+    }
+
+    private LoanArrears retrieveStoredArrears(final Long loanId) {
+        final String sql = "select mla.principal_overdue_derived as principalOverdue, mla.interest_overdue_derived as interestOverdue,"
+                + " mla.fee_charges_overdue_derived as feeOverdue, mla.penalty_charges_overdue_derived as penaltyOverdue,"
+                + " mla.overdue_since_date_derived as overdueSince from m_loan_arrears_aging mla where mla.loan_id = ?";
+        final List<LoanArrears> stored = this.jdbcTemplate.query(sql, new LoanArrearsMapper(), loanId);
+        return stored.isEmpty() ? null : stored.get(0);
+    }
+
+    /**
+     * @return arrears of an active loan computed from its current schedule, or
+     *         <code>null</code> when it has no overdue installment or its
+     *         product bases arrears on the original schedule
+     */
+    private LoanArrears computeArrears(final Long loanId) {
+        final StringBuilder sqlBuilder = new StringBuilder(900);
+        sqlBuilder.append("select ");
+        sqlBuilder
+                .append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) as principalOverdue,");
+        sqlBuilder.append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) as interestOverdue,");
+        sqlBuilder.append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) as feeOverdue,");
+        sqlBuilder
+                .append("SUM((ifnull(mr.penalty_charges_amount,0)  - ifnull(mr.penalty_charges_completed_derived, 0))) as penaltyOverdue,");
+        sqlBuilder.append("MIN(mr.duedate) as overdueSince ");
+        sqlBuilder.append(" FROM m_loan ml ");
+        sqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        sqlBuilder.append(" left join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id ");
+        sqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
+        sqlBuilder.append(" and mr.completed_derived is false ");
+        sqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        sqlBuilder.append(" and (prd.arrears_based_on_original_schedule = 0 or prd.arrears_based_on_original_schedule is null) ");
+        sqlBuilder.append(" and ml.id = ? GROUP BY ml.id");
+
+        final List<LoanArrears> computed = this.jdbcTemplate.query(sqlBuilder.toString(), new LoanArrearsMapper(), loanId);
+        return computed.isEmpty() ? null : computed.get(0);
+    }
+
+    /**
+     * @return arrears of an active loan whose product bases arrears on the
+     *         original schedule, or <code>null</code> when it is not in arrears
+     */
+    private LoanArrears computeArrearsFromOriginalSchedule(final Long loanId) {
+        final StringBuilder loanIdentifier = new StringBuilder();
+        loanIdentifier.append("select count(mr.id) FROM m_loan ml  ");
+        loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        loanIdentifier
+                .append("inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = 1  ");
+        loanIdentifier
+                .append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) and ml.id = ?");
+        final Integer overdueInstallments = this.jdbcTemplate.queryForObject(loanIdentifier.toString(), Integer.class, loanId);
+        if (overdueInstallments == null || overdueInstallments == 0) { return null; }
+
+        final OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanId.toString());
+        final Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
+                originalScheduleExtractor);
+        if (scheduleDate.isEmpty()) { return null; }
+
+        updateSchheduleWithPaidDetail(scheduleDate, getLoanSummary(loanId.toString()));
+        return computeOriginalScheduleArrears(scheduleDate.get(loanId));
     }
 
     @Override
@@ -199,33 +372,6 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         return updateSql;
     }
 
-    private List<String> updateLoanArrearsAgeingDetailsWithOriginalSchedule() {
-        List<String> insertStatement = new ArrayList<>();
-
-        final StringBuilder loanIdentifier = new StringBuilder();
-        loanIdentifier.append("select ml.id as loanId FROM m_loan ml  ");
-        loanIdentifier.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        loanIdentifier
-                .append("inner join m_product_loan_recalculation_details prd on prd.product_id = ml.product_id and prd.arrears_based_on_original_schedule = 1  ");
-        loanIdentifier
-                .append("WHERE ml.loan_status_id = 300  and mr.completed_derived is false  and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) group by ml.id");
-        List<Long> loanIds = this.jdbcTemplate.queryForList(loanIdentifier.toString(), Long.class);
-        if (!loanIds.isEmpty()) {
-            String loanIdsAsString = loanIds.toString();
-            loanIdsAsString = loanIdsAsString.substring(1, loanIdsAsString.length() - 1);
-            OriginalScheduleExtractor originalScheduleExtractor = new OriginalScheduleExtractor(loanIdsAsString);
-            Map<Long, List<LoanSchedulePeriodData>> scheduleDate = this.jdbcTemplate.query(originalScheduleExtractor.schema,
-                    originalScheduleExtractor);
-
-            List<Map<String, Object>> loanSummary = getLoanSummary(loanIdsAsString);
-            updateSchheduleWithPaidDetail(scheduleDate, loanSummary);
-            createInsertStatements(insertStatement, scheduleDate, true);
-        }
-
-        return insertStatement;
-
-    }
-
     private List<Map<String, Object>> getLoanSummary(final String loanIdsAsString) {
         final StringBuilder transactionsSql = new StringBuilder();
         transactionsSql.append("select ml.id as loanId, ");
@@ -264,36 +410,15 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
             boolean isInsertStatement) {
         for (Map.Entry<Long, List<LoanSchedulePeriodData>> entry : scheduleDate.entrySet()) {
             final Long loanId = entry.getKey();
-            BigDecimal principalOverdue = BigDecimal.ZERO;
-            BigDecimal interestOverdue = BigDecimal.ZERO;
-            BigDecimal feeOverdue = BigDecimal.ZERO;
-            BigDecimal penaltyOverdue = BigDecimal.ZERO;
-            LocalDate overDueSince = LocalDate.now();
-
-            for (LoanSchedulePeriodData loanSchedulePeriodData : entry.getValue()) {
-                if (!loanSchedulePeriodData.getComplete()) {
-                    principalOverdue = principalOverdue.add(loanSchedulePeriodData.principalDue().subtract(
-                            loanSchedulePeriodData.principalPaid()));
-                    interestOverdue = interestOverdue.add(loanSchedulePeriodData.interestDue().subtract(
-                            loanSchedulePeriodData.interestPaid()));
-                    feeOverdue = feeOverdue.add(loanSchedulePeriodData.feeChargesDue().subtract(loanSchedulePeriodData.feeChargesPaid()));
-                    penaltyOverdue = penaltyOverdue.add(loanSchedulePeriodData.penaltyChargesDue().subtract(
-                            loanSchedulePeriodData.penaltyChargesPaid()));
-                    if (overDueSince.isAfter(loanSchedulePeriodData.periodDueDate())
-                            && loanSchedulePeriodData.principalDue().subtract(loanSchedulePeriodData.principalPaid())
-                                    .compareTo(BigDecimal.ZERO) == 1) {
-                        overDueSince = loanSchedulePeriodData.periodDueDate();
-                    }
-                }
-            }
-            if (principalOverdue.compareTo(BigDecimal.ZERO) == 1) {
+            final LoanArrears arrears = computeOriginalScheduleArrears(entry.getValue());
+            if (arrears != null) {
                 String sqlStatement = null;
                 if (isInsertStatement) {
-                    sqlStatement = constructInsertStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
+                    sqlStatement = constructInsertStatement(loanId, arrears.principal, arrears.interest, arrears.fee, arrears.penalty,
+                            arrears.overdueSince);
                 } else {
-                    sqlStatement = constructUpdateStatement(loanId, principalOverdue, interestOverdue, feeOverdue, penaltyOverdue,
-                            overDueSince);
+                    sqlStatement = constructUpdateStatement(loanId, arrears.principal, arrears.interest, arrears.fee, arrears.penalty,
+                            arrears.overdueSince);
                 }
                 insertStatement.add(sqlStatement);
             }
@@ -301,6 +426,34 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         }
     }
 
+    private LoanArrears computeOriginalScheduleArrears(final List<LoanSchedulePeriodData> periods) {
+        BigDecimal principalOverdue = BigDecimal.ZERO;
+        BigDecimal interestOverdue = BigDecimal.ZERO;
+        BigDecimal feeOverdue = BigDecimal.ZERO;
+        BigDecimal penaltyOverdue = BigDecimal.ZERO;
+        LocalDate overDueSince = LocalDate.now();
+
+        for (LoanSchedulePeriodData loanSchedulePeriodData : periods) {
+            if (!loanSchedulePeriodData.getComplete()) {
+                principalOverdue = principalOverdue.add(loanSchedulePeriodData.principalDue().subtract(
+                        loanSchedulePeriodData.principalPaid()));
+                interestOverdue = interestOverdue.add(loanSchedulePeriodData.interestDue().subtract(
+                        loanSchedulePeriodData.interestPaid()));
+                feeOverdue = feeOverdue.add(loanSchedulePeriodData.feeChargesDue().subtract(loanSchedulePeriodData.feeChargesPaid()));
+                penaltyOverdue = penaltyOverdue.add(loanSchedulePeriodData.penaltyChargesDue().subtract(
+                        loanSchedulePeriodData.penaltyChargesPaid()));
+                if (overDueSince.isAfter(loanSchedulePeriodData.periodDueDate())
+                        && loanSchedulePeriodData.principalDue().subtract(loanSchedulePeriodData.principalPaid())
+                                .compareTo(BigDecimal.ZERO) == 1) {
+                    overDueSince = loanSchedulePeriodData.periodDueDate();
+                }
+            }
+        }
+        if (principalOverdue.compareTo(BigDecimal.ZERO) == 1) { return new LoanArrears(principalOverdue, interestOverdue, feeOverdue,
+                penaltyOverdue, overDueSince); }
+        return null;
+    }
+
     private String constructInsertStatement(final Long loanId, BigDecimal principalOverdue, BigDecimal interestOverdue,
             BigDecimal feeOverdue, BigDecimal penaltyOverdue, LocalDate overDueSince) {
         final StringBuilder insertStatementBuilder = new StringBuilder(900);
@@ -404,6 +557,43 @@ public class LoanArrearsAgingServiceImpl implements LoanArrearsAgingService, Bus
         }
     }
 
+    private static final class LoanArrears {
+
+        private final BigDecimal principal;
+        private final BigDecimal interest;
+        private final BigDecimal fee;
+        private final BigDecimal penalty;
+        private final LocalDate overdueSince;
+
+        LoanArrears(final BigDecimal principal, final BigDecimal interest, final BigDecimal fee, final BigDecimal penalty,
+                final LocalDate overdueSince) {
+            this.principal = principal;
+            this.interest = interest;
+            this.fee = fee;
+            this.penalty = penalty;
+            this.overdueSince = overdueSince;
+        }
+
+        boolean isSameAs(final LoanArrears other) {
+            return this.principal.compareTo(other.principal) == 0 && this.interest.compareTo(other.interest) == 0
+                    && this.fee.compareTo(other.fee) == 0 && this.penalty.compareTo(other.penalty) == 0
+                    && this.overdueSince.equals(other.overdueSince);
+        }
+    }
+
+    private static final class LoanArrearsMapper implements RowMapper<LoanArrears> {
+
+        @Override
+        public LoanArrears mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final BigDecimal principal = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "principalOverdue");
+            final BigDecimal interest = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "interestOverdue");
+            final BigDecimal fee = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "feeOverdue");
+            final BigDecimal penalty = JdbcSupport.getBigDecimalDefaultToZeroIfNull(rs, "penaltyOverdue");
+            final LocalDate overdueSince = JdbcSupport.getLocalDate(rs, "overdueSince");
+            return new LoanArrears(principal, interest, fee, penalty, overdueSince);
+        }
+    }
+
     private static final class OriginalScheduleExtractor implements ResultSetExtractor<Map<Long, List<LoanSchedulePeriodData>>> {
 
         private final String schema;
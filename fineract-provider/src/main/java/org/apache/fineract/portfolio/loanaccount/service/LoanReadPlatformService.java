@@ -21,6 +21,7 @@ package org.apache.fineract.portfolio.loanaccount.service;
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 import org.apache.fineract.infrastructure.core.service.Page;
 import org.apache.fineract.infrastructure.core.service.SearchParameters;
@@ -109,6 +110,18 @@ public interface LoanReadPlatformService {
 
     Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
 
+    /**
+     * Periodic accrual data of the loans with identifiers between the given
+     * ones (inclusive), ordered by loan and due date.
+     */
+    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate, Long fromLoanId, Long toLoanId);
+
+    /**
+     * Identifiers of the loans that can have periodic accruals to post, in
+     * ascending order, for paging through them in partitions.
+     */
+    List<Long> retrievePeriodicAccrualLoanIdsAfter(LocalDate tillDate, Long lastLoanId, int limit);
+
     Collection<Long> fetchLoansForInterestRecalculation();
 
     LoanTransactionData retrieveLoanPrePaymentTemplate(Long loanId, LocalDate onDate);
@@ -261,8 +261,11 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final String hierarchy = currentUser.getOffice().getHierarchy();
         final String hierarchySearchString = hierarchy + "%";
 
+        final boolean keysetPaging = searchParameters.isKeysetPaging();
+        final Long cursorKey = searchParameters.getCursorKey();
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
+        sqlBuilder.append(PaginationHelper.selectClause(keysetPaging, searchParameters.getTotalCountMode()));
         sqlBuilder.append(this.loaanLoanMapper.loanSchema());
 
         // TODO - for time being this will data scope list of loans returned to
@@ -297,6 +300,17 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
             arrayPos = arrayPos + 1;
         }
 
+        if (keysetPaging) {
+            final boolean descending = searchParameters.isSortOrderDescending();
+            if (cursorKey != null) {
+                sqlBuilder.append(" and ").append(PaginationHelper.keysetPredicate("l.id", descending));
+                extraCriterias.add(cursorKey);
+            }
+            sqlBuilder.append(PaginationHelper.keysetOrderAndLimit("l.id", descending, searchParameters.getLimit()));
+            return this.paginationHelper.fetchKeysetPage(this.jdbcTemplate, sqlBuilder.toString(), extraCriterias.toArray(), "id",
+                    searchParameters.getLimit(), searchParameters.getTotalCountMode(), this.loaanLoanMapper);
+        }
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -316,7 +330,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final Object[] finalObjectArray = Arrays.copyOf(objectArray, arrayPos);
         final String sqlCountRows = "SELECT FOUND_ROWS()";
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray,
-                this.loaanLoanMapper);
+                this.loaanLoanMapper, searchParameters.getTotalCountMode());
     }
 
     @Override
@@ -1633,6 +1647,12 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
 
     @Override
     public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+        return retrivePeriodicAccrualData(tillDate, null, null);
+    }
+
+    @Override
+    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate, final Long fromLoanId,
+            final Long toLoanId) {
 
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
         Date organisationStartDate = this.configurationDomainService.retrieveOrganisationStartDate();
@@ -1648,17 +1668,31 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
                 .append(" and loan.is_npa=0 and (ls.duedate <= :tilldate or (ls.duedate > :tilldate and ls.fromdate < :tilldate))) ");
         if(organisationStartDate != null){
             sqlBuilder.append(" and ls.duedate > :organisationstartdate ");
+        }
+        if (fromLoanId != null) {
+            sqlBuilder.append(" and ls.loan_id between :fromloanid and :toloanid ");
         }
             sqlBuilder.append(" order by loan.id,ls.duedate ");
-        Map<String, Object> paramMap = new HashMap<>(4);
+        Map<String, Object> paramMap = new HashMap<>(6);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tilldate", formatter.print(tillDate));
         paramMap.put("organisationstartdate", formatter.print(new LocalDate(organisationStartDate)));
+        paramMap.put("fromloanid", fromLoanId);
+        paramMap.put("toloanid", toLoanId);
 
         return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
     }
 
+    @Override
+    public List<Long> retrievePeriodicAccrualLoanIdsAfter(final LocalDate tillDate, final Long lastLoanId, final int limit) {
+        final String sql = "select loan.id from m_loan loan join m_product_loan mpl on mpl.id = loan.product_id"
+                + " where loan.loan_status_id = ? and mpl.accounting_type = ? and loan.is_npa = 0"
+                + " and (loan.closedon_date <= ? or loan.closedon_date is null) and loan.id > ? order by loan.id limit ?";
+        return this.jdbcTemplate.queryForList(sql, Long.class, LoanStatus.ACTIVE.getValue(), AccountingRuleType.ACCRUAL_PERIODIC.getValue(),
+                formatter.print(tillDate), lastLoanId, limit);
+    }
+
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
 
         public String schema() {
@@ -567,8 +567,15 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final LocalDate nextPossibleRepaymentDate = null;
         final Date rescheduledRepaymentDate = null;
 
+        final List<Long> loanIds = new ArrayList<>();
+        for (final SingleDisbursalCommand singleLoanDisbursalCommand : disbursalCommand) {
+            loanIds.add(singleLoanDisbursalCommand.getLoanId());
+        }
+        preloadLoans(loanIds);
+
         for (int i = 0; i < disbursalCommand.length; i++) {
             final SingleDisbursalCommand singleLoanDisbursalCommand = disbursalCommand[i];
+            final long startTime = System.currentTimeMillis();
 
             final Loan loan = this.loanAssembler.assembleFrom(singleLoanDisbursalCommand.getLoanId());
             checkClientOrGroupActive(loan);
@@ -666,11 +673,30 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             this.loanAccountDomainService.recalculateAccruals(loan);
             this.businessEventNotifierService.notifyBusinessEventWasExecuted(BUSINESS_EVENTS.LOAN_DISBURSAL,
                     constructEntityMap(BUSINESS_ENTITY.LOAN, loan));
+            logBulkTransactionTiming("Disbursal", loan, startTime);
         }
 
         return changes;
     }
 
+    /**
+     * Loads the loans of a bulk transaction with one query ahead of
+     * processing them one by one. Each loan is then found in the persistence
+     * context, and its collections are fetched in batches of loans rather
+     * than per loan (see the BatchSize of the collections of {@link Loan}).
+     */
+    private void preloadLoans(final List<Long> loanIds) {
+        final List<Long> distinctLoanIds = new ArrayList<>();
+        for (final Long loanId : loanIds) {
+            if (loanId != null && !distinctLoanIds.contains(loanId)) {
+                distinctLoanIds.add(loanId);
+            }
+        }
+        if (distinctLoanIds.size() > 1) {
+            this.loanRepository.findAll(distinctLoanIds);
+        }
+    }
+
     @Transactional
     @Override
     public CommandProcessingResult undoLoanDisbursal(final Long loanId, final JsonCommand command) {
@@ -775,6 +801,13 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         HolidayDetailDTO holidayDetailDTO = null;
         Boolean isHolidayValidationDone = false;
         final boolean allowTransactionsOnHoliday = this.configurationDomainService.allowTransactionsOnHolidayEnabled();
+        final List<Long> loanIds = new ArrayList<>();
+        for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
+            if (singleLoanRepaymentCommand != null) {
+                loanIds.add(singleLoanRepaymentCommand.getLoanId());
+            }
+        }
+        preloadLoans(loanIds);
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
                 Loan loans = this.loanRepository.findOne(singleLoanRepaymentCommand.getLoanId());
@@ -797,6 +830,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         }
         for (final SingleRepaymentCommand singleLoanRepaymentCommand : repaymentCommand) {
             if (singleLoanRepaymentCommand != null) {
+                final long startTime = System.currentTimeMillis();
                 final Loan loan = this.loanAssembler.assembleFrom(singleLoanRepaymentCommand.getLoanId());
                 final PaymentDetail paymentDetail = singleLoanRepaymentCommand.getPaymentDetail();
                 if (paymentDetail != null && paymentDetail.getId() == null) {
@@ -808,12 +842,20 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                         bulkRepaymentCommand.getNote(), null, isRecoveryRepayment, isAccountTransfer, holidayDetailDTO,
                         isHolidayValidationDone);
                 transactionIds.add(loanTransaction.getId());
+                logBulkTransactionTiming("Repayment", loan, startTime);
             }
         }
         changes.put("loanTransactions", transactionIds);
         return changes;
     }
 
+    private static void logBulkTransactionTiming(final String transaction, final Loan loan, final long startTime) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(transaction + " of loan " + loan.getId() + " of client " + loan.getClientId() + " took "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+
     @Transactional
     @Override
     public CommandProcessingResult adjustLoanTransaction(final Long loanId, final Long transactionId, final JsonCommand command) {
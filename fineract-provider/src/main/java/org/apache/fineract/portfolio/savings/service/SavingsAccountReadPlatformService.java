@@ -58,6 +58,9 @@ public interface SavingsAccountReadPlatformService {
     List<Long> retrieveSavingsIdsPendingDormant(LocalDate tenantLocalDate);
 
     List<Long> retrieveSavingsIdsPendingEscheat(LocalDate tenantLocalDate);
+
+    List<Long> retrieveActiveSavingsAccountIdsAfter(Long lastProcessedId, int limit);
+
     boolean isAccountBelongsToClient(final Long clientId, final Long accountId, final DepositAccountType depositAccountType, final String currencyCode) ;
     
 }
\ No newline at end of file
@@ -1175,6 +1175,14 @@ public class SavingsAccountReadPlatformServiceImpl implements SavingsAccountRead
             throw new SavingsAccountNotFoundException(accountId);
         }
     }
+
+    @Override
+    public List<Long> retrieveActiveSavingsAccountIdsAfter(final Long lastProcessedId, final int limit) {
+        final String sql = "select sa.id from m_savings_account sa where sa.status_enum = ? and sa.id > ? order by sa.id limit ?";
+        return this.jdbcTemplate.queryForList(sql, Long.class, new Object[] { SavingsAccountStatusType.ACTIVE.getValue(),
+                lastProcessedId, limit });
+    }
+
     /*
      * private static final class SavingsAccountAnnualFeeMapper implements
      * RowMapper<SavingsAccountAnnualFeeData> {
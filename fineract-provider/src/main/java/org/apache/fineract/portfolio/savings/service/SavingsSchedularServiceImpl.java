@@ -24,10 +24,11 @@ import org.apache.fineract.infrastructure.core.service.DateUtils;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccount;
 import org.apache.fineract.portfolio.savings.domain.SavingsAccountAssembler;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
-import org.apache.fineract.portfolio.savings.domain.SavingsAccountStatusType;
 import org.joda.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,41 +38,42 @@ public class SavingsSchedularServiceImpl implements SavingsSchedularService {
 
     private final SavingsAccountAssembler savingAccountAssembler;
     private final SavingsAccountWritePlatformService savingsAccountWritePlatformService;
-    private final SavingsAccountRepository savingAccountRepository;
     private final SavingsAccountReadPlatformService savingAccountReadPlatformService;
+    private final PartitionedJobExecutor partitionedJobExecutor;
 
     @Autowired
     public SavingsSchedularServiceImpl(final SavingsAccountAssembler savingAccountAssembler,
             final SavingsAccountWritePlatformService savingsAccountWritePlatformService,
-            final SavingsAccountRepository savingAccountRepository,
-            final SavingsAccountReadPlatformService savingAccountReadPlatformService) {
+            final SavingsAccountReadPlatformService savingAccountReadPlatformService, final PartitionedJobExecutor partitionedJobExecutor) {
         this.savingAccountAssembler = savingAccountAssembler;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
-        this.savingAccountRepository = savingAccountRepository;
         this.savingAccountReadPlatformService = savingAccountReadPlatformService;
+        this.partitionedJobExecutor = partitionedJobExecutor;
     }
 
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
     public void postInterestForAccounts() throws JobExecutionException {
-        final List<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue());
-        StringBuffer sb = new StringBuffer();
-        for (final SavingsAccount savingsAccount : savingsAccounts) {
-            try {
-                this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
-                this.savingsAccountWritePlatformService.postInterest(savingsAccount);
-            } catch (Exception e) {
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to post interest for Savings with id " + savingsAccount.getId() + " with message "
-                        + realCause.getMessage());
+        this.partitionedJobExecutor.execute(JobName.POST_INTEREST_FOR_SAVINGS, new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                return SavingsSchedularServiceImpl.this.savingAccountReadPlatformService.retrieveActiveSavingsAccountIdsAfter(
+                        lastProcessedId, limit);
+            }
+        }, new JobPartitionTask() {
+
+            @Override
+            public void process(final Long savingsId) {
+                final SavingsAccount savingsAccount = SavingsSchedularServiceImpl.this.savingAccountAssembler.assembleFrom(savingsId);
+                SavingsSchedularServiceImpl.this.savingsAccountWritePlatformService.postInterest(savingsAccount);
+            }
+
+            @Override
+            public String failureMessage(final Long savingsId, final Throwable realCause) {
+                return "failed to post interest for Savings with id " + savingsId + " with message " + realCause.getMessage();
             }
-        }
-        
-        if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        });
     }
 
     @CronTarget(jobName = JobName.UPDATE_SAVINGS_DORMANT_ACCOUNTS)
@@ -55,7 +55,7 @@ public class SearchConstants {
     }
 
     public static enum SEARCH_SUPPORTED_PARAMETERS {
-        QUERY("query"), RESOURCE("resource"),EXACTMATCH("exactMatch");
+        QUERY("query"), RESOURCE("resource"),EXACTMATCH("exactMatch"), FUZZY("fuzzy");
 
         private final String value;
 
@@ -143,4 +143,22 @@ public class SearchConstants {
             return this.value;
         }
     }
+
+    /**
+     * State of the m_search_term index, searches fall back to the SQL
+     * matching unless it is current.
+     */
+    public static enum SEARCH_INDEX_STATUS {
+        NOT_BUILT(0), CURRENT(1), STALE(2);
+
+        private final Integer value;
+
+        private SEARCH_INDEX_STATUS(final Integer value) {
+            this.value = value;
+        }
+
+        public Integer getValue() {
+            return this.value;
+        }
+    }
 }
@@ -30,11 +30,17 @@ public class SearchConditions {
 	private final Boolean savingSeach;
     private final Boolean clientIdentifierSearch;
     private  Boolean exactMatch;
+    private final Boolean fuzzy;
 
     public SearchConditions(final String searchQueryParam, final String searchResource, Boolean exactMatch) {
+        this(searchQueryParam, searchResource, exactMatch, false);
+    }
+
+    public SearchConditions(final String searchQueryParam, final String searchResource, final Boolean exactMatch, final Boolean fuzzy) {
         this.searchQuery = searchQueryParam;
         this.searchResource = searchResource;
         this.exactMatch=exactMatch;
+        this.fuzzy = fuzzy;
         this.clientSearch = (null == searchResource || searchResource.toLowerCase().contains(
                 SEARCH_SUPPORTED_RESOURCES.CLIENTS.name().toLowerCase())) ? true : false;
         this.groupSearch = (null == searchResource || searchResource.toLowerCase().contains(
@@ -57,6 +63,7 @@ public class SearchConditions {
 		this.savingSeach = savingSeach;
         this.clientIdentifierSearch = clientIdentifierSearch;
         this.exactMatch=exactMatch;
+        this.fuzzy = false;
     }
 
     public String getSearchQuery() {
@@ -69,6 +76,14 @@ public class SearchConditions {
     public Boolean getExactMatch() {
     	return this.exactMatch;
     }
+
+    /**
+     * Names also match words that sound alike, only used when searching the
+     * index.
+     */
+    public boolean isFuzzy() {
+        return this.fuzzy != null && this.fuzzy;
+    }
     public Boolean isClientSearch() {
         return this.clientSearch;
     }
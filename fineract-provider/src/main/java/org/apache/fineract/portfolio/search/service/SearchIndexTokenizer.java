@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Splits searchable values into the terms stored in m_search_term. A value is
+ * indexed as a whole, for exact matching, and as the lower case words and
+ * numbers it contains, for prefix matching. Numbers are also indexed without
+ * their leading zeros so that account numbers can be found by their
+ * significant digits.
+ */
+final class SearchIndexTokenizer {
+
+    static final int MAX_TERM_LENGTH = 100;
+
+    static final Integer TERM_TYPE_WORD = 1;
+    static final Integer TERM_TYPE_PHONETIC = 2;
+    static final Integer TERM_TYPE_WHOLE_VALUE = 3;
+
+    private SearchIndexTokenizer() {
+        //
+    }
+
+    static String wholeValue(final String value) {
+        if (StringUtils.isBlank(value)) { return null; }
+        return truncate(value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    static Set<String> indexTerms(final String value) {
+        final Set<String> terms = new LinkedHashSet<>();
+        for (final String word : words(value)) {
+            terms.add(word);
+            if (StringUtils.isNumeric(word)) {
+                final String significantDigits = StringUtils.stripStart(word, "0");
+                if (!significantDigits.isEmpty()) {
+                    terms.add(significantDigits);
+                }
+            }
+        }
+        return terms;
+    }
+
+    static Set<String> queryTerms(final String query) {
+        return new LinkedHashSet<>(words(query));
+    }
+
+    /**
+     * @return words that are worth a phonetic comparison, those made of two or
+     *         more letters
+     */
+    static Set<String> phoneticCandidates(final String value) {
+        final Set<String> candidates = new LinkedHashSet<>();
+        for (final String word : words(value)) {
+            if (word.length() > 1 && StringUtils.isAlpha(word)) {
+                candidates.add(word);
+            }
+        }
+        return candidates;
+    }
+
+    private static List<String> words(final String value) {
+        final List<String> words = new ArrayList<>();
+        if (StringUtils.isBlank(value)) { return words; }
+
+        final String lowerCase = value.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length(); i++) {
+            final boolean wordCharacter = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                words.add(truncate(lowerCase.substring(start, i)));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String truncate(final String term) {
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+}
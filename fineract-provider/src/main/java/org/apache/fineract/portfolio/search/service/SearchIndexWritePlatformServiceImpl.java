@@ -0,0 +1,372 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.apache.fineract.portfolio.search.SearchConstants.SEARCH_INDEX_STATUS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains m_search_term, the inverted index behind the /search endpoint.
+ * Terms are owned by a client or a group: the owner, its identifiers and the
+ * loan and savings accounts held in its name are always rewritten together,
+ * which keeps the office hierarchy copied onto the terms in line after a
+ * transfer. Commands update the index once they have committed, so a failed
+ * index update never touches the command's own transaction.
+ */
+@Service
+public class SearchIndexWritePlatformServiceImpl implements SearchIndexWritePlatformService {
+
+    private final static Logger logger = LoggerFactory.getLogger(SearchIndexWritePlatformServiceImpl.class);
+
+    static final String OWNER_CLIENT = "CLIENT";
+    static final String OWNER_GROUP = "GROUP";
+
+    private static final int GROUP_REBUILD_CHUNK_SIZE = 500;
+
+    private static final Set<String> ACCOUNT_ENTITIES = new HashSet<>(Arrays.asList("LOAN", "SAVINGSACCOUNT", "FIXEDDEPOSITACCOUNT",
+            "RECURRINGDEPOSITACCOUNT"));
+    // other account commands do not change account numbers or external ids
+    private static final Set<String> ACCOUNT_ACTIONS = new HashSet<>(Arrays.asList("CREATE", "UPDATE", "DELETE"));
+
+    private static final String INSERT_TERM = "insert into m_search_term (owner_type, owner_id, entity_type, entity_id, office_hierarchy, term_type, term) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PHONETIC_TERM = "insert into m_search_term (owner_type, owner_id, entity_type, entity_id, office_hierarchy, term_type, term) values (?, ?, ?, ?, ?, ?, left(soundex(?), 100))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final JobCheckpointService jobCheckpointService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate indexTransactionTemplate;
+
+    @Autowired
+    public SearchIndexWritePlatformServiceImpl(final RoutingDataSource dataSource, final PartitionedJobExecutor partitionedJobExecutor,
+            final JobCheckpointService jobCheckpointService, final TransactionTemplate transactionTemplate) {
+        this(new JdbcTemplate(dataSource), partitionedJobExecutor, jobCheckpointService, transactionTemplate);
+    }
+
+    SearchIndexWritePlatformServiceImpl(final JdbcTemplate jdbcTemplate, final PartitionedJobExecutor partitionedJobExecutor,
+            final JobCheckpointService jobCheckpointService, final TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.jobCheckpointService = jobCheckpointService;
+        this.transactionTemplate = transactionTemplate;
+        // run from afterCommit, where the finished transaction is still bound
+        this.indexTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.indexTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void updateIndexFor(final String entityName, final String actionName, final CommandProcessingResult result) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    updateIndexInOwnTransaction(entityName, actionName, result);
+                }
+            });
+        } else {
+            updateIndexInOwnTransaction(entityName, actionName, result);
+        }
+    }
+
+    /*
+     * A failure here can only roll back the index update; the stale mark is
+     * written in a transaction of its own so that it survives that rollback.
+     */
+    private void updateIndexInOwnTransaction(final String entityName, final String actionName, final CommandProcessingResult result) {
+        try {
+            this.indexTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    updateIndex(entityName, actionName, result);
+                }
+            });
+        } catch (final RuntimeException e) {
+            logger.warn(ThreadLocalContextUtil.getTenant().getName() + ": search index not updated for " + actionName + " " + entityName
+                    + ", marking it stale", e);
+            try {
+                this.indexTransactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                    @Override
+                    protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                        markStale();
+                    }
+                });
+            } catch (final RuntimeException staleFailure) {
+                // the index may now be behind on this owner until the next
+                // rebuild
+                logger.error(ThreadLocalContextUtil.getTenant().getName() + ": could not mark the search index stale", staleFailure);
+            }
+        }
+    }
+
+    private void updateIndex(final String entityName, final String actionName, final CommandProcessingResult result) {
+        if ("CLIENT".equals(entityName)) {
+            reindexClient(result.getClientId() != null ? result.getClientId() : result.resourceId());
+        } else if ("CLIENTIDENTIFIER".equals(entityName)) {
+            reindexClient(result.getClientId());
+        } else if ("GROUP".equals(entityName) || "CENTER".equals(entityName)) {
+            reindexGroup(result.getGroupId() != null ? result.getGroupId() : result.resourceId());
+        } else if (ACCOUNT_ENTITIES.contains(entityName) && ACCOUNT_ACTIONS.contains(actionName)) {
+            if (result.getClientId() != null) {
+                reindexClient(result.getClientId());
+            } else if (result.getGroupId() != null) {
+                reindexGroup(result.getGroupId());
+            }
+        } else if ("OFFICE".equals(entityName) && result.hasChanges() && result.getChanges().containsKey("parentId")) {
+            // the hierarchy of every office below has changed, leave that to
+            // the next rebuild and search without the index until then
+            markStale();
+        }
+    }
+
+    /**
+     * Rewrites the terms of every group and client. Groups, far fewer than
+     * clients, are done first in chunks; clients are partitioned so that an
+     * interrupted run resumes where it stopped. The index is only marked
+     * current if it was not marked stale while the rebuild ran.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REBUILD_SEARCH_INDEX)
+    public void rebuildIndex() throws JobExecutionException {
+
+        final Date rebuildStartTime = this.jobCheckpointService.retrieveDatabaseTime();
+
+        this.jdbcTemplate.update("delete t from m_search_term t left join m_client c on c.id = t.owner_id"
+                + " where t.owner_type = ? and c.id is null", OWNER_CLIENT);
+        this.jdbcTemplate.update("delete t from m_search_term t left join m_group g on g.id = t.owner_id"
+                + " where t.owner_type = ? and g.id is null", OWNER_GROUP);
+
+        Long lastGroupId = Long.valueOf(0);
+        while (true) {
+            final List<Long> groupIds = this.jdbcTemplate.queryForList("select g.id from m_group g where g.id > ? order by g.id limit ?",
+                    Long.class, lastGroupId, GROUP_REBUILD_CHUNK_SIZE);
+            if (groupIds.isEmpty()) {
+                break;
+            }
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    for (final Long groupId : groupIds) {
+                        reindexGroup(groupId);
+                    }
+                }
+            });
+            lastGroupId = groupIds.get(groupIds.size() - 1);
+        }
+
+        this.partitionedJobExecutor.execute(JobName.REBUILD_SEARCH_INDEX, new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                final String sql = "select c.id from m_client c where c.id > ? order by c.id limit ?";
+                return SearchIndexWritePlatformServiceImpl.this.jdbcTemplate.queryForList(sql, Long.class, lastProcessedId, limit);
+            }
+        }, new JobPartitionTask() {
+
+            @Override
+            public void process(final Long clientId) {
+                reindexClient(clientId);
+            }
+
+            @Override
+            public String failureMessage(final Long clientId, final Throwable realCause) {
+                return "Failed to index client " + clientId + " with message " + realCause.getMessage();
+            }
+        });
+
+        final int updated = this.jdbcTemplate.update("update m_search_index_state set status_enum = ?, stale_since = null,"
+                + " rebuilt_on = now() where id = 1 and (stale_since is null or stale_since < ?)", SEARCH_INDEX_STATUS.CURRENT.getValue(),
+                rebuildStartTime);
+        if (updated == 0) {
+            logger.warn(ThreadLocalContextUtil.getTenant().getName()
+                    + ": search index was marked stale while it was rebuilt, it stays unused until the next rebuild");
+        }
+    }
+
+    private void markStale() {
+        this.jdbcTemplate.update("update m_search_index_state set stale_since = now(),"
+                + " status_enum = case when status_enum = ? then ? else status_enum end where id = 1",
+                SEARCH_INDEX_STATUS.CURRENT.getValue(), SEARCH_INDEX_STATUS.STALE.getValue());
+    }
+
+    private void reindexClient(final Long clientId) {
+        if (clientId == null) { return; }
+
+        this.jdbcTemplate.update("delete from m_search_term where owner_type = ? and owner_id = ?", OWNER_CLIENT, clientId);
+
+        final OwnerTerms terms = new OwnerTerms(OWNER_CLIENT, clientId);
+        final String clientSql = "select c.id, c.account_no, c.display_name, c.external_id, c.mobile_no, o.hierarchy"
+                + " from m_client c join m_office o on o.id = c.office_id where c.id = ?";
+        this.jdbcTemplate.query(clientSql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long id = rs.getLong("id");
+                terms.setOfficeHierarchy(rs.getString("hierarchy"));
+                terms.add("CLIENT", id, rs.getString("account_no"), false);
+                terms.add("CLIENT", id, rs.getString("display_name"), true);
+                terms.add("CLIENT", id, rs.getString("external_id"), false);
+                terms.add("CLIENT", id, rs.getString("mobile_no"), false);
+            }
+        }, clientId);
+        if (terms.isEmpty()) { return; }
+
+        final String identifierSql = "select ci.id, ci.document_key from m_client_identifier ci where ci.client_id = ?";
+        this.jdbcTemplate.query(identifierSql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                terms.add("CLIENTIDENTIFIER", rs.getLong("id"), rs.getString("document_key"), false);
+            }
+        }, clientId);
+
+        addAccounts(terms, "select l.id, l.account_no, l.external_id from m_loan l where l.client_id = ?", "LOAN", clientId);
+        addAccounts(terms, "select s.id, s.account_no, s.external_id from m_savings_account s where s.client_id = ?", "SAVING", clientId);
+
+        terms.insert(this.jdbcTemplate);
+    }
+
+    private void reindexGroup(final Long groupId) {
+        if (groupId == null) { return; }
+
+        this.jdbcTemplate.update("delete from m_search_term where owner_type = ? and owner_id = ?", OWNER_GROUP, groupId);
+
+        final OwnerTerms terms = new OwnerTerms(OWNER_GROUP, groupId);
+        final String groupSql = "select g.id, g.account_no, g.display_name, g.external_id, o.hierarchy"
+                + " from m_group g join m_office o on o.id = g.office_id where g.id = ?";
+        this.jdbcTemplate.query(groupSql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long id = rs.getLong("id");
+                terms.setOfficeHierarchy(rs.getString("hierarchy"));
+                terms.add("GROUP", id, rs.getString("account_no"), false);
+                terms.add("GROUP", id, rs.getString("display_name"), true);
+                terms.add("GROUP", id, rs.getString("external_id"), false);
+                terms.add("GROUP", id, String.valueOf(id), false);
+            }
+        }, groupId);
+        if (terms.isEmpty()) { return; }
+
+        // accounts of the group alone are not scoped by office, as in the SQL
+        // search
+        terms.setOfficeHierarchy(null);
+        addAccounts(terms, "select l.id, l.account_no, l.external_id from m_loan l where l.group_id = ? and l.client_id is null", "LOAN",
+                groupId);
+        addAccounts(terms, "select s.id, s.account_no, s.external_id from m_savings_account s where s.group_id = ? and s.client_id is null",
+                "SAVING", groupId);
+
+        terms.insert(this.jdbcTemplate);
+    }
+
+    private void addAccounts(final OwnerTerms terms, final String sql, final String entityType, final Long ownerId) {
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long id = rs.getLong("id");
+                terms.add(entityType, id, rs.getString("account_no"), false);
+                terms.add(entityType, id, rs.getString("external_id"), false);
+            }
+        }, ownerId);
+    }
+
+    private static final class OwnerTerms {
+
+        private final String ownerType;
+        private final Long ownerId;
+        private String officeHierarchy;
+        private final List<Object[]> terms = new ArrayList<>();
+        private final List<Object[]> phoneticTerms = new ArrayList<>();
+
+        OwnerTerms(final String ownerType, final Long ownerId) {
+            this.ownerType = ownerType;
+            this.ownerId = ownerId;
+        }
+
+        void setOfficeHierarchy(final String officeHierarchy) {
+            this.officeHierarchy = officeHierarchy;
+        }
+
+        void add(final String entityType, final Long entityId, final String value, final boolean phonetic) {
+            final String wholeValue = SearchIndexTokenizer.wholeValue(value);
+            if (wholeValue == null) { return; }
+
+            this.terms.add(row(entityType, entityId, SearchIndexTokenizer.TERM_TYPE_WHOLE_VALUE, wholeValue));
+            for (final String term : SearchIndexTokenizer.indexTerms(value)) {
+                this.terms.add(row(entityType, entityId, SearchIndexTokenizer.TERM_TYPE_WORD, term));
+            }
+            if (phonetic) {
+                for (final String word : SearchIndexTokenizer.phoneticCandidates(value)) {
+                    this.phoneticTerms.add(row(entityType, entityId, SearchIndexTokenizer.TERM_TYPE_PHONETIC, word));
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return this.terms.isEmpty();
+        }
+
+        void insert(final JdbcTemplate jdbcTemplate) {
+            if (!this.terms.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TERM, this.terms);
+            }
+            if (!this.phoneticTerms.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_PHONETIC_TERM, this.phoneticTerms);
+            }
+        }
+
+        private Object[] row(final String entityType, final Long entityId, final Integer termType, final String term) {
+            return new Object[] { this.ownerType, this.ownerId, entityType, entityId, this.officeHierarchy, termType, term };
+        }
+    }
+}
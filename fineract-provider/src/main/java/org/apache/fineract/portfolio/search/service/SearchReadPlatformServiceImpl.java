@@ -22,7 +22,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.infrastructure.core.data.EnumOptionData;
@@ -38,12 +44,14 @@ import org.apache.fineract.portfolio.loanproduct.data.LoanProductData;
 import org.apache.fineract.portfolio.loanproduct.service.LoanEnumerations;
 import org.apache.fineract.portfolio.loanproduct.service.LoanProductReadPlatformService;
 import org.apache.fineract.portfolio.search.SearchConstants;
+import org.apache.fineract.portfolio.search.SearchConstants.SEARCH_INDEX_STATUS;
 import org.apache.fineract.portfolio.search.data.AdHocQuerySearchConditions;
 import org.apache.fineract.portfolio.search.data.AdHocSearchQueryData;
 import org.apache.fineract.portfolio.search.data.SearchConditions;
 import org.apache.fineract.portfolio.search.data.SearchData;
 import org.apache.fineract.useradministration.domain.AppUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -52,6 +60,9 @@ import org.springframework.stereotype.Service;
 @Service
 public class SearchReadPlatformServiceImpl implements SearchReadPlatformService {
 
+    // upper bound of entities taken from the search index for one query
+    private static final int MAX_INDEX_MATCHES = 1000;
+
     private final NamedParameterJdbcTemplate namedParameterjdbcTemplate;
     private final PlatformSecurityContext context;
     private final LoanProductReadPlatformService loanProductReadPlatformService;
@@ -75,6 +86,21 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("hierarchy", hierarchy + "%");
+
+        if (isSearchIndexCurrent()) {
+            final Set<String> queryTerms = searchConditions.getExactMatch() ? wholeQuery(searchConditions.getSearchQuery())
+                    : SearchIndexTokenizer.queryTerms(searchConditions.getSearchQuery());
+            // a query without words or numbers is left to the SQL matching
+            if (!queryTerms.isEmpty()) {
+                final Map<String, List<Long>> matches = retrieveIndexMatches(searchConditions, queryTerms, params);
+                if (matches.isEmpty()) { return new ArrayList<>(); }
+                for (final Map.Entry<String, List<Long>> match : matches.entrySet()) {
+                    params.addValue(match.getKey(), match.getValue());
+                }
+                return this.namedParameterjdbcTemplate.query(rm.indexedSchema(matches.keySet()), params, rm);
+            }
+        }
+
         if(searchConditions.getExactMatch()){
        	 params.addValue("search", searchConditions.getSearchQuery());
        	}else{
@@ -83,62 +109,201 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
         return this.namedParameterjdbcTemplate.query(rm.searchSchema(searchConditions), params, rm);
     }
 
+    private boolean isSearchIndexCurrent() {
+        final String sql = "select s.status_enum from m_search_index_state s where s.id = 1";
+        final List<Integer> status = this.namedParameterjdbcTemplate.queryForList(sql, new MapSqlParameterSource(), Integer.class);
+        return !status.isEmpty() && SEARCH_INDEX_STATUS.CURRENT.getValue().equals(status.get(0));
+    }
+
+    private static Set<String> wholeQuery(final String query) {
+        final Set<String> terms = new HashSet<>();
+        final String wholeValue = SearchIndexTokenizer.wholeValue(query);
+        if (wholeValue != null) {
+            terms.add(wholeValue);
+        }
+        return terms;
+    }
+
+    /**
+     * Every query term has to match a term of the entity: a whole value for
+     * exact matches, otherwise the start of a word or, with fuzzy matching, a
+     * word that sounds the same.
+     * 
+     * @return matching entity ids by entity type
+     */
+    private Map<String, List<Long>> retrieveIndexMatches(final SearchConditions searchConditions, final Set<String> queryTerms,
+            final MapSqlParameterSource params) {
+
+        final List<String> entityTypes = new ArrayList<>();
+        if (searchConditions.isClientSearch()) {
+            entityTypes.add("CLIENT");
+        }
+        if (searchConditions.isLoanSeach()) {
+            entityTypes.add("LOAN");
+        }
+        if (searchConditions.isSavingSeach()) {
+            entityTypes.add("SAVING");
+        }
+        if (searchConditions.isClientIdentifierSearch()) {
+            entityTypes.add("CLIENTIDENTIFIER");
+        }
+        if (searchConditions.isGroupSearch()) {
+            entityTypes.add("GROUP");
+        }
+        final Map<String, List<Long>> matches = new HashMap<>();
+        if (entityTypes.isEmpty()) { return matches; }
+
+        params.addValue("entityTypes", entityTypes);
+        params.addValue("maxMatches", MAX_INDEX_MATCHES);
+
+        final List<String> termMatches = new ArrayList<>();
+        int termIndex = 0;
+        for (final String queryTerm : queryTerms) {
+            final String termParam = "term" + termIndex;
+            final StringBuilder termMatch = new StringBuilder(200);
+            termMatch.append("select t.entity_type as entityType, t.entity_id as entityId, ").append(termIndex).append(" as queryTerm");
+            termMatch.append(" from m_search_term t where t.entity_type in (:entityTypes)");
+            termMatch.append(" and (t.office_hierarchy is null or t.office_hierarchy like :hierarchy)");
+            if (searchConditions.getExactMatch()) {
+                termMatch.append(" and t.term_type = ").append(SearchIndexTokenizer.TERM_TYPE_WHOLE_VALUE).append(" and t.term = :")
+                        .append(termParam);
+                params.addValue(termParam, queryTerm);
+            } else {
+                termMatch.append(" and ((t.term_type = ").append(SearchIndexTokenizer.TERM_TYPE_WORD).append(" and t.term like :")
+                        .append(termParam).append(')');
+                params.addValue(termParam, queryTerm + "%");
+                if (searchConditions.isFuzzy() && !SearchIndexTokenizer.phoneticCandidates(queryTerm).isEmpty()) {
+                    final String phoneticParam = "phonetic" + termIndex;
+                    termMatch.append(" or (t.term_type = ").append(SearchIndexTokenizer.TERM_TYPE_PHONETIC)
+                            .append(" and t.term = left(soundex(:").append(phoneticParam).append("), 100))");
+                    params.addValue(phoneticParam, queryTerm);
+                }
+                termMatch.append(')');
+            }
+            termMatches.add(termMatch.toString());
+            termIndex++;
+        }
+
+        final String sql;
+        if (termMatches.size() == 1) {
+            sql = "select distinct m.entityType, m.entityId from (" + termMatches.get(0) + ") m limit :maxMatches";
+        } else {
+            params.addValue("queryTermCount", termMatches.size());
+            sql = "select m.entityType, m.entityId from (" + StringUtils.join(termMatches, " union all ")
+                    + ") m group by m.entityType, m.entityId having count(distinct m.queryTerm) = :queryTermCount limit :maxMatches";
+        }
+
+        this.namedParameterjdbcTemplate.query(sql, params, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final String entityType = rs.getString("entityType");
+                List<Long> entityIds = matches.get(entityType);
+                if (entityIds == null) {
+                    entityIds = new ArrayList<>();
+                    matches.put(entityType, entityIds);
+                }
+                entityIds.add(rs.getLong("entityId"));
+            }
+        });
+        return matches;
+    }
+
     private static final class SearchMapper implements RowMapper<SearchData> {
 
-        public String searchSchema(final SearchConditions searchConditions) {
+        private static final String CLIENT_SELECT = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
+                + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and ";
+
+        private static final String LOAN_SELECT = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and ";
+
+        private static final String SAVING_SELECT = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
+                + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
+                + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
+                + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and ";
 
-            final String union = " union ";
-            final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
-                    + " , c.office_id as parentId, o.name as parentName, c.mobile_no as entityMobileNo,c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
+        private static final String CLIENTIDENTIFIER_SELECT = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
+                + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
+                + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
+                + " where o.hierarchy like :hierarchy and ";
 
-            final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, l.loan_status_id as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_loan l left join m_client c on l.client_id = c.id left join m_group g ON l.group_id = g.id left join m_office o on o.id = c.office_id left join m_product_loan pl on pl.id=l.product_id where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (l.account_no like :search or l.external_id like :search)) ";
+        private static final String GROUP_SELECT = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
+                + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
+                + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and ";
 
+        private static final String UNION = " union ";
+
+        public String searchSchema(final SearchConditions searchConditions) {
 
-            final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo "
-                    + " , IFNULL(c.id,g.id) as parentId, IFNULL(c.display_name,g.display_name) as parentName, null as entityMobileNo, s.status_enum as entityStatusEnum, IF(g.id is null, 'client', 'group') as parentType "
-                    + " from m_savings_account s left join m_client c on s.client_id = c.id left join m_group g ON s.group_id = g.id left join m_office o on o.id = c.office_id left join m_savings_product sp on sp.id=s.product_id "
-                    + " where (o.hierarchy IS NULL OR o.hierarchy like :hierarchy) and (s.account_no like :search or s.external_id like :search)) ";
+            final String clientMatchSql = CLIENT_SELECT
+                    + "(c.account_no like :search or c.display_name like :search or c.external_id like :search or c.mobile_no like :search)) ";
+
+            final String loanMatchSql = LOAN_SELECT + "(l.account_no like :search or l.external_id like :search)) ";
+
+            final String savingMatchSql = SAVING_SELECT + "(s.account_no like :search or s.external_id like :search)) ";
             
-            final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
-                    + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName,null as entityMobileNo, c.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search ) ";
-            final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, g.account_no as entityAccountNo "
-                    + " , g.office_id as parentId, o.name as parentName, null as entityMobileNo, g.status_enum as entityStatusEnum, null as parentType "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
+            final String clientIdentifierMatchSql = CLIENTIDENTIFIER_SELECT + "ci.document_key like :search ) ";
+            final String groupMatchSql = GROUP_SELECT
+                    + "(g.account_no like :search or g.display_name like :search or g.external_id like :search or g.id like :search )) ";
             final StringBuffer sql = new StringBuffer();
 
             if (searchConditions.isClientSearch()) {
-                sql.append(clientMatchSql).append(union);
+                sql.append(clientMatchSql).append(UNION);
             }
 
             if (searchConditions.isLoanSeach()) {
-                sql.append(loanMatchSql).append(union);
+                sql.append(loanMatchSql).append(UNION);
             }
 
             if (searchConditions.isSavingSeach()) {
-                sql.append(savingMatchSql).append(union);
+                sql.append(savingMatchSql).append(UNION);
             }
 
             if (searchConditions.isClientIdentifierSearch()) {
-                sql.append(clientIdentifierMatchSql).append(union);
+                sql.append(clientIdentifierMatchSql).append(UNION);
             }
 
             if (searchConditions.isGroupSearch()) {
-                sql.append(groupMatchSql).append(union);
+                sql.append(groupMatchSql).append(UNION);
             }
 
             
 
-            sql.replace(sql.lastIndexOf(union), sql.length(), "");
+            sql.replace(sql.lastIndexOf(UNION), sql.length(), "");
 
             // remove last occurrence of "union all" string
             return sql.toString();
         }
 
+        /**
+         * Same rows as {@link #searchSchema(SearchConditions)} for the entities
+         * found in the search index, whose ids are bound to a parameter named
+         * after their entity type. The office hierarchy is checked again here
+         * as the index may not have caught up with a transfer yet.
+         */
+        public String indexedSchema(final Set<String> matchedEntityTypes) {
+            final StringBuilder sql = new StringBuilder();
+            if (matchedEntityTypes.contains("CLIENT")) {
+                sql.append(CLIENT_SELECT).append("c.id in (:CLIENT)) ").append(UNION);
+            }
+            if (matchedEntityTypes.contains("LOAN")) {
+                sql.append(LOAN_SELECT).append("l.id in (:LOAN)) ").append(UNION);
+            }
+            if (matchedEntityTypes.contains("SAVING")) {
+                sql.append(SAVING_SELECT).append("s.id in (:SAVING)) ").append(UNION);
+            }
+            if (matchedEntityTypes.contains("CLIENTIDENTIFIER")) {
+                sql.append(CLIENTIDENTIFIER_SELECT).append("ci.id in (:CLIENTIDENTIFIER)) ").append(UNION);
+            }
+            if (matchedEntityTypes.contains("GROUP")) {
+                sql.append(GROUP_SELECT).append("g.id in (:GROUP)) ").append(UNION);
+            }
+            sql.replace(sql.lastIndexOf(UNION), sql.length(), "");
+            return sql.toString();
+        }
+
         @Override
         public SearchData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
             final Long entityId = JdbcSupport.getLong(rs, "entityId");
@@ -47,8 +47,9 @@ public class SelfAuthenticationApiResource {
 	@POST
 	@Produces({ MediaType.APPLICATION_JSON })
 	public String authenticate(@QueryParam("username") final String username,
-			@QueryParam("password") final String password) {
-		return this.authenticationApiResource.authenticate(username, password);
+			@QueryParam("password") final String password,
+			@QueryParam("sessionToken") final boolean sessionTokenRequested) {
+		return this.authenticationApiResource.authenticate(username, password, sessionTokenRequested);
 	}
 
 }
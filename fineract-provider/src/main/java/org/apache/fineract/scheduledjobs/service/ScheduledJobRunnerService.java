@@ -22,7 +22,9 @@ import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
 
 public interface ScheduledJobRunnerService {
 
-    void updateLoanSummaryDetails();
+    void updateLoanSummaryDetails() throws JobExecutionException;
+
+    void repairLoanSummaryDetails() throws JobExecutionException;
 
     void updateLoanPaidInAdvance();
 
@@ -28,11 +28,17 @@ import java.util.Map;
 import org.apache.fineract.infrastructure.core.data.ApiParameterError;
 import org.apache.fineract.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.apache.fineract.infrastructure.core.service.DateUtils;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
 import org.apache.fineract.infrastructure.core.service.RoutingDataSourceServiceFactory;
 import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
 import org.apache.fineract.infrastructure.jobs.annotation.CronTarget;
 import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.CollectedJobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
 import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
 import org.apache.fineract.portfolio.savings.DepositAccountType;
 import org.apache.fineract.portfolio.savings.DepositAccountUtils;
 import org.apache.fineract.portfolio.savings.data.DepositAccountData;
@@ -43,6 +49,7 @@ import org.apache.fineract.portfolio.savings.service.SavingsAccountChargeReadPla
 import org.apache.fineract.portfolio.savings.service.SavingsAccountWritePlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountDividendReadPlatformService;
 import org.apache.fineract.portfolio.shareaccounts.service.ShareAccountSchedularService;
+import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -67,6 +74,15 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final DepositAccountWritePlatformService depositAccountWritePlatformService;
     private final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService;
     private final ShareAccountSchedularService shareAccountSchedularService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionedJobExecutor partitionedJobExecutor;
+    private final JobCheckpointService jobCheckpointService;
+
+    /**
+     * Changes are looked up from this many minutes before the start of the
+     * last run, to cover transactions that were still open when it started.
+     */
+    private static final int LOAN_SUMMARY_CHANGE_OVERLAP_MINUTES = 10;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
@@ -75,7 +91,8 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountReadPlatformService depositAccountReadPlatformService,
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ShareAccountDividendReadPlatformService shareAccountDividendReadPlatformService,
-            final ShareAccountSchedularService shareAccountSchedularService) {
+            final ShareAccountSchedularService shareAccountSchedularService, final RoutingDataSource dataSource,
+            final PartitionedJobExecutor partitionedJobExecutor, final JobCheckpointService jobCheckpointService) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -83,14 +100,97 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.depositAccountWritePlatformService = depositAccountWritePlatformService;
         this.shareAccountDividendReadPlatformService = shareAccountDividendReadPlatformService;
         this.shareAccountSchedularService = shareAccountSchedularService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.partitionedJobExecutor = partitionedJobExecutor;
+        this.jobCheckpointService = jobCheckpointService;
     }
 
-    @Transactional
+    /**
+     * Recomputes the derived summary columns of the loans whose schedule,
+     * transactions or charges changed since the last run. The first run, with
+     * nothing to compare against, recomputes every disbursed loan.
+     * 
+     * A run that resumes an interrupted run of the same day keeps the start
+     * of the interrupted run as its watermark, so loans changed between the
+     * two attempts behind the resume point are picked up next time.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
-    public void updateLoanSummaryDetails() {
+    public void updateLoanSummaryDetails() throws JobExecutionException {
+
+        final Date runStartTime = this.jobCheckpointService.startIncrementalRun(JobName.UPDATE_LOAN_SUMMARY,
+                DateUtils.getLocalDateOfTenant());
+        final Date watermark = this.jobCheckpointService.retrieveChangeWatermark(JobName.UPDATE_LOAN_SUMMARY);
+        if (watermark == null) {
+            recomputeLoanSummaries(JobName.UPDATE_LOAN_SUMMARY, disbursedLoanSource());
+        } else {
+            final Date changedSince = new DateTime(watermark).minusMinutes(LOAN_SUMMARY_CHANGE_OVERLAP_MINUTES).toDate();
+            recomputeLoanSummaries(JobName.UPDATE_LOAN_SUMMARY, changedLoanSource(changedSince));
+        }
+        this.jobCheckpointService.updateChangeWatermark(JobName.UPDATE_LOAN_SUMMARY, runStartTime);
+    }
 
-        final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+    /**
+     * Recomputes the derived summary columns of every disbursed loan, to
+     * verify and repair the result of the incremental
+     * {@link #updateLoanSummaryDetails()}.
+     */
+    @Override
+    @CronTarget(jobName = JobName.REPAIR_LOAN_SUMMARY)
+    public void repairLoanSummaryDetails() throws JobExecutionException {
+        recomputeLoanSummaries(JobName.REPAIR_LOAN_SUMMARY, disbursedLoanSource());
+    }
+
+    private void recomputeLoanSummaries(final JobName jobName, final JobPartitionSource loanSource) throws JobExecutionException {
+
+        final String updateSql = loanSummaryUpdateSql();
+        this.partitionedJobExecutor.execute(jobName, loanSource, new JobPartitionTask() {
+
+            @Override
+            public void process(final Long loanId) {
+                ScheduledJobRunnerServiceImpl.this.jdbcTemplate.update(updateSql, loanId);
+            }
+
+            @Override
+            public String failureMessage(final Long loanId, final Throwable realCause) {
+                return "Failed to update summary of loan " + loanId + " with message " + realCause.getMessage();
+            }
+        });
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": " + jobName + " completed");
+    }
+
+    private JobPartitionSource disbursedLoanSource() {
+        return new JobPartitionSource() {
+
+            @Override
+            public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+                final String sql = "select ml.id from m_loan ml where ml.disbursedon_date is not null and ml.id > ? order by ml.id limit ?";
+                return ScheduledJobRunnerServiceImpl.this.jdbcTemplate.queryForList(sql, Long.class, lastProcessedId, limit);
+            }
+        };
+    }
+
+    private JobPartitionSource changedLoanSource(final Date changedSince) {
+        return new CollectedJobPartitionSource() {
+
+            @Override
+            protected Collection<Long> collectIds() {
+                final StringBuilder sqlBuilder = new StringBuilder(300);
+                sqlBuilder.append("select mr.loan_id from m_loan_repayment_schedule mr where mr.changed_on >= ? ");
+                sqlBuilder.append("union select lt.loan_id from m_loan_transaction lt where lt.changed_on >= ? ");
+                sqlBuilder.append("union select lc.loan_id from m_loan_charge lc where lc.changed_on >= ?");
+                return ScheduledJobRunnerServiceImpl.this.jdbcTemplate.queryForList(sqlBuilder.toString(), Long.class, changedSince,
+                        changedSince, changedSince);
+            }
+        };
+    }
+
+    /**
+     * @return update of the derived summary columns of the loan given as the
+     *         only parameter
+     */
+    private String loanSummaryUpdateSql() {
 
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
@@ -115,7 +215,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append("SUM(IFNULL(mr.penalty_charges_writtenoff_derived,0)) as penalty_charges_writtenoff_derived ");
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        updateSqlBuilder.append("WHERE ml.disbursedon_date is not null and ml.id = ? ");
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -163,9 +263,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder
                 .append(" (x.penalty_charges_charged_derived - (x.penalty_charges_repaid_derived + x.penalty_charges_waived_derived + x.penalty_charges_writtenoff_derived))");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
     @Transactional
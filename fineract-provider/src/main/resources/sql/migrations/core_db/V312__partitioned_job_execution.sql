@@ -0,0 +1,15 @@
+ALTER TABLE `job_run_history`
+	ADD COLUMN `run_statistics` MEDIUMTEXT NULL DEFAULT NULL AFTER `error_log`;
+
+CREATE TABLE `job_run_checkpoint` (
+	`job_name` VARCHAR(100) NOT NULL,
+	`run_date` DATE NOT NULL,
+	`last_processed_id` BIGINT(20) NOT NULL,
+	`updated_on` DATETIME NOT NULL,
+	PRIMARY KEY (`job_name`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('job-worker-threads', 4, NULL, 0, 0, 'Number of worker threads used by partitioned batch jobs, jobs run on a single thread when disabled');
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('job-partition-size', 500, NULL, 1, 0, 'Number of accounts processed per partition (and per transaction) by partitioned batch jobs');
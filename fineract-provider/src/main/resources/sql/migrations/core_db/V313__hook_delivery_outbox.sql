@@ -0,0 +1,37 @@
+CREATE TABLE `m_hook_delivery` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`hook_id` BIGINT(20) NOT NULL,
+	`entity_name` VARCHAR(45) NOT NULL,
+	`action_name` VARCHAR(45) NOT NULL,
+	`payload` MEDIUMTEXT NOT NULL,
+	`status_enum` SMALLINT(5) NOT NULL,
+	`attempts` INT(11) NOT NULL DEFAULT '0',
+	`next_attempt_time` DATETIME NOT NULL,
+	`last_error` VARCHAR(500) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	`delivered_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IND_m_hook_delivery_status_next_attempt` (`status_enum`, `next_attempt_time`),
+	CONSTRAINT `FK_m_hook_delivery_m_hook` FOREIGN KEY (`hook_id`) REFERENCES `m_hook` (`id`) ON DELETE CASCADE
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+CREATE TABLE `m_hook_delivery_dead_letter` (
+	`id` BIGINT(20) NOT NULL,
+	`hook_id` BIGINT(20) NOT NULL,
+	`entity_name` VARCHAR(45) NOT NULL,
+	`action_name` VARCHAR(45) NOT NULL,
+	`payload` MEDIUMTEXT NOT NULL,
+	`attempts` INT(11) NOT NULL,
+	`last_error` VARCHAR(500) NULL DEFAULT NULL,
+	`created_date` DATETIME NOT NULL,
+	`dead_lettered_date` DATETIME NOT NULL,
+	PRIMARY KEY (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('webhook-batch-size', 20, NULL, 0, 0, 'Maximum number of events sent in one POST to a webhook with json content type, events are sent one per request when disabled');
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Deliver Web Hooks', 'Deliver Web Hooks', '0 0/5 * 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 1, 0, 1, 0, 0);
@@ -0,0 +1,24 @@
+-- changed_on is maintained by the database on every insert and update, so
+-- incremental jobs can find the loans changed since their last run without
+-- depending on application or tenant clocks
+ALTER TABLE `m_loan_repayment_schedule`
+	ADD COLUMN `changed_on` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+	ADD INDEX `IND_m_loan_repayment_schedule_changed_on` (`changed_on`);
+
+ALTER TABLE `m_loan_transaction`
+	ADD COLUMN `changed_on` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+	ADD INDEX `IND_m_loan_transaction_changed_on` (`changed_on`);
+
+ALTER TABLE `m_loan_charge`
+	ADD COLUMN `changed_on` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+	ADD INDEX `IND_m_loan_charge_changed_on` (`changed_on`);
+
+CREATE TABLE `job_change_watermark` (
+	`job_name` VARCHAR(100) NOT NULL,
+	`changed_since` DATETIME NOT NULL,
+	PRIMARY KEY (`job_name`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Repair Loan Summary', 'Repair Loan Summary', '0 0 2 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
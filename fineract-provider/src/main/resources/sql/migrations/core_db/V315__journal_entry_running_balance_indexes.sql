@@ -0,0 +1,7 @@
+-- the running balance update walks the entries of one GL account (or of one
+-- account within an office) in (entry_date, id) order, starting from the
+-- first entry whose running balance is not yet calculated
+ALTER TABLE `acc_gl_journal_entry`
+	ADD INDEX `IND_acc_gl_journal_entry_account_date` (`account_id`, `entry_date`),
+	ADD INDEX `IND_acc_gl_journal_entry_office_account_date` (`office_id`, `account_id`, `entry_date`),
+	ADD INDEX `IND_acc_gl_journal_entry_running_balance` (`is_running_balance_calculated`, `account_id`, `entry_date`);
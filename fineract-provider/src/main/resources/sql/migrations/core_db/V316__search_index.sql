@@ -0,0 +1,31 @@
+-- terms are rewritten per owner (a client or a group together with its
+-- identifiers, loans and savings accounts) so each entity is indexed once
+CREATE TABLE `m_search_term` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`owner_type` VARCHAR(10) NOT NULL,
+	`owner_id` BIGINT(20) NOT NULL,
+	`entity_type` VARCHAR(20) NOT NULL,
+	`entity_id` BIGINT(20) NOT NULL,
+	`office_hierarchy` VARCHAR(100) NULL DEFAULT NULL,
+	`term_type` SMALLINT(5) NOT NULL,
+	`term` VARCHAR(100) NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `IND_m_search_term_term` (`term_type`, `term`),
+	INDEX `IND_m_search_term_owner` (`owner_type`, `owner_id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+CREATE TABLE `m_search_index_state` (
+	`id` BIGINT(20) NOT NULL,
+	`status_enum` SMALLINT(5) NOT NULL,
+	`stale_since` DATETIME NULL DEFAULT NULL,
+	`rebuilt_on` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `m_search_index_state` (`id`, `status_enum`, `stale_since`, `rebuilt_on`) VALUES (1, 0, NULL, NULL);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Rebuild Search Index', 'Rebuild Search Index', '0 0 3 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
@@ -0,0 +1,11 @@
+CREATE TABLE `m_collection_sheet_version` (
+	`center_id` BIGINT(20) NOT NULL,
+	`version` BIGINT(20) NOT NULL DEFAULT '1',
+	PRIMARY KEY (`center_id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Precompute Collection Sheets', 'Precompute Collection Sheets', '0 30 5 1/1 * ? *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('collection-sheet-precompute-meeting-dates', 2, NULL, 0, 0, 'Number of upcoming meeting dates per center for which the Precompute Collection Sheets job builds collection sheets, only the next meeting is precomputed when disabled');
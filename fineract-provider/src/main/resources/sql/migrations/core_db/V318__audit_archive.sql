@@ -0,0 +1,40 @@
+CREATE TABLE `m_portfolio_command_source_archive` (
+	`id` BIGINT(20) NOT NULL,
+	`action_name` VARCHAR(50) NOT NULL,
+	`entity_name` VARCHAR(50) NOT NULL,
+	`office_id` BIGINT(20) NULL DEFAULT NULL,
+	`group_id` BIGINT(20) NULL DEFAULT NULL,
+	`client_id` BIGINT(20) NULL DEFAULT NULL,
+	`loan_id` BIGINT(20) NULL DEFAULT NULL,
+	`savings_account_id` BIGINT(20) NULL DEFAULT NULL,
+	`api_get_url` VARCHAR(100) NOT NULL,
+	`resource_id` BIGINT(20) NULL DEFAULT NULL,
+	`subresource_id` BIGINT(20) NULL DEFAULT NULL,
+	`command_as_json` TEXT NOT NULL,
+	`maker_id` BIGINT(20) NOT NULL,
+	`made_on_date` DATETIME NOT NULL,
+	`checker_id` BIGINT(20) NULL DEFAULT NULL,
+	`checked_on_date` DATETIME NULL DEFAULT NULL,
+	`processing_result_enum` SMALLINT(5) NOT NULL,
+	`product_id` BIGINT(20) NULL DEFAULT NULL,
+	`transaction_id` VARCHAR(100) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`, `made_on_date`),
+	INDEX `made_on_date` (`made_on_date`),
+	INDEX `action_name` (`action_name`),
+	INDEX `entity_name` (`entity_name`, `resource_id`),
+	INDEX `maker_id` (`maker_id`),
+	INDEX `office_id` (`office_id`),
+	INDEX `client_id` (`client_id`),
+	INDEX `loan_id` (`loan_id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB
+ROW_FORMAT=COMPRESSED
+PARTITION BY RANGE (TO_DAYS(`made_on_date`)) (
+	PARTITION `p_initial` VALUES LESS THAN (TO_DAYS('2010-01-01')),
+	PARTITION `p_future` VALUES LESS THAN MAXVALUE
+);
+
+INSERT INTO `job` (`name`, `display_name`, `cron_expression`, `create_time`, `task_priority`, `group_name`, `previous_run_start_time`, `next_run_time`, `job_key`, `initializing_errorlog`, `is_active`, `currently_running`, `updates_allowed`, `scheduler_group`, `is_misfired`) VALUES ('Archive Audit Entries', 'Archive Audit Entries', '0 0 3 ? * SUN *', now(), 5, NULL, NULL, NULL, NULL, NULL, 0, 0, 1, 0, 0);
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('audit-archive-after-days', 365, NULL, 0, 0, 'Age in days after which processed audit entries are moved to the archive by the Archive Audit Entries job, 365 days when disabled');
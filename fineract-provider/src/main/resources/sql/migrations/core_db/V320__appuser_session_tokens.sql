@@ -0,0 +1,15 @@
+CREATE TABLE `m_appuser_session_token` (
+	`token_hash` CHAR(64) NOT NULL,
+	`appuser_id` BIGINT(20) NOT NULL,
+	`created_date` DATETIME NOT NULL,
+	`expires_on` DATETIME NOT NULL,
+	PRIMARY KEY (`token_hash`),
+	INDEX `FK_m_appuser_session_token_appuser` (`appuser_id`),
+	CONSTRAINT `FK_m_appuser_session_token_appuser` FOREIGN KEY (`appuser_id`) REFERENCES `m_appuser` (`id`)
+)
+COLLATE='utf8_general_ci'
+ENGINE=InnoDB;
+
+INSERT INTO `c_configuration` (`name`, `value`, `date_value`, `enabled`, `is_trap_door`, `description`) VALUES ('session-token-validity-minutes', 480, NULL, 0, 0, 'Minutes a session token issued by POST /authentication?sessionToken=true stays valid, 480 minutes when disabled');
+
+INSERT INTO `m_permission` (`grouping`, `code`, `entity_name`, `action_name`, `can_maker_checker`) VALUES ('configuration', 'READ_AUTHENTICATIONMETRICS', 'AUTHENTICATIONMETRICS', 'READ', 0);
@@ -0,0 +1,5 @@
+-- start of the run in progress, kept while an interrupted run is resumed so
+-- that the watermark of the resumed run is the start of its first attempt
+ALTER TABLE `job_change_watermark`
+	MODIFY COLUMN `changed_since` DATETIME NULL DEFAULT NULL,
+	ADD COLUMN `run_started_on` DATETIME NULL DEFAULT NULL AFTER `changed_since`;
@@ -0,0 +1,6 @@
+-- a node claims the events it is about to deliver, so that events are not
+-- sent twice when several nodes run the delivery sweep
+ALTER TABLE `m_hook_delivery`
+	ADD COLUMN `claim_token` VARCHAR(36) NULL DEFAULT NULL AFTER `delivered_date`,
+	ADD COLUMN `claimed_until` DATETIME NULL DEFAULT NULL AFTER `claim_token`,
+	ADD INDEX `IND_m_hook_delivery_claim_token` (`claim_token`);
@@ -0,0 +1,7 @@
+-- optional read-replica connection per tenant; read-only requests are routed to it
+-- while its replication lag stays within replica_max_lag_seconds
+ALTER TABLE `tenants`
+  ADD COLUMN `replica_id` BIGINT(20) NULL DEFAULT NULL AFTER `report_id`,
+  ADD COLUMN `replica_max_lag_seconds` INT(5) NOT NULL DEFAULT '5' AFTER `replica_id`,
+  ADD INDEX `fk_replica_id` (`replica_id`),
+  ADD CONSTRAINT `fk_replica_id` FOREIGN KEY (`replica_id`) REFERENCES `tenant_server_connections` (`id`);
@@ -0,0 +1,4 @@
+-- dormant tenants: with auto_update on, upgrade the schema when the tenant is
+-- first accessed instead of during application startup
+ALTER TABLE `tenant_server_connections`
+  ADD COLUMN `auto_update_on_first_access` TINYINT(1) NOT NULL DEFAULT '0' AFTER `auto_update`;
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.fineract.accounting.glaccount.domain.GLAccount;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntry;
+import org.apache.fineract.accounting.journalentry.domain.JournalEntryType;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.organisation.office.domain.Office;
+import org.apache.fineract.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JournalEntryBatchWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JournalEntryBatchWriter journalEntryBatchWriter;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        final PlatformSecurityContext context = Mockito.mock(PlatformSecurityContext.class);
+        final AppUser user = Mockito.mock(AppUser.class);
+        Mockito.when(user.getId()).thenReturn(Long.valueOf(1));
+        Mockito.when(context.authenticatedUser()).thenReturn(user);
+        this.journalEntryBatchWriter = new JournalEntryBatchWriter(this.jdbcTemplate, context);
+    }
+
+    @After
+    public void tearDown() {
+        this.journalEntryBatchWriter.close();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldNotHoldBackEntriesOutsideOfABatch() {
+        assertFalse(this.journalEntryBatchWriter.holdBack(loanEntry(JournalEntryType.DEBIT)));
+        assertEquals(0, this.journalEntryBatchWriter.write());
+        Mockito.verifyZeroInteractions(this.jdbcTemplate);
+    }
+
+    @Test
+    public void shouldInsertTheHeldBackEntriesInOneBatch() {
+        this.journalEntryBatchWriter.open();
+        assertTrue(this.journalEntryBatchWriter.holdBack(loanEntry(JournalEntryType.DEBIT)));
+        assertTrue(this.journalEntryBatchWriter.holdBack(loanEntry(JournalEntryType.CREDIT)));
+
+        assertEquals(2, this.journalEntryBatchWriter.write());
+
+        final ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final ArgumentCaptor<List<Object[]>> params = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        Mockito.verify(this.jdbcTemplate).batchUpdate(sql.capture(), params.capture());
+        assertEquals(2, params.getValue().size());
+        final Object[] debit = params.getValue().get(0);
+        assertEquals(sql.getValue().replaceAll("[^?]", "").length(), debit.length);
+        assertEquals(Long.valueOf(7), debit[0]);
+        assertEquals("L21", debit[2]);
+        assertEquals(JournalEntryType.DEBIT.getValue(), debit[5]);
+        assertEquals(Long.valueOf(21), debit[12]);
+        assertEquals(JournalEntryType.CREDIT.getValue(), params.getValue().get(1)[5]);
+
+        // the batch is closed after writing
+        assertFalse(this.journalEntryBatchWriter.holdBack(loanEntry(JournalEntryType.DEBIT)));
+    }
+
+    @Test
+    public void closeShouldDropTheHeldBackEntries() {
+        this.journalEntryBatchWriter.open();
+        this.journalEntryBatchWriter.holdBack(loanEntry(JournalEntryType.DEBIT));
+
+        this.journalEntryBatchWriter.close();
+
+        assertEquals(0, this.journalEntryBatchWriter.write());
+        Mockito.verify(this.jdbcTemplate, Mockito.never()).batchUpdate(Matchers.anyString(), Matchers.anyListOf(Object[].class));
+    }
+
+    @Test
+    public void shouldRefuseToOpenASecondBatch() {
+        this.journalEntryBatchWriter.open();
+        try {
+            this.journalEntryBatchWriter.open();
+            fail("expected the nested batch to be refused");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static JournalEntry loanEntry(final JournalEntryType type) {
+        final GLAccount glAccount = Mockito.mock(GLAccount.class);
+        Mockito.when(glAccount.getId()).thenReturn(Long.valueOf(7));
+        final Office office = Mockito.mock(Office.class);
+        Mockito.when(office.getId()).thenReturn(Long.valueOf(1));
+        final LoanTransaction loanTransaction = LoanTransaction.incomePosting(null, office, new Date(), BigDecimal.TEN, BigDecimal.TEN,
+                BigDecimal.ZERO, BigDecimal.ZERO, null);
+        ReflectionTestUtils.setField(loanTransaction, "id", Long.valueOf(21));
+        return JournalEntry.createNew(office, null, glAccount, "USD", "L21", false, new Date(), type, BigDecimal.TEN, null,
+                PortfolioProductType.LOAN.getValue(), Long.valueOf(3), null, loanTransaction, null, null, null);
+    }
+}
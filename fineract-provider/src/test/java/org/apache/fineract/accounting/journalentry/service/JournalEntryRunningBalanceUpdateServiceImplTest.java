@@ -0,0 +1,267 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.accounting.journalentry.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
+import org.apache.fineract.infrastructure.jobs.service.JobRunStatisticsContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JournalEntryRunningBalanceUpdateServiceImplTest {
+
+    private static final long ASSET_ACCOUNT = 1L;
+    private static final long OTHER_ASSET_ACCOUNT = 2L;
+    private static final int DEBIT = 2;
+
+    private JournalEntryTable journalEntries;
+    private JournalEntryRunningBalanceUpdateServiceImpl service;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        final ConfigurationDomainService configurationDomainService = Mockito.mock(ConfigurationDomainService.class);
+        Mockito.when(configurationDomainService.retrieveJobWorkerThreads()).thenReturn(2);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        final PartitionedJobExecutor executor = new PartitionedJobExecutor(configurationDomainService,
+                Mockito.mock(JobCheckpointService.class), transactionTemplate);
+
+        this.journalEntries = new JournalEntryTable();
+        this.journalEntries.add(ASSET_ACCOUNT, 2500);
+        this.journalEntries.add(OTHER_ASSET_ACCOUNT, 10);
+        this.service = new JournalEntryRunningBalanceUpdateServiceImpl(this.journalEntries, transactionTemplate, null, null, null,
+                executor);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        JobRunStatisticsContextUtil.clearRunStatistics();
+    }
+
+    @Test
+    public void shouldResumeInterruptedRunFromLastCommittedPage() throws Exception {
+        // the connection is lost while the second page of the first account
+        // is written
+        this.journalEntries.failAtEntryId = 1001;
+        try {
+            this.service.updateRunningBalance();
+            fail("expected the failed account to be reported");
+        } catch (final JobExecutionException e) {
+            assertTrue(e.getMessage().contains("GL account " + ASSET_ACCOUNT));
+        }
+        assertEquals(1000, this.journalEntries.calculated(ASSET_ACCOUNT));
+        assertEquals(10, this.journalEntries.calculated(OTHER_ASSET_ACCOUNT));
+
+        this.journalEntries.failAtEntryId = 0;
+        this.journalEntries.batches = 0;
+        this.service.updateRunningBalance();
+
+        // only the two pages that were not committed are written again
+        assertEquals(2, this.journalEntries.batches);
+        assertEquals(2500, this.journalEntries.calculated(ASSET_ACCOUNT));
+        this.journalEntries.assertRunningBalances(ASSET_ACCOUNT);
+        this.journalEntries.assertRunningBalances(OTHER_ASSET_ACCOUNT);
+    }
+
+    @Test
+    public void shouldCommitEveryPageOfAnAccountSeparately() throws Exception {
+        this.service.updateRunningBalance();
+
+        // 3 pages for the first account and one for the other
+        assertEquals(4, this.journalEntries.batches);
+        this.journalEntries.assertRunningBalances(ASSET_ACCOUNT);
+        assertTrue(JobRunStatisticsContextUtil.getRunStatistics().startsWith("journal entries with running balances updated: 2510"));
+    }
+
+    private static final class Entry {
+
+        private final long id;
+        private final long accountId;
+        private final Date entryDate;
+        private boolean calculated;
+        private BigDecimal organizationRunningBalance;
+        private BigDecimal officeRunningBalance;
+
+        Entry(final long id, final long accountId, final Date entryDate) {
+            this.id = id;
+            this.accountId = accountId;
+            this.entryDate = entryDate;
+        }
+
+        boolean isAfter(final Object entryDate, final Object id) {
+            final int byDate = this.entryDate.compareTo((java.util.Date) entryDate);
+            return byDate > 0 || (byDate == 0 && this.id > ((Long) id).longValue());
+        }
+
+        boolean isBefore(final Object entryDate, final Object id) {
+            final int byDate = this.entryDate.compareTo((java.util.Date) entryDate);
+            return byDate < 0 || (byDate == 0 && this.id < ((Long) id).longValue());
+        }
+    }
+
+    /**
+     * Stands in for acc_gl_journal_entry: answers the statements of the
+     * running balance update, all entries are debits of 1 in office 1.
+     */
+    private static final class JournalEntryTable extends JdbcTemplate {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private long failAtEntryId;
+        private int batches;
+
+        void add(final long accountId, final int count) {
+            for (int i = 0; i < count; i++) {
+                // ten entries a day
+                this.entries.add(new Entry(this.entries.size() + 1, accountId, new Date(86400000L * (i / 10))));
+            }
+        }
+
+        synchronized int calculated(final long accountId) {
+            int calculated = 0;
+            for (final Entry entry : this.entries) {
+                if (entry.accountId == accountId && entry.calculated) {
+                    calculated++;
+                }
+            }
+            return calculated;
+        }
+
+        synchronized void assertRunningBalances(final long accountId) {
+            long expected = 0;
+            for (final Entry entry : this.entries) {
+                if (entry.accountId == accountId) {
+                    expected++;
+                    assertTrue(entry.calculated);
+                    assertEquals(BigDecimal.valueOf(expected), entry.organizationRunningBalance);
+                    assertEquals(BigDecimal.valueOf(expected), entry.officeRunningBalance);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public synchronized <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final List<T> result = new ArrayList<>();
+            if (sql.startsWith("select distinct je.account_id")) {
+                final TreeSet<Long> accountIds = new TreeSet<>();
+                for (final Entry entry : this.entries) {
+                    if (!entry.calculated && entry.accountId > (Long) args[0]) {
+                        accountIds.add(entry.accountId);
+                    }
+                }
+                for (final Long accountId : accountIds) {
+                    if (result.size() < (Integer) args[1]) {
+                        result.add((T) accountId);
+                    }
+                }
+                return result;
+            }
+            final boolean organization = sql.startsWith("select je.organization_running_balance");
+            final long accountId = (Long) (organization ? args[0] : args[1]);
+            Entry previous = null;
+            for (final Entry entry : this.entries) {
+                if (entry.accountId == accountId && entry.isBefore(args[args.length - 3], args[args.length - 1])) {
+                    previous = entry;
+                }
+            }
+            if (previous != null) {
+                result.add((T) (organization ? previous.organizationRunningBalance : previous.officeRunningBalance));
+            }
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T queryForObject(final String sql, final Class<T> requiredType, final Object... args) {
+            // classification_enum of an asset account
+            return (T) Integer.valueOf(1);
+        }
+
+        @Override
+        public synchronized <T> List<T> query(final String sql, final RowMapper<T> rowMapper, final Object... args) {
+            final long accountId = (Long) args[0];
+            final boolean firstEntry = sql.endsWith("limit 1");
+            final List<T> result = new ArrayList<>();
+            for (final Entry entry : this.entries) {
+                if (entry.accountId != accountId) {
+                    continue;
+                }
+                final boolean selected = firstEntry ? !entry.calculated : entry.isAfter(args[args.length - 3], args[args.length - 1]);
+                if (selected && result.size() < (firstEntry ? 1 : 1000)) {
+                    result.add(map(rowMapper, entry, result.size()));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(final String sql, final List<Object[]> batchArgs) {
+            assertFalse(batchArgs.isEmpty());
+            if (((Long) batchArgs.get(0)[2]).longValue() == this.failAtEntryId) { throw new DataAccessResourceFailureException(
+                    "connection lost"); }
+            this.batches++;
+            for (final Object[] args : batchArgs) {
+                final Entry entry = this.entries.get(((Long) args[2]).intValue() - 1);
+                entry.organizationRunningBalance = (BigDecimal) args[0];
+                entry.officeRunningBalance = (BigDecimal) args[1];
+                entry.calculated = true;
+            }
+            return new int[batchArgs.size()];
+        }
+
+        private static <T> T map(final RowMapper<T> rowMapper, final Entry entry, final int rowNum) {
+            try {
+                final ResultSet rs = Mockito.mock(ResultSet.class);
+                Mockito.when(rs.getDate("entryDate")).thenReturn(entry.entryDate);
+                Mockito.when(rs.getLong("id")).thenReturn(entry.id);
+                Mockito.when(rs.getLong("officeId")).thenReturn(1L);
+                Mockito.when(rs.getInt("entryType")).thenReturn(DEBIT);
+                Mockito.when(rs.getBigDecimal("amount")).thenReturn(BigDecimal.ONE);
+                return rowMapper.mapRow(rs, rowNum);
+            } catch (final SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
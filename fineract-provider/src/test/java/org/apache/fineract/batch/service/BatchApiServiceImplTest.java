@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.batch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.fineract.batch.command.CommandContext;
+import org.apache.fineract.batch.command.CommandStrategy;
+import org.apache.fineract.batch.command.CommandStrategyProvider;
+import org.apache.fineract.batch.domain.BatchRequest;
+import org.apache.fineract.batch.domain.BatchResponse;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class BatchApiServiceImplTest {
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    // Independent requests run on worker threads that see the tenant of the
+    // caller, and the responses come back ordered by requestId.
+    @Test
+    public void parallelBatchPropagatesTenantAndSortsResponses() {
+
+        final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null);
+        ThreadLocalContextUtil.setTenant(tenant);
+
+        final CommandStrategy strategy = new CommandStrategy() {
+
+            @Override
+            public BatchResponse execute(final BatchRequest batchRequest, @SuppressWarnings("unused") final UriInfo uriInfo) {
+                final BatchResponse response = new BatchResponse();
+                response.setRequestId(batchRequest.getRequestId());
+                response.setStatusCode(200);
+                response.setBody(ThreadLocalContextUtil.getTenant().getTenantIdentifier());
+                return response;
+            }
+        };
+        final CommandStrategyProvider strategyProvider = Mockito.mock(CommandStrategyProvider.class);
+        Mockito.when(strategyProvider.getCommandStrategy(Matchers.any(CommandContext.class))).thenReturn(strategy);
+
+        final BatchApiServiceImpl service = new BatchApiServiceImpl(strategyProvider, new ResolutionHelper(
+                Mockito.mock(FromJsonHelper.class)), Mockito.mock(TransactionTemplate.class));
+
+        final List<BatchRequest> requestList = new ArrayList<>();
+        for (final long requestId : new long[] { 5L, 2L, 4L, 1L, 3L }) {
+            requestList.add(new BatchRequest(requestId, "loans/1/transactions?command=repayment", "POST", null, null, "{}"));
+        }
+
+        try {
+            final List<BatchResponse> responses = service.handleBatchRequestsInParallel(requestList, Mockito.mock(UriInfo.class));
+
+            Assert.assertEquals(5, responses.size());
+            for (int i = 0; i < responses.size(); i++) {
+                Assert.assertEquals(Long.valueOf(i + 1), responses.get(i).getRequestId());
+                Assert.assertEquals("default", responses.get(i).getBody());
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.commands.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.fineract.commands.data.CommandTypeMetricsData;
+import org.apache.fineract.commands.service.CommandMetricsService.Phase;
+import org.apache.fineract.commands.service.CommandMetricsService.Timer;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CommandMetricsServiceImplTest {
+
+    private CommandMetricsServiceImpl service;
+
+    @Before
+    public void setUpService() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.service = new CommandMetricsServiceImpl(Mockito.mock(RoutingDataSource.class));
+    }
+
+    @After
+    public void clearTenant() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void countsEachOutcomeAndCommandsStillRunning() {
+        final Timer succeeded = this.service.start("LOAN", "REPAYMENT");
+        succeeded.phaseEnded(Phase.HANDLER);
+        succeeded.markSucceeded();
+        succeeded.stop();
+
+        final Timer awaitingApproval = this.service.start("LOAN", "REPAYMENT");
+        awaitingApproval.markAwaitingApproval();
+        awaitingApproval.stop();
+
+        this.service.start("LOAN", "REPAYMENT").stop();
+        this.service.start("LOAN", "DISBURSE");
+
+        final Map<String, CommandTypeMetricsData> metrics = metricsByAction();
+        final CommandTypeMetricsData repayment = metrics.get("REPAYMENT");
+        Assert.assertEquals(Long.valueOf(1), repayment.getProcessed());
+        Assert.assertEquals(Long.valueOf(1), repayment.getAwaitingApproval());
+        Assert.assertEquals(Long.valueOf(1), repayment.getFailed());
+        Assert.assertEquals(Long.valueOf(0), repayment.getInFlight());
+
+        final CommandTypeMetricsData disbursal = metrics.get("DISBURSE");
+        Assert.assertEquals(Long.valueOf(0), disbursal.getProcessed());
+        Assert.assertEquals(Long.valueOf(1), disbursal.getInFlight());
+    }
+
+    @Test
+    public void keepsTenantsApart() {
+        final Timer timer = this.service.start("CLIENT", "CREATE");
+        timer.markSucceeded();
+        timer.stop();
+
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+
+        Assert.assertTrue(this.service.retrieveCommandTypeMetrics().isEmpty());
+    }
+
+    private Map<String, CommandTypeMetricsData> metricsByAction() {
+        final Map<String, CommandTypeMetricsData> metrics = new HashMap<>();
+        for (final CommandTypeMetricsData command : this.service.retrieveCommandTypeMetrics()) {
+            metrics.put(command.getActionName(), command);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldCompareWithInclusiveBucketBoundsInNanos() {
+        assertEquals(0, LatencyHistogram.bucketOf(TimeUnit.MILLISECONDS.toNanos(5)));
+        assertEquals(1, LatencyHistogram.bucketOf(TimeUnit.MILLISECONDS.toNanos(5) + 1));
+        assertEquals(LatencyHistogram.bucketUpperBoundsMillis().length, LatencyHistogram.bucketOf(TimeUnit.SECONDS.toNanos(11)));
+    }
+
+    @Test
+    public void shouldSummarizeTheRecordedLatencies() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(40));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(60));
+
+        final long[] bucketCounts = histogram.bucketCounts();
+        assertArrayEquals(new long[] { 1, 0, 0, 1, 1, 0, 0, 0, 0, 0, 0, 0 }, bucketCounts);
+        assertEquals(3, histogram.count());
+        assertEquals(new BigDecimal("34.00"), histogram.meanMillis());
+        assertEquals(new BigDecimal("60.00"), histogram.maxMillis());
+        assertEquals(Long.valueOf(50), histogram.percentileMillis(bucketCounts, 50));
+        assertEquals(Long.valueOf(100), histogram.percentileMillis(bucketCounts, 99));
+    }
+
+    @Test
+    public void shouldAnswerThePercentileOfTheOpenBucketWithTheMaximum() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.SECONDS.toNanos(12));
+
+        assertEquals(Long.valueOf(12000), histogram.percentileMillis(histogram.bucketCounts(), 95));
+    }
+
+    @Test
+    public void shouldLeaveTheSummaryEmptyWithoutLatencies() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertNull(histogram.meanMillis());
+        assertNull(histogram.maxMillis());
+        assertNull(histogram.percentileMillis(histogram.bucketCounts(), 50));
+    }
+}
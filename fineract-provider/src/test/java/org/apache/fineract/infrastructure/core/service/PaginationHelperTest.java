@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.fineract.infrastructure.core.exception.UnrecognizedQueryParamException;
+import org.junit.Test;
+
+public class PaginationHelperTest {
+
+    @Test
+    public void cursorShouldCarryTheLastKey() {
+        final String cursor = PageCursor.encode(4711L);
+
+        assertFalse(cursor.contains("4711"));
+        assertEquals(Long.valueOf(4711L), PageCursor.decode(cursor));
+    }
+
+    @Test
+    public void emptyCursorShouldAskForTheFirstPage() {
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode(null));
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void shouldRejectCursorsNotHandedOut() {
+        PageCursor.decode("not-a-cursor");
+    }
+
+    @Test
+    public void totalCountShouldDefaultByPagingMode() {
+        assertEquals(TotalCountMode.EXACT, TotalCountMode.resolve(null, false));
+        assertEquals(TotalCountMode.NONE, TotalCountMode.resolve(null, true));
+        assertEquals(TotalCountMode.APPROXIMATE, TotalCountMode.resolve("Approximate", true));
+    }
+
+    @Test(expected = UnrecognizedQueryParamException.class)
+    public void shouldRejectExactTotalWithKeysetPaging() {
+        TotalCountMode.resolve("exact", true);
+    }
+
+    @Test
+    public void foundRowsShouldOnlyBeCalculatedForExactOffsetPaging() {
+        assertEquals("select SQL_CALC_FOUND_ROWS ", PaginationHelper.selectClause(false, TotalCountMode.EXACT));
+        assertEquals("select ", PaginationHelper.selectClause(false, TotalCountMode.NONE));
+        assertEquals("select ", PaginationHelper.selectClause(true, TotalCountMode.APPROXIMATE));
+    }
+
+    @Test
+    public void keysetPageShouldReadOneRowAheadInKeyOrder() {
+        assertEquals("c.id < ?", PaginationHelper.keysetPredicate("c.id", true));
+        assertEquals(" order by c.id asc limit 201", PaginationHelper.keysetOrderAndLimit("c.id", false, 200));
+        assertTrue(SearchParameters.forLoans(null, null, null, 50, null, "DESC", null).withPaging("", null).isSortOrderDescending());
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+public class ReadReplicaAwareJpaTransactionManagerTest {
+
+    private final List<Boolean> routingWhenBegun = new ArrayList<>();
+    private ReadReplicaAwareJpaTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+        final EntityTransaction entityTransaction = Mockito.mock(EntityTransaction.class);
+        Mockito.doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(@SuppressWarnings("unused") final InvocationOnMock invocation) {
+                ReadReplicaAwareJpaTransactionManagerTest.this.routingWhenBegun.add(ThreadLocalContextUtil.isReadReplicaRouting());
+                return null;
+            }
+        }).when(entityTransaction).begin();
+        final EntityManager entityManager = Mockito.mock(EntityManager.class);
+        Mockito.when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        final EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        Mockito.when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+
+        this.transactionManager = new ReadReplicaAwareJpaTransactionManager();
+        this.transactionManager.setEntityManagerFactory(entityManagerFactory);
+        ThreadLocalContextUtil.setReadReplicaRouting(true);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearReadReplicaRouting();
+    }
+
+    @Test
+    public void readWriteTransactionShouldBeginOnThePrimary() {
+        final TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        this.transactionManager.rollback(status);
+
+        assertEquals(Boolean.FALSE, this.routingWhenBegun.get(0));
+        assertTrue(ThreadLocalContextUtil.isReadReplicaRouting());
+    }
+
+    @Test
+    public void readOnlyTransactionShouldKeepTheReplicaHint() {
+        final DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        final TransactionStatus status = this.transactionManager.getTransaction(definition);
+        this.transactionManager.rollback(status);
+
+        assertEquals(Boolean.TRUE, this.routingWhenBegun.get(0));
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+public class TenantReadReplicaServiceTest {
+
+    private final FineractPlatformTenant tenant = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata",
+            new FineractPlatformTenantConnection(1L, "fineract_default", "localhost", "3306", "mifos", "password", false, 1, 30000,
+                    true, 60, true, 50, 10, 1, 5, 60, 34000, 60000, 0, 1, true));
+    private final DataSource replicaDataSource = Mockito.mock(DataSource.class);
+
+    private StubbedStatusService service;
+
+    @Before
+    public void setUp() throws Exception {
+        final ResultSet replicaRow = Mockito.mock(ResultSet.class);
+        Mockito.when(replicaRow.getLong("connectionId")).thenReturn(2L);
+        Mockito.when(replicaRow.getString("schemaName")).thenReturn("fineract_default");
+        Mockito.when(replicaRow.getInt("maxLagSeconds")).thenReturn(10);
+
+        final JdbcTemplate tenantStore = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(tenantStore.query(Matchers.anyString(), Matchers.any(RowMapper.class), Matchers.any(Object[].class))).thenAnswer(
+                new Answer<List<Object>>() {
+
+                    @Override
+                    public List<Object> answer(final InvocationOnMock invocation) throws Throwable {
+                        final RowMapper<?> mapper = (RowMapper<?>) invocation.getArguments()[1];
+                        final List<Object> rows = new ArrayList<>();
+                        rows.add(mapper.mapRow(replicaRow, 0));
+                        return rows;
+                    }
+                });
+        this.service = new StubbedStatusService(tenantStore);
+    }
+
+    @Test
+    public void replicaWithinAllowedLagShouldServeReads() {
+        this.service.status = slaveStatus(Long.valueOf(10));
+
+        assertNotNull(this.service.retrieveReplicaConnection(this.tenant));
+        assertTrue(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+    }
+
+    @Test
+    public void replicaBeyondAllowedLagShouldNotServeReads() {
+        this.service.status = slaveStatus(Long.valueOf(11));
+
+        assertFalse(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+    }
+
+    @Test
+    public void stoppedReplicationShouldNotServeReads() {
+        this.service.status = slaveStatus(null);
+
+        assertFalse(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+    }
+
+    @Test
+    public void serverThatIsNotReplicatingShouldNotServeReads() {
+        this.service.status = Collections.emptyList();
+
+        assertFalse(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+    }
+
+    @Test
+    public void unreadableReplicationStatusShouldNotServeReads() {
+        this.service.failure = new DataAccessResourceFailureException("Access denied; you need the REPLICATION CLIENT privilege");
+
+        assertFalse(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+    }
+
+    @Test
+    public void lagShouldBeCheckedAtMostOncePerInterval() {
+        this.service.status = slaveStatus(Long.valueOf(0));
+        assertTrue(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+
+        this.service.status = slaveStatus(Long.valueOf(3600));
+        assertTrue(this.service.isReplicaWithinLag(this.tenant, this.replicaDataSource));
+        assertEquals(1, this.service.statusReads);
+    }
+
+    @Test
+    public void replicaPointingAtThePrimaryShouldBeIgnored() {
+        final FineractPlatformTenant tenantOnConnectionTwo = new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata",
+                new FineractPlatformTenantConnection(2L, "fineract_default", "localhost", "3306", "mifos", "password", false, 1, 30000,
+                        true, 60, true, 50, 10, 1, 5, 60, 34000, 60000, 0, 1, true));
+
+        assertNull(this.service.retrieveReplicaConnection(tenantOnConnectionTwo));
+        assertFalse(this.service.isReplicaWithinLag(tenantOnConnectionTwo, this.replicaDataSource));
+    }
+
+    private static List<Map<String, Object>> slaveStatus(final Long secondsBehindMaster) {
+        final Map<String, Object> row = new HashMap<>();
+        row.put("Seconds_Behind_Master", secondsBehindMaster);
+        return Collections.singletonList(row);
+    }
+
+    private static final class StubbedStatusService extends TenantReadReplicaService {
+
+        private List<Map<String, Object>> status;
+        private RuntimeException failure;
+        private int statusReads;
+
+        StubbedStatusService(final JdbcTemplate tenantStore) {
+            super(tenantStore);
+        }
+
+        @Override
+        List<Map<String, Object>> retrieveReplicationStatus(@SuppressWarnings("unused") final DataSource replicaDataSource) {
+            this.statusReads++;
+            if (this.failure != null) { throw this.failure; }
+            return this.status;
+        }
+    }
+}
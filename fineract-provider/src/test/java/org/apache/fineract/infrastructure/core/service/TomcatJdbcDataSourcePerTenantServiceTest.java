@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.core.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import javax.sql.DataSource;
+
+import org.apache.fineract.infrastructure.core.boot.JDBCDriverConfig;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TomcatJdbcDataSourcePerTenantServiceTest {
+
+    private final TenantReadReplicaService readReplicaService = Mockito.mock(TenantReadReplicaService.class);
+    private TomcatJdbcDataSourcePerTenantService service;
+
+    @Before
+    public void setUp() throws Exception {
+        final JDBCDriverConfig driverConfig = Mockito.mock(JDBCDriverConfig.class);
+        Mockito.when(driverConfig.getDriverClassName()).thenReturn("com.mysql.jdbc.Driver");
+        Mockito.when(driverConfig.constructProtocol(Matchers.anyString(), Matchers.anyString(), Matchers.anyString())).thenReturn(
+                "jdbc:mysql://localhost:3306/test");
+
+        this.service = new TomcatJdbcDataSourcePerTenantService(Mockito.mock(DataSource.class), this.readReplicaService,
+                Mockito.mock(TenantDatabaseUpgradeService.class));
+        final Field field = TomcatJdbcDataSourcePerTenantService.class.getDeclaredField("driverConfig");
+        field.setAccessible(true);
+        field.set(this.service, driverConfig);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearReadReplicaRouting();
+        ThreadLocalContextUtil.clearTenant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    @Test
+    public void replicaOfOneTenantShouldNotShareThePoolOfAnotherTenantsPrimary() {
+        // connection 2 is tenant 1's replica and tenant 2's primary
+        final FineractPlatformTenant tenantWithReplica = tenant(1L, connection(1L));
+        final FineractPlatformTenant tenantOnReplicaServer = tenant(2L, connection(2L));
+        Mockito.when(this.readReplicaService.retrieveReplicaConnection(tenantWithReplica)).thenReturn(connection(2L));
+        Mockito.when(this.readReplicaService.isReplicaWithinLag(Matchers.eq(tenantWithReplica), Matchers.any(DataSource.class)))
+                .thenReturn(Boolean.TRUE);
+
+        ThreadLocalContextUtil.setTenant(tenantWithReplica);
+        ThreadLocalContextUtil.setReadReplicaRouting(true);
+        final DataSource replica = this.service.retrieveDataSource();
+
+        ThreadLocalContextUtil.setTenant(tenantOnReplicaServer);
+        ThreadLocalContextUtil.setReadReplicaRouting(false);
+        final DataSource primary = this.service.retrieveDataSource();
+
+        assertNotSame(replica, primary);
+        assertTrue(isDefaultReadOnly(replica));
+        assertFalse(isDefaultReadOnly(primary));
+    }
+
+    @Test
+    public void readWriteTransactionShouldStayOnThePrimary() {
+        final FineractPlatformTenant tenant = tenant(1L, connection(1L));
+        Mockito.when(this.readReplicaService.retrieveReplicaConnection(tenant)).thenReturn(connection(2L));
+        Mockito.when(this.readReplicaService.isReplicaWithinLag(Matchers.eq(tenant), Matchers.any(DataSource.class))).thenReturn(
+                Boolean.TRUE);
+        ThreadLocalContextUtil.setTenant(tenant);
+        ThreadLocalContextUtil.setReadReplicaRouting(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        final DataSource inReadWriteTransaction = this.service.retrieveDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        final DataSource inReadOnlyTransaction = this.service.retrieveDataSource();
+
+        assertFalse(isDefaultReadOnly(inReadWriteTransaction));
+        assertTrue(isDefaultReadOnly(inReadOnlyTransaction));
+    }
+
+    @Test
+    public void laggingReplicaShouldFallBackToThePrimary() {
+        final FineractPlatformTenant tenant = tenant(1L, connection(1L));
+        Mockito.when(this.readReplicaService.retrieveReplicaConnection(tenant)).thenReturn(connection(2L));
+        Mockito.when(this.readReplicaService.isReplicaWithinLag(Matchers.eq(tenant), Matchers.any(DataSource.class))).thenReturn(
+                Boolean.FALSE);
+        ThreadLocalContextUtil.setTenant(tenant);
+        ThreadLocalContextUtil.setReadReplicaRouting(true);
+
+        final DataSource dataSource = this.service.retrieveDataSource();
+
+        assertFalse(isDefaultReadOnly(dataSource));
+        ThreadLocalContextUtil.setReadReplicaRouting(false);
+        assertSame(dataSource, this.service.retrieveDataSource());
+    }
+
+    private static boolean isDefaultReadOnly(final DataSource dataSource) {
+        return Boolean.TRUE.equals(((org.apache.tomcat.jdbc.pool.DataSource) dataSource).getPoolProperties().isDefaultReadOnly());
+    }
+
+    private static FineractPlatformTenant tenant(final Long id, final FineractPlatformTenantConnection connection) {
+        return new FineractPlatformTenant(id, "tenant" + id, "Tenant " + id, "Asia/Kolkata", connection);
+    }
+
+    private static FineractPlatformTenantConnection connection(final Long connectionId) {
+        return new FineractPlatformTenantConnection(connectionId, "schema" + connectionId, "localhost", "3306", "mifos", "password",
+                false, 1, 30000, true, 60, true, 50, 10, 1, 5, 60, 34000, 60000, 0, 1, true);
+    }
+}
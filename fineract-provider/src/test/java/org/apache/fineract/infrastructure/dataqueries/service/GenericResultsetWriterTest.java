@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.dataqueries.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.dataqueries.data.GenericResultsetData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetColumnHeaderData;
+import org.apache.fineract.infrastructure.dataqueries.data.ResultsetRowData;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+public class GenericResultsetWriterTest {
+
+    private final Gson gson = new GoogleGsonSerializerHelper().createGsonBuilder(false);
+
+    private final List<ResultsetColumnHeaderData> columnHeaders = Arrays.asList(ResultsetColumnHeaderData.basic("id", "BIGINT"),
+            ResultsetColumnHeaderData.basic("name", "VARCHAR"), ResultsetColumnHeaderData.basic("balance", "DECIMAL"));
+
+    private final List<List<String>> rows = Arrays.asList(Arrays.asList("1", "Ramesh \"Ram\" <Das>", "100.50"),
+            Arrays.asList("2", null, null));
+
+    @Test
+    public void streamedJsonShouldMatchSerializedGenericResultsetData() throws Exception {
+        final List<ResultsetRowData> data = new ArrayList<>();
+        for (final List<String> row : this.rows) {
+            data.add(ResultsetRowData.create(row));
+        }
+        final String expected = this.gson.toJson(new GenericResultsetData(this.columnHeaders, data));
+
+        final StringWriter writer = new StringWriter();
+        write(new GenericResultsetDataJsonWriter(writer, this.gson, false));
+
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void streamedCsvShouldQuoteNonNumericColumns() throws Exception {
+        final StringWriter writer = new StringWriter();
+        write(new GenericResultsetCsvWriter(writer));
+
+        assertEquals("\"id\",\"name\",\"balance\"\n1,\"Ramesh \"\"Ram\"\" <Das>\",100.50\n2,,\n", writer.toString());
+    }
+
+    private void write(final GenericResultsetWriter resultsetWriter) throws Exception {
+        resultsetWriter.writeColumnHeaders(this.columnHeaders);
+        for (final List<String> row : this.rows) {
+            resultsetWriter.writeRow(row);
+        }
+        resultsetWriter.finish();
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+
+public class CollectedJobPartitionSourceTest {
+
+    @Test
+    public void shouldCollectIdsOnceAndPageThemInOrder() {
+        final CountingSource source = new CountingSource(7L, 3L, 9L, 3L, 1L);
+
+        assertEquals(Arrays.asList(1L, 3L), source.retrieveIdsAfter(0L, 2));
+        assertEquals(Arrays.asList(7L, 9L), source.retrieveIdsAfter(3L, 2));
+        assertTrue(source.retrieveIdsAfter(9L, 2).isEmpty());
+        assertEquals(1, source.collections);
+    }
+
+    @Test
+    public void shouldResumeAfterCheckpointThatIsNoLongerCollected() {
+        final CountingSource source = new CountingSource(2L, 4L, 8L);
+
+        // the loan at the checkpoint did not change again since
+        assertEquals(Arrays.asList(8L), source.retrieveIdsAfter(5L, 10));
+    }
+
+    private static final class CountingSource extends CollectedJobPartitionSource {
+
+        private final Collection<Long> ids;
+        private int collections;
+
+        CountingSource(final Long... ids) {
+            this.ids = Arrays.asList(ids);
+        }
+
+        @Override
+        protected Collection<Long> collectIds() {
+            this.collections++;
+            return this.ids;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class JobCheckpointServiceImplTest {
+
+    private final LocalDate today = new LocalDate(2016, 5, 10);
+    private final Date interruptedRunStart = new Date(1000L);
+    private final Date now = new Date(5000L);
+
+    private JdbcTemplate jdbcTemplate;
+    private JobCheckpointServiceImpl jobCheckpointService;
+
+    @Before
+    public void setUp() {
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(this.jdbcTemplate.queryForObject("select now()", Date.class)).thenReturn(this.now);
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select wm.run_started_on"), Matchers.eq(Date.class),
+                Matchers.<Object> anyVararg())).thenReturn(Arrays.asList(this.interruptedRunStart));
+        this.jobCheckpointService = new JobCheckpointServiceImpl(this.jdbcTemplate);
+    }
+
+    @Test
+    public void resumedRunShouldKeepTheStartOfTheInterruptedRun() {
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select cp.last_processed_id"), Matchers.eq(Long.class),
+                Matchers.<Object> anyVararg())).thenReturn(Arrays.asList(Long.valueOf(500)));
+
+        assertEquals(this.interruptedRunStart, this.jobCheckpointService.startIncrementalRun(JobName.UPDATE_LOAN_SUMMARY, this.today));
+        Mockito.verify(this.jdbcTemplate, Mockito.never()).update(Matchers.anyString(), Matchers.<Object> anyVararg());
+    }
+
+    @Test
+    public void newRunShouldRecordItsStart() {
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select cp.last_processed_id"), Matchers.eq(Long.class),
+                Matchers.<Object> anyVararg())).thenReturn(Collections.<Long> emptyList());
+
+        assertEquals(this.now, this.jobCheckpointService.startIncrementalRun(JobName.UPDATE_LOAN_SUMMARY, this.today));
+        Mockito.verify(this.jdbcTemplate).update(Matchers.startsWith("insert into job_change_watermark"),
+                Matchers.eq(JobName.UPDATE_LOAN_SUMMARY.name()), Matchers.eq(this.now));
+    }
+}
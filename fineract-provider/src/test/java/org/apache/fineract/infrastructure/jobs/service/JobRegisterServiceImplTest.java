@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenantConnection;
+import org.apache.fineract.infrastructure.core.service.TenantDatabaseUpgradeService;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.domain.ScheduledJobDetail;
+import org.apache.fineract.infrastructure.jobs.domain.SchedulerDetail;
+import org.apache.fineract.infrastructure.security.service.TenantDetailsService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class JobRegisterServiceImplTest {
+
+    private final FineractPlatformTenant upgradedTenant = tenant(1L, "default");
+    private final FineractPlatformTenant dormantTenant = tenant(2L, "dormant");
+
+    private SchedularWritePlatformService schedularWritePlatformService;
+    private JobRegisterServiceImpl jobRegisterService;
+
+    @Before
+    public void setUp() {
+        final TenantDetailsService tenantDetailsService = Mockito.mock(TenantDetailsService.class);
+        Mockito.when(tenantDetailsService.findAllTenants()).thenReturn(Arrays.asList(this.upgradedTenant, this.dormantTenant));
+        final TenantDatabaseUpgradeService tenantDatabaseUpgradeService = Mockito.mock(TenantDatabaseUpgradeService.class);
+        Mockito.when(tenantDatabaseUpgradeService.isUpgradeDeferred(2L)).thenReturn(Boolean.TRUE);
+        this.schedularWritePlatformService = Mockito.mock(SchedularWritePlatformService.class);
+        Mockito.when(this.schedularWritePlatformService.retrieveAllJobs()).thenReturn(Collections.<ScheduledJobDetail> emptyList());
+        Mockito.when(this.schedularWritePlatformService.retriveSchedulerDetail()).thenReturn(Mockito.mock(SchedulerDetail.class));
+
+        this.jobRegisterService = new JobRegisterServiceImpl();
+        this.jobRegisterService.setTenantDetailsService(tenantDetailsService);
+        this.jobRegisterService.setTenantDatabaseUpgradeService(tenantDatabaseUpgradeService);
+        this.jobRegisterService.setSchedularWritePlatformService(this.schedularWritePlatformService);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void startupShouldNotReadJobsOfTenantsWithDeferredUpgrade() {
+        this.jobRegisterService.loadAllJobs();
+
+        // reading the jobs through the routing data source is what would run
+        // the deferred upgrade
+        Mockito.verify(this.schedularWritePlatformService, Mockito.times(1)).retrieveAllJobs();
+    }
+
+    @Test
+    public void jobsShouldBeLoadedOnceTheDeferredUpgradeCompleted() {
+        this.jobRegisterService.loadAllJobs();
+
+        this.jobRegisterService.loadJobsOfUpgradedConnection(2L);
+        this.jobRegisterService.loadJobsOfUpgradedConnection(2L);
+
+        Mockito.verify(this.schedularWritePlatformService, Mockito.times(2)).retrieveAllJobs();
+    }
+
+    private static FineractPlatformTenant tenant(final Long id, final String identifier) {
+        return new FineractPlatformTenant(id, identifier, identifier, "Asia/Kolkata", new FineractPlatformTenantConnection(id,
+                "fineract_" + identifier, "localhost", "3306", "mifos", "password", true, 1, 30000, true, 60, true, 50, 10, 1, 5, 60,
+                34000, 60000, 0, 1, true));
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.exception.JobExecutionException;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartitionedJobExecutorTest {
+
+    private ConfigurationDomainService configurationDomainService;
+    private JobCheckpointService jobCheckpointService;
+    private PartitionedJobExecutor executor;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.configurationDomainService = Mockito.mock(ConfigurationDomainService.class);
+        Mockito.when(this.configurationDomainService.retrieveJobWorkerThreads()).thenReturn(2);
+        Mockito.when(this.configurationDomainService.retrieveJobPartitionSize()).thenReturn(3);
+        this.jobCheckpointService = Mockito.mock(JobCheckpointService.class);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+        this.executor = new PartitionedJobExecutor(this.configurationDomainService, this.jobCheckpointService, transactionTemplate);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+        JobRunStatisticsContextUtil.clearRunStatistics();
+    }
+
+    @Test
+    public void shouldProcessEveryIdAndClearCheckpoint() throws Exception {
+        final RecordingTask task = new RecordingTask(null);
+
+        this.executor.execute(JobName.POST_INTEREST_FOR_SAVINGS, new IdRangeSource(10), task);
+
+        final List<Long> processed = new ArrayList<>(task.processed);
+        Collections.sort(processed);
+        assertEquals(10, processed.size());
+        assertEquals(Long.valueOf(1), processed.get(0));
+        assertEquals(Long.valueOf(10), processed.get(9));
+        Mockito.verify(this.jobCheckpointService).updateCheckpoint(Matchers.eq(JobName.POST_INTEREST_FOR_SAVINGS),
+                Matchers.any(LocalDate.class), Matchers.eq(Long.valueOf(10)));
+        Mockito.verify(this.jobCheckpointService).clearCheckpoint(JobName.POST_INTEREST_FOR_SAVINGS);
+        assertTrue(JobRunStatisticsContextUtil.getRunStatistics().startsWith("10 processed, 0 failed in 4 partitions"));
+    }
+
+    @Test
+    public void shouldIsolateFailingIdWithinItsPartition() throws Exception {
+        final RecordingTask task = new RecordingTask(Long.valueOf(5));
+
+        try {
+            this.executor.execute(JobName.POST_INTEREST_FOR_SAVINGS, new IdRangeSource(6), task);
+            fail("expected the failure of id 5 to be reported");
+        } catch (final JobExecutionException e) {
+            assertEquals("failed 5: broken" + System.lineSeparator(), e.getMessage());
+        }
+
+        // 4 is processed twice: once in the rolled back partition transaction
+        // and once more on its own, ahead of 6
+        assertEquals(3 + 1 + 2, task.processed.size());
+        Mockito.verify(this.jobCheckpointService).clearCheckpoint(JobName.POST_INTEREST_FOR_SAVINGS);
+    }
+
+    @Test
+    public void shouldResumeAfterCheckpoint() throws Exception {
+        Mockito.when(this.jobCheckpointService.retrieveCheckpoint(Matchers.eq(JobName.POST_INTEREST_FOR_SAVINGS),
+                Matchers.any(LocalDate.class))).thenReturn(Long.valueOf(6));
+        final RecordingTask task = new RecordingTask(null);
+
+        this.executor.execute(JobName.POST_INTEREST_FOR_SAVINGS, new IdRangeSource(10), task);
+
+        final List<Long> processed = new ArrayList<>(task.processed);
+        Collections.sort(processed);
+        assertEquals(4, processed.size());
+        assertEquals(Long.valueOf(7), processed.get(0));
+        assertTrue(JobRunStatisticsContextUtil.getRunStatistics().contains("resumed after id 6"));
+    }
+
+    @Test
+    public void shouldCreateOneTaskPerPartition() throws Exception {
+        final RecordingTask task = new RecordingTask(null);
+        final List<List<Long>> partitions = Collections.synchronizedList(new ArrayList<List<Long>>());
+
+        this.executor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, new IdRangeSource(7), new JobPartitionTaskFactory() {
+
+            @Override
+            public JobPartitionTask createTask(final List<Long> ids) {
+                partitions.add(ids);
+                return task;
+            }
+        });
+
+        assertEquals(3, partitions.size());
+        assertEquals(7, task.processed.size());
+        assertTrue(partitions.contains(Arrays.asList(Long.valueOf(7))));
+    }
+
+    @Test
+    public void shouldReportPartitionWhoseTaskCannotBeCreated() throws Exception {
+        final RecordingTask task = new RecordingTask(null);
+
+        try {
+            this.executor.execute(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES, new IdRangeSource(7), new JobPartitionTaskFactory() {
+
+                @Override
+                public JobPartitionTask createTask(final List<Long> ids) {
+                    if (ids.contains(Long.valueOf(4))) { throw new IllegalStateException("preload failed"); }
+                    return task;
+                }
+            });
+            fail("expected the failure of the second partition to be reported");
+        } catch (final JobExecutionException e) {
+            assertEquals("Partition 2 [4 - 6] of 3 entities could not be prepared: preload failed" + System.lineSeparator(),
+                    e.getMessage());
+        }
+
+        assertEquals(Arrays.asList(Long.valueOf(1), Long.valueOf(2), Long.valueOf(3), Long.valueOf(7)), sorted(task.processed));
+        Mockito.verify(this.jobCheckpointService).clearCheckpoint(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES);
+        assertTrue(JobRunStatisticsContextUtil.getRunStatistics().startsWith("4 processed, 1 failed in 3 partitions"));
+    }
+
+    private static List<Long> sorted(final List<Long> ids) {
+        final List<Long> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static final class IdRangeSource implements JobPartitionSource {
+
+        private final long maxId;
+
+        IdRangeSource(final long maxId) {
+            this.maxId = maxId;
+        }
+
+        @Override
+        public List<Long> retrieveIdsAfter(final Long lastProcessedId, final int limit) {
+            final List<Long> ids = new ArrayList<>();
+            for (long id = lastProcessedId + 1; id <= this.maxId && ids.size() < limit; id++) {
+                ids.add(id);
+            }
+            return ids;
+        }
+    }
+
+    private static final class RecordingTask implements JobPartitionTask {
+
+        private final Long failingId;
+        private final List<Long> processed = Collections.synchronizedList(new ArrayList<Long>());
+
+        RecordingTask(final Long failingId) {
+            this.failingId = failingId;
+        }
+
+        @Override
+        public void process(final Long id) {
+            if (id.equals(this.failingId)) { throw new IllegalStateException("broken"); }
+            this.processed.add(id);
+        }
+
+        @Override
+        public String failureMessage(final Long id, final Throwable realCause) {
+            return "failed " + id + ": " + realCause.getMessage();
+        }
+    }
+}
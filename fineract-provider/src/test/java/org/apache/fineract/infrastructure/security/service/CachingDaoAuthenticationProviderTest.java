@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.AuthenticationMetricsService.Method;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+public class CachingDaoAuthenticationProviderTest {
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final AuthenticationMetricsService authenticationMetricsService = mock(AuthenticationMetricsService.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private CachingDaoAuthenticationProvider provider;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(
+                new User("mifos", "password", Collections.<GrantedAuthority> emptyList()));
+
+        this.provider = new CachingDaoAuthenticationProvider();
+        this.provider.setUserDetailsService(this.userDetailsService);
+        this.provider.setCacheManager(this.cacheManager);
+        this.provider.setAuthenticationMetricsService(this.authenticationMetricsService);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldServeRepeatedCredentialsFromTheCache() {
+        final Authentication first = this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "password"));
+        final Authentication second = this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "password"));
+
+        assertTrue(second.isAuthenticated());
+        assertEquals(first.getPrincipal(), second.getPrincipal());
+        verify(this.userDetailsService, times(1)).loadUserByUsername("mifos");
+        verify(this.authenticationMetricsService).record(eq(Method.PASSWORD), anyLong(), eq(true));
+        verify(this.authenticationMetricsService).record(eq(Method.CACHED_CREDENTIALS), anyLong(), eq(true));
+    }
+
+    @Test
+    public void shouldCheckOtherPasswordsAgainstTheUser() {
+        this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "password"));
+        try {
+            this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "wrong"));
+        } catch (final BadCredentialsException e) {
+            verify(this.userDetailsService, times(2)).loadUserByUsername("mifos");
+            verify(this.authenticationMetricsService).record(eq(Method.PASSWORD), anyLong(), eq(false));
+            return;
+        }
+        throw new AssertionError("wrong password was accepted");
+    }
+
+    @Test
+    public void shouldKeepTenantsApart() {
+        this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "password"));
+
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null));
+        this.provider.authenticate(new UsernamePasswordAuthenticationToken("mifos", "password"));
+
+        verify(this.userDetailsService, times(2)).loadUserByUsername("mifos");
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlatformRequestLogServiceImplTest {
+
+    private final PlatformRequestLogServiceImpl requestLogService = new PlatformRequestLogServiceImpl();
+
+    @Before
+    public void setUpForEachTestCase() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+    }
+
+    @After
+    public void tearDownForEachTestCase() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldReplaceNumericSegmentsOfTheEndpoint() {
+        assertEquals("/loans/{id}/transactions/{id}", PlatformRequestLogServiceImpl.endpointTemplate("/loans/12/transactions/5"));
+        assertEquals("/loans/template", PlatformRequestLogServiceImpl.endpointTemplate("/loans/template"));
+        assertEquals("/clients/{id}/", PlatformRequestLogServiceImpl.endpointTemplate("/clients/7/"));
+        assertEquals("/runreports/12abc", PlatformRequestLogServiceImpl.endpointTemplate("/runreports/12abc"));
+    }
+
+    @Test
+    public void shouldRecordLatencyPerEndpointTemplate() {
+        complete("GET", "/loans/1", 200, 3);
+        complete("GET", "/loans/2", 200, 40);
+        complete("GET", "/loans/3", 500, 20000);
+
+        final String histograms = this.requestLogService.retrieveLatencyHistograms();
+
+        final String labels = "tenant=\"default\",method=\"GET\",endpoint=\"/loans/{id}\"";
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"0.005\"} 1\n"));
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"0.05\"} 2\n"));
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"10.0\"} 2\n"));
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"+Inf\"} 3\n"));
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_count{" + labels + "} 3\n"));
+    }
+
+    @Test
+    public void shouldCompareTheLatencyWithInclusiveBucketBoundsInNanos() {
+        completeInNanos("GET", "/offices", 200, TimeUnit.MILLISECONDS.toNanos(5));
+        completeInNanos("GET", "/offices", 200, TimeUnit.MICROSECONDS.toNanos(5900));
+
+        final String histograms = this.requestLogService.retrieveLatencyHistograms();
+
+        final String labels = "tenant=\"default\",method=\"GET\",endpoint=\"/offices\"";
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"0.005\"} 1\n"));
+        assertTrue(histograms.contains("fineract_http_request_duration_seconds_bucket{" + labels + ",le=\"0.01\"} 2\n"));
+    }
+
+    @Test
+    public void shouldIgnorePreflightRequests() {
+        complete("OPTIONS", "/loans/1", 200, 3);
+
+        assertFalse(this.requestLogService.retrieveLatencyHistograms().contains("/loans/{id}"));
+    }
+
+    private void complete(final String method, final String path, final int status, final long elapsedMillis) {
+        completeInNanos(method, path, status, TimeUnit.MILLISECONDS.toNanos(elapsedMillis));
+    }
+
+    private void completeInNanos(final String method, final String path, final int status, final long elapsedNanos) {
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getPathInfo()).thenReturn(path);
+        when(request.getRequestURI()).thenReturn("/fineract-provider/api/v1" + path);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+
+        this.requestLogService.requestCompleted(request, response, System.currentTimeMillis(), elapsedNanos);
+    }
+}
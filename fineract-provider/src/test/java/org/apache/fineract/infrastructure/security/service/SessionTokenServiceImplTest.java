@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.infrastructure.security.service;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.configuration.domain.ConfigurationDomainService;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.security.service.AuthenticationMetricsService.Method;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+public class SessionTokenServiceImplTest {
+
+    private static final FineractPlatformTenant DEFAULT_TENANT = new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata",
+            null);
+    private static final FineractPlatformTenant OTHER_TENANT = new FineractPlatformTenant(2L, "other", "Other", "Asia/Kolkata", null);
+
+    private final TokenTable tokenTable = new TokenTable();
+    private final PlatformUserDetailsService userDetailsService = mock(PlatformUserDetailsService.class);
+    private final ConfigurationDomainService configurationDomainService = mock(ConfigurationDomainService.class);
+    private final AuthenticationMetricsService authenticationMetricsService = mock(AuthenticationMetricsService.class);
+    private SessionTokenServiceImpl sessionTokenService;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(DEFAULT_TENANT);
+        when(this.configurationDomainService.retrieveSessionTokenValidityMinutes()).thenReturn(60);
+        when(this.userDetailsService.loadUserByUsername("mifos")).thenReturn(
+                new User("mifos", "password", Collections.<GrantedAuthority> emptyList()));
+
+        this.sessionTokenService = new SessionTokenServiceImpl(this.tokenTable, this.userDetailsService,
+                this.configurationDomainService, this.authenticationMetricsService);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void shouldAuthenticateValidToken() {
+        final String token = this.sessionTokenService.createSessionToken(1L);
+
+        assertNotNull(this.sessionTokenService.authenticate(token));
+        verify(this.authenticationMetricsService).record(eq(Method.SESSION_TOKEN), anyLong(), eq(true));
+    }
+
+    @Test
+    public void shouldRejectExpiredToken() {
+        when(this.configurationDomainService.retrieveSessionTokenValidityMinutes()).thenReturn(0);
+        final String token = this.sessionTokenService.createSessionToken(1L);
+
+        assertNull(this.sessionTokenService.authenticate(token));
+        verify(this.authenticationMetricsService).record(eq(Method.SESSION_TOKEN), anyLong(), eq(false));
+    }
+
+    @Test
+    public void shouldRejectRevokedTokenAlreadyUsed() {
+        final String token = this.sessionTokenService.createSessionToken(1L);
+        assertNotNull(this.sessionTokenService.authenticate(token));
+
+        this.sessionTokenService.revokeSessionTokens(1L);
+
+        assertNull(this.sessionTokenService.authenticate(token));
+    }
+
+    @Test
+    public void shouldRejectTokenOfAnotherTenant() {
+        final String token = this.sessionTokenService.createSessionToken(1L);
+        assertNotNull(this.sessionTokenService.authenticate(token));
+
+        ThreadLocalContextUtil.setTenant(OTHER_TENANT);
+
+        assertNull(this.sessionTokenService.authenticate(token));
+    }
+
+    @Test
+    public void shouldRejectUnknownToken() {
+        assertNull(this.sessionTokenService.authenticate("0123456789abcdef"));
+    }
+
+    /**
+     * Stands in for m_appuser_session_token of each tenant's database, as the
+     * routing data source would, for the statements the service issues.
+     */
+    private static final class TokenTable extends JdbcTemplate {
+
+        private final Map<String, Map<String, Object[]>> rowsByTenant = new HashMap<>();
+
+        private Map<String, Object[]> rows() {
+            final String tenant = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+            if (!this.rowsByTenant.containsKey(tenant)) {
+                this.rowsByTenant.put(tenant, new HashMap<String, Object[]>());
+            }
+            return this.rowsByTenant.get(tenant);
+        }
+
+        @Override
+        public int update(final String sql, final Object... args) {
+            if (sql.startsWith("insert")) {
+                final long expiresOn = System.currentTimeMillis() + ((Integer) args[2]) * 60000L;
+                rows().put((String) args[0], new Object[] { args[1], expiresOn });
+                return 1;
+            }
+            final boolean expiredOnly = sql.contains("expires_on");
+            final List<String> deleted = new ArrayList<>();
+            for (final Map.Entry<String, Object[]> row : rows().entrySet()) {
+                if (row.getValue()[0].equals(args[0]) && (!expiredOnly || !isValid(row.getValue()))) {
+                    deleted.add(row.getKey());
+                }
+            }
+            rows().keySet().removeAll(deleted);
+            return deleted.size();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> List<T> queryForList(final String sql, final Class<T> elementType, final Object... args) {
+            final Object[] row = rows().get(args[0]);
+            if (row == null || !isValid(row)) { return Collections.emptyList(); }
+            return (List<T>) Collections.singletonList("mifos");
+        }
+
+        private static boolean isValid(final Object[] row) {
+            return (Long) row[1] > System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.organisation.monetary.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MoneyAccumulatorTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2, null);
+    private final MonetaryCurrency roundedToFifties = new MonetaryCurrency("XOF", 0, 50);
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        final Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void shouldTotalTheSameAsMoneyPlusAndMinus() {
+        final Random random = new Random(20161018L);
+        final List<Money> amounts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            amounts.add(Money.of(this.usDollars, BigDecimal.valueOf(random.nextInt(2000000) - 500000, 2)));
+        }
+
+        Money expected = Money.zero(this.usDollars);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.usDollars);
+        for (int i = 0; i < amounts.size(); i++) {
+            if (i % 3 == 0) {
+                expected = expected.minus(amounts.get(i));
+                accumulator.subtract(amounts.get(i));
+            } else {
+                expected = expected.plus(amounts.get(i));
+                accumulator.add(amounts.get(i));
+            }
+        }
+
+        assertSameMoney(expected, accumulator.toMoney());
+        assertEquals(expected.getAmount().signum(), accumulator.signum());
+    }
+
+    @Test
+    public void shouldContinueExactlyWhenTheTotalNoLongerFitsInALong() {
+        final Money large = Money.of(this.usDollars, new BigDecimal("9999999999999999.99"));
+
+        Money expected = Money.zero(this.usDollars);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.usDollars);
+        for (int i = 0; i < 1000; i++) {
+            expected = expected.plus(large);
+            accumulator.add(large);
+        }
+        accumulator.subtract(large);
+        expected = expected.minus(large);
+
+        assertSameMoney(expected, accumulator.toMoney());
+        assertTrue(accumulator.isGreaterThanZero());
+    }
+
+    @Test
+    public void shouldRoundEveryStepForCurrenciesInMultiples() {
+        final Money one = Money.of(this.roundedToFifties, BigDecimal.valueOf(100));
+        final Money negative = Money.of(this.roundedToFifties, BigDecimal.valueOf(-30));
+
+        final Money expected = Money.zero(this.roundedToFifties).plus(one).plus(negative).plus(one);
+        final MoneyAccumulator accumulator = MoneyAccumulator.zero(this.roundedToFifties).add(one).add(negative).add(one);
+
+        assertSameMoney(expected, accumulator.toMoney());
+    }
+
+    @Test
+    public void shouldStartFromTheGivenAmount() {
+        final Money start = Money.of(this.usDollars, new BigDecimal("10.25"));
+
+        final MoneyAccumulator accumulator = MoneyAccumulator.of(start).subtract(start);
+
+        assertTrue(accumulator.isZero());
+        assertSameMoney(Money.zero(this.usDollars), accumulator.toMoney());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectAmountsInAnotherCurrency() {
+        MoneyAccumulator.zero(this.usDollars).add(Money.of(this.roundedToFifties, BigDecimal.TEN));
+    }
+
+    private static void assertSameMoney(final Money expected, final Money actual) {
+        assertEquals(expected.getCurrencyCode(), actual.getCurrencyCode());
+        assertEquals(expected.getAmount(), actual.getAmount());
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.calendar.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import net.fortuna.ical4j.model.Recur;
+
+import org.apache.fineract.organisation.workingdays.domain.WorkingDays;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+public class CalendarUtilsTest {
+
+    private static final String[] RECURRING_RULES = { "FREQ=WEEKLY;INTERVAL=1;BYDAY=TU", "FREQ=WEEKLY;INTERVAL=2;BYDAY=FR",
+            "FREQ=DAILY;INTERVAL=3", "FREQ=MONTHLY;INTERVAL=1;BYMONTHDAY=31", "FREQ=MONTHLY;INTERVAL=1;BYSETPOS=2;BYDAY=WE",
+            "FREQ=MONTHLY;INTERVAL=1;BYMONTHDAY=1" };
+
+    private final LocalDate seedDate = new LocalDate(2013, 1, 31);
+
+    @Test
+    public void validRecurringDatesShouldMatchUncachedRecurrence() {
+        final boolean[] skipOptions = { false, true };
+        final int numberOfDays = 2;
+        for (final String recurringRule : RECURRING_RULES) {
+            for (final boolean isSkipMeetingOnFirstDay : skipOptions) {
+                for (LocalDate date = this.seedDate.plusDays(1); date.isBefore(this.seedDate.plusYears(3)); date = date.plusDays(1)) {
+                    final Recur uncached = CalendarUtils.getICalRecur(recurringRule);
+                    final boolean expected = CalendarUtils.isValidRecurringDate(uncached, this.seedDate, date, isSkipMeetingOnFirstDay,
+                            numberOfDays);
+                    assertEquals(recurringRule + " on " + date, expected,
+                            CalendarUtils.isValidRedurringDate(recurringRule, this.seedDate, date, isSkipMeetingOnFirstDay, numberOfDays));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void recurringDatesShouldMatchUncachedRecurrence() {
+        final LocalDate[] periodStartDates = { this.seedDate.minusDays(3), this.seedDate.plusMonths(7) };
+        final LocalDate periodEndDate = this.seedDate.plusYears(4);
+        final int[] maxCounts = { 10, 2000 };
+        for (final String recurringRule : RECURRING_RULES) {
+            for (final LocalDate periodStartDate : periodStartDates) {
+                for (final int maxCount : maxCounts) {
+                    final Collection<LocalDate> expected = CalendarUtils.getRecurringDates(CalendarUtils.getICalRecur(recurringRule),
+                            this.seedDate, periodStartDate, periodEndDate, maxCount, true, 2);
+                    assertEquals(recurringRule + " from " + periodStartDate, new ArrayList<>(expected), new ArrayList<>(
+                            CalendarUtils.getRecurringDates(recurringRule, this.seedDate, periodStartDate, periodEndDate, maxCount, true,
+                                    2)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nextRecurringDateShouldMatchUncachedRecurrence() {
+        for (final String recurringRule : RECURRING_RULES) {
+            final Recur uncached = CalendarUtils.getICalRecur(recurringRule);
+            for (LocalDate date = this.seedDate.minusDays(3); date.isBefore(this.seedDate.plusYears(3)); date = date.plusDays(1)) {
+                final LocalDate expected = CalendarUtils.adjustDate(CalendarUtils.getNextRecurringDate(uncached, this.seedDate, date),
+                        this.seedDate, CalendarUtils.getMeetingPeriodFrequencyType(recurringRule));
+                assertEquals(recurringRule + " after " + date, expected,
+                        CalendarUtils.getNextRecurringDate(recurringRule, this.seedDate, date));
+            }
+        }
+    }
+
+    @Test
+    public void repaymentMeetingDatesShouldNotChangeSharedRecurrence() {
+        final String recurringRule = "FREQ=WEEKLY;INTERVAL=1;BYDAY=TU";
+        final LocalDate tuesday = new LocalDate(2013, 2, 5);
+        final WorkingDays workingDays = mock(WorkingDays.class);
+        when(workingDays.getRecurrence()).thenReturn("FREQ=WEEKLY;INTERVAL=1;BYDAY=MO,TU,WE,TH,FR,SA,SU");
+        final LocalDate fortnightly = CalendarUtils.getNextRepaymentMeetingDate(recurringRule, tuesday, tuesday, 2, Recur.WEEKLY,
+                workingDays, false, 0);
+        assertEquals(tuesday.plusWeeks(2), fortnightly);
+        assertEquals(1, CalendarUtils.getInterval(recurringRule));
+        assertTrue(CalendarUtils.isValidRedurringDate(recurringRule, tuesday, tuesday.plusWeeks(1)));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.collectionsheet.data.JLGCollectionSheetData;
+import org.apache.fineract.portfolio.collectionsheet.service.CollectionSheetCacheService.CollectionSheetLoader;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class CollectionSheetCacheServiceImplTest {
+
+    private static final Long CENTER_ID = Long.valueOf(7);
+    private static final LocalDate MEETING_DATE = new LocalDate(2016, 5, 10);
+
+    private JdbcTemplate jdbcTemplate;
+    private CollectionSheetCacheServiceImpl cacheService;
+    private int loads;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select version"), Matchers.eq(Long.class),
+                Matchers.<Object> anyVararg())).thenReturn(Arrays.asList(Long.valueOf(1)));
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select distinct"), Matchers.eq(Long.class),
+                Matchers.<Object> anyVararg())).thenReturn(Arrays.asList(CENTER_ID));
+        this.cacheService = new CollectionSheetCacheServiceImpl(this.jdbcTemplate, new TransactionTemplate(
+                Mockito.mock(PlatformTransactionManager.class)));
+        this.loads = 0;
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void sheetShouldBeServedUntilItsCenterVersionChanges() {
+        final JLGCollectionSheetData first = retrieve();
+        assertSame(first, retrieve());
+        assertEquals(1, this.loads);
+
+        Mockito.when(this.jdbcTemplate.queryForList(Matchers.startsWith("select version"), Matchers.eq(Long.class),
+                Matchers.<Object> anyVararg())).thenReturn(Arrays.asList(Long.valueOf(2)));
+
+        retrieve();
+        assertEquals(2, this.loads);
+    }
+
+    @Test
+    public void versionShouldBeBumpedOnlyOnceTheCommandCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.cacheService.invalidateFor(new CommandProcessingResultBuilder().withLoanId(Long.valueOf(3)).build());
+        Mockito.verify(this.jdbcTemplate, Mockito.never()).update(Matchers.anyString());
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        Mockito.verify(this.jdbcTemplate).update(Matchers.contains("where g.id in (7) on duplicate key update"));
+    }
+
+    @Test
+    public void versionShouldBeBumpedAtOnceOutsideATransaction() {
+        this.cacheService.invalidateAll();
+
+        Mockito.verify(this.jdbcTemplate).update(Matchers.contains("where g.parent_id is null"));
+    }
+
+    private JLGCollectionSheetData retrieve() {
+        return this.cacheService.retrieve("center", CENTER_ID, CENTER_ID, MEETING_DATE, new CollectionSheetLoader() {
+
+            @Override
+            public JLGCollectionSheetData load() {
+                CollectionSheetCacheServiceImplTest.this.loads++;
+                return Mockito.mock(JLGCollectionSheetData.class);
+            }
+        });
+    }
+}
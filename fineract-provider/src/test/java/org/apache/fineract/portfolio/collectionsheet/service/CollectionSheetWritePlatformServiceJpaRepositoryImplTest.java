@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.collectionsheet.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.apache.fineract.accounting.journalentry.service.JournalEntryBatchWriter;
+import org.apache.fineract.infrastructure.core.api.JsonCommand;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.portfolio.collectionsheet.data.CollectionSheetTransactionDataValidator;
+import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer;
+import org.apache.fineract.portfolio.collectionsheet.serialization.CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer;
+import org.apache.fineract.portfolio.loanaccount.service.LoanWritePlatformService;
+import org.apache.fineract.portfolio.meeting.service.MeetingWritePlatformService;
+import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
+import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetailAssembler;
+import org.apache.fineract.portfolio.paymentdetail.service.PaymentDetailWritePlatformService;
+import org.apache.fineract.portfolio.savings.data.SavingsAccountTransactionDTO;
+import org.apache.fineract.portfolio.savings.domain.DepositAccountAssembler;
+import org.apache.fineract.portfolio.savings.domain.SavingsAccountRepository;
+import org.apache.fineract.portfolio.savings.service.DepositAccountWritePlatformService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonParser;
+
+public class CollectionSheetWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final String JSON = "{\"transactionDate\": \"10 May 2016\", \"locale\": \"en\", \"dateFormat\": \"dd MMMM yyyy\"}";
+
+    private DepositAccountAssembler accountAssembler;
+    private SavingsAccountRepository savingsAccountRepository;
+    private CollectionSheetCacheService collectionSheetCacheService;
+    private DepositAccountWritePlatformService depositAccountWritePlatformService;
+    private JournalEntryBatchWriter journalEntryBatchWriter;
+    private CollectionSheetWritePlatformServiceJpaRepositoryImpl collectionSheetWritePlatformService;
+
+    @Before
+    public void setUp() {
+        final FromJsonHelper fromJsonHelper = new FromJsonHelper();
+        this.accountAssembler = Mockito.mock(DepositAccountAssembler.class);
+        this.savingsAccountRepository = Mockito.mock(SavingsAccountRepository.class);
+        this.collectionSheetCacheService = Mockito.mock(CollectionSheetCacheService.class);
+        this.depositAccountWritePlatformService = Mockito.mock(DepositAccountWritePlatformService.class);
+        this.journalEntryBatchWriter = Mockito.mock(JournalEntryBatchWriter.class);
+        this.collectionSheetWritePlatformService = new CollectionSheetWritePlatformServiceJpaRepositoryImpl(
+                Mockito.mock(LoanWritePlatformService.class), new CollectionSheetBulkRepaymentCommandFromApiJsonDeserializer(
+                        fromJsonHelper, Mockito.mock(PaymentDetailAssembler.class)),
+                new CollectionSheetBulkDisbursalCommandFromApiJsonDeserializer(fromJsonHelper),
+                Mockito.mock(CollectionSheetTransactionDataValidator.class), Mockito.mock(MeetingWritePlatformService.class),
+                this.accountAssembler, this.depositAccountWritePlatformService, Mockito.mock(PaymentDetailAssembler.class),
+                Mockito.mock(PaymentDetailWritePlatformService.class), this.collectionSheetCacheService, this.savingsAccountRepository,
+                this.journalEntryBatchWriter);
+    }
+
+    @Test
+    public void depositsShouldLoadTheirAccountsOnce() {
+        Mockito.when(
+                this.accountAssembler.assembleBulkMandatorySavingsAccountTransactionDTOs(Matchers.isA(JsonCommand.class),
+                        Matchers.<PaymentDetail> any())).thenReturn(Arrays.asList(deposit(11L), deposit(12L), deposit(11L)));
+
+        final Map<String, Object> changes = this.collectionSheetWritePlatformService.saveIndividualCollectionSheet(command())
+                .getChanges();
+
+        Mockito.verify(this.savingsAccountRepository).findAll(Arrays.asList(11L, 12L));
+        Mockito.verify(this.collectionSheetCacheService).invalidateForAccounts(Matchers.anyListOf(Long.class),
+                Matchers.eq(Arrays.asList(11L, 12L)));
+        // only business data goes into the audited changes, no timings
+        assertEquals(new HashSet<>(Arrays.asList("locale", "dateFormat", "SavingsTransactions")), changes.keySet());
+    }
+
+    @Test
+    public void journalEntriesOfTheSheetShouldBeWrittenInOneBatch() {
+        Mockito.when(
+                this.accountAssembler.assembleBulkMandatorySavingsAccountTransactionDTOs(Matchers.isA(JsonCommand.class),
+                        Matchers.<PaymentDetail> any())).thenReturn(Arrays.asList(deposit(11L), deposit(12L)));
+
+        this.collectionSheetWritePlatformService.saveIndividualCollectionSheet(command());
+
+        final InOrder inOrder = Mockito.inOrder(this.journalEntryBatchWriter, this.depositAccountWritePlatformService);
+        inOrder.verify(this.journalEntryBatchWriter).open();
+        inOrder.verify(this.depositAccountWritePlatformService, Mockito.times(2)).mandatorySavingsAccountDeposit(
+                Matchers.isA(SavingsAccountTransactionDTO.class));
+        inOrder.verify(this.journalEntryBatchWriter).write();
+        inOrder.verify(this.journalEntryBatchWriter).close();
+    }
+
+    @Test
+    public void failedSaveShouldDropTheHeldBackJournalEntries() {
+        Mockito.when(
+                this.accountAssembler.assembleBulkMandatorySavingsAccountTransactionDTOs(Matchers.isA(JsonCommand.class),
+                        Matchers.<PaymentDetail> any())).thenThrow(new IllegalStateException("broken"));
+
+        try {
+            this.collectionSheetWritePlatformService.saveIndividualCollectionSheet(command());
+            fail("expected the failure to be passed on");
+        } catch (final IllegalStateException e) {
+            assertEquals("broken", e.getMessage());
+        }
+
+        Mockito.verify(this.journalEntryBatchWriter, Mockito.never()).write();
+        Mockito.verify(this.journalEntryBatchWriter).close();
+    }
+
+    private static SavingsAccountTransactionDTO deposit(final Long savingsAccountId) {
+        return new SavingsAccountTransactionDTO(null, null, null, null, null, savingsAccountId, null);
+    }
+
+    private static JsonCommand command() {
+        return JsonCommand.from(JSON, new JsonParser().parse(JSON), new FromJsonHelper(), "COLLECTIONSHEET", null, null, null, null,
+                null, null, null, null, null);
+    }
+}
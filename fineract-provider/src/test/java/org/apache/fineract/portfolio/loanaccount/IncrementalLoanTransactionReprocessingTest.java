@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.fineract.organisation.monetary.domain.MonetaryCurrency;
+import org.apache.fineract.organisation.monetary.domain.Money;
+import org.apache.fineract.organisation.monetary.domain.MoneyHelper;
+import org.apache.fineract.portfolio.loanaccount.domain.ChangedTransactionDetail;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanCharge;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepaymentScheduleInstallment;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.LoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.FineractStyleLoanRepaymentScheduleTransactionProcessor;
+import org.apache.fineract.portfolio.loanaccount.domain.transactionprocessor.impl.HeavensFamilyLoanRepaymentScheduleTransactionProcessor;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * Checks that re-processing from the first affected date leaves the schedule
+ * and transactions in exactly the same state as a full re-process.
+ */
+public class IncrementalLoanTransactionReprocessingTest {
+
+    private final LocalDate disbursementDate = new LocalDate(2012, 6, 2);
+    private final LocalDate july2nd = new LocalDate(2012, 7, 2);
+    private final MonetaryCurrency usDollars = new MonetaryCurrencyBuilder().withCode("USD").withDigitsAfterDecimal(2).build();
+
+    @Before
+    public void setUpForEachTestCase() throws Exception {
+        final Field field = MoneyHelper.class.getDeclaredField("roundingMode");
+        field.setAccessible(true);
+        field.set(null, RoundingMode.HALF_EVEN);
+    }
+
+    @Test
+    public void backdatedRepaymentShouldMatchFullReprocess() throws Exception {
+        final LocalDate backdated = this.july2nd.plusDays(8);
+        assertIncrementalMatchesFull(new FineractStyleLoanRepaymentScheduleTransactionProcessor(), backdated, false);
+        assertIncrementalMatchesFull(new HeavensFamilyLoanRepaymentScheduleTransactionProcessor(), backdated, false);
+    }
+
+    @Test
+    public void repaymentBeforeAllExistingTransactionsShouldMatchFullReprocess() throws Exception {
+        final LocalDate backdated = this.disbursementDate.plusDays(3);
+        assertIncrementalMatchesFull(new FineractStyleLoanRepaymentScheduleTransactionProcessor(), backdated, false);
+    }
+
+    @Test
+    public void missingMappingsShouldFallBackToFullReprocess() throws Exception {
+        final LocalDate backdated = this.july2nd.plusDays(8);
+        assertIncrementalMatchesFull(new FineractStyleLoanRepaymentScheduleTransactionProcessor(), backdated, true);
+    }
+
+    private void assertIncrementalMatchesFull(final LoanRepaymentScheduleTransactionProcessor processor, final LocalDate backdated,
+            final boolean dropMappingsOfFirstTransaction) throws Exception {
+
+        final Scenario full = new Scenario(processor, backdated, dropMappingsOfFirstTransaction);
+        final ChangedTransactionDetail fullDetail = processor.handleTransaction(this.disbursementDate, full.transactions,
+                this.usDollars, full.installments, full.charges);
+
+        final Scenario incremental = new Scenario(processor, backdated, dropMappingsOfFirstTransaction);
+        final ChangedTransactionDetail incrementalDetail = processor.handleTransaction(this.disbursementDate, incremental.transactions,
+                this.usDollars, incremental.installments, incremental.charges, backdated);
+
+        for (int i = 0; i < full.installments.size(); i++) {
+            assertSameInstallmentState(full.installments.get(i), incremental.installments.get(i));
+        }
+        for (int i = 0; i < full.transactions.size(); i++) {
+            assertSameTransactionState(full.transactions.get(i), incremental.transactions.get(i));
+        }
+
+        final Map<Long, LoanTransaction> fullChanges = fullDetail.getNewTransactionMappings();
+        final Map<Long, LoanTransaction> incrementalChanges = incrementalDetail.getNewTransactionMappings();
+        assertEquals(fullChanges.keySet(), incrementalChanges.keySet());
+        for (final Map.Entry<Long, LoanTransaction> change : fullChanges.entrySet()) {
+            assertSameTransactionState(change.getValue(), incrementalChanges.get(change.getKey()));
+        }
+    }
+
+    private void assertSameInstallmentState(final LoanRepaymentScheduleInstallment expected,
+            final LoanRepaymentScheduleInstallment actual) {
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertMoneyEquals(expected.getPrincipalCompleted(this.usDollars), actual.getPrincipalCompleted(this.usDollars));
+        assertMoneyEquals(expected.getInterestPaid(this.usDollars), actual.getInterestPaid(this.usDollars));
+        assertMoneyEquals(expected.getInterestWaived(this.usDollars), actual.getInterestWaived(this.usDollars));
+        assertMoneyEquals(expected.getFeeChargesPaid(this.usDollars), actual.getFeeChargesPaid(this.usDollars));
+        assertMoneyEquals(expected.getPenaltyChargesPaid(this.usDollars), actual.getPenaltyChargesPaid(this.usDollars));
+        assertMoneyEquals(expected.getTotalPaidInAdvance(this.usDollars), actual.getTotalPaidInAdvance(this.usDollars));
+        assertMoneyEquals(expected.getTotalPaidLate(this.usDollars), actual.getTotalPaidLate(this.usDollars));
+        assertEquals(expected.isObligationsMet(), actual.isObligationsMet());
+        assertEquals(expected.getObligationsMetOnDate(), actual.getObligationsMetOnDate());
+    }
+
+    private void assertSameTransactionState(final LoanTransaction expected, final LoanTransaction actual) {
+        assertEquals(expected.getTransactionDate(), actual.getTransactionDate());
+        assertEquals(expected.isReversed(), actual.isReversed());
+        assertTrue(LoanTransaction.transactionAmountsMatch(this.usDollars, expected, actual));
+    }
+
+    private void assertMoneyEquals(final Money expected, final Money actual) {
+        assertTrue(expected + " != " + actual, expected.isEqualTo(actual));
+    }
+
+    private Money dollars(final String amount) {
+        return new MoneyBuilder().with(this.usDollars).with(amount).build();
+    }
+
+    private static void assignId(final Object entity, final Long id) throws Exception {
+        final Field field = AbstractPersistable.class.getDeclaredField("id");
+        field.setAccessible(true);
+        field.set(entity, id);
+    }
+
+    /**
+     * Three installment schedule with three persisted repayments (one early,
+     * one on time, one late) and a new repayment dated <code>backdated</code>.
+     */
+    private final class Scenario {
+
+        private final List<LoanRepaymentScheduleInstallment> installments;
+        private final List<LoanTransaction> transactions = new ArrayList<>();
+        private final HashSet<LoanCharge> charges = new HashSet<>();
+
+        Scenario(final LoanRepaymentScheduleTransactionProcessor processor, final LocalDate backdated,
+                final boolean dropMappingsOfFirstTransaction) throws Exception {
+            final MonetaryCurrency currency = usDollars;
+            this.installments = LoanScheduleTestDataHelper.createSimpleLoanSchedule(july2nd, currency);
+            long installmentId = 1;
+            for (final LoanRepaymentScheduleInstallment installment : this.installments) {
+                assignId(installment, installmentId++);
+            }
+
+            this.transactions.add(repayment(disbursementDate.plusDays(10), "300.00"));
+            this.transactions.add(repayment(july2nd, "1000.00"));
+            this.transactions.add(repayment(july2nd.plusDays(20), "650.00"));
+
+            // process as they would originally have been posted
+            processor.handleTransaction(disbursementDate, this.transactions, currency, this.installments, this.charges);
+            long transactionId = 1;
+            for (final LoanTransaction transaction : this.transactions) {
+                assignId(transaction, transactionId++);
+            }
+            if (dropMappingsOfFirstTransaction) {
+                this.transactions.get(0).getLoanTransactionToRepaymentScheduleMappings().clear();
+            }
+
+            final LoanTransaction newTransaction = repayment(backdated, "400.00");
+            int position = 0;
+            while (position < this.transactions.size() && !this.transactions.get(position).getTransactionDate().isAfter(backdated)) {
+                position++;
+            }
+            this.transactions.add(position, newTransaction);
+        }
+
+        private LoanTransaction repayment(final LocalDate date, final String amount) {
+            return LoanTransaction.repayment(null, dollars(amount), null, date, null, new LocalDateTime(), null);
+        }
+    }
+}
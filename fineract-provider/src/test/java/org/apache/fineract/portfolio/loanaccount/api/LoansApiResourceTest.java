@@ -0,0 +1,185 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.fineract.commands.service.PortfolioCommandSourceWritePlatformService;
+import org.apache.fineract.infrastructure.codes.service.CodeValueReadPlatformService;
+import org.apache.fineract.infrastructure.core.api.ApiRequestParameterHelper;
+import org.apache.fineract.infrastructure.core.serialization.CommandProcessingResultJsonSerializer;
+import org.apache.fineract.infrastructure.core.serialization.DefaultToApiJsonSerializer;
+import org.apache.fineract.infrastructure.core.serialization.ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson;
+import org.apache.fineract.infrastructure.core.serialization.ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson;
+import org.apache.fineract.infrastructure.core.serialization.FromJsonHelper;
+import org.apache.fineract.infrastructure.core.serialization.GoogleGsonSerializerHelper;
+import org.apache.fineract.infrastructure.security.service.PlatformSecurityContext;
+import org.apache.fineract.portfolio.account.service.AccountAssociationsReadPlatformService;
+import org.apache.fineract.portfolio.account.service.PortfolioAccountReadPlatformService;
+import org.apache.fineract.portfolio.calendar.service.CalendarReadPlatformService;
+import org.apache.fineract.portfolio.charge.service.ChargeReadPlatformService;
+import org.apache.fineract.portfolio.collateral.service.CollateralReadPlatformService;
+import org.apache.fineract.portfolio.fund.service.FundReadPlatformService;
+import org.apache.fineract.portfolio.group.service.GroupReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.data.LoanAccountData;
+import org.apache.fineract.portfolio.loanaccount.data.LoanApprovalData;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTermVariationType;
+import org.apache.fineract.portfolio.loanaccount.guarantor.service.GuarantorReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.service.LoanScheduleCalculationPlatformService;
+import org.apache.fineract.portfolio.loanaccount.loanschedule.service.LoanScheduleHistoryReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanChargeReadPlatformService;
+import org.apache.fineract.portfolio.loanaccount.service.LoanReadPlatformService;
+import org.apache.fineract.portfolio.loanproduct.service.LoanDropdownReadPlatformService;
+import org.apache.fineract.portfolio.loanproduct.service.LoanProductReadPlatformService;
+import org.apache.fineract.portfolio.note.service.NoteReadPlatformServiceImpl;
+import org.apache.fineract.useradministration.domain.AppUser;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.sun.jersey.core.util.MultivaluedMapImpl;
+
+/**
+ * Counts the read service calls made for GET /loans/{loanId}, each of which
+ * runs at least one query, to show which lookups fields= and associations=
+ * leave out.
+ */
+public class LoansApiResourceTest {
+
+    private final AtomicInteger readServiceCalls = new AtomicInteger();
+    private LoanAccountData loan;
+    private LoanReadPlatformService loanReadPlatformService;
+    private GuarantorReadPlatformService guarantorReadPlatformService;
+    private LoansApiResource resource;
+
+    @Before
+    public void setUpResource() {
+        this.loan = Mockito.mock(LoanAccountData.class);
+        Mockito.when(this.loan.isMonthlyRepaymentFrequencyType()).thenReturn(true);
+
+        final Answer<Object> countingAnswer = new Answer<Object>() {
+
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                LoansApiResourceTest.this.readServiceCalls.incrementAndGet();
+                if (invocation.getMethod().getName().equals("retrieveOne")) { return LoansApiResourceTest.this.loan; }
+                return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        };
+
+        final PlatformSecurityContext context = Mockito.mock(PlatformSecurityContext.class);
+        Mockito.when(context.authenticatedUser()).thenReturn(Mockito.mock(AppUser.class));
+        this.loanReadPlatformService = Mockito.mock(LoanReadPlatformService.class, countingAnswer);
+        this.guarantorReadPlatformService = Mockito.mock(GuarantorReadPlatformService.class, countingAnswer);
+
+        this.resource = new LoansApiResource(context, this.loanReadPlatformService, Mockito.mock(
+                LoanProductReadPlatformService.class, countingAnswer), Mockito.mock(LoanDropdownReadPlatformService.class,
+                countingAnswer), Mockito.mock(FundReadPlatformService.class, countingAnswer), Mockito.mock(
+                ChargeReadPlatformService.class, countingAnswer), Mockito.mock(LoanChargeReadPlatformService.class, countingAnswer),
+                Mockito.mock(CollateralReadPlatformService.class, countingAnswer), Mockito.mock(
+                        LoanScheduleCalculationPlatformService.class, countingAnswer), this.guarantorReadPlatformService,
+                Mockito.mock(CodeValueReadPlatformService.class, countingAnswer), Mockito.mock(GroupReadPlatformService.class,
+                        countingAnswer), LoansApiResourceTest.<LoanAccountData> serializer(), LoansApiResourceTest
+                        .<LoanApprovalData> serializer(), LoansApiResourceTest.<LoanScheduleData> serializer(),
+                new ApiRequestParameterHelper(),
+                Mockito.mock(FromJsonHelper.class), Mockito.mock(PortfolioCommandSourceWritePlatformService.class), Mockito.mock(
+                        CalendarReadPlatformService.class, countingAnswer), Mockito.mock(NoteReadPlatformServiceImpl.class,
+                        countingAnswer), Mockito.mock(PortfolioAccountReadPlatformService.class, countingAnswer), Mockito.mock(
+                        AccountAssociationsReadPlatformService.class, countingAnswer), Mockito.mock(
+                        LoanScheduleHistoryReadPlatformService.class, countingAnswer));
+    }
+
+    @Test
+    public void runsEveryLookupWhenNoFieldsAreGiven() {
+        // account, loan calendar, interest rate periods, overdue charges and
+        // paid in advance
+        retrieveLoan(new MultivaluedMapImpl());
+
+        Assert.assertEquals(5, this.readServiceCalls.get());
+    }
+
+    @Test
+    public void answersPlainAccountFieldsWithTheAccountQueryAlone() {
+        Mockito.when(this.loan.isInterestRecalculationEnabled()).thenReturn(true);
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl();
+        queryParameters.putSingle("fields", "id,accountNo,status,summary");
+
+        retrieveLoan(queryParameters);
+
+        Assert.assertEquals(1, this.readServiceCalls.get());
+    }
+
+    @Test
+    public void narrowsAllAssociationsToTheRequestedFields() {
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl();
+        queryParameters.putSingle("associations", "all");
+        queryParameters.putSingle("fields", "id,summary,transactions");
+
+        retrieveLoan(queryParameters);
+
+        // account and transactions
+        Assert.assertEquals(2, this.readServiceCalls.get());
+        Mockito.verifyZeroInteractions(this.guarantorReadPlatformService);
+    }
+
+    @Test
+    public void loadsEmiAmountVariationsRequestedAsAField() {
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl();
+        queryParameters.putSingle("associations", "all");
+        queryParameters.putSingle("fields", "id,emiAmountVariations");
+
+        retrieveLoan(queryParameters);
+
+        // account and term variations
+        Assert.assertEquals(2, this.readServiceCalls.get());
+        Mockito.verify(this.loanReadPlatformService).retrieveLoanTermVariations(1L, LoanTermVariationType.EMI_AMOUNT.getValue());
+    }
+
+    @Test
+    public void loadsAssociationsNamedExplicitlyWhateverTheFields() {
+        final MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl();
+        queryParameters.putSingle("associations", "guarantors");
+        queryParameters.putSingle("fields", "id");
+
+        retrieveLoan(queryParameters);
+
+        Assert.assertEquals(2, this.readServiceCalls.get());
+        Mockito.verify(this.guarantorReadPlatformService).retrieveGuarantorsForLoan(1L);
+    }
+
+    // the serializers are final, so real ones are used
+    private static <T> DefaultToApiJsonSerializer<T> serializer() {
+        return new DefaultToApiJsonSerializer<>(new ExcludeNothingWithPrettyPrintingOffJsonSerializerGoogleGson(),
+                new ExcludeNothingWithPrettyPrintingOnJsonSerializerGoogleGson(), new CommandProcessingResultJsonSerializer(),
+                new GoogleGsonSerializerHelper());
+    }
+
+    private void retrieveLoan(final MultivaluedMap<String, String> queryParameters) {
+        final UriInfo uriInfo = Mockito.mock(UriInfo.class);
+        Mockito.when(uriInfo.getQueryParameters()).thenReturn(queryParameters);
+        this.resource.retrieveLoan(1L, false, uriInfo);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.loanaccount.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.portfolio.collectionsheet.command.CollectionSheetBulkRepaymentCommand;
+import org.apache.fineract.portfolio.collectionsheet.command.SingleRepaymentCommand;
+import org.apache.fineract.portfolio.loanaccount.data.HolidayDetailDTO;
+import org.apache.fineract.portfolio.loanaccount.domain.Loan;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanAccountDomainService;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanRepository;
+import org.apache.fineract.portfolio.loanaccount.domain.LoanTransaction;
+import org.apache.fineract.portfolio.paymentdetail.domain.PaymentDetail;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Covers the loading of the loans of a bulk repayment ahead of processing
+ * them. Collaborators the bulk repayment does not touch are mocked, or left
+ * null where their class is final.
+ */
+public class LoanWritePlatformServiceJpaRepositoryImplTest {
+
+    private static final LocalDate TRANSACTION_DATE = new LocalDate(2016, 5, 10);
+
+    private LoanRepository loanRepository;
+    private LoanAssembler loanAssembler;
+    private LoanAccountDomainService loanAccountDomainService;
+    private LoanWritePlatformServiceJpaRepositoryImpl loanWritePlatformService;
+
+    @Before
+    public void setUp() throws Exception {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.loanRepository = Mockito.mock(LoanRepository.class);
+        this.loanAssembler = Mockito.mock(LoanAssembler.class);
+        this.loanAccountDomainService = Mockito.mock(LoanAccountDomainService.class);
+
+        final Constructor<?> constructor = LoanWritePlatformServiceJpaRepositoryImpl.class.getConstructors()[0];
+        final Class<?>[] parameterTypes = constructor.getParameterTypes();
+        final Object[] collaborators = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i] == LoanRepository.class) {
+                collaborators[i] = this.loanRepository;
+            } else if (parameterTypes[i] == LoanAssembler.class) {
+                collaborators[i] = this.loanAssembler;
+            } else if (parameterTypes[i] == LoanAccountDomainService.class) {
+                collaborators[i] = this.loanAccountDomainService;
+            } else if (!Modifier.isFinal(parameterTypes[i].getModifiers())) {
+                collaborators[i] = Mockito.mock(parameterTypes[i]);
+            }
+        }
+        this.loanWritePlatformService = (LoanWritePlatformServiceJpaRepositoryImpl) constructor.newInstance(collaborators);
+
+        Mockito.when(this.loanRepository.findOne(Matchers.anyLong())).thenReturn(Mockito.mock(Loan.class));
+        Mockito.when(this.loanAssembler.assembleFrom(Matchers.anyLong())).thenReturn(Mockito.mock(Loan.class));
+        Mockito.when(
+                this.loanAccountDomainService.makeRepayment(Matchers.isA(Loan.class), Matchers.isA(CommandProcessingResultBuilder.class),
+                        Matchers.eq(TRANSACTION_DATE), Matchers.isA(BigDecimal.class), Matchers.<PaymentDetail> any(),
+                        Matchers.anyString(), Matchers.anyString(), Matchers.anyBoolean(), Matchers.anyBoolean(),
+                        Matchers.isA(HolidayDetailDTO.class), Matchers.anyBoolean())).thenReturn(repayment(41L), repayment(42L),
+                repayment(43L));
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void bulkRepaymentShouldLoadItsLoansWithOneQueryFirst() {
+        final Map<String, Object> changes = this.loanWritePlatformService.makeLoanBulkRepayment(bulkRepayment(1L, null, 2L, 1L));
+
+        final InOrder inOrder = Mockito.inOrder(this.loanRepository, this.loanAssembler);
+        inOrder.verify(this.loanRepository).findAll(Arrays.asList(1L, 2L));
+        inOrder.verify(this.loanAssembler, Mockito.times(3)).assembleFrom(Matchers.anyLong());
+        assertEquals(Arrays.asList(41L, 42L, 43L), changes.get("loanTransactions"));
+    }
+
+    @Test
+    public void bulkRepaymentOfOneLoanShouldNotPreload() {
+        this.loanWritePlatformService.makeLoanBulkRepayment(bulkRepayment(1L));
+
+        Mockito.verify(this.loanRepository, Mockito.never()).findAll(Matchers.anyListOf(Long.class));
+        Mockito.verify(this.loanAssembler).assembleFrom(1L);
+    }
+
+    private static CollectionSheetBulkRepaymentCommand bulkRepayment(final Long... loanIds) {
+        final SingleRepaymentCommand[] repayments = new SingleRepaymentCommand[loanIds.length];
+        for (int i = 0; i < loanIds.length; i++) {
+            if (loanIds[i] != null) {
+                repayments[i] = new SingleRepaymentCommand(loanIds[i], BigDecimal.TEN, TRANSACTION_DATE, null);
+            }
+        }
+        return new CollectionSheetBulkRepaymentCommand("note", TRANSACTION_DATE, repayments);
+    }
+
+    private static LoanTransaction repayment(final Long id) {
+        final LoanTransaction repayment = LoanTransaction.incomePosting(null, null, new Date(), BigDecimal.TEN, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, null);
+        ReflectionTestUtils.setField(repayment, "id", id);
+        return repayment;
+    }
+}
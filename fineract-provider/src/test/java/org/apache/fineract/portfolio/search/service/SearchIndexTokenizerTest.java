@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Test;
+
+public class SearchIndexTokenizerTest {
+
+    @Test
+    public void shouldIndexLowerCaseWordsOfAValue() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("mary", "o", "brien", "smith")),
+                SearchIndexTokenizer.indexTerms("Mary O'Brien-Smith"));
+    }
+
+    @Test
+    public void shouldIndexNumbersAlsoWithoutLeadingZeros() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("000000012", "12")), SearchIndexTokenizer.indexTerms("000000012"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("0000")), SearchIndexTokenizer.indexTerms("0000"));
+    }
+
+    @Test
+    public void queryTermsShouldBeMatchedAsTyped() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("jo", "000012")), SearchIndexTokenizer.queryTerms(" Jo  000012 %"));
+        assertTrue(SearchIndexTokenizer.queryTerms("%_").isEmpty());
+    }
+
+    @Test
+    public void onlyWordsOfLettersShouldBeComparedPhonetically() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("mary", "smith")), SearchIndexTokenizer.phoneticCandidates("Mary J Smith 2nd"));
+    }
+
+    @Test
+    public void wholeValueShouldBeTrimmedAndShortened() {
+        assertEquals("acme ltd", SearchIndexTokenizer.wholeValue("  ACME Ltd "));
+        assertNull(SearchIndexTokenizer.wholeValue(" "));
+
+        final StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            longValue.append("abcde");
+        }
+        assertEquals(SearchIndexTokenizer.MAX_TERM_LENGTH, SearchIndexTokenizer.wholeValue(longValue.toString()).length());
+    }
+}
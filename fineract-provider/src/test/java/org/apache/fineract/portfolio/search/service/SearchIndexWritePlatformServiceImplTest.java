@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.portfolio.search.service;
+
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResult;
+import org.apache.fineract.infrastructure.core.data.CommandProcessingResultBuilder;
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class SearchIndexWritePlatformServiceImplTest {
+
+    private static final Long CLIENT_ID = Long.valueOf(5);
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private SearchIndexWritePlatformServiceImpl indexService;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        this.transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(this.transactionManager.getTransaction(Matchers.any(TransactionDefinition.class))).thenReturn(
+                Mockito.mock(TransactionStatus.class));
+        this.indexService = new SearchIndexWritePlatformServiceImpl(this.jdbcTemplate, Mockito.mock(PartitionedJobExecutor.class),
+                Mockito.mock(JobCheckpointService.class), new TransactionTemplate(this.transactionManager));
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void clientShouldBeReindexedOnlyOnceTheCommandCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.indexService.updateIndexFor("CLIENT", "UPDATE", clientResult());
+        Mockito.verifyZeroInteractions(this.jdbcTemplate);
+
+        afterCommit();
+        Mockito.verify(this.jdbcTemplate).update(Matchers.startsWith("delete from m_search_term"), Matchers.eq("CLIENT"),
+                Matchers.eq(CLIENT_ID));
+        Mockito.verify(this.transactionManager).getTransaction(
+                Matchers.argThat(new PropagationMatcher(TransactionDefinition.PROPAGATION_REQUIRES_NEW)));
+    }
+
+    @Test
+    public void failedReindexShouldBeRolledBackAndMarkTheIndexStaleInItsOwnTransaction() {
+        Mockito.when(this.jdbcTemplate.update(Matchers.startsWith("delete from m_search_term"), Matchers.<Object> anyVararg())).thenThrow(
+                new DeadlockLoserDataAccessException("deadlock", null));
+        TransactionSynchronizationManager.initSynchronization();
+
+        this.indexService.updateIndexFor("CLIENT", "UPDATE", clientResult());
+        afterCommit();
+
+        final InOrder inOrder = Mockito.inOrder(this.transactionManager, this.jdbcTemplate);
+        inOrder.verify(this.transactionManager).rollback(Matchers.any(TransactionStatus.class));
+        inOrder.verify(this.transactionManager).getTransaction(Matchers.any(TransactionDefinition.class));
+        inOrder.verify(this.jdbcTemplate).update(Matchers.startsWith("update m_search_index_state"), Matchers.<Object> anyVararg());
+        inOrder.verify(this.transactionManager).commit(Matchers.any(TransactionStatus.class));
+    }
+
+    private static CommandProcessingResult clientResult() {
+        return new CommandProcessingResultBuilder().withClientId(CLIENT_ID).build();
+    }
+
+    private static void afterCommit() {
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+    }
+
+    private static final class PropagationMatcher extends ArgumentMatcher<TransactionDefinition> {
+
+        private final int propagationBehavior;
+
+        PropagationMatcher(final int propagationBehavior) {
+            this.propagationBehavior = propagationBehavior;
+        }
+
+        @Override
+        public boolean matches(final Object definition) {
+            return ((TransactionDefinition) definition).getPropagationBehavior() == this.propagationBehavior;
+        }
+    }
+}
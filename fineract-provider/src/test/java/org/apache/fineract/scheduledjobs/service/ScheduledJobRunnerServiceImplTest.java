@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.scheduledjobs.service;
+
+import java.util.Date;
+
+import org.apache.fineract.infrastructure.core.domain.FineractPlatformTenant;
+import org.apache.fineract.infrastructure.core.service.RoutingDataSource;
+import org.apache.fineract.infrastructure.core.service.ThreadLocalContextUtil;
+import org.apache.fineract.infrastructure.jobs.service.CollectedJobPartitionSource;
+import org.apache.fineract.infrastructure.jobs.service.JobCheckpointService;
+import org.apache.fineract.infrastructure.jobs.service.JobName;
+import org.apache.fineract.infrastructure.jobs.service.JobPartitionTask;
+import org.apache.fineract.infrastructure.jobs.service.PartitionedJobExecutor;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+public class ScheduledJobRunnerServiceImplTest {
+
+    private final Date interruptedRunStart = new Date(1000L);
+
+    private JobCheckpointService jobCheckpointService;
+    private PartitionedJobExecutor partitionedJobExecutor;
+    private ScheduledJobRunnerServiceImpl scheduledJobRunnerService;
+
+    @Before
+    public void setUp() {
+        ThreadLocalContextUtil.setTenant(new FineractPlatformTenant(1L, "default", "Default", "Asia/Kolkata", null));
+        this.jobCheckpointService = Mockito.mock(JobCheckpointService.class);
+        this.partitionedJobExecutor = Mockito.mock(PartitionedJobExecutor.class);
+        Mockito.when(this.jobCheckpointService.startIncrementalRun(Matchers.eq(JobName.UPDATE_LOAN_SUMMARY), Matchers.any(LocalDate.class)))
+                .thenReturn(this.interruptedRunStart);
+        this.scheduledJobRunnerService = new ScheduledJobRunnerServiceImpl(null, null, null, null, null, null, null,
+                Mockito.mock(RoutingDataSource.class), this.partitionedJobExecutor, this.jobCheckpointService);
+    }
+
+    @After
+    public void tearDown() {
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void incrementalRunShouldOnlyVisitChangedLoansAndKeepTheRunStartAsWatermark() throws Exception {
+        Mockito.when(this.jobCheckpointService.retrieveChangeWatermark(JobName.UPDATE_LOAN_SUMMARY)).thenReturn(new Date(500L));
+
+        this.scheduledJobRunnerService.updateLoanSummaryDetails();
+
+        Mockito.verify(this.partitionedJobExecutor).execute(Matchers.eq(JobName.UPDATE_LOAN_SUMMARY),
+                Matchers.isA(CollectedJobPartitionSource.class), Matchers.any(JobPartitionTask.class));
+        Mockito.verify(this.jobCheckpointService).updateChangeWatermark(JobName.UPDATE_LOAN_SUMMARY, this.interruptedRunStart);
+    }
+
+    @Test
+    public void firstRunShouldVisitEveryDisbursedLoan() throws Exception {
+        this.scheduledJobRunnerService.updateLoanSummaryDetails();
+
+        Mockito.verify(this.partitionedJobExecutor).execute(Matchers.eq(JobName.UPDATE_LOAN_SUMMARY),
+                AdditionalMatchers.not(Matchers.isA(CollectedJobPartitionSource.class)), Matchers.any(JobPartitionTask.class));
+        Mockito.verify(this.jobCheckpointService).updateChangeWatermark(JobName.UPDATE_LOAN_SUMMARY, this.interruptedRunStart);
+    }
+}